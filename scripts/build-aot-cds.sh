@@ -0,0 +1,25 @@
+#!/usr/bin/env bash
+#
+# Builds the AOT-processed jar (with the "aot" Maven profile), then generates a CDS archive for it with a training run,
+# which starts the app up to the point the application context is refreshed, then exits.
+#
+# The training run connects to MongoDB like a normal startup, so set SPRING_DATA_MONGODB_URI etc. as you would to run
+# the app. Build with the same Spring profiles the app will run with, as AOT fixes the beans at build time.
+#
+# Usage: scripts/build-aot-cds.sh [extra Maven args...]
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+./mvnw -B -Paot clean package -DskipTests "$@"
+
+JAR=$(ls target/snookerup-rest-*.jar | grep -v -- '-exec.jar$')
+
+java -XX:ArchiveClassesAtExit=target/app.jsa \
+    -Dspring.aot.enabled=true \
+    -Dspring.context.exit=onRefresh \
+    -jar "$JAR"
+
+echo "Built $JAR and target/app.jsa. Run with:"
+echo "  java -XX:SharedArchiveFile=target/app.jsa -Dspring.aot.enabled=true -jar $JAR"
@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+#
+# Compares startup time of the plain fat jar with the AOT-processed jar using the CDS archive, measured as the time from
+# launching the JVM to the first successful request (GET /api/v1/routines). Each is started and stopped the given number
+# of times, and the time for each run is printed.
+#
+# Build both first, with "./mvnw package" (copying target/snookerup-rest-*.jar somewhere as the fat jar) and
+# scripts/build-aot-cds.sh. MongoDB must be reachable, as for running the app.
+#
+# Usage: scripts/startup-benchmark.sh <fat jar> [runs]
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+FAT_JAR=${1:?Usage: $0 <fat jar> [runs]}
+RUNS=${2:-5}
+PORT=${SERVER_PORT:-8080}
+URL="http://localhost:$PORT/api/v1/routines"
+AOT_JAR=$(ls target/snookerup-rest-*.jar | grep -v -- '-exec.jar$')
+
+# Start the app with the given args, and print the milliseconds until the first successful request
+time_to_first_request() {
+    local start end pid
+    start=$(date +%s%N)
+    java "$@" > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "App exited before serving a request" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    end=$(date +%s%N)
+    kill "$pid"
+    wait "$pid" || true
+    echo $(( (end - start) / 1000000 ))
+}
+
+for i in $(seq "$RUNS"); do
+    echo "fat jar run $i: $(time_to_first_request -jar "$FAT_JAR") ms"
+done
+for i in $(seq "$RUNS"); do
+    echo "AOT + CDS run $i: $(time_to_first_request -XX:SharedArchiveFile=target/app.jsa \
+        -Dspring.aot.enabled=true -jar "$AOT_JAR") ms"
+done
@@ -0,0 +1,13 @@
+package com.huwdunnit.snookeruprest.archive;
+
+import com.huwdunnit.snookeruprest.model.ScorePage;
+
+/**
+ * A page of a user's archived scores.
+ *
+ * @param scores The archived scores on the page, ordered by date/time
+ * @param totalCount The total number of archived scores matching the query, across all pages
+ * @author Huwdunnit
+ */
+public record ArchivedScorePage(ScorePage scores, long totalCount) {
+}
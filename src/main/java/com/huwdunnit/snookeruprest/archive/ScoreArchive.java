@@ -0,0 +1,581 @@
+package com.huwdunnit.snookeruprest.archive;
+
+import com.huwdunnit.snookeruprest.config.ScoreArchiveProperties;
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.db.ScoreArchiveSummaryRepository;
+import com.huwdunnit.snookeruprest.model.PersonalBest;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.ScoreArchiveLock;
+import com.huwdunnit.snookeruprest.model.ScoreArchiveSummary;
+import com.huwdunnit.snookeruprest.model.ScoreArchiveSummary.ConfigurationBest;
+import com.huwdunnit.snookeruprest.model.ScorePage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Provides access to scores that have been archived out of MongoDB, into files on local disk (one file per user per
+ * month).
+ *
+ * Archived scores can be found and deleted by ID, using the score IDs kept in each month's summary, and deleted in
+ * bulk with the same filters as queries. Deleting scores rewrites their month's file without them. Changes to a user's files are made under a lock on the user's archive, so
+ * archiving more scores and deleting archived scores don't overwrite each other's changes.
+ *
+ * @author Huwdunnit
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ScoreArchive {
+
+    static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private static final String FILE_EXTENSION = ".scores";
+
+    /** How long to wait between attempts to lock a user's archive. */
+    private static final long LOCK_RETRY_MILLIS = 20;
+
+    private final ScoreArchiveProperties properties;
+
+    private final ScoreArchiveSummaryRepository summaryRepository;
+
+    private final MongoTemplate mongoTemplate;
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Get the archive cut-off, i.e. scores before this date/time are archived. This is the start of the month that
+     * the configured max age falls in, so only whole months are archived.
+     * @return The archive cut-off
+     */
+    public LocalDateTime getCutoff() {
+        LocalDateTime maxAgeDateTime = LocalDateTime.now().minus(properties.getMaxAge());
+        return YearMonth.from(maxAgeDateTime).atDay(1).atStartOfDay();
+    }
+
+    /**
+     * Check whether a query from the provided date may include archived scores.
+     * @param from The date/time the query is for scores from. Can be empty, meaning all scores.
+     * @return true if archiving is enabled and the query reaches back before the archive cut-off
+     */
+    public boolean reachesIntoArchive(Optional<LocalDateTime> from) {
+        return isEnabled() && (from.isEmpty() || from.get().isBefore(getCutoff()));
+    }
+
+    /**
+     * Find archived scores for a user a month at a time, with the same optional filters as queries on the live Score
+     * collection. Each month is only read when the iterator reaches it, so callers that process the scores as they go
+     * only hold one month's scores at once.
+     * @param userId User ID
+     * @param from Date/time to get scores from. Can be empty.
+     * @param to Date/time to get scores up to. Can be empty.
+     * @param routineId Routine ID. Can be empty.
+     * @param cushionLimit The cushion limit on the score. Can be empty.
+     * @param colours Any colours restraints applied to the score. Can be empty.
+     * @param numBalls The configured number of balls applied to the routine. Can be empty.
+     * @param loop Specifies whether this score is with looping of the routine. Can be empty.
+     * @return An iterator over each archived month's matching scores (which may be none), in month order, with the
+     *         scores in each month ordered by date/time
+     */
+    public Iterator<ScorePage> findScoresByMonth(String userId,
+                                                 Optional<LocalDateTime> from,
+                                                 Optional<LocalDateTime> to,
+                                                 Optional<String> routineId,
+                                                 Optional<Integer> cushionLimit,
+                                                 Optional<String> colours,
+                                                 Optional<Integer> numBalls,
+                                                 Optional<Boolean> loop) {
+        Iterator<ScoreArchiveSummary> summaries = findSummaries(userId, from, to).iterator();
+        Predicate<Score> filter = createFilter(from, to, routineId, cushionLimit, colours, numBalls, loop);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return summaries.hasNext();
+            }
+
+            @Override
+            public ScorePage next() {
+                ScoreArchiveSummary summary = summaries.next();
+                ScorePage.Builder monthScores = new ScorePage.Builder(summary.getScoreCount());
+                for (Score score : readMonth(userId, summary.getMonth())) {
+                    if (filter.test(score)) {
+                        monthScores.add(score);
+                    }
+                }
+                return monthScores.build().sortedByDateTime();
+            }
+        };
+    }
+
+    /**
+     * Find a user's best archived score on a routine and configuration. Each month's summary keeps the best score on
+     * each configuration in the month, so months are only read if their summary doesn't have it (i.e. it was archived
+     * before these were kept), or if their best is one of the excluded scores.
+     * @param userId User ID
+     * @param routineId Routine ID
+     * @param cushionLimit The cushion limit, or null for scores without one
+     * @param colours The colours, or null for scores without them
+     * @param numBalls The number of balls, or null for scores without it
+     * @param loop Whether the scores are with looping of the routine
+     * @param excludedScoreIds IDs of scores to ignore
+     * @return The best archived score (the earliest, if more than one has the best value), or empty if archiving is
+     *         disabled or there are no other matching archived scores. Only the ID, value and date/time are set.
+     */
+    public Optional<Score> findBestScore(String userId,
+                                         String routineId,
+                                         Integer cushionLimit,
+                                         String colours,
+                                         Integer numBalls,
+                                         boolean loop,
+                                         Collection<String> excludedScoreIds) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        String configurationId = PersonalBest.createId(userId, routineId, cushionLimit, colours, numBalls, loop);
+
+        Score best = null;
+        int monthsRead = 0;
+        for (ScoreArchiveSummary summary : findSummaries(userId, Optional.empty(), Optional.empty())) {
+            Optional<ConfigurationBest> monthBest = summary.getConfigurationBests() == null ? Optional.empty()
+                    : summary.getConfigurationBests().stream()
+                            .filter(configurationBest -> configurationId.equals(configurationBest.getConfigurationId()))
+                            .findFirst();
+            if (summary.getConfigurationBests() != null && monthBest.isEmpty()) {
+                // Not scored on in this month
+                continue;
+            }
+            if (monthBest.isPresent() && !excludedScoreIds.contains(monthBest.get().getScoreId())) {
+                if (isBetter(monthBest.get().getValue(), best)) {
+                    best = toScore(monthBest.get());
+                }
+                continue;
+            }
+
+            monthsRead++;
+            for (Score score : readMonth(userId, summary.getMonth())) {
+                if (configurationId.equals(getConfigurationId(score)) && !excludedScoreIds.contains(score.getId())
+                        && isBetter(score.getValue(), best)) {
+                    best = score;
+                }
+            }
+        }
+
+        log.debug("Found best archived score for configurationId={}, read {} months", configurationId, monthsRead);
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Find a page of archived scores for a user, with the same optional filters as queries on the live Score
+     * collection.
+     *
+     * Where the month summaries give the number of matching scores in a month (i.e. the query has no filters other
+     * than the date range, and the range covers the whole month), months before or after the page are counted
+     * without being read. Otherwise, each month has to be read to count its matching scores.
+     * @param userId User ID
+     * @param from Date/time to get scores from. Can be empty.
+     * @param to Date/time to get scores up to. Can be empty.
+     * @param routineId Routine ID. Can be empty.
+     * @param cushionLimit The cushion limit on the score. Can be empty.
+     * @param colours Any colours restraints applied to the score. Can be empty.
+     * @param numBalls The configured number of balls applied to the routine. Can be empty.
+     * @param loop Specifies whether this score is with looping of the routine. Can be empty.
+     * @param offset The number of matching scores to skip
+     * @param limit The maximum number of scores on the page
+     * @return The page of matching archived scores, and the total number of matching archived scores
+     */
+    public ArchivedScorePage findScorePage(String userId,
+                                           Optional<LocalDateTime> from,
+                                           Optional<LocalDateTime> to,
+                                           Optional<String> routineId,
+                                           Optional<Integer> cushionLimit,
+                                           Optional<String> colours,
+                                           Optional<Integer> numBalls,
+                                           Optional<Boolean> loop,
+                                           long offset,
+                                           int limit) {
+        List<ScoreArchiveSummary> summaries = findSummaries(userId, from, to);
+        Predicate<Score> filter = createFilter(from, to, routineId, cushionLimit, colours, numBalls, loop);
+        boolean filteredOnScoreFields = routineId.isPresent() || cushionLimit.isPresent() || colours.isPresent()
+                || numBalls.isPresent() || loop.isPresent();
+
+        ScorePage.Builder pageScores = new ScorePage.Builder(limit);
+        long pageEnd = offset + limit;
+        long totalCount = 0;
+        int monthsRead = 0;
+        for (ScoreArchiveSummary summary : summaries) {
+            boolean countKnown = !filteredOnScoreFields && coversMonth(summary, from, to);
+            if (countKnown && (totalCount + summary.getScoreCount() <= offset || totalCount >= pageEnd)) {
+                // The whole month is before or after the page, so it only needs counting
+                totalCount += summary.getScoreCount();
+                continue;
+            }
+
+            monthsRead++;
+            for (Score score : readMonth(userId, summary.getMonth())) {
+                if (filter.test(score)) {
+                    if (totalCount >= offset && totalCount < pageEnd) {
+                        pageScores.add(score);
+                    }
+                    totalCount++;
+                }
+            }
+        }
+
+        log.debug("Found {} archived scores for userId={}, read {} of {} months", totalCount, userId, monthsRead,
+                summaries.size());
+        return new ArchivedScorePage(pageScores.build(), totalCount);
+    }
+
+    /**
+     * Find an archived score by its ID.
+     * @param scoreId Score ID
+     * @return The archived score, or empty if archiving is disabled or no archived score has the ID
+     */
+    public Optional<Score> findScoreById(String scoreId) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        return summaryRepository.findFirstByScoreIds(scoreId).flatMap(summary ->
+                readMonth(summary.getUserId(), summary.getMonth()).stream()
+                        .filter(score -> scoreId.equals(score.getId()))
+                        .findFirst());
+    }
+
+    /**
+     * Delete an archived score by its ID, rewriting the archive file for its month without it.
+     * @param scoreId Score ID
+     * @param userId Only delete the score if it belongs to this user. Can be empty, to delete any user's score.
+     * @return The deleted score, or empty if archiving is disabled or there's no matching archived score
+     */
+    public Optional<Score> deleteScoreById(String scoreId, Optional<String> userId) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        return summaryRepository.findFirstByScoreIds(scoreId)
+                .filter(summary -> userId.isEmpty() || userId.get().equals(summary.getUserId()))
+                .flatMap(summary -> removeScores(summary.getUserId(), summary.getMonth(), Set.of(scoreId)).stream()
+                        .findFirst());
+    }
+
+    /**
+     * Add scores to the archive file for a user and month, merging them with any scores already archived for the
+     * month (de-duplicating by ID, so re-adding scores is safe), and update the month's summary.
+     * @param userId User ID
+     * @param month The month, in the form "yyyy-MM"
+     * @param scoresToAdd The scores to add, which should all be for the user and month
+     */
+    public void addScores(String userId, String month, List<Score> scoresToAdd) {
+        withArchiveLocked(userId, () -> {
+            Map<String, Score> scoresById = new LinkedHashMap<>();
+            for (Score score : readMonth(userId, month)) {
+                scoresById.put(score.getId(), score);
+            }
+            for (Score score : scoresToAdd) {
+                scoresById.put(score.getId(), score);
+            }
+            writeMonth(userId, month, new ArrayList<>(scoresById.values()));
+            return null;
+        });
+    }
+
+    /**
+     * Remove scores from the archive file for a user and month, and update the month's summary. If no scores are left
+     * in the month, its file and summary are deleted.
+     * @param userId User ID
+     * @param month The month, in the form "yyyy-MM"
+     * @param scoreIds The IDs of the scores to remove
+     * @return The removed scores, i.e. those archived in the month with one of the provided IDs
+     */
+    public List<Score> removeScores(String userId, String month, Set<String> scoreIds) {
+        return removeMatchingScores(userId, month, score -> scoreIds.contains(score.getId()));
+    }
+
+    /**
+     * Delete a user's archived scores matching the same optional filters as queries on the live Score collection,
+     * rewriting the file for each month with matching scores without them. Months are read and rewritten one at a
+     * time, so only one month's scores are in memory at once.
+     * @param userId User ID
+     * @param from Date/time to delete scores from. Can be empty.
+     * @param to Date/time to delete scores up to. Can be empty.
+     * @param routineId Routine ID. Can be empty.
+     * @param cushionLimit The cushion limit on the score. Can be empty.
+     * @param colours Any colours restraints applied to the score. Can be empty.
+     * @param numBalls The configured number of balls applied to the routine. Can be empty.
+     * @param loop Specifies whether this score is with looping of the routine. Can be empty.
+     * @param onMonthDeleted Called with the scores deleted from each month, once its file has been rewritten
+     * @return The number of archived scores deleted, which is 0 if archiving is disabled
+     */
+    public long deleteScores(String userId,
+                             Optional<LocalDateTime> from,
+                             Optional<LocalDateTime> to,
+                             Optional<String> routineId,
+                             Optional<Integer> cushionLimit,
+                             Optional<String> colours,
+                             Optional<Integer> numBalls,
+                             Optional<Boolean> loop,
+                             Consumer<List<Score>> onMonthDeleted) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        Predicate<Score> filter = createFilter(from, to, routineId, cushionLimit, colours, numBalls, loop);
+
+        long deletedCount = 0;
+        for (ScoreArchiveSummary summary : findSummaries(userId, from, to)) {
+            List<Score> deletedScores = removeMatchingScores(userId, summary.getMonth(), filter);
+            if (!deletedScores.isEmpty()) {
+                deletedCount += deletedScores.size();
+                onMonthDeleted.accept(deletedScores);
+            }
+        }
+
+        log.debug("Deleted {} archived scores for userId={}", deletedCount, userId);
+        return deletedCount;
+    }
+
+    private List<Score> removeMatchingScores(String userId, String month, Predicate<Score> filter) {
+        return withArchiveLocked(userId, () -> {
+            List<Score> remainingScores = new ArrayList<>();
+            List<Score> removedScores = new ArrayList<>();
+            for (Score score : readMonth(userId, month)) {
+                (filter.test(score) ? removedScores : remainingScores).add(score);
+            }
+            if (!removedScores.isEmpty()) {
+                writeMonth(userId, month, remainingScores);
+                log.debug("Removed {} archived scores for userId={}, month={}", removedScores.size(), userId, month);
+            }
+            return removedScores;
+        });
+    }
+
+    /**
+     * Write the archive file for a user and month, replacing any existing file, and its summary. Must be called while
+     * holding the lock on the user's archive.
+     */
+    private void writeMonth(String userId, String month, List<Score> scores) {
+        Path path = getArchivePath(userId, month);
+        String summaryId = ScoreArchiveSummary.createId(userId, month);
+        try {
+            if (scores.isEmpty()) {
+                summaryRepository.deleteById(summaryId);
+                Files.deleteIfExists(path);
+                return;
+            }
+            scores.sort(Comparator.comparing(Score::getDateTime).thenComparing(Score::getId));
+            ScoreArchiveFile.write(path, scores);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write score archive " + path, ex);
+        }
+
+        ScoreArchiveSummary summary = new ScoreArchiveSummary();
+        summary.setId(summaryId);
+        summary.setUserId(userId);
+        summary.setMonth(month);
+        summary.setScoreCount(scores.size());
+        summary.setBestValue(scores.stream().mapToInt(Score::getValue).max().orElse(0));
+        summary.setTotalValue(scores.stream().mapToLong(Score::getValue).sum());
+        summary.setFirstDateTime(scores.get(0).getDateTime());
+        summary.setLastDateTime(scores.get(scores.size() - 1).getDateTime());
+        summary.setScoreIds(scores.stream().map(Score::getId).toList());
+        summary.setConfigurationBests(findConfigurationBests(scores));
+        summary.setArchivedAt(LocalDateTime.now());
+        summaryRepository.save(summary);
+    }
+
+    /**
+     * Find the best of the provided scores on each routine and configuration.
+     * @param scores The scores, in date/time order, so the earliest of equal bests is kept
+     */
+    private static List<ConfigurationBest> findConfigurationBests(List<Score> scores) {
+        Map<String, Score> bestScores = new LinkedHashMap<>();
+        for (Score score : scores) {
+            bestScores.merge(getConfigurationId(score), score,
+                    (bestSoFar, candidate) -> isBetter(candidate.getValue(), bestSoFar) ? candidate : bestSoFar);
+        }
+        return bestScores.entrySet().stream().map(entry -> {
+            ConfigurationBest configurationBest = new ConfigurationBest();
+            configurationBest.setConfigurationId(entry.getKey());
+            configurationBest.setScoreId(entry.getValue().getId());
+            configurationBest.setValue(entry.getValue().getValue());
+            configurationBest.setDateTime(entry.getValue().getDateTime());
+            return configurationBest;
+        }).toList();
+    }
+
+    private static String getConfigurationId(Score score) {
+        return PersonalBest.createId(score.getUserId(), score.getRoutineId(), score.getCushionLimit(),
+                score.getColours(), score.getNumBalls(), score.isLoop());
+    }
+
+    /**
+     * Check whether a score value is better than the best so far. Only a strictly higher value is better, so the
+     * earliest of equal scores stays the best when scores are checked in date/time order.
+     */
+    private static boolean isBetter(int value, Score bestSoFar) {
+        return bestSoFar == null || value > bestSoFar.getValue();
+    }
+
+    private static Score toScore(ConfigurationBest configurationBest) {
+        Score score = new Score();
+        score.setId(configurationBest.getScoreId());
+        score.setValue(configurationBest.getValue());
+        score.setDateTime(configurationBest.getDateTime());
+        return score;
+    }
+
+    /**
+     * Run a change to a user's archive files, while holding the lock on them.
+     * @throws IllegalStateException If the lock can't be taken within the configured wait
+     */
+    private <T> T withArchiveLocked(String userId, Supplier<T> archiveUpdate) {
+        String lockOwner = IdGenerator.createNewId();
+        long deadlineNanos = System.nanoTime() + properties.getLockWait().toNanos();
+        while (!tryLock(userId, lockOwner)) {
+            if (System.nanoTime() >= deadlineNanos) {
+                throw new IllegalStateException("Timed out waiting to change score archive for userId=" + userId);
+            }
+            try {
+                Thread.sleep(LOCK_RETRY_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting to change score archive for userId=" + userId,
+                        ex);
+            }
+        }
+
+        try {
+            return archiveUpdate.get();
+        } finally {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId).and("lockOwner").is(lockOwner)),
+                    new Update().unset("lockExpiresAt"), ScoreArchiveLock.class);
+        }
+    }
+
+    /**
+     * Take the lock on a user's archive, if no other change has it.
+     * @return true if the lock is now held by the given owner
+     */
+    private boolean tryLock(String userId, String lockOwner) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(Criteria.where("_id").is(userId)
+                .orOperator(Criteria.where("lockExpiresAt").is(null), Criteria.where("lockExpiresAt").lt(now)));
+        Update update = new Update()
+                .set("lockOwner", lockOwner)
+                .set("lockExpiresAt", now.plus(properties.getLockLease()));
+        try {
+            return mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), ScoreArchiveLock.class) != null;
+        } catch (DuplicateKeyException ex) {
+            // The lock exists, but didn't match, so another change has it
+            return false;
+        }
+    }
+
+    private List<ScoreArchiveSummary> findSummaries(String userId, Optional<LocalDateTime> from,
+                                                    Optional<LocalDateTime> to) {
+        String fromMonth = from.map(MONTH_FORMAT::format).orElse("0000-00");
+        String toMonth = to.map(MONTH_FORMAT::format).orElse("9999-99");
+        return summaryRepository.findByUserIdAndMonthBetweenOrderByMonth(userId, Range.closed(fromMonth, toMonth));
+    }
+
+    /**
+     * Check whether every score in an archived month is within the provided date range.
+     */
+    private static boolean coversMonth(ScoreArchiveSummary summary, Optional<LocalDateTime> from,
+                                       Optional<LocalDateTime> to) {
+        LocalDateTime first = summary.getFirstDateTime();
+        LocalDateTime last = summary.getLastDateTime();
+        return (from.isEmpty() || (first != null && !first.isBefore(from.get())))
+                && (to.isEmpty() || (last != null && !last.isAfter(to.get())));
+    }
+
+    private static Predicate<Score> createFilter(Optional<LocalDateTime> from,
+                                                 Optional<LocalDateTime> to,
+                                                 Optional<String> routineId,
+                                                 Optional<Integer> cushionLimit,
+                                                 Optional<String> colours,
+                                                 Optional<Integer> numBalls,
+                                                 Optional<Boolean> loop) {
+        return score -> (from.isEmpty() || !score.getDateTime().isBefore(from.get()))
+                && (to.isEmpty() || !score.getDateTime().isAfter(to.get()))
+                && (routineId.isEmpty() || routineId.get().equals(score.getRoutineId()))
+                && (cushionLimit.isEmpty() || cushionLimit.get().equals(score.getCushionLimit()))
+                && (colours.isEmpty() || colours.get().equals(score.getColours()))
+                && (numBalls.isEmpty() || numBalls.get().equals(score.getNumBalls()))
+                && (loop.isEmpty() || loop.get() == score.isLoop());
+    }
+
+    /**
+     * Read all archived scores for a user in a month.
+     * @param userId User ID
+     * @param month The month, in the form "yyyy-MM"
+     * @return The archived scores, or an empty list if there are none
+     */
+    List<Score> readMonth(String userId, String month) {
+        Path path = getArchivePath(userId, month);
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+        try {
+            return ScoreArchiveFile.read(path, userId);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read score archive " + path, ex);
+        }
+    }
+
+    /**
+     * Delete all archive files for a user.
+     * @param userId User ID
+     * @return The number of archive files deleted
+     */
+    public int deleteUserArchives(String userId) {
+        Path userDirectory = Path.of(properties.getDirectory(), userId);
+        if (!Files.isDirectory(userDirectory)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(userDirectory)) {
+            int deleted = 0;
+            for (Path file : files.toList()) {
+                Files.delete(file);
+                deleted++;
+            }
+            Files.delete(userDirectory);
+            return deleted;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to delete score archives in " + userDirectory, ex);
+        }
+    }
+
+    Path getArchivePath(String userId, String month) {
+        return Path.of(properties.getDirectory(), userId, month + FILE_EXTENSION);
+    }
+}
@@ -0,0 +1,244 @@
+package com.huwdunnit.snookeruprest.archive;
+
+import com.huwdunnit.snookeruprest.model.Score;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Reads and writes archive files of scores, stored in a compressed, columnar format.
+ *
+ * Each file holds the scores for one user in one month, so the user ID isn't stored per score. Values of each field
+ * are stored together in a column, and each column is compressed separately with Deflate. Columns of repetitive
+ * strings (i.e. routine IDs and colours) are dictionary encoded, storing each distinct string once, followed by an
+ * index into the dictionary per score.
+ *
+ * The file layout is:
+ * <pre>
+ *   int magic, int version, int rowCount
+ *   then per column: int compressedLength, int uncompressedLength, byte[compressedLength] data
+ * </pre>
+ *
+ * Files are read with memory-mapped I/O, so reads don't copy the compressed file contents onto the heap.
+ *
+ * @author Huwdunnit
+ */
+public final class ScoreArchiveFile {
+
+    private static final int MAGIC = 0x53434152; // "SCAR"
+
+    private static final int VERSION = 1;
+
+    /** Marks a null value in an int column, or a null dictionary index. */
+    private static final int NULL_INT = Integer.MIN_VALUE;
+
+    private ScoreArchiveFile() {
+    }
+
+    /**
+     * Write the provided scores to an archive file, replacing any existing file. The file is written to a temporary
+     * file first, then moved into place, so readers never see a partially written file.
+     * @param path The path of the archive file to write
+     * @param scores The scores to write, which should all be for the same user
+     * @throws IOException If the file can't be written
+     */
+    public static void write(Path path, List<Score> scores) throws IOException {
+        int rowCount = scores.size();
+        ByteArrayOutputStream ids = new ByteArrayOutputStream();
+        ByteArrayOutputStream values = new ByteArrayOutputStream();
+        ByteArrayOutputStream routineIds = new ByteArrayOutputStream();
+        ByteArrayOutputStream dateTimes = new ByteArrayOutputStream();
+        ByteArrayOutputStream cushionLimits = new ByteArrayOutputStream();
+        ByteArrayOutputStream colours = new ByteArrayOutputStream();
+        ByteArrayOutputStream numBalls = new ByteArrayOutputStream();
+        ByteArrayOutputStream loops = new ByteArrayOutputStream();
+
+        try (DataOutputStream idsOut = new DataOutputStream(ids);
+             DataOutputStream valuesOut = new DataOutputStream(values);
+             DataOutputStream dateTimesOut = new DataOutputStream(dateTimes);
+             DataOutputStream cushionLimitsOut = new DataOutputStream(cushionLimits);
+             DataOutputStream numBallsOut = new DataOutputStream(numBalls);
+             DataOutputStream loopsOut = new DataOutputStream(loops)) {
+            List<String> routineIdValues = new ArrayList<>(rowCount);
+            List<String> colourValues = new ArrayList<>(rowCount);
+            for (Score score : scores) {
+                writeString(idsOut, score.getId());
+                valuesOut.writeInt(score.getValue());
+                dateTimesOut.writeLong(score.getDateTime().toEpochSecond(ZoneOffset.UTC));
+                cushionLimitsOut.writeInt(score.getCushionLimit() == null ? NULL_INT : score.getCushionLimit());
+                numBallsOut.writeInt(score.getNumBalls() == null ? NULL_INT : score.getNumBalls());
+                loopsOut.writeBoolean(score.isLoop());
+                routineIdValues.add(score.getRoutineId());
+                colourValues.add(score.getColours());
+            }
+            writeDictionaryColumn(routineIds, routineIdValues);
+            writeDictionaryColumn(colours, colourValues);
+        }
+
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.createDirectories(path.getParent());
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(tempPath))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rowCount);
+            for (ByteArrayOutputStream column : List.of(ids, values, routineIds, dateTimes, cushionLimits, colours,
+                    numBalls, loops)) {
+                writeCompressedColumn(out, column.toByteArray());
+            }
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read all scores from an archive file.
+     * @param path The path of the archive file to read
+     * @param userId The ID of the user the archive file is for, which is set on each returned score
+     * @return The scores in the file, in the order they were written
+     * @throws IOException If the file can't be read, or isn't a valid archive file
+     */
+    public static List<Score> read(Path path, String userId) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.getInt() != MAGIC) {
+                throw new IOException("Not a score archive file: " + path);
+            }
+            int version = mapped.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported score archive version " + version + ": " + path);
+            }
+            int rowCount = mapped.getInt();
+
+            ByteBuffer ids = readCompressedColumn(mapped);
+            ByteBuffer values = readCompressedColumn(mapped);
+            String[] routineIds = readDictionaryColumn(readCompressedColumn(mapped), rowCount);
+            ByteBuffer dateTimes = readCompressedColumn(mapped);
+            ByteBuffer cushionLimits = readCompressedColumn(mapped);
+            String[] colours = readDictionaryColumn(readCompressedColumn(mapped), rowCount);
+            ByteBuffer numBalls = readCompressedColumn(mapped);
+            ByteBuffer loops = readCompressedColumn(mapped);
+
+            List<Score> scores = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                Score score = new Score();
+                score.setId(readString(ids));
+                score.setUserId(userId);
+                score.setValue(values.getInt());
+                score.setRoutineId(routineIds[i]);
+                score.setDateTime(LocalDateTime.ofEpochSecond(dateTimes.getLong(), 0, ZoneOffset.UTC));
+                int cushionLimit = cushionLimits.getInt();
+                score.setCushionLimit(cushionLimit == NULL_INT ? null : cushionLimit);
+                score.setColours(colours[i]);
+                int numBall = numBalls.getInt();
+                score.setNumBalls(numBall == NULL_INT ? null : numBall);
+                score.setLoop(loops.get() != 0);
+                scores.add(score);
+            }
+            return scores;
+        }
+    }
+
+    private static void writeDictionaryColumn(ByteArrayOutputStream column, List<String> values) throws IOException {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (String value : values) {
+            if (value != null) {
+                dictionary.putIfAbsent(value, dictionary.size());
+            }
+        }
+        try (DataOutputStream out = new DataOutputStream(column)) {
+            out.writeInt(dictionary.size());
+            for (String entry : dictionary.keySet()) {
+                writeString(out, entry);
+            }
+            for (String value : values) {
+                out.writeInt(value == null ? NULL_INT : dictionary.get(value));
+            }
+        }
+    }
+
+    private static String[] readDictionaryColumn(ByteBuffer column, int rowCount) {
+        String[] dictionary = new String[column.getInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = readString(column);
+        }
+        String[] values = new String[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            int index = column.getInt();
+            values[i] = index == NULL_INT ? null : dictionary[index];
+        }
+        return values;
+    }
+
+    private static void writeCompressedColumn(DataOutputStream out, byte[] column) throws IOException {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(column);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, column.length / 2));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                compressed.write(buffer, 0, length);
+            }
+            out.writeInt(compressed.size());
+            out.writeInt(column.length);
+            compressed.writeTo(out);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static ByteBuffer readCompressedColumn(ByteBuffer in) throws IOException {
+        int compressedLength = in.getInt();
+        int uncompressedLength = in.getInt();
+        ByteBuffer compressed = in.slice(in.position(), compressedLength);
+        in.position(in.position() + compressedLength);
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] column = new byte[uncompressedLength];
+            int offset = 0;
+            while (offset < uncompressedLength) {
+                int length = inflater.inflate(column, offset, uncompressedLength - offset);
+                if (length == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IOException("Truncated score archive column");
+                }
+                offset += length;
+            }
+            return ByteBuffer.wrap(column);
+        } catch (DataFormatException ex) {
+            throw new IOException("Corrupt score archive column", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /** Writes a length-prefixed UTF-8 string. Only used for IDs and short values, so the length fits in a short. */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,182 @@
+package com.huwdunnit.snookeruprest.archive;
+
+import com.huwdunnit.snookeruprest.config.ScoreArchiveProperties;
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.db.ScoreRepository;
+import com.huwdunnit.snookeruprest.model.JobLease;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.ScoreArchiveSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Background job that moves scores older than the archive cut-off out of the Score collection, into archive files
+ * (one per user per month), and keeps a summary of each archive file in MongoDB.
+ *
+ * Each file is written before the archived scores are deleted from MongoDB, so a failure part way through can't lose
+ * scores. Rewriting a file merges the scores already in it, de-duplicating by ID, so a re-run after a failure is safe.
+ * A score deleted from MongoDB after its batch was read is removed from the archive again once the batch is archived,
+ * so archiving never brings deleted scores back.
+ *
+ * The job runs on every instance, but an instance takes a lease on it in the JobLease collection before archiving, so
+ * only one instance writes to the shared archive directory at once. The lease is renewed after every batch, and if
+ * another instance takes it over (e.g. because a batch took longer than the lease), this instance stops.
+ *
+ * @author Huwdunnit
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ScoreArchiver {
+
+    static final String JOB_NAME = "scoreArchiver";
+
+    private final ScoreArchive scoreArchive;
+
+    private final ScoreArchiveProperties properties;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ScoreRepository scoreRepository;
+
+    @Scheduled(cron = "${snookerup.scores.archive.cron:0 0 3 * * *}")
+    public void archiveOldScores() {
+        if (!scoreArchive.isEnabled()) {
+            return;
+        }
+
+        String leaseOwner = IdGenerator.createNewId();
+        if (!claimLease(leaseOwner)) {
+            log.info("Not archiving scores, as another instance is already archiving them");
+            return;
+        }
+        try {
+            archiveOldScores(leaseOwner);
+        } finally {
+            releaseLease(leaseOwner);
+        }
+    }
+
+    private void archiveOldScores(String leaseOwner) {
+        LocalDateTime cutoff = scoreArchive.getCutoff();
+        log.info("Archiving scores before {}", cutoff);
+
+        long archivedCount = 0;
+        try {
+            List<Score> batch;
+            while (!(batch = findBatchToArchive(cutoff)).isEmpty()) {
+                if (!renewLease(leaseOwner)) {
+                    log.warn("Lost the lease on archiving scores, stopping after archiving {} scores", archivedCount);
+                    return;
+                }
+
+                Map<String, List<Score>> scoresByUserAndMonth = new LinkedHashMap<>();
+                for (Score score : batch) {
+                    String month = ScoreArchive.MONTH_FORMAT.format(score.getDateTime());
+                    scoresByUserAndMonth.computeIfAbsent(ScoreArchiveSummary.createId(score.getUserId(), month),
+                            key -> new ArrayList<>()).add(score);
+                }
+                for (List<Score> scores : scoresByUserAndMonth.values()) {
+                    Score first = scores.get(0);
+                    String month = ScoreArchive.MONTH_FORMAT.format(first.getDateTime());
+                    scoreArchive.addScores(first.getUserId(), month, scores);
+                    log.debug("Archived {} scores for userId={}, month={}", scores.size(), first.getUserId(), month);
+                }
+
+                Set<String> remainingIds = findRemainingIds(batch);
+                scoreRepository.deleteAllById(remainingIds);
+                removeDeletedScores(scoresByUserAndMonth.values(), remainingIds);
+                archivedCount += remainingIds.size();
+            }
+        } catch (UncheckedIOException ex) {
+            log.error("Failed to archive scores, stopping after archiving {} scores", archivedCount, ex);
+            return;
+        }
+
+        log.info("Archived {} scores before {}", archivedCount, cutoff);
+    }
+
+    /**
+     * Claim the lease on archiving scores, if no other instance has it.
+     * @return true if this instance now has the lease
+     */
+    private boolean claimLease(String leaseOwner) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(Criteria.where("_id").is(JOB_NAME)
+                .orOperator(Criteria.where("leaseExpiresAt").is(null), Criteria.where("leaseExpiresAt").lt(now)));
+        Update update = new Update()
+                .set("leaseOwner", leaseOwner)
+                .set("leaseExpiresAt", now.plus(properties.getLease()));
+        try {
+            return mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), JobLease.class) != null;
+        } catch (DuplicateKeyException ex) {
+            // The lease exists, but didn't match, so another instance has it
+            return false;
+        }
+    }
+
+    private boolean renewLease(String leaseOwner) {
+        return mongoTemplate.updateFirst(leaseQuery(leaseOwner),
+                new Update().set("leaseExpiresAt", LocalDateTime.now().plus(properties.getLease())),
+                JobLease.class).getMatchedCount() > 0;
+    }
+
+    private void releaseLease(String leaseOwner) {
+        mongoTemplate.updateFirst(leaseQuery(leaseOwner), new Update().unset("leaseExpiresAt"), JobLease.class);
+    }
+
+    private static Query leaseQuery(String leaseOwner) {
+        return Query.query(Criteria.where("_id").is(JOB_NAME).and("leaseOwner").is(leaseOwner));
+    }
+
+    private List<Score> findBatchToArchive(LocalDateTime cutoff) {
+        Query query = Query.query(Criteria.where("dateTime").lt(cutoff).and("userId").ne(null))
+                .with(Sort.by("userId", "dateTime"))
+                .limit(properties.getBatchSize());
+        return mongoTemplate.find(query, Score.class);
+    }
+
+    /**
+     * Find which of a batch of scores are still in the DB, now they've been archived.
+     */
+    private Set<String> findRemainingIds(List<Score> batch) {
+        Query query = Query.query(Criteria.where("_id").in(batch.stream().map(Score::getId).toList()));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Score.class).stream()
+                .map(Score::getId)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Remove scores from the archive that were deleted from the DB after being read for archiving. Deleting an
+     * archived score removes it from the archive too, but it may have been deleted before it was archived.
+     */
+    private void removeDeletedScores(Collection<List<Score>> scoresByUserAndMonth, Set<String> remainingIds) {
+        for (List<Score> scores : scoresByUserAndMonth) {
+            Set<String> deletedIds = scores.stream()
+                    .map(Score::getId)
+                    .filter(scoreId -> !remainingIds.contains(scoreId))
+                    .collect(Collectors.toSet());
+            if (!deletedIds.isEmpty()) {
+                Score first = scores.get(0);
+                scoreArchive.removeScores(first.getUserId(), ScoreArchive.MONTH_FORMAT.format(first.getDateTime()),
+                        deletedIds);
+            }
+        }
+    }
+}
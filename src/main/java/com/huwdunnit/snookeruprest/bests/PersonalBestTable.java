@@ -0,0 +1,198 @@
+package com.huwdunnit.snookeruprest.bests;
+
+import com.huwdunnit.snookeruprest.archive.ScoreArchive;
+import com.huwdunnit.snookeruprest.events.ScoresDeletedEvent;
+import com.huwdunnit.snookeruprest.model.PersonalBest;
+import com.huwdunnit.snookeruprest.model.Score;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Maintains each user's best score on each configuration of each routine, so checking whether a new score is a
+ * personal best is a lookup by ID, rather than a query over all the user's scores.
+ *
+ * A new score replaces the best with a conditional upsert, which only matches if the stored best is lower. If it
+ * isn't, the upsert tries to insert a second document with the same ID and fails, so there's no window between
+ * checking and updating the best for another score to slip through. Bests for configurations scored on before this
+ * table existed are worked out from the user's history the first time they're needed.
+ *
+ * @author Huwdunnit
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PersonalBestTable {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ScoreArchive scoreArchive;
+
+    /**
+     * Record an added score, and check whether it's a personal best, i.e. higher than every earlier score by the user
+     * on the same routine and configuration.
+     * @param score The added score
+     * @return true if the score is a personal best
+     */
+    public boolean recordScore(Score score) {
+        PersonalBest configuration = getConfiguration(score);
+        String id = configuration.getId();
+        if (!mongoTemplate.exists(Query.query(Criteria.where("_id").is(id)), PersonalBest.class)) {
+            findBestInHistory(configuration, Set.of(score.getId())).ifPresent(this::insertIfAbsent);
+        }
+
+        Update update = new Update()
+                .setOnInsert("userId", score.getUserId())
+                .setOnInsert("routineId", score.getRoutineId())
+                .setOnInsert("cushionLimit", score.getCushionLimit())
+                .setOnInsert("colours", score.getColours())
+                .setOnInsert("numBalls", score.getNumBalls())
+                .setOnInsert("loop", score.isLoop())
+                .set("value", score.getValue())
+                .set("scoreId", score.getId())
+                .set("dateTime", score.getDateTime());
+        try {
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(id).and("value").lt(score.getValue())), update,
+                    PersonalBest.class);
+        } catch (DuplicateKeyException ex) {
+            // The stored best is at least as high, so the upsert tried to insert another best with the same ID
+            return false;
+        }
+        log.debug("New personal best for userId={}, scoreId={}, value={}", score.getUserId(), score.getId(),
+                score.getValue());
+        return true;
+    }
+
+    /**
+     * Check whether an added score is still the user's best on its routine and configuration, e.g. to answer a retried
+     * request to add it.
+     * @param score The added score
+     * @return true if the score is the stored personal best
+     */
+    public boolean isPersonalBest(Score score) {
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(getConfiguration(score).getId())
+                .and("scoreId").is(score.getId())), PersonalBest.class);
+    }
+
+    /**
+     * Work out the new best for any configurations whose best score has been deleted.
+     */
+    @EventListener
+    public void onScoresDeleted(ScoresDeletedEvent event) {
+        Map<String, List<String>> scoreIdsByUser = new LinkedHashMap<>();
+        for (Score score : event.scores()) {
+            scoreIdsByUser.computeIfAbsent(score.getUserId(), userId -> new ArrayList<>()).add(score.getId());
+        }
+
+        scoreIdsByUser.forEach((userId, scoreIds) -> {
+            List<PersonalBest> deletedBests = mongoTemplate.find(Query.query(Criteria.where("userId").is(userId)
+                    .and("scoreId").in(scoreIds)), PersonalBest.class);
+            for (PersonalBest deletedBest : deletedBests) {
+                replaceDeletedBest(deletedBest, scoreIds);
+            }
+        });
+    }
+
+    private void replaceDeletedBest(PersonalBest deletedBest, Collection<String> deletedScoreIds) {
+        // Only change the best if it's still the deleted score, in case a new best has been added since
+        Query query = Query.query(Criteria.where("_id").is(deletedBest.getId())
+                .and("scoreId").is(deletedBest.getScoreId()));
+        Optional<PersonalBest> newBest = findBestInHistory(deletedBest, deletedScoreIds);
+        if (newBest.isPresent()) {
+            mongoTemplate.updateFirst(query, new Update()
+                    .set("value", newBest.get().getValue())
+                    .set("scoreId", newBest.get().getScoreId())
+                    .set("dateTime", newBest.get().getDateTime()), PersonalBest.class);
+        } else {
+            mongoTemplate.remove(query, PersonalBest.class);
+        }
+        log.debug("Replaced deleted personal best id={}, scoreId={}", deletedBest.getId(), deletedBest.getScoreId());
+    }
+
+    /**
+     * Find a user's best score on a routine and configuration, in the DB and the archive.
+     * @param configuration The user, routine and configuration to find the best for
+     * @param excludedScoreIds IDs of scores to ignore
+     * @return The best, or empty if there are no other scores
+     */
+    private Optional<PersonalBest> findBestInHistory(PersonalBest configuration, Collection<String> excludedScoreIds) {
+        // Null fields must match exactly (i.e. scores without them), so they're included in the query
+        Query query = Query.query(Criteria.where("userId").is(configuration.getUserId())
+                        .and("routineId").is(configuration.getRoutineId())
+                        .and("cushionLimit").is(configuration.getCushionLimit())
+                        .and("colours").is(configuration.getColours())
+                        .and("numBalls").is(configuration.getNumBalls())
+                        .and("loop").is(configuration.isLoop())
+                        .and("_id").nin(excludedScoreIds))
+                .with(Sort.by(Sort.Direction.DESC, "value"))
+                .limit(1);
+        query.fields().include("value", "dateTime");
+        Optional<PersonalBest> best = Optional.ofNullable(mongoTemplate.findOne(query, Score.class))
+                .map(score -> createBest(configuration, score.getId(), score.getValue(), score.getDateTime()));
+
+        Optional<Score> archivedBest = scoreArchive.findBestScore(configuration.getUserId(),
+                configuration.getRoutineId(), configuration.getCushionLimit(), configuration.getColours(),
+                configuration.getNumBalls(), configuration.isLoop(), excludedScoreIds);
+        if (archivedBest.isPresent() && (best.isEmpty() || archivedBest.get().getValue() > best.get().getValue())) {
+            best = Optional.of(createBest(configuration, archivedBest.get().getId(), archivedBest.get().getValue(),
+                    archivedBest.get().getDateTime()));
+        }
+        return best;
+    }
+
+    private void insertIfAbsent(PersonalBest personalBest) {
+        try {
+            mongoTemplate.insert(personalBest);
+        } catch (DuplicateKeyException ex) {
+            // Another request has already worked out the best
+        }
+    }
+
+    /**
+     * Get a personal best with just the ID, user, routine and configuration of a score set.
+     */
+    private static PersonalBest getConfiguration(Score score) {
+        PersonalBest configuration = new PersonalBest();
+        configuration.setId(PersonalBest.createId(score.getUserId(), score.getRoutineId(), score.getCushionLimit(),
+                score.getColours(), score.getNumBalls(), score.isLoop()));
+        configuration.setUserId(score.getUserId());
+        configuration.setRoutineId(score.getRoutineId());
+        configuration.setCushionLimit(score.getCushionLimit());
+        configuration.setColours(score.getColours());
+        configuration.setNumBalls(score.getNumBalls());
+        configuration.setLoop(score.isLoop());
+        return configuration;
+    }
+
+    private static PersonalBest createBest(PersonalBest configuration, String scoreId, int value,
+                                           LocalDateTime dateTime) {
+        PersonalBest personalBest = new PersonalBest();
+        personalBest.setId(configuration.getId());
+        personalBest.setUserId(configuration.getUserId());
+        personalBest.setRoutineId(configuration.getRoutineId());
+        personalBest.setCushionLimit(configuration.getCushionLimit());
+        personalBest.setColours(configuration.getColours());
+        personalBest.setNumBalls(configuration.getNumBalls());
+        personalBest.setLoop(configuration.isLoop());
+        personalBest.setValue(value);
+        personalBest.setScoreId(scoreId);
+        personalBest.setDateTime(dateTime);
+        return personalBest;
+    }
+}
@@ -0,0 +1,216 @@
+package com.huwdunnit.snookeruprest.cache;
+
+import com.huwdunnit.snookeruprest.config.CacheProperties;
+import com.huwdunnit.snookeruprest.events.CollectionChangedEvent;
+import com.huwdunnit.snookeruprest.model.ChangeStreamResumeToken;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listens for changes to cached collections using MongoDB change streams, and publishes a CollectionChangedEvent for
+ * each change, so every instance of the app invalidates its cached copy as soon as any instance changes a document.
+ *
+ * There's one stream per collection. The resume token of the last event handled is stored per instance and
+ * collection, so a stream carries on from where it left off after it's reconnected or the app is restarted. If the
+ * stream can't be resumed (e.g. the oplog has rolled over), the whole collection is invalidated and a new stream is
+ * started. Cached entries also expire after the cache TTL, which bounds staleness if events are delayed.
+ *
+ * @author Huwdunnit
+ */
+@Component
+@Slf4j
+public class ChangeStreamCacheInvalidator implements SmartLifecycle {
+
+    static final List<String> WATCHED_COLLECTIONS =
+            List.of(RoutineCache.COLLECTION_NAME, UserDetailsCache.COLLECTION_NAME);
+
+    /** Error codes meaning a stored resume token can no longer be used (ChangeStreamFatalError, ChangeStreamHistoryLost). */
+    private static final Set<Integer> UNRESUMABLE_ERROR_CODES = Set.of(280, 286);
+
+    /** How long to wait for an event, before re-checking whether the listener has been stopped. */
+    private static final long MAX_AWAIT_MILLIS = 1000;
+
+    /** How often to store the resume token when there are no events, so an idle stream's token doesn't go stale. */
+    private static final long IDLE_TOKEN_SAVE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final CacheProperties properties;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final List<Thread> watcherThreads = new ArrayList<>();
+
+    private volatile boolean running;
+
+    private String nodeId;
+
+    public ChangeStreamCacheInvalidator(MongoTemplate mongoTemplate, CacheProperties properties,
+                                        ApplicationEventPublisher eventPublisher) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || !properties.getChangeStreams().isEnabled()) {
+            return;
+        }
+        nodeId = resolveNodeId();
+        running = true;
+        for (String collectionName : WATCHED_COLLECTIONS) {
+            watcherThreads.add(Thread.ofPlatform().name("change-stream-" + collectionName).daemon()
+                    .start(() -> watch(collectionName)));
+        }
+        log.info("Started change stream cache invalidation, nodeId={}, collections={}", nodeId, WATCHED_COLLECTIONS);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Thread thread : watcherThreads) {
+            try {
+                thread.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        watcherThreads.clear();
+        log.info("Stopped change stream cache invalidation");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void watch(String collectionName) {
+        String tokenId = ChangeStreamResumeToken.createId(nodeId, collectionName);
+        while (running) {
+            try {
+                watchUntilStopped(collectionName, tokenId);
+            } catch (MongoException ex) {
+                log.warn("Change stream on {} failed, code={}: {}", collectionName, ex.getCode(), ex.getMessage());
+                if (UNRESUMABLE_ERROR_CODES.contains(ex.getCode())) {
+                    deleteResumeToken(tokenId);
+                }
+                // Changes may be missed until the stream is reconnected, so don't trust anything cached
+                publishWholeCollectionChanged(collectionName);
+                sleepBeforeRetry();
+            }
+        }
+    }
+
+    private void watchUntilStopped(String collectionName, String tokenId) {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(collectionName).watch()
+                .maxAwaitTime(MAX_AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+        ChangeStreamResumeToken storedToken = mongoTemplate.findById(tokenId, ChangeStreamResumeToken.class);
+        if (storedToken != null) {
+            stream = stream.resumeAfter(BsonDocument.parse(storedToken.getToken()));
+        } else {
+            // No idea what's changed since this instance last listened
+            publishWholeCollectionChanged(collectionName);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            BsonDocument savedToken = null;
+            long savedNanos = System.nanoTime();
+            while (running) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change != null) {
+                    if (change.getOperationType() == OperationType.INVALIDATE) {
+                        // The stream is closed, e.g. the collection was dropped or renamed, so start a new one
+                        publishWholeCollectionChanged(collectionName);
+                        deleteResumeToken(tokenId);
+                        return;
+                    }
+                    handleChange(collectionName, change);
+                }
+
+                BsonDocument resumeToken = cursor.getResumeToken();
+                boolean idleSaveDue = System.nanoTime() - savedNanos > IDLE_TOKEN_SAVE_NANOS;
+                if (resumeToken != null && !resumeToken.equals(savedToken) && (change != null || idleSaveDue)) {
+                    saveResumeToken(tokenId, resumeToken);
+                    savedToken = resumeToken;
+                    savedNanos = System.nanoTime();
+                }
+            }
+        }
+    }
+
+    private void handleChange(String collectionName, ChangeStreamDocument<Document> change) {
+        BsonDocument documentKey = change.getDocumentKey();
+        BsonValue id = documentKey == null ? null : documentKey.get("_id");
+        if (id != null && id.isString()) {
+            log.debug("Change stream event operation={}, collection={}, id={}", change.getOperationType(),
+                    collectionName, id.asString().getValue());
+            eventPublisher.publishEvent(new CollectionChangedEvent(collectionName, id.asString().getValue()));
+        } else {
+            log.debug("Change stream event operation={}, collection={}", change.getOperationType(), collectionName);
+            publishWholeCollectionChanged(collectionName);
+        }
+    }
+
+    private void publishWholeCollectionChanged(String collectionName) {
+        eventPublisher.publishEvent(new CollectionChangedEvent(collectionName, null));
+    }
+
+    private void saveResumeToken(String tokenId, BsonDocument resumeToken) {
+        ChangeStreamResumeToken token = new ChangeStreamResumeToken();
+        token.setId(tokenId);
+        token.setToken(resumeToken.toJson());
+        token.setUpdatedAt(LocalDateTime.now());
+        mongoTemplate.save(token);
+    }
+
+    private void deleteResumeToken(String tokenId) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(tokenId)), ChangeStreamResumeToken.class);
+    }
+
+    private void sleepBeforeRetry() {
+        try {
+            Thread.sleep(properties.getChangeStreams().getRetryDelay());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private String resolveNodeId() {
+        String configuredNodeId = properties.getChangeStreams().getNodeId();
+        if (configuredNodeId != null && !configuredNodeId.isBlank()) {
+            return configuredNodeId;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            log.warn("Couldn't get host name for change stream node ID, using 'local'");
+            return "local";
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.huwdunnit.snookeruprest.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A simple in-process cache, where entries expire after a fixed time.
+ *
+ * Only present values are cached, so lookups of missing keys always go to the loader. If the cache fills up, expired
+ * entries are removed, and if it's still full, the whole cache is cleared. The cached data sets (routines and users)
+ * are small, so this should rarely happen.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ *
+ * @author Huwdunnit
+ */
+public class LocalCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final long ttlNanos;
+
+    private final int maxSize;
+
+    private final boolean enabled;
+
+    public LocalCache(Duration ttl, int maxSize, boolean enabled) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Get a value from the cache, or if it isn't cached (or has expired), load it and cache it.
+     * @param key The key to get the value for
+     * @param loader Loads the value for the key, if it isn't cached
+     * @return An Optional containing the value, or empty if it isn't cached and the loader didn't find it
+     */
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        if (!enabled) {
+            return loader.apply(key);
+        }
+
+        long now = System.nanoTime();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && now - entry.loadedNanos() < ttlNanos) {
+            return Optional.of(entry.value());
+        }
+
+        Optional<V> value = loader.apply(key);
+        if (value.isPresent()) {
+            if (entries.size() >= maxSize) {
+                evict(now);
+            }
+            entries.put(key, new Entry<>(value.get(), now));
+        } else {
+            entries.remove(key);
+        }
+        return value;
+    }
+
+    /**
+     * Remove the entry for a key, so it's reloaded on the next lookup.
+     * @param key The key to remove
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> now - entry.loadedNanos() >= ttlNanos);
+        if (entries.size() >= maxSize) {
+            entries.clear();
+        }
+    }
+
+    private record Entry<V>(V value, long loadedNanos) {
+    }
+}
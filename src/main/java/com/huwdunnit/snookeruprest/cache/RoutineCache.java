@@ -0,0 +1,52 @@
+package com.huwdunnit.snookeruprest.cache;
+
+import com.huwdunnit.snookeruprest.config.CacheProperties;
+import com.huwdunnit.snookeruprest.db.RoutineRepository;
+import com.huwdunnit.snookeruprest.events.CollectionChangedEvent;
+import com.huwdunnit.snookeruprest.model.Routine;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Cache of routines by ID. Routines are read on every score added, but rarely change.
+ *
+ * @author Huwdunnit
+ */
+@Component
+public class RoutineCache {
+
+    public static final String COLLECTION_NAME = "routine";
+
+    private final RoutineRepository routineRepository;
+
+    private final LocalCache<String, Routine> cache;
+
+    public RoutineCache(RoutineRepository routineRepository, CacheProperties cacheProperties) {
+        this.routineRepository = routineRepository;
+        this.cache = new LocalCache<>(cacheProperties.getTtl(), cacheProperties.getMaxSize(),
+                cacheProperties.isEnabled());
+    }
+
+    /**
+     * Get a routine by ID, from the cache if possible.
+     * @param routineId The ID of the routine to get
+     * @return An Optional containing the routine
+     */
+    public Optional<Routine> findById(String routineId) {
+        return cache.get(routineId, routineRepository::findById);
+    }
+
+    @EventListener
+    public void onCollectionChanged(CollectionChangedEvent event) {
+        if (!COLLECTION_NAME.equals(event.collectionName())) {
+            return;
+        }
+        if (event.isWholeCollection()) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(event.documentId());
+        }
+    }
+}
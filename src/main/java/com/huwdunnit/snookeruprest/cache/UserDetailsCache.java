@@ -0,0 +1,69 @@
+package com.huwdunnit.snookeruprest.cache;
+
+import com.huwdunnit.snookeruprest.config.CacheProperties;
+import com.huwdunnit.snookeruprest.events.CollectionChangedEvent;
+import com.huwdunnit.snookeruprest.security.UserPrincipal;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache of user details by email address, used when authenticating every request.
+ *
+ * Change events only have the ID of the changed user, not the email address, so the whole cache is cleared when any
+ * user changes. Without change streams, other instances' changes are only seen when entries expire, so entries are
+ * kept for the (shorter) user details TTL, as stale user details can let a deleted user carry on authenticating.
+ *
+ * @author Huwdunnit
+ */
+@Component
+public class UserDetailsCache {
+
+    public static final String COLLECTION_NAME = "user";
+
+    private final LocalCache<String, UserPrincipal> cache;
+
+    private final Duration ttl;
+
+    public UserDetailsCache(CacheProperties cacheProperties) {
+        this.ttl = cacheProperties.isEnabled() ? resolveTtl(cacheProperties) : Duration.ZERO;
+        this.cache = new LocalCache<>(ttl, cacheProperties.getMaxSize(), cacheProperties.isEnabled());
+    }
+
+    /**
+     * Get how long user details are cached for, i.e. how long after a user is changed or deleted other instances can
+     * still be using the old details.
+     * @return The TTL, or zero if caching is disabled
+     */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    static Duration resolveTtl(CacheProperties cacheProperties) {
+        if (cacheProperties.getChangeStreams().isEnabled()) {
+            return cacheProperties.getTtl();
+        }
+        Duration userDetailsTtl = cacheProperties.getUserDetailsTtl();
+        return userDetailsTtl.compareTo(cacheProperties.getTtl()) < 0 ? userDetailsTtl : cacheProperties.getTtl();
+    }
+
+    /**
+     * Get user details by email address, from the cache if possible.
+     * @param email The email address of the user
+     * @param loader Loads the user details if they're not cached
+     * @return An Optional containing the user details
+     */
+    public Optional<UserPrincipal> findByEmail(String email, Function<String, Optional<UserPrincipal>> loader) {
+        return cache.get(email, loader);
+    }
+
+    @EventListener
+    public void onCollectionChanged(CollectionChangedEvent event) {
+        if (COLLECTION_NAME.equals(event.collectionName())) {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.huwdunnit.snookeruprest.concurrency;
+
+import com.huwdunnit.snookeruprest.config.ConcurrencyLimitProperties.Limit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of requests in flight at once, adjusting the limit using additive increase, multiplicative
+ * decrease (AIMD). Each request that takes longer than the latency threshold multiplies the limit by the backoff
+ * ratio. Each faster request adds one to the limit, but only while at least half of the limit is in use, so the
+ * limit doesn't grow when there's no load to justify it.
+ *
+ * Requests over the limit are rejected straight away, rather than queued, so load is shed before it backs up.
+ *
+ * @author Huwdunnit
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long latencyThresholdNanos;
+
+    private final double backoffRatio;
+
+    private final AtomicInteger limit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Counter rejectedCounter;
+
+    public AdaptiveConcurrencyLimiter(EndpointClass endpointClass, Limit properties, MeterRegistry meterRegistry) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.limit = new AtomicInteger(properties.getInitialLimit());
+
+        String tagValue = endpointClass.name();
+        Gauge.builder("snookerup.concurrency.limit", limit, AtomicInteger::get)
+                .description("Current limit on concurrent requests")
+                .tag("endpointClass", tagValue)
+                .register(meterRegistry);
+        Gauge.builder("snookerup.concurrency.inflight", inFlight, AtomicInteger::get)
+                .description("Number of requests currently being handled")
+                .tag("endpointClass", tagValue)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("snookerup.concurrency.rejected")
+                .description("Number of requests rejected for exceeding the concurrency limit")
+                .tag("endpointClass", tagValue)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start a request, if the limit allows it. If this returns true, either release or releaseWithoutSample must be
+     * called once the request completes.
+     * @return true if the request can go ahead, or false if it should be rejected
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                rejectedCounter.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Finish a request, adjusting the limit based on how long it took.
+     * @param latencyNanos How long the request took
+     */
+    public void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (latencyNanos > latencyThresholdNanos) {
+            limit.updateAndGet(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+        } else if (inFlightBefore * 2 >= limit.get()) {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    /**
+     * Finish a request without adjusting the limit, e.g. for a long-lived streaming request, whose duration says
+     * nothing about load.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,17 @@
+package com.huwdunnit.snookeruprest.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an admin or reporting query (e.g. across all users), so requests to it are limited separately from other
+ * requests, and can't starve them of request threads or MongoDB connections.
+ *
+ * @author Huwdunnit
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdminQuery {
+}
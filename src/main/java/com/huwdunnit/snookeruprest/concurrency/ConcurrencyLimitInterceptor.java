@@ -0,0 +1,82 @@
+package com.huwdunnit.snookeruprest.concurrency;
+
+import com.huwdunnit.snookeruprest.config.ConcurrencyLimitProperties;
+import com.huwdunnit.snookeruprest.exceptions.ServiceOverloadedException;
+import com.huwdunnit.snookeruprest.ratelimit.ExpensiveRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Limits the number of requests handled at once, per class of endpoint, when concurrency limiting is enabled.
+ * Admin queries (marked with @AdminQuery) are limited separately from everything else, then expensive requests
+ * (marked with @ExpensiveRequest), then all other requests.
+ *
+ * Requests over the limit are rejected with a ServiceOverloadedException, before reaching the controller.
+ *
+ * @author Huwdunnit
+ */
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String LIMITER_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".limiter";
+
+    private static final String START_NANOS_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".startNanos";
+
+    private final ConcurrencyLimitProperties properties;
+
+    private final ConcurrencyLimits concurrencyLimits;
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimitProperties properties, ConcurrencyLimits concurrencyLimits) {
+        this.properties = properties;
+        this.concurrencyLimits = concurrencyLimits;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!properties.isEnabled() || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        EndpointClass endpointClass = getEndpointClass(handlerMethod);
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimits.get(endpointClass);
+        if (!limiter.tryAcquire()) {
+            throw new ServiceOverloadedException("Concurrency limit reached, endpointClass=" + endpointClass
+                    + ", limit=" + limiter.getLimit());
+        }
+        request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+        request.setAttribute(START_NANOS_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(LIMITER_ATTRIBUTE) instanceof AdaptiveConcurrencyLimiter limiter) {
+            request.removeAttribute(LIMITER_ATTRIBUTE);
+            long startNanos = (Long) request.getAttribute(START_NANOS_ATTRIBUTE);
+            limiter.release(System.nanoTime() - startNanos);
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // The request carries on asynchronously (e.g. streaming), so stop counting it, as it's no longer holding a
+        // request thread. Its duration says nothing about load, so it doesn't adjust the limit.
+        if (request.getAttribute(LIMITER_ATTRIBUTE) instanceof AdaptiveConcurrencyLimiter limiter) {
+            request.removeAttribute(LIMITER_ATTRIBUTE);
+            limiter.releaseWithoutSample();
+        }
+    }
+
+    static EndpointClass getEndpointClass(HandlerMethod handlerMethod) {
+        if (handlerMethod.hasMethodAnnotation(AdminQuery.class)) {
+            return EndpointClass.ADMIN;
+        }
+        if (handlerMethod.hasMethodAnnotation(ExpensiveRequest.class)) {
+            return EndpointClass.EXPENSIVE;
+        }
+        return EndpointClass.STANDARD;
+    }
+}
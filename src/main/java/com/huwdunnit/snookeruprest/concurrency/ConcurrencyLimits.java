@@ -0,0 +1,32 @@
+package com.huwdunnit.snookeruprest.concurrency;
+
+import com.huwdunnit.snookeruprest.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Holds the concurrency limiter for each class of endpoint.
+ *
+ * @author Huwdunnit
+ */
+@Component
+public class ConcurrencyLimits {
+
+    private final Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+
+    public ConcurrencyLimits(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        limiters.put(EndpointClass.STANDARD,
+                new AdaptiveConcurrencyLimiter(EndpointClass.STANDARD, properties.getStandard(), meterRegistry));
+        limiters.put(EndpointClass.EXPENSIVE,
+                new AdaptiveConcurrencyLimiter(EndpointClass.EXPENSIVE, properties.getExpensive(), meterRegistry));
+        limiters.put(EndpointClass.ADMIN,
+                new AdaptiveConcurrencyLimiter(EndpointClass.ADMIN, properties.getAdmin(), meterRegistry));
+    }
+
+    public AdaptiveConcurrencyLimiter get(EndpointClass endpointClass) {
+        return limiters.get(endpointClass);
+    }
+}
@@ -0,0 +1,12 @@
+package com.huwdunnit.snookeruprest.concurrency;
+
+/**
+ * Classes of endpoint, each with its own concurrency limit.
+ *
+ * @author Huwdunnit
+ */
+public enum EndpointClass {
+    STANDARD,
+    EXPENSIVE,
+    ADMIN
+}
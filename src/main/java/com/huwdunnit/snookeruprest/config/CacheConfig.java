@@ -0,0 +1,14 @@
+package com.huwdunnit.snookeruprest.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Config for in-process caches.
+ *
+ * @author Huwdunnit
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+}
@@ -0,0 +1,57 @@
+package com.huwdunnit.snookeruprest.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Config properties for in-process caches of data from MongoDB (i.e. routines and users), and how they're kept in
+ * sync with changes made by other instances of the app.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@ConfigurationProperties(prefix = "snookerup.cache")
+public class CacheProperties {
+
+    /** Whether routines and users are cached. */
+    private boolean enabled = true;
+
+    /**
+     * How long entries are cached for. When change streams are enabled, this is a fallback in case change events
+     * are delayed or missed. Otherwise, it's the longest a cached entry can be out of date.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * How long user details are cached for when change streams are disabled, if shorter than the TTL. This is how long
+     * a deleted user, or a changed password or role, can still be used to authenticate on other instances, so it's
+     * kept short.
+     */
+    private Duration userDetailsTtl = Duration.ofSeconds(10);
+
+    /** The maximum number of entries in each cache. */
+    private int maxSize = 10000;
+
+    private ChangeStreams changeStreams = new ChangeStreams();
+
+    @Data
+    public static class ChangeStreams {
+
+        /**
+         * Whether to listen for changes to cached collections using MongoDB change streams, so cached entries are
+         * invalidated as soon as any instance changes them. Requires MongoDB to be running as a replica set.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The ID of this instance, used to store its change stream resume tokens. Must be stable across restarts.
+         * Defaults to the host name.
+         */
+        private String nodeId;
+
+        /** How long to wait before reconnecting, after a change stream fails. */
+        private Duration retryDelay = Duration.ofSeconds(5);
+    }
+}
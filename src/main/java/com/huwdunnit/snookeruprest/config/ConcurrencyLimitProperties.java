@@ -0,0 +1,55 @@
+package com.huwdunnit.snookeruprest.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Config properties for adaptive limits on the number of requests handled at once, per class of endpoint. Each
+ * limit rises while requests are fast, and falls when they slow down, so load is shed before queries back up.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@ConfigurationProperties(prefix = "snookerup.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /** Whether concurrent requests are limited. */
+    private boolean enabled = false;
+
+    /** The limit for most requests. */
+    private Limit standard = new Limit(50, 10, 200, Duration.ofMillis(250), 0.9);
+
+    /** The limit for expensive requests (i.e. endpoints marked with @ExpensiveRequest). */
+    private Limit expensive = new Limit(10, 2, 50, Duration.ofSeconds(1), 0.9);
+
+    /**
+     * The limit for admin queries (i.e. endpoints marked with @AdminQuery), kept small, so they can't use up the
+     * request threads or MongoDB connections needed by other requests.
+     */
+    private Limit admin = new Limit(2, 1, 4, Duration.ofSeconds(2), 0.9);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        /** The limit on startup. */
+        private int initialLimit;
+
+        /** The lowest the limit can fall to. */
+        private int minLimit;
+
+        /** The highest the limit can rise to. */
+        private int maxLimit;
+
+        /** Requests taking longer than this reduce the limit. Faster requests let it rise, if it's being reached. */
+        private Duration latencyThreshold;
+
+        /** What the limit is multiplied by after a slow request. */
+        private double backoffRatio;
+    }
+}
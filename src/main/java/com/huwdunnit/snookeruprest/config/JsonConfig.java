@@ -1,7 +1,15 @@
 package com.huwdunnit.snookeruprest.config;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.huwdunnit.snookeruprest.json.ScoreListResponseSerializer;
+import com.huwdunnit.snookeruprest.json.ScoreSerializer;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.ScoreListResponse;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -15,8 +23,21 @@ public class JsonConfig {
 
     @Bean
     public ObjectMapper objectMapper() {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        return objectMapper;
+        // Request bodies are small and rarely repeat field names, so interning them costs more than it saves
+        JsonFactory jsonFactory = JsonFactory.builder()
+                .disable(JsonFactory.Feature.INTERN_FIELD_NAMES)
+                .build();
+
+        // Scores are serialized far more than anything else, so use hand-written serializers for them
+        SimpleModule scoreSerializersModule = new SimpleModule("ScoreSerializers")
+                .addSerializer(Score.class, new ScoreSerializer())
+                .addSerializer(ScoreListResponse.class, new ScoreListResponseSerializer());
+
+        return JsonMapper.builder(jsonFactory)
+                .addModule(new JavaTimeModule())
+                .addModule(scoreSerializersModule)
+                // Spring's message converters flush once the whole response is written
+                .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .build();
     }
 }
@@ -0,0 +1,31 @@
+package com.huwdunnit.snookeruprest.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Config properties for the stream of new scores pushed to live dashboards.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@ConfigurationProperties(prefix = "snookerup.scores.live")
+public class LiveScoreProperties {
+
+    /** The maximum number of subscribers connected at once, before new subscribers are rejected. */
+    private int maxSubscribers = 100;
+
+    /**
+     * The maximum number of scores waiting to be sent to a subscriber. A subscriber that falls this far behind is
+     * disconnected, so it can't hold on to an ever growing backlog.
+     */
+    private int bufferSize = 256;
+
+    /** How often to send a heartbeat to a subscriber when there are no new scores, so dead connections are noticed. */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /** How long a subscription lasts before the client has to reconnect. */
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,61 @@
+package com.huwdunnit.snookeruprest.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Config properties for the MongoDB client's connection pool and timeouts.
+ *
+ * The defaults are chosen to fail fast when MongoDB is slow or the pool is exhausted, rather than the driver defaults
+ * (e.g. waiting 2 minutes for a connection), which let request threads pile up.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@ConfigurationProperties(prefix = "snookerup.mongodb.client")
+public class MongoClientProperties {
+
+    private Pool pool = new Pool();
+
+    private Timeouts timeouts = new Timeouts();
+
+    @Data
+    public static class Pool {
+
+        /** The maximum number of connections per server. */
+        private int maxSize = 100;
+
+        /** The minimum number of connections per server, kept open even when idle. */
+        private int minSize = 0;
+
+        /** The maximum number of connections per server being opened at the same time. */
+        private int maxConnecting = 2;
+
+        /** How long a request waits for a connection when the pool is exhausted, before failing. */
+        private Duration maxWaitTime = Duration.ofSeconds(2);
+
+        /** How long a connection can be idle before it's closed. Zero means no limit. */
+        private Duration maxConnectionIdleTime = Duration.ofMinutes(5);
+
+        /** How long a connection can be open before it's closed. Zero means no limit. */
+        private Duration maxConnectionLifeTime = Duration.ZERO;
+
+        /** How often idle and expired connections are removed from the pool. */
+        private Duration maintenanceFrequency = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Timeouts {
+
+        /** How long to wait for a new connection to a server to be opened. */
+        private Duration connect = Duration.ofSeconds(5);
+
+        /** How long to wait for a response to an operation, on an open connection. Zero means no limit. */
+        private Duration socketRead = Duration.ofSeconds(30);
+
+        /** How long to wait for a suitable server (e.g. the primary) to be available for an operation. */
+        private Duration serverSelection = Duration.ofSeconds(5);
+    }
+}
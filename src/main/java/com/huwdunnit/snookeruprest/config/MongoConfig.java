@@ -0,0 +1,53 @@
+package com.huwdunnit.snookeruprest.config;
+
+import com.huwdunnit.snookeruprest.db.MongoPoolWaitMetricsListener;
+import com.huwdunnit.snookeruprest.db.ReadPreferenceRoutingMongoTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Config for MongoDB.
+ *
+ * @author Huwdunnit
+ */
+@Configuration
+@EnableConfigurationProperties({ScoreStorageProperties.class, ScoreArchiveProperties.class,
+        ScoreIngestProperties.class, SecondaryReadsProperties.class, MongoClientProperties.class,
+        UserPurgeProperties.class, PracticeSessionProperties.class})
+public class MongoConfig {
+
+    @Bean
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory mongoDatabaseFactory, MongoConverter mongoConverter) {
+        return new ReadPreferenceRoutingMongoTemplate(mongoDatabaseFactory, mongoConverter);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoClientPoolAndTimeoutsCustomizer(
+            MongoClientProperties mongoClientProperties, MeterRegistry meterRegistry) {
+        MongoClientProperties.Pool pool = mongoClientProperties.getPool();
+        MongoClientProperties.Timeouts timeouts = mongoClientProperties.getTimeouts();
+        return builder -> builder
+                .applyToConnectionPoolSettings(poolSettings -> poolSettings
+                        .maxSize(pool.getMaxSize())
+                        .minSize(pool.getMinSize())
+                        .maxConnecting(pool.getMaxConnecting())
+                        .maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(pool.getMaxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionLifeTime(pool.getMaxConnectionLifeTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maintenanceFrequency(pool.getMaintenanceFrequency().toMillis(), TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(new MongoPoolWaitMetricsListener(meterRegistry)))
+                .applyToSocketSettings(socketSettings -> socketSettings
+                        .connectTimeout((int) timeouts.getConnect().toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout((int) timeouts.getSocketRead().toMillis(), TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(clusterSettings -> clusterSettings
+                        .serverSelectionTimeout(timeouts.getServerSelection().toMillis(), TimeUnit.MILLISECONDS));
+    }
+}
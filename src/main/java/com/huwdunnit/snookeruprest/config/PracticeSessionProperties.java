@@ -0,0 +1,25 @@
+package com.huwdunnit.snookeruprest.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Config properties for grouping scores into practice sessions.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@ConfigurationProperties(prefix = "snookerup.scores.sessions")
+public class PracticeSessionProperties {
+
+    /** The longest gap between two scores in the same session. A longer gap starts a new session. */
+    private Duration gap = Duration.ofMinutes(30);
+
+    /** How long to wait for another update to a user's sessions to finish, before giving up. */
+    private Duration lockWait = Duration.ofSeconds(5);
+
+    /** How long a user's sessions stay locked if the instance updating them stops before unlocking them. */
+    private Duration lockLease = Duration.ofSeconds(10);
+}
@@ -0,0 +1,24 @@
+package com.huwdunnit.snookeruprest.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Config properties for guarding against requests for queries that would be too expensive to run, i.e. too many
+ * results at once, or scans of large collections that can't use an index.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@ConfigurationProperties(prefix = "snookerup.query-guard")
+public class QueryGuardProperties {
+
+    /** The largest page size allowed on list endpoints, unless the endpoint sets its own with @MaxPageSize. */
+    private int maxPageSize = 400;
+
+    /**
+     * The largest collection (by estimated document count) that a query which can't use an index is allowed to scan.
+     * Above this, such queries are refused.
+     */
+    private long maxUnindexedScanDocuments = 100000;
+}
@@ -0,0 +1,38 @@
+package com.huwdunnit.snookeruprest.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Config properties for per-client rate limiting of requests. Clients are identified by user ID when authenticated,
+ * or by IP address otherwise.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@ConfigurationProperties(prefix = "snookerup.rate-limit")
+public class RateLimitProperties {
+
+    /** Whether requests are rate limited. */
+    private boolean enabled = false;
+
+    /** The budget for most requests. */
+    private Budget standard = new Budget(20, 40);
+
+    /** The budget for expensive requests (i.e. endpoints marked with @ExpensiveRequest), counted separately. */
+    private Budget expensive = new Budget(2, 10);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Budget {
+
+        /** The sustained number of requests allowed per second, per client. */
+        private double requestsPerSecond;
+
+        /** The number of requests a client can make at once, after not making any for a while. */
+        private int burst;
+    }
+}
@@ -0,0 +1,26 @@
+package com.huwdunnit.snookeruprest.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Config properties for the request summary log, i.e. the one-line-per-request log of method, path, status and
+ * timing.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@ConfigurationProperties(prefix = "snookerup.request-logging")
+public class RequestLoggingProperties {
+
+    /** Whether request summaries are logged at all. */
+    private boolean enabled = true;
+
+    /** The fraction (between 0.0 and 1.0) of successful, fast requests to log. */
+    private double sampleRate = 0.1;
+
+    /** Requests taking at least this long are always logged, regardless of sampling. */
+    private Duration slowThreshold = Duration.ofMillis(500);
+}
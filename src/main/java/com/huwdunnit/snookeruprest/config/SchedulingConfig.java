@@ -0,0 +1,18 @@
+package com.huwdunnit.snookeruprest.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled (i.e. background) jobs.
+ *
+ * Jobs run on Spring Boot's scheduler, whose thread pool is sized by "spring.task.scheduling.pool.size". It's set to
+ * one thread per job in application.yaml, as the default is a single thread, which would leave every other job
+ * waiting while a long score archiving run is going.
+ *
+ * @author Huwdunnit
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
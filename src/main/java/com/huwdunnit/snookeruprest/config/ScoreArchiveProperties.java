@@ -0,0 +1,43 @@
+package com.huwdunnit.snookeruprest.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Config properties for archiving old scores out of MongoDB, into compressed files on local disk.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@ConfigurationProperties(prefix = "snookerup.scores.archive")
+public class ScoreArchiveProperties {
+
+    /** Whether old scores are archived, and archived scores are included in results for a user's scores. */
+    private boolean enabled = false;
+
+    /**
+     * Scores older than this are archived. Only whole months are archived, so the actual cut-off is the start of the
+     * month this age falls in.
+     */
+    private Duration maxAge = Duration.ofDays(180);
+
+    /** The directory archive files are stored in. */
+    private String directory = "score-archive";
+
+    /** The number of scores read from MongoDB per archiving batch. */
+    private int batchSize = 1000;
+
+    /**
+     * How long an instance has exclusive use of the archiving job, before another instance can take over (e.g. if the
+     * first instance stopped). Must be longer than archiving a batch takes.
+     */
+    private Duration lease = Duration.ofMinutes(10);
+
+    /** How long to wait for another change to a user's archive files to finish, before giving up. */
+    private Duration lockWait = Duration.ofSeconds(10);
+
+    /** How long a user's archive files stay locked if the instance changing them stops before unlocking them. */
+    private Duration lockLease = Duration.ofMinutes(1);
+}
@@ -0,0 +1,46 @@
+package com.huwdunnit.snookeruprest.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Config properties for how new scores are written to MongoDB.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@ConfigurationProperties(prefix = "snookerup.scores.ingest")
+public class ScoreIngestProperties {
+
+    /**
+     * Whether new scores are buffered and inserted in batches by a background writer, rather than inserted one at a
+     * time by each request.
+     */
+    private boolean writeBehind = false;
+
+    /** The maximum number of scores waiting to be written, before new scores are rejected. */
+    private int queueCapacity = 10000;
+
+    /** The maximum number of scores inserted in one batch. */
+    private int maxBatchSize = 500;
+
+    /** The longest the writer waits for a batch to fill up, after the first score in the batch arrives. */
+    private Duration maxBatchDelay = Duration.ofMillis(10);
+
+    /** How long a request waits for its score to be written, before giving up. */
+    private Duration submitTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long a request that's timed out keeps waiting once its score's batch has started being written, as it can
+     * no longer be cancelled. After this, the request fails, and the score may or may not have been written.
+     */
+    private Duration writeTimeout = Duration.ofSeconds(30);
+
+    /** The maximum number of recent idempotency keys (and the scores they added) kept in memory. */
+    private int idempotencyCacheSize = 10000;
+
+    /** How long recent idempotency keys are kept in memory. After this, retries are detected via the DB instead. */
+    private Duration idempotencyCacheTtl = Duration.ofMinutes(10);
+}
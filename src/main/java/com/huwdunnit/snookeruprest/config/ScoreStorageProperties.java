@@ -0,0 +1,45 @@
+package com.huwdunnit.snookeruprest.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+import java.time.Duration;
+
+/**
+ * Config properties for how the Score collection is stored in MongoDB.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@ConfigurationProperties(prefix = "snookerup.scores.storage")
+public class ScoreStorageProperties {
+
+    /** The storage mode for the Score collection. */
+    private StorageMode mode = StorageMode.STANDARD;
+
+    /** The bucketing granularity for a time-series collection. Scores are stored to the minute. */
+    private Granularity granularity = Granularity.MINUTES;
+
+    /**
+     * Whether to migrate an existing standard Score collection to a time-series collection on startup, when the mode
+     * is TIME_SERIES.
+     */
+    private boolean migrateOnStartup = false;
+
+    /** The number of documents copied per batch when migrating. */
+    private int migrationBatchSize = 1000;
+
+    /**
+     * How long an instance has exclusive use of a migration, before another instance can take over (e.g. if the first
+     * instance stopped). Must be longer than copying a batch takes.
+     */
+    private Duration migrationLease = Duration.ofMinutes(2);
+
+    public enum StorageMode {
+        /** A normal MongoDB collection. */
+        STANDARD,
+        /** A MongoDB time-series collection, with dateTime as the time field and userId as the meta field. */
+        TIME_SERIES
+    }
+}
@@ -0,0 +1,25 @@
+package com.huwdunnit.snookeruprest.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Config properties for sending reads from read-only endpoints to MongoDB secondaries.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@ConfigurationProperties(prefix = "snookerup.mongodb.secondary-reads")
+public class SecondaryReadsProperties {
+
+    /** Whether endpoints marked with @SecondaryReads read from secondaries. Otherwise, all reads use the primary. */
+    private boolean enabled = false;
+
+    /**
+     * The maximum replication lag of a secondary for it to be used. Secondaries lagging further behind are skipped,
+     * and if there are none, the primary is used. MongoDB requires this to be at least 90 seconds.
+     */
+    private Duration maxStaleness = Duration.ofSeconds(90);
+}
@@ -0,0 +1,34 @@
+package com.huwdunnit.snookeruprest.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Config properties for purging deleted users' data in the background.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@ConfigurationProperties(prefix = "snookerup.users.purge")
+public class UserPurgeProperties {
+
+    /** How long to wait after one purge run finishes before starting the next. */
+    private Duration interval = Duration.ofSeconds(10);
+
+    /** The maximum number of documents deleted per batch. */
+    private int batchSize = 500;
+
+    /** How long to pause between batches, so purging doesn't slow down requests. */
+    private Duration batchDelay = Duration.ofMillis(100);
+
+    /** The longest a single purge run can take, before it stops and carries on in the next run. */
+    private Duration maxRunDuration = Duration.ofSeconds(30);
+
+    /**
+     * How long an instance has exclusive use of a deletion it's purging, before another instance can take over (e.g.
+     * if the first instance stopped). Must be longer than a batch takes.
+     */
+    private Duration lease = Duration.ofMinutes(2);
+}
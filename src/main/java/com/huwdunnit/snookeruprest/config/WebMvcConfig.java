@@ -0,0 +1,53 @@
+package com.huwdunnit.snookeruprest.config;
+
+import com.huwdunnit.snookeruprest.concurrency.ConcurrencyLimitInterceptor;
+import com.huwdunnit.snookeruprest.concurrency.ConcurrencyLimits;
+import com.huwdunnit.snookeruprest.db.SecondaryReadsInterceptor;
+import com.huwdunnit.snookeruprest.guard.PageSizeInterceptor;
+import com.huwdunnit.snookeruprest.model.ResponseView;
+import com.huwdunnit.snookeruprest.ratelimit.RateLimitInterceptor;
+import com.huwdunnit.snookeruprest.ratelimit.RateLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Config for Spring MVC.
+ *
+ * @author Huwdunnit
+ */
+@Configuration
+@EnableConfigurationProperties({RateLimitProperties.class, ConcurrencyLimitProperties.class,
+        QueryGuardProperties.class, LiveScoreProperties.class})
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final SecondaryReadsProperties secondaryReadsProperties;
+
+    private final RateLimitProperties rateLimitProperties;
+
+    private final RateLimiter rateLimiter;
+
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
+
+    private final ConcurrencyLimits concurrencyLimits;
+
+    private final QueryGuardProperties queryGuardProperties;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Rate limit first, so rejected requests don't do anything else
+        registry.addInterceptor(new RateLimitInterceptor(rateLimitProperties, rateLimiter));
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(concurrencyLimitProperties, concurrencyLimits));
+        registry.addInterceptor(new PageSizeInterceptor(queryGuardProperties));
+        registry.addInterceptor(new SecondaryReadsInterceptor(secondaryReadsProperties));
+    }
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, ResponseView.class, ResponseView::fromParameter);
+    }
+}
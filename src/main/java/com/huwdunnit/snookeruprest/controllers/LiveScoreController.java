@@ -0,0 +1,38 @@
+package com.huwdunnit.snookeruprest.controllers;
+
+import com.huwdunnit.snookeruprest.live.LiveScoreBroadcaster;
+import com.huwdunnit.snookeruprest.live.LiveScoreFilter;
+import com.huwdunnit.snookeruprest.security.permissions.AdminPermission;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * REST Controller for streaming new scores to live dashboards.
+ *
+ * @author Huwdunnit
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+public class LiveScoreController {
+
+    private final LiveScoreBroadcaster liveScoreBroadcaster;
+
+    @GetMapping(path = "/api/v1/scores/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @AdminPermission
+    public SseEmitter streamScores(@RequestParam(name = "routineId") Optional<String> routineId,
+                                   @RequestParam(name = "userIds") Optional<List<String>> userIds) {
+        log.debug("streamScores routineId={}, userIds={}", routineId, userIds);
+
+        return liveScoreBroadcaster.subscribe(new LiveScoreFilter(routineId, Set.copyOf(userIds.orElse(List.of()))));
+    }
+}
@@ -0,0 +1,46 @@
+package com.huwdunnit.snookeruprest.controllers;
+
+import com.huwdunnit.snookeruprest.db.PracticeSessionRepository;
+import com.huwdunnit.snookeruprest.model.PracticeSession;
+import com.huwdunnit.snookeruprest.model.PracticeSessionListResponse;
+import com.huwdunnit.snookeruprest.security.permissions.UserOwnerOrAdminPermission;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import static com.huwdunnit.snookeruprest.controllers.UserController.USERS_URL;
+
+/**
+ * REST Controller for a user's practice sessions.
+ *
+ * @author Huwdunnit
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+public class PracticeSessionController {
+
+    private final PracticeSessionRepository practiceSessionRepository;
+
+    @GetMapping(USERS_URL + "/{userid}/sessions")
+    @ResponseStatus(HttpStatus.OK)
+    @UserOwnerOrAdminPermission
+    public PracticeSessionListResponse getSessionsForUser(@RequestParam(defaultValue = "0", name = "pageNumber") int pageNumber,
+                                                          @RequestParam(defaultValue = "50", name = "pageSize") int pageSize,
+                                                          @PathVariable(name = "userid") @NotBlank String userId) {
+        log.debug("getSessionsForUser pageNumber={}, pageSize={}, userId={}", pageNumber, pageSize, userId);
+
+        Page<PracticeSession> sessionsPage = practiceSessionRepository.findByUserIdOrderByEndDateTimeDesc(userId,
+                PageRequest.of(pageNumber, pageSize));
+        PracticeSessionListResponse sessionListResponse = new PracticeSessionListResponse(sessionsPage);
+
+        log.debug("Returning session list count={}, pageNumber={}, totalItems={}",
+                sessionListResponse.getSessions().size(), sessionListResponse.getPageNumber(),
+                sessionListResponse.getTotalItems());
+        return sessionListResponse;
+    }
+}
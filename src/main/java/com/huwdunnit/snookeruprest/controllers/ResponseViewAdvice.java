@@ -0,0 +1,48 @@
+package com.huwdunnit.snookeruprest.controllers;
+
+import com.huwdunnit.snookeruprest.model.ResponseView;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Arrays;
+
+/**
+ * Serializes responses from endpoints that take a ResponseView parameter using the Jackson view selected by the
+ * request, so only the fields in that view are returned.
+ *
+ * @author Huwdunnit
+ */
+@ControllerAdvice
+public class ResponseViewAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType) && returnType.getMethod() != null
+                && Arrays.asList(returnType.getMethod().getParameterTypes()).contains(ResponseView.class);
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        // Already validated when the request parameter was bound to the endpoint's ResponseView argument
+        String viewParameter = servletRequest.getServletRequest().getParameter(ResponseView.PARAMETER_NAME);
+        if (viewParameter == null) {
+            return;
+        }
+        ResponseView view = ResponseView.fromParameter(viewParameter);
+        if (view != ResponseView.FULL) {
+            bodyContainer.setSerializationView(view.getJsonView());
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.huwdunnit.snookeruprest.controllers;
 
 import com.huwdunnit.snookeruprest.exceptions.*;
+import com.huwdunnit.snookeruprest.logging.RateLimitedLogger;
 import com.huwdunnit.snookeruprest.model.errors.ErrorResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -12,6 +14,8 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.time.Duration;
+
 /**
  * A Spring Controller Advice for handling certain types of exceptions thrown by REST Controllers.
  *
@@ -22,9 +26,24 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 @RequiredArgsConstructor
 public class RestExceptionHandler extends ResponseEntityExceptionHandler {
 
+    /**
+     * Client errors are expected (e.g. from scrapers or buggy clients), so only log a limited number of them, and
+     * without stack traces.
+     */
+    private static final RateLimitedLogger CLIENT_ERROR_LOG = new RateLimitedLogger(log, 20, Duration.ofSeconds(10));
+
+    /**
+     * Requests are rejected for overload when there's already too much going on, so don't add to it by logging them
+     * all.
+     */
+    private static final RateLimitedLogger OVERLOAD_LOG = new RateLimitedLogger(log, 20, Duration.ofSeconds(10));
+
+    /** How long clients are told to wait before retrying a request rejected for overload, in seconds. */
+    private static final String OVERLOAD_RETRY_AFTER_SECONDS = "1";
+
     @ExceptionHandler({DuplicateKeyException.class})
     public ResponseEntity<Object> handleDuplicateKeyException(DuplicateKeyException ex, WebRequest request) {
-        log.error("handleDuplicateKeyException ex={}, request={}", ex, request);
+        CLIENT_ERROR_LOG.warn("handleDuplicateKeyException message={}, request={}", ex.getMessage(), request);
 
         ErrorResponse errorResponse = ErrorResponse.createDuplicateValueErrorResponse();
 
@@ -33,7 +52,7 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler({UserNotFoundException.class})
     public ResponseEntity<Object> handleUserNotFound(UserNotFoundException ex, WebRequest request) {
-        log.error("handleUserNotFound ex={}, request={}", ex, request);
+        CLIENT_ERROR_LOG.warn("handleUserNotFound message={}, request={}", ex.getMessage(), request);
 
         ErrorResponse errorResponse = ErrorResponse.createUserNotFoundErrorResponse();
 
@@ -42,7 +61,7 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler({RoutineNotFoundException.class})
     public ResponseEntity<Object> handleRoutineNotFound(RoutineNotFoundException ex, WebRequest request) {
-        log.error("handleRoutineNotFound ex={}, request={}", ex, request);
+        CLIENT_ERROR_LOG.warn("handleRoutineNotFound message={}, request={}", ex.getMessage(), request);
 
         ErrorResponse errorResponse = ErrorResponse.createRoutineNotFoundErrorResponse();
 
@@ -51,7 +70,7 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler({ScoreNotFoundException.class})
     public ResponseEntity<Object> handleScoreNotFound(ScoreNotFoundException ex, WebRequest request) {
-        log.error("handleScoreNotFound ex={}, request={}", ex, request);
+        CLIENT_ERROR_LOG.warn("handleScoreNotFound message={}, request={}", ex.getMessage(), request);
 
         ErrorResponse errorResponse = ErrorResponse.createScoreNotFoundErrorResponse();
 
@@ -60,7 +79,7 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler({RoutineForScoreNotFoundException.class})
     public ResponseEntity<Object> handleRoutineForScoreNotFound(RoutineForScoreNotFoundException ex, WebRequest request) {
-        log.error("handleRoutineForScoreNotFound ex={}, request={}", ex, request);
+        CLIENT_ERROR_LOG.warn("handleRoutineForScoreNotFound message={}, request={}", ex.getMessage(), request);
 
         ErrorResponse errorResponse = ErrorResponse.createRoutineForScoreNotFoundErrorResponse();
 
@@ -69,11 +88,81 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler({InvalidScoreFieldException.class})
     public ResponseEntity<Object> handleInvalidScoreField(InvalidScoreFieldException ex, WebRequest request) {
-        log.error("handleInvalidScoreField ex={}, request={}", ex, request);
+        CLIENT_ERROR_LOG.warn("handleInvalidScoreField message={}, request={}", ex.getMessage(), request);
 
         ErrorResponse errorResponse = ErrorResponse.createInvalidScoreFieldErrorResponse(ex.getFieldName());
 
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    @ExceptionHandler({IdempotencyKeyReusedException.class})
+    public ResponseEntity<Object> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex, WebRequest request) {
+        CLIENT_ERROR_LOG.warn("handleIdempotencyKeyReused message={}, request={}", ex.getMessage(), request);
+
+        ErrorResponse errorResponse = ErrorResponse.createIdempotencyKeyReusedErrorResponse();
+
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponse);
+    }
+
+    @ExceptionHandler({InvalidSyncTokenException.class})
+    public ResponseEntity<Object> handleInvalidSyncToken(InvalidSyncTokenException ex, WebRequest request) {
+        CLIENT_ERROR_LOG.warn("handleInvalidSyncToken message={}, request={}", ex.getMessage(), request);
+
+        ErrorResponse errorResponse = ErrorResponse.createInvalidSyncTokenErrorResponse();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler({InvalidRequestParameterException.class})
+    public ResponseEntity<Object> handleInvalidRequestParameter(InvalidRequestParameterException ex,
+                                                                WebRequest request) {
+        CLIENT_ERROR_LOG.warn("handleInvalidRequestParameter message={}, request={}", ex.getMessage(), request);
+
+        ErrorResponse errorResponse = ErrorResponse.createInvalidRequestParameterErrorResponse(ex.getParameterName());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler({QueryTooExpensiveException.class})
+    public ResponseEntity<Object> handleQueryTooExpensive(QueryTooExpensiveException ex, WebRequest request) {
+        CLIENT_ERROR_LOG.warn("handleQueryTooExpensive message={}, request={}", ex.getMessage(), request);
+
+        ErrorResponse errorResponse = ErrorResponse.createQueryTooExpensiveErrorResponse();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler({ScoreIngestUnavailableException.class})
+    public ResponseEntity<Object> handleScoreIngestUnavailable(ScoreIngestUnavailableException ex, WebRequest request) {
+        log.warn("handleScoreIngestUnavailable message={}, request={}", ex.getMessage(), request);
+
+        ErrorResponse errorResponse = ErrorResponse.createScoreIngestUnavailableErrorResponse();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
+    @ExceptionHandler({RateLimitExceededException.class})
+    public ResponseEntity<Object> handleRateLimitExceeded(RateLimitExceededException ex, WebRequest request) {
+        CLIENT_ERROR_LOG.warn("handleRateLimitExceeded message={}, request={}", ex.getMessage(), request);
+
+        ErrorResponse errorResponse = ErrorResponse.createRateLimitedErrorResponse();
+
+        // Retry-After is in whole seconds, so round up, so the client doesn't retry too soon
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler({ServiceOverloadedException.class})
+    public ResponseEntity<Object> handleServiceOverloaded(ServiceOverloadedException ex, WebRequest request) {
+        OVERLOAD_LOG.warn("handleServiceOverloaded message={}, request={}", ex.getMessage(), request);
+
+        ErrorResponse errorResponse = ErrorResponse.createServiceOverloadedErrorResponse();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, OVERLOAD_RETRY_AFTER_SECONDS)
+                .body(errorResponse);
+    }
+
 }
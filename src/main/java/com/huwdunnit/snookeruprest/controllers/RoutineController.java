@@ -1,14 +1,19 @@
 package com.huwdunnit.snookeruprest.controllers;
 
+import com.huwdunnit.snookeruprest.cache.RoutineCache;
 import com.huwdunnit.snookeruprest.db.IdGenerator;
 import com.huwdunnit.snookeruprest.db.RoutineRepository;
+import com.huwdunnit.snookeruprest.db.SecondaryReads;
+import com.huwdunnit.snookeruprest.events.CollectionChangedEvent;
 import com.huwdunnit.snookeruprest.exceptions.RoutineNotFoundException;
+import com.huwdunnit.snookeruprest.model.ResponseView;
 import com.huwdunnit.snookeruprest.model.Routine;
 import com.huwdunnit.snookeruprest.model.RoutineListResponse;
 import com.huwdunnit.snookeruprest.security.permissions.AdminPermission;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -31,50 +36,63 @@ public class RoutineController {
 
     private final RoutineRepository routineRepository;
 
+    private final RoutineCache routineCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     @AdminPermission
     public Routine addRoutine(@RequestBody Routine routineToAdd) {
-        log.debug("addRoutine routine={}", routineToAdd);
+        log.debug("addRoutine title={}", routineToAdd.getTitle());
 
         String generatedUserId = IdGenerator.createNewId();
         routineToAdd.setId(generatedUserId);
 
         Routine addedRoutine = routineRepository.insert(routineToAdd);
+        eventPublisher.publishEvent(new CollectionChangedEvent(RoutineCache.COLLECTION_NAME, addedRoutine.getId()));
 
-        log.debug("Returning new routine {}", addedRoutine);
+        log.debug("Returning new routine id={}", addedRoutine.getId());
         return addedRoutine;
     }
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
+    @SecondaryReads
     public RoutineListResponse getRoutines(@RequestParam(defaultValue = "0", name = "pageNumber") int pageNumber,
                                         @RequestParam(defaultValue = "50", name = "pageSize") int pageSize,
-                                              @RequestParam(name = "tags") Optional<List<String>> tags) {
-        log.debug("getRoutines pageNumber={}, pageSize={} tags={}", pageNumber, pageSize, tags);
+                                              @RequestParam(name = "tags") Optional<List<String>> tags,
+                                              @RequestParam(name = ResponseView.PARAMETER_NAME, defaultValue = "full") ResponseView view) {
+        log.debug("getRoutines pageNumber={}, pageSize={} tags={}, view={}", pageNumber, pageSize, tags, view);
 
         Pageable pageConstraints = PageRequest.of(pageNumber, pageSize);
         Page<Routine> routinesPage;
-        if (tags.isPresent()) {
+        if (view == ResponseView.SUMMARY) {
+            // Only read the fields in the summary view from the DB
+            routinesPage = tags.isPresent() ? routineRepository.findSummariesByTagsIn(pageConstraints, tags.get())
+                    : routineRepository.findAllSummaries(pageConstraints);
+        } else if (tags.isPresent()) {
             routinesPage = routineRepository.findByTagsIn(pageConstraints, tags.get());
         } else {
             routinesPage = routineRepository.findAll(pageConstraints);
         }
         RoutineListResponse routineListResponse = new RoutineListResponse(routinesPage);
 
-        log.debug("Returning routine list={}", routineListResponse);
+        log.debug("Returning routine list count={}, pageNumber={}, totalItems={}", routineListResponse.getRoutines().size(),
+                routineListResponse.getPageNumber(), routineListResponse.getTotalItems());
         return routineListResponse;
     }
 
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
+    @SecondaryReads
     public Routine getRoutineById(@PathVariable(name = "id") @NotBlank String routineId) {
         log.debug("getRoutineById routineId={}", routineId);
 
-        Routine routineResponse = routineRepository.findById(routineId).orElseThrow(
+        Routine routineResponse = routineCache.findById(routineId).orElseThrow(
                 () -> new RoutineNotFoundException("Routine not found, ID=" + routineId, routineId));
 
-        log.debug("Returning routine={}", routineResponse);
+        log.debug("Returning routine id={}", routineResponse.getId());
         return routineResponse;
     }
 }
@@ -0,0 +1,54 @@
+package com.huwdunnit.snookeruprest.controllers;
+
+import com.huwdunnit.snookeruprest.guard.MaxPageSize;
+import com.huwdunnit.snookeruprest.model.Routine;
+import com.huwdunnit.snookeruprest.model.RoutineListResponse;
+import com.huwdunnit.snookeruprest.search.RoutineSearchIndex;
+import com.huwdunnit.snookeruprest.search.TagMatch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * REST Controller for searching routines.
+ *
+ * @author Huwdunnit
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/routines/search")
+public class RoutineSearchController {
+
+    private final RoutineSearchIndex routineSearchIndex;
+
+    @GetMapping
+    @MaxPageSize(100)
+    @ResponseStatus(HttpStatus.OK)
+    public RoutineListResponse searchRoutines(@RequestParam(defaultValue = "0", name = "pageNumber") int pageNumber,
+                                              @RequestParam(defaultValue = "50", name = "pageSize") int pageSize,
+                                              @RequestParam(name = "q") Optional<String> query,
+                                              @RequestParam(name = "tags") Optional<List<String>> tags,
+                                              @RequestParam(defaultValue = "ANY", name = "tagMatch") TagMatch tagMatch) {
+        log.debug("searchRoutines pageNumber={}, pageSize={}, q={}, tags={}, tagMatch={}", pageNumber, pageSize, query,
+                tags, tagMatch);
+
+        List<Routine> matches = routineSearchIndex.search(query.orElse(""), tags.orElse(List.of()), tagMatch);
+
+        PageRequest pageConstraints = PageRequest.of(pageNumber, pageSize);
+        int fromIndex = (int) Math.min(pageConstraints.getOffset(), matches.size());
+        int toIndex = Math.min(fromIndex + pageSize, matches.size());
+        RoutineListResponse routineListResponse = new RoutineListResponse(
+                new PageImpl<>(matches.subList(fromIndex, toIndex), pageConstraints, matches.size()));
+
+        log.debug("Returning routine search results count={}, totalItems={}", routineListResponse.getRoutines().size(),
+                routineListResponse.getTotalItems());
+        return routineListResponse;
+    }
+}
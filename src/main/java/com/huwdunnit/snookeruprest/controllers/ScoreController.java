@@ -1,12 +1,28 @@
 package com.huwdunnit.snookeruprest.controllers;
 
+import com.huwdunnit.snookeruprest.archive.ArchivedScorePage;
+import com.huwdunnit.snookeruprest.archive.ScoreArchive;
+import com.huwdunnit.snookeruprest.bests.PersonalBestTable;
+import com.huwdunnit.snookeruprest.cache.RoutineCache;
+import com.huwdunnit.snookeruprest.concurrency.AdminQuery;
 import com.huwdunnit.snookeruprest.db.IdGenerator;
-import com.huwdunnit.snookeruprest.db.RoutineRepository;
+import com.huwdunnit.snookeruprest.db.OffsetPageable;
 import com.huwdunnit.snookeruprest.db.ScoreRepository;
+import com.huwdunnit.snookeruprest.db.SecondaryReads;
+import com.huwdunnit.snookeruprest.events.PersonalBestEvent;
+import com.huwdunnit.snookeruprest.events.ScoreAddedEvent;
+import com.huwdunnit.snookeruprest.events.ScoresDeletedEvent;
+import com.huwdunnit.snookeruprest.exceptions.IdempotencyKeyReusedException;
+import com.huwdunnit.snookeruprest.exceptions.InvalidRequestParameterException;
 import com.huwdunnit.snookeruprest.exceptions.InvalidScoreFieldException;
+import com.huwdunnit.snookeruprest.exceptions.QueryTooExpensiveException;
 import com.huwdunnit.snookeruprest.exceptions.RoutineForScoreNotFoundException;
 import com.huwdunnit.snookeruprest.exceptions.ScoreNotFoundException;
+import com.huwdunnit.snookeruprest.guard.QueryCostGuard;
+import com.huwdunnit.snookeruprest.ingest.IdempotencyKeyCache;
+import com.huwdunnit.snookeruprest.ingest.ScoreWriteBuffer;
 import com.huwdunnit.snookeruprest.model.*;
+import com.huwdunnit.snookeruprest.ratelimit.ExpensiveRequest;
 import com.huwdunnit.snookeruprest.security.Roles;
 import com.huwdunnit.snookeruprest.security.UserPrincipal;
 import com.huwdunnit.snookeruprest.security.permissions.AdminPermission;
@@ -15,9 +31,14 @@ import com.huwdunnit.snookeruprest.security.permissions.UserPermission;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -26,7 +47,11 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 import static com.huwdunnit.snookeruprest.controllers.UserController.USERS_URL;
 
@@ -42,19 +67,50 @@ public class ScoreController {
 
     private static final String SCORES_URL = "/api/v1/scores";
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /** Idempotency keys are 1 to 255 printable ASCII characters. */
+    private static final Pattern IDEMPOTENCY_KEY_PATTERN = Pattern.compile("\\p{Print}{1,255}");
+
+    /** The maximum number of scores deleted at once, when deleting a user's scores in bulk. */
+    static final int DELETE_BATCH_SIZE = 500;
+
+    /** The order of scores in the archive, which scores from the DB follow on from when results combine the two. */
+    static final Sort MERGED_SCORES_SORT = Sort.by("dateTime").and(Sort.by("_id"));
+
     private final ScoreRepository scoreRepository;
 
-    private final RoutineRepository routineRepository;
+    private final RoutineCache routineCache;
+
+    private final ScoreArchive scoreArchive;
+
+    private final ScoreWriteBuffer scoreWriteBuffer;
+
+    private final IdempotencyKeyCache idempotencyKeyCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final QueryCostGuard queryCostGuard;
+
+    private final PersonalBestTable personalBestTable;
 
     @PostMapping(SCORES_URL)
     @ResponseStatus(HttpStatus.CREATED)
     @PreAuthorize("hasRole('" + Roles.USER + "') && #scoreToAdd.getUserId() == principal.getId() || hasRole('" + Roles.ADMIN + "')")
-    public Score addScore(@RequestBody Score scoreToAdd) {
-        log.debug("addScore score={}", scoreToAdd);
+    public Score addScore(@RequestBody Score scoreToAdd,
+                          @RequestHeader(name = IDEMPOTENCY_KEY_HEADER) Optional<String> idempotencyKey) {
+        log.debug("addScore routineId={}, userId={}, idempotencyKey={}", scoreToAdd.getRoutineId(),
+                scoreToAdd.getUserId(), idempotencyKey);
+
+        if (idempotencyKey.isPresent() && (idempotencyKey.get().isBlank()
+                || !IDEMPOTENCY_KEY_PATTERN.matcher(idempotencyKey.get()).matches())) {
+            throw new InvalidRequestParameterException("Idempotency key must be 1 to 255 printable ASCII characters",
+                    IDEMPOTENCY_KEY_HEADER);
+        }
 
         // Get the routine from the DB so we can validate input fields on the score against the routine
         String routineId = scoreToAdd.getRoutineId();
-        Routine routine = routineRepository.findById(routineId).orElseThrow(
+        Routine routine = routineCache.findById(routineId).orElseThrow(
                 () -> new RoutineForScoreNotFoundException("Invalid routine ID " + routineId, routineId));
 
         // Validate params used on the score are allowed on the routine
@@ -74,21 +130,110 @@ public class ScoreController {
             throw new InvalidScoreFieldException("Field loop on score not allowed with selected routine", "loop");
         }
 
-        String generatedUserId = IdGenerator.createNewId();
-        scoreToAdd.setId(generatedUserId);
+        // Include the user ID in the score ID, so the score can be found on the right shard by its ID alone
+        String generatedScoreId = scoreToAdd.getUserId() == null ? IdGenerator.createNewId()
+                : IdGenerator.createNewScoreId(scoreToAdd.getUserId());
+        scoreToAdd.setId(generatedScoreId);
 
-        if (scoreToAdd.getDateTime() == null) {
+        boolean dateTimeRequested = scoreToAdd.getDateTime() != null;
+        if (!dateTimeRequested) {
             log.debug("Score to add didn't have date/time set, so adding it now");
             scoreToAdd.setDateTime(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES));
         }
 
-        Score addedScore = scoreRepository.insert(scoreToAdd);
+        Score addedScore;
+        if (idempotencyKey.isPresent()) {
+            // The client may be retrying, so return the score from the original request if there was one
+            String key = idempotencyKey.get();
+            String userId = scoreToAdd.getUserId();
+            scoreToAdd.setIdempotencyKey(key);
+            addedScore = idempotencyKeyCache.getOrAdd(userId, key, () -> addScoreIdempotently(scoreToAdd, userId, key));
+            if (!generatedScoreId.equals(addedScore.getId())
+                    && !isSameScore(scoreToAdd, addedScore, dateTimeRequested)) {
+                throw new IdempotencyKeyReusedException("Idempotency key already used for score id="
+                        + addedScore.getId(), key);
+            }
+        } else {
+            addedScore = insertScore(scoreToAdd);
+        }
+
+        log.debug("Returning new score id={}", addedScore.getId());
+        return addedScore;
+    }
+
+    /**
+     * Check a retried request is for the same score as the one already added with its idempotency key, rather than
+     * a different score that reused the key. The date/time is only compared if the retry set it, as otherwise it's
+     * the time of the retry.
+     */
+    private boolean isSameScore(Score requestedScore, Score existingScore, boolean compareDateTime) {
+        return requestedScore.getValue() == existingScore.getValue()
+                && Objects.equals(requestedScore.getRoutineId(), existingScore.getRoutineId())
+                && Objects.equals(requestedScore.getCushionLimit(), existingScore.getCushionLimit())
+                && Objects.equals(requestedScore.getColours(), existingScore.getColours())
+                && Objects.equals(requestedScore.getNumBalls(), existingScore.getNumBalls())
+                && requestedScore.isLoop() == existingScore.isLoop()
+                && (!compareDateTime || Objects.equals(requestedScore.getDateTime(), existingScore.getDateTime()));
+    }
+
+    private Score addScoreIdempotently(Score scoreToAdd, String userId, String idempotencyKey) {
+        Optional<Score> existingScore = scoreRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+        if (existingScore.isPresent()) {
+            log.debug("Score already added with idempotencyKey={}, id={}", idempotencyKey, existingScore.get().getId());
+            return getReplayedScore(existingScore.get());
+        }
+
+        try {
+            return insertScore(scoreToAdd);
+        } catch (DuplicateKeyException ex) {
+            // Another request with the same key (e.g. on another node) added the score after we checked
+            return getReplayedScore(scoreRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .orElseThrow(() -> ex));
+        }
+    }
+
+    /**
+     * Get a score added by an earlier request with the same idempotency key, flagged as a personal best if it still
+     * is one. The request that added the score published its events, so they aren't published again.
+     */
+    private Score getReplayedScore(Score existingScore) {
+        try {
+            existingScore.setPersonalBest(personalBestTable.isPersonalBest(existingScore));
+        } catch (RuntimeException ex) {
+            log.error("Failed to check whether score id={} is a personal best", existingScore.getId(), ex);
+        }
+        return existingScore;
+    }
+
+    private Score insertScore(Score scoreToAdd) {
+        Score addedScore;
+        if (scoreWriteBuffer.isEnabled()) {
+            // Batched with other new scores, but still only returns once the score has been written
+            addedScore = scoreWriteBuffer.insert(scoreToAdd);
+        } else {
+            addedScore = scoreRepository.insert(scoreToAdd);
+        }
 
-        log.debug("Returning new score {}", addedScore);
+        // The score's stored, so the steps after this don't fail the request. The response just leaves out
+        // personalBest if it couldn't be worked out.
+        try {
+            addedScore.setPersonalBest(personalBestTable.recordScore(addedScore));
+        } catch (RuntimeException ex) {
+            log.error("Failed to record score id={} in personal bests", addedScore.getId(), ex);
+        }
+        try {
+            eventPublisher.publishEvent(new ScoreAddedEvent(addedScore));
+            if (Boolean.TRUE.equals(addedScore.getPersonalBest())) {
+                eventPublisher.publishEvent(new PersonalBestEvent(addedScore));
+            }
+        } catch (RuntimeException ex) {
+            log.error("Failed to handle events for added score id={}", addedScore.getId(), ex);
+        }
         return addedScore;
     }
 
     @GetMapping(USERS_URL + "/{userid}/scores")
+    @ExpensiveRequest
     @ResponseStatus(HttpStatus.OK)
     @UserOwnerOrAdminPermission
     public ScoreListResponse getScoresForUser(@RequestParam(defaultValue = "0", name = "pageNumber") int pageNumber,
@@ -100,12 +245,18 @@ public class ScoreController {
                                        @RequestParam(name = "cushionLimit") Optional<Integer> cushionLimit,
                                        @RequestParam(name = "colours") Optional<String> colours,
                                        @RequestParam(name = "numBalls") Optional<Integer> numBalls,
-                                       @RequestParam(name = "loop") Optional<Boolean> loop) {
+                                       @RequestParam(name = "loop") Optional<Boolean> loop,
+                                       @RequestParam(name = ResponseView.PARAMETER_NAME, defaultValue = "full") ResponseView view) {
+        // The view is applied when the response is serialized (see ResponseViewAdvice). The user ID, which is the only
+        // field left out of the summary view, is never read from the DB for a user's scores anyway.
         return getScoresCommon(pageNumber, pageSize, from, to, routineId, Optional.of(userId), cushionLimit, colours, numBalls, loop);
     }
 
     @GetMapping(SCORES_URL)
+    @ExpensiveRequest
+    @AdminQuery
     @ResponseStatus(HttpStatus.OK)
+    @SecondaryReads
     @AdminPermission
     public ScoreListResponse getScores(@RequestParam(defaultValue = "0", name = "pageNumber") int pageNumber,
                                        @RequestParam(defaultValue = "50", name = "pageSize") int pageSize,
@@ -116,7 +267,20 @@ public class ScoreController {
                                        @RequestParam(name = "colours") Optional<String> colours,
                                        @RequestParam(name = "numBalls") Optional<Integer> numBalls,
                                        @RequestParam(name = "loop") Optional<Boolean> loop) {
-        return getScoresCommon(pageNumber, pageSize, from, to, routineId, Optional.empty(), cushionLimit, colours, numBalls, loop);
+        // Without a user ID, none of the filters can use an index, so this (and counting the results) scans the whole
+        // collection. Unless it's limited to a date range, only allow that on a small collection. Either way, the
+        // queries have a time limit.
+        queryCostGuard.checkUnindexedScan(Score.class, from.isPresent() || to.isPresent());
+
+        try {
+            return getScoresCommon(pageNumber, pageSize, from, to, routineId, Optional.empty(), cushionLimit, colours,
+                    numBalls, loop);
+        } catch (DataAccessException ex) {
+            if (QueryCostGuard.isTimeLimitExceeded(ex)) {
+                throw new QueryTooExpensiveException("Query across all users' scores exceeded its time limit");
+            }
+            throw ex;
+        }
     }
 
     private ScoreListResponse getScoresCommon(int pageNumber,
@@ -129,13 +293,48 @@ public class ScoreController {
                                               Optional<String> colours,
                                               Optional<Integer> numBalls,
                                               Optional<Boolean> loop) {
-                log.debug("getScores pageNumber={}, pageSize={} from={} to={} routineId={} userId={} cushionLimit={} colours={} numBalls={} loop={}",
+        log.debug("getScores pageNumber={}, pageSize={} from={} to={} routineId={} userId={} cushionLimit={} colours={} numBalls={} loop={}",
                 pageNumber, pageSize, from, to, routineId, userId, cushionLimit, colours, numBalls, loop);
 
-
         Pageable pageConstraints = PageRequest.of(pageNumber, pageSize);
         Page<Score> scoresPage;
 
+        if (userId.isPresent() && scoreArchive.reachesIntoArchive(from)) {
+            // Querying a user's scores back past the archive cut-off, so some may be in the archive rather than the DB
+            scoresPage = findLiveAndArchivedScores(pageConstraints, from, to, routineId, userId.get(), cushionLimit,
+                    colours, numBalls, loop);
+        } else {
+            scoresPage = findLiveScores(pageConstraints, from, to, routineId, userId, cushionLimit, colours, numBalls,
+                    loop);
+        }
+
+        ScoreListResponse scoreListResponse = new ScoreListResponse(scoresPage);
+
+        log.debug("Returning score list count={}, pageNumber={}, totalItems={}", scoreListResponse.getScores().size(),
+                scoreListResponse.getPageNumber(), scoreListResponse.getTotalItems());
+        return scoreListResponse;
+    }
+
+    /**
+     * Get a page of scores from the DB, i.e. not including archived scores.
+     */
+    private Page<Score> findLiveScores(Pageable pageConstraints,
+                                       Optional<LocalDateTime> from,
+                                       Optional<LocalDateTime> to,
+                                       Optional<String> routineId,
+                                       Optional<String> userId,
+                                       Optional<Integer> cushionLimit,
+                                       Optional<String> colours,
+                                       Optional<Integer> numBalls,
+                                       Optional<Boolean> loop) {
+        if (userId.isPresent()) {
+            return findLiveScoresForUser(pageConstraints, from, to, routineId, userId.get(), cushionLimit, colours,
+                    numBalls, loop);
+        }
+
+        // Querying across all users. If the score collection is sharded, this is the only query sent to every shard.
+        Page<Score> scoresPage;
+
         if (from.isPresent() && to.isPresent()) {
             // Querying for scores between a date range
             scoresPage = scoreRepository.findBetweenDatesWithOptionalRoutineIdAndUserIdAndScoreParams(pageConstraints,
@@ -178,10 +377,104 @@ public class ScoreController {
                     loop);
         }
 
-        ScoreListResponse scoreListResponse = new ScoreListResponse(scoresPage);
+        return scoresPage;
+    }
 
-        log.debug("Returning score list={}", scoreListResponse);
-        return scoreListResponse;
+    /**
+     * Get a page of a user's scores from the DB. The user ID is matched at the top level of each query, so if the
+     * score collection is sharded, the query is only sent to the shard holding the user's scores.
+     */
+    private Page<Score> findLiveScoresForUser(Pageable pageConstraints,
+                                              Optional<LocalDateTime> from,
+                                              Optional<LocalDateTime> to,
+                                              Optional<String> routineId,
+                                              String userId,
+                                              Optional<Integer> cushionLimit,
+                                              Optional<String> colours,
+                                              Optional<Integer> numBalls,
+                                              Optional<Boolean> loop) {
+        Page<Score> scoresPage;
+
+        if (from.isPresent() && to.isPresent()) {
+            // Querying for scores between a date range
+            scoresPage = scoreRepository.findByUserIdBetweenDatesWithOptionalRoutineIdAndScoreParams(pageConstraints,
+                    userId,
+                    from.get(),
+                    to.get(),
+                    routineId,
+                    cushionLimit,
+                    colours,
+                    numBalls,
+                    loop);
+        } else if (from.isPresent()) {
+            // Querying for scores from a particular date
+            scoresPage = scoreRepository.findByUserIdFromDateWithOptionalRoutineIdAndScoreParams(pageConstraints,
+                    userId,
+                    from.get(),
+                    routineId,
+                    cushionLimit,
+                    colours,
+                    numBalls,
+                    loop);
+        } else if (to.isPresent()) {
+            // Querying for scores up to a particular date
+            scoresPage = scoreRepository.findByUserIdToDateWithOptionalRoutineIdAndScoreParams(pageConstraints,
+                    userId,
+                    to.get(),
+                    routineId,
+                    cushionLimit,
+                    colours,
+                    numBalls,
+                    loop);
+        } else {
+            // Querying for scores without a date range
+            scoresPage = scoreRepository.findByUserIdWithOptionalRoutineIdAndScoreParams(pageConstraints,
+                    userId,
+                    routineId,
+                    cushionLimit,
+                    colours,
+                    numBalls,
+                    loop);
+        }
+
+        // The user ID isn't read from the DB, as it's the same for every score
+        scoresPage.getContent().forEach(score -> score.setUserId(userId));
+        return scoresPage;
+    }
+
+    /**
+     * Get a page of a user's scores, combining archived scores and scores in the DB. Archived scores are always older
+     * than scores in the DB, so they come first in the combined results. Both are in date/time order (then ID order,
+     * for scores at the same time), so pages follow on from each other across the boundary between them.
+     */
+    private Page<Score> findLiveAndArchivedScores(Pageable pageConstraints,
+                                                  Optional<LocalDateTime> from,
+                                                  Optional<LocalDateTime> to,
+                                                  Optional<String> routineId,
+                                                  String userId,
+                                                  Optional<Integer> cushionLimit,
+                                                  Optional<String> colours,
+                                                  Optional<Integer> numBalls,
+                                                  Optional<Boolean> loop) {
+        int pageSize = pageConstraints.getPageSize();
+        long offset = pageConstraints.getOffset();
+        ArchivedScorePage archivedScores = scoreArchive.findScorePage(userId, from, to, routineId, cushionLimit,
+                colours, numBalls, loop, offset, pageSize);
+        int numFromArchive = archivedScores.scores().size();
+        List<Score> scores = new ArrayList<>(pageSize);
+        scores.addAll(archivedScores.scores());
+
+        // Fill the rest of the page from the DB. If the page is already full, still query (for one score) to get the
+        // total number of scores in the DB.
+        int numFromDb = pageSize - numFromArchive;
+        long dbOffset = Math.max(0, offset - archivedScores.totalCount());
+        Page<Score> dbScoresPage = findLiveScores(new OffsetPageable(dbOffset, Math.max(1, numFromDb),
+                MERGED_SCORES_SORT), from, to, routineId, Optional.of(userId), cushionLimit, colours, numBalls, loop);
+        if (numFromDb > 0) {
+            scores.addAll(dbScoresPage.getContent());
+        }
+
+        return new PageImpl<>(scores, pageConstraints, archivedScores.totalCount() + dbScoresPage.getTotalElements());
     }
 
     @GetMapping(SCORES_URL + "/{id}")
@@ -193,16 +486,23 @@ public class ScoreController {
 
         Score scoreResponse;
         if (userPrincipal.isAdmin()) {
-            // User is an admin, so just get the score by ID
-            scoreResponse = scoreRepository.findById(scoreId).orElseThrow(
+            // User is an admin, so get the score by ID. Newer score IDs include the user ID (i.e. the shard key), so
+            // use it to avoid looking on every shard.
+            Optional<String> scoreUserId = IdGenerator.getUserIdFromScoreId(scoreId);
+            Optional<Score> scoreLookup = scoreUserId.isPresent()
+                    ? scoreRepository.findByIdAndUserId(scoreId, scoreUserId.get())
+                    : scoreRepository.findById(scoreId);
+            scoreResponse = scoreLookup.or(() -> scoreArchive.findScoreById(scoreId)).orElseThrow(
                     () -> new ScoreNotFoundException("Score not found, ID=" + scoreId, scoreId));
         } else {
             // User is not an admin, so only return the score if the user ID matches the principal's ID
-            scoreResponse = scoreRepository.findByIdAndUserId(scoreId, userPrincipal.getId()).orElseThrow(
-                    () -> new ScoreNotFoundException("Score not found, ID=" + scoreId, scoreId));
+            scoreResponse = scoreRepository.findByIdAndUserId(scoreId, userPrincipal.getId())
+                    .or(() -> scoreArchive.findScoreById(scoreId)
+                            .filter(score -> userPrincipal.getId().equals(score.getUserId())))
+                    .orElseThrow(() -> new ScoreNotFoundException("Score not found, ID=" + scoreId, scoreId));
         }
 
-        log.debug("Returning score={}", scoreResponse);
+        log.debug("Returning score id={}", scoreResponse.getId());
         return scoreResponse;
     }
 
@@ -213,12 +513,85 @@ public class ScoreController {
                                 @AuthenticationPrincipal UserPrincipal userPrincipal) {
         log.debug("deleteScoreById scoreId={}", scoreId);
 
-        if (userPrincipal.isAdmin()) {
-            // User is an admin, so just delete the score by ID
+        List<Score> deletedScores;
+        Optional<String> scoreUserId = IdGenerator.getUserIdFromScoreId(scoreId);
+        if (userPrincipal.isAdmin() && scoreUserId.isPresent()) {
+            // User is an admin, and the score ID includes the user ID (i.e. the shard key), so delete by both
+            deletedScores = scoreRepository.deleteByIdAndUserId(scoreId, scoreUserId.get());
+        } else if (userPrincipal.isAdmin()) {
+            // User is an admin, so just delete the score by ID. Get it first, so we know which user it belonged to.
+            Optional<Score> scoreToDelete = scoreRepository.findById(scoreId);
             scoreRepository.deleteById(scoreId);
+            deletedScores = scoreToDelete.map(List::of).orElse(List.of());
         } else {
             // User is not an admin, so only delete the score if the user ID matches the principal's ID
-            scoreRepository.deleteByIdAndUserId(scoreId, userPrincipal.getId());
+            deletedScores = scoreRepository.deleteByIdAndUserId(scoreId, userPrincipal.getId());
+        }
+
+        // Also look in the archive, even if the score was deleted from the DB, in case it was archived at the same
+        // time (the archiver removes scores deleted before it archived them, but not after)
+        Optional<Score> deletedArchivedScore = scoreArchive.deleteScoreById(scoreId,
+                userPrincipal.isAdmin() ? Optional.empty() : Optional.of(userPrincipal.getId()));
+        if (deletedArchivedScore.isPresent() && (deletedScores == null || deletedScores.isEmpty())) {
+            deletedScores = List.of(deletedArchivedScore.get());
+        }
+
+        if (deletedScores != null && !deletedScores.isEmpty()) {
+            eventPublisher.publishEvent(new ScoresDeletedEvent(deletedScores));
+        }
+    }
+
+    @DeleteMapping(USERS_URL + "/{userid}/scores")
+    @ExpensiveRequest
+    @ResponseStatus(HttpStatus.OK)
+    @UserOwnerOrAdminPermission
+    public ScoresDeletedResponse deleteScoresForUser(@RequestParam(name = "from") @DateTimeFormat(pattern = Score.DATE_FORMAT) Optional<LocalDateTime> from,
+                                                     @RequestParam(name = "to") @DateTimeFormat(pattern = Score.DATE_FORMAT) Optional<LocalDateTime> to,
+                                                     @PathVariable(name = "userid") @NotBlank String userId,
+                                                     @RequestParam(name = "routineId") Optional<String> routineId,
+                                                     @RequestParam(name = "cushionLimit") Optional<Integer> cushionLimit,
+                                                     @RequestParam(name = "colours") Optional<String> colours,
+                                                     @RequestParam(name = "numBalls") Optional<Integer> numBalls,
+                                                     @RequestParam(name = "loop") Optional<Boolean> loop) {
+        log.debug("deleteScoresForUser from={} to={} userId={} routineId={} cushionLimit={} colours={} numBalls={} loop={}",
+                from, to, userId, routineId, cushionLimit, colours, numBalls, loop);
+
+        // Scores are deleted in batches, so no single query has to match or remove all of a user's scores.
+        Pageable batch = PageRequest.of(0, DELETE_BATCH_SIZE);
+        long deletedCount = 0;
+        List<Score> batchScores;
+        do {
+            if (from.isPresent() && to.isPresent()) {
+                batchScores = scoreRepository.findToDeleteByUserIdBetweenDatesWithOptionalRoutineIdAndScoreParams(batch,
+                        userId, from.get(), to.get(), routineId, cushionLimit, colours, numBalls, loop);
+            } else if (from.isPresent()) {
+                batchScores = scoreRepository.findToDeleteByUserIdFromDateWithOptionalRoutineIdAndScoreParams(batch,
+                        userId, from.get(), routineId, cushionLimit, colours, numBalls, loop);
+            } else if (to.isPresent()) {
+                batchScores = scoreRepository.findToDeleteByUserIdToDateWithOptionalRoutineIdAndScoreParams(batch,
+                        userId, to.get(), routineId, cushionLimit, colours, numBalls, loop);
+            } else {
+                batchScores = scoreRepository.findToDeleteByUserIdWithOptionalRoutineIdAndScoreParams(batch,
+                        userId, routineId, cushionLimit, colours, numBalls, loop);
+            }
+            if (batchScores.isEmpty()) {
+                break;
+            }
+
+            deletedCount += scoreRepository.deleteByUserIdAndIdIn(userId,
+                    batchScores.stream().map(Score::getId).toList());
+            // Record each batch as it's deleted, so the change log is up to date even if a later batch fails
+            eventPublisher.publishEvent(new ScoresDeletedEvent(batchScores));
+        } while (batchScores.size() == DELETE_BATCH_SIZE);
+
+        // Then archived scores, a month at a time. These are deleted after the DB, so a score archived while its DB
+        // copy was being deleted is still found in the archive (or removed by the archiver, if archived after this).
+        if (scoreArchive.reachesIntoArchive(from)) {
+            deletedCount += scoreArchive.deleteScores(userId, from, to, routineId, cushionLimit, colours, numBalls,
+                    loop, monthScores -> eventPublisher.publishEvent(new ScoresDeletedEvent(monthScores)));
         }
+
+        log.debug("Deleted {} scores for userId={}", deletedCount, userId);
+        return new ScoresDeletedResponse(deletedCount);
     }
 }
@@ -0,0 +1,59 @@
+package com.huwdunnit.snookeruprest.controllers;
+
+import com.huwdunnit.snookeruprest.exceptions.InvalidSyncTokenException;
+import com.huwdunnit.snookeruprest.model.ScoreChangesResponse;
+import com.huwdunnit.snookeruprest.security.permissions.UserOwnerOrAdminPermission;
+import com.huwdunnit.snookeruprest.sync.ScoreChangeLog;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+import static com.huwdunnit.snookeruprest.controllers.UserController.USERS_URL;
+
+/**
+ * REST Controller for syncing changes to a user's scores.
+ *
+ * @author Huwdunnit
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+public class ScoreSyncController {
+
+    private static final int MAX_CHANGES_PER_REQUEST = 1000;
+
+    private final ScoreChangeLog scoreChangeLog;
+
+    @GetMapping(USERS_URL + "/{userid}/scores/changes")
+    @ResponseStatus(HttpStatus.OK)
+    @UserOwnerOrAdminPermission
+    public ScoreChangesResponse getScoreChanges(@PathVariable(name = "userid") @NotBlank String userId,
+                                                @RequestParam(name = "since") Optional<String> since,
+                                                @RequestParam(defaultValue = "500", name = "limit") int limit) {
+        log.debug("getScoreChanges userId={}, since={}, limit={}", userId, since, limit);
+
+        Optional<Long> sinceSequence = since.map(this::parseSyncToken);
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_CHANGES_PER_REQUEST));
+        ScoreChangesResponse changesResponse = scoreChangeLog.getChangesSince(userId, sinceSequence, boundedLimit);
+
+        log.debug("Returning score changes count={}, nextToken={}, hasMore={}", changesResponse.getChanges().size(),
+                changesResponse.getNextToken(), changesResponse.isHasMore());
+        return changesResponse;
+    }
+
+    private long parseSyncToken(String token) {
+        try {
+            long sequence = Long.parseLong(token);
+            if (sequence < 0) {
+                throw new InvalidSyncTokenException("Invalid sync token " + token, token);
+            }
+            return sequence;
+        } catch (NumberFormatException ex) {
+            throw new InvalidSyncTokenException("Invalid sync token " + token, token);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.huwdunnit.snookeruprest.controllers;
+
+import com.huwdunnit.snookeruprest.cache.RoutineCache;
+import com.huwdunnit.snookeruprest.exceptions.InvalidRequestParameterException;
+import com.huwdunnit.snookeruprest.exceptions.RoutineNotFoundException;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.ScoreTrend;
+import com.huwdunnit.snookeruprest.model.ScoreTrendResponse;
+import com.huwdunnit.snookeruprest.ratelimit.ExpensiveRequest;
+import com.huwdunnit.snookeruprest.security.permissions.UserOwnerOrAdminPermission;
+import com.huwdunnit.snookeruprest.trend.ScoreTrendService;
+import com.huwdunnit.snookeruprest.trend.TrendInterval;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static com.huwdunnit.snookeruprest.controllers.UserController.USERS_URL;
+
+/**
+ * REST Controller for trends in a user's scores.
+ *
+ * @author Huwdunnit
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+public class ScoreTrendController {
+
+    static final int MAX_WINDOW = 366;
+
+    private final RoutineCache routineCache;
+
+    private final ScoreTrendService scoreTrendService;
+
+    @GetMapping(USERS_URL + "/{userid}/routines/{routineid}/trend")
+    @ExpensiveRequest
+    @ResponseStatus(HttpStatus.OK)
+    @UserOwnerOrAdminPermission
+    public ScoreTrendResponse getScoreTrend(@PathVariable(name = "userid") @NotBlank String userId,
+                                            @PathVariable(name = "routineid") @NotBlank String routineId,
+                                            @RequestParam(name = "from") @DateTimeFormat(pattern = Score.DATE_FORMAT) Optional<LocalDateTime> from,
+                                            @RequestParam(name = "to") @DateTimeFormat(pattern = Score.DATE_FORMAT) Optional<LocalDateTime> to,
+                                            @RequestParam(defaultValue = "DAY", name = "interval") TrendInterval interval,
+                                            @RequestParam(defaultValue = "7", name = "window") int window) {
+        log.debug("getScoreTrend userId={}, routineId={}, from={}, to={}, interval={}, window={}", userId, routineId,
+                from, to, interval, window);
+
+        if (window < 1 || window > MAX_WINDOW) {
+            throw new InvalidRequestParameterException("Window must be between 1 and " + MAX_WINDOW, "window");
+        }
+        routineCache.findById(routineId).orElseThrow(
+                () -> new RoutineNotFoundException("Routine not found, ID=" + routineId, routineId));
+
+        List<ScoreTrend> trends = scoreTrendService.getTrends(userId, routineId, from, to, interval, window);
+
+        log.debug("Returning {} score trends", trends.size());
+        return new ScoreTrendResponse(userId, routineId, interval, window, trends);
+    }
+}
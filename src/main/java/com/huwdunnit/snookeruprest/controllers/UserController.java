@@ -1,15 +1,24 @@
 package com.huwdunnit.snookeruprest.controllers;
 
+import com.huwdunnit.snookeruprest.cache.UserDetailsCache;
+import com.huwdunnit.snookeruprest.concurrency.AdminQuery;
 import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.db.SecondaryReads;
+import com.huwdunnit.snookeruprest.db.UserDeletionRepository;
 import com.huwdunnit.snookeruprest.db.UserRepository;
+import com.huwdunnit.snookeruprest.events.CollectionChangedEvent;
 import com.huwdunnit.snookeruprest.exceptions.UserNotFoundException;
 import com.huwdunnit.snookeruprest.model.User;
+import com.huwdunnit.snookeruprest.model.UserDeletion;
 import com.huwdunnit.snookeruprest.model.UserListResponse;
+import com.huwdunnit.snookeruprest.purge.UserDataPurger;
+import com.huwdunnit.snookeruprest.ratelimit.ExpensiveRequest;
 import com.huwdunnit.snookeruprest.security.permissions.AdminPermission;
 import com.huwdunnit.snookeruprest.security.permissions.UserOwnerOrAdminPermission;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -34,12 +43,19 @@ public class UserController {
 
     private final UserRepository userRepository;
 
+    private final UserDeletionRepository userDeletionRepository;
+
     private final PasswordEncoder passwordEncoder;
 
+    private final UserDataPurger userDataPurger;
+
+    private final ApplicationEventPublisher eventPublisher;
+
     @PostMapping
+    @ExpensiveRequest
     @ResponseStatus(HttpStatus.CREATED)
     public User addUser(@RequestBody User userToAdd) {
-        log.debug("addUser user={}", userToAdd);
+        log.debug("addUser email={}", userToAdd.getEmail());
 
         // Don't allow users to create themselves as admin users
         userToAdd.setAdmin(false);
@@ -55,12 +71,14 @@ public class UserController {
         // Null out the password before we return it to the user
         addedUser.setPassword(null);
 
-        log.debug("Returning new user {}", addedUser);
+        log.debug("Returning new user id={}", addedUser.getId());
         return addedUser;
     }
 
     @GetMapping
+    @AdminQuery
     @ResponseStatus(HttpStatus.OK)
+    @SecondaryReads
     @AdminPermission
     public UserListResponse getAllUsers(@RequestParam(defaultValue = "0", name = "pageNumber") int pageNumber,
                                         @RequestParam(defaultValue = "50", name = "pageSize") int pageSize) {
@@ -70,7 +88,8 @@ public class UserController {
         Page<User> usersPage = userRepository.findAll(pageConstraints);
         UserListResponse userListResponse = new UserListResponse(usersPage);
 
-        log.debug("Returning user list={}", userListResponse);
+        log.debug("Returning user list count={}, pageNumber={}, totalItems={}", userListResponse.getUsers().size(),
+                userListResponse.getPageNumber(), userListResponse.getTotalItems());
         return userListResponse;
     }
 
@@ -80,13 +99,47 @@ public class UserController {
     public User getUserById(@PathVariable(name = "id") @NotBlank String userId) {
         log.debug("getUserById userId={}", userId);
 
-        User userResponse = userRepository.findById(userId).orElseThrow(
+        User userResponse = userRepository.findById(userId).filter(user -> !user.isDeleted()).orElseThrow(
                 () -> new UserNotFoundException("User not found, ID=" + userId, userId));
 
         // Null out the password before we return it to the user
         userResponse.setPassword(null);
 
-        log.debug("Returning user={}", userResponse);
+        log.debug("Returning user id={}", userResponse.getId());
         return userResponse;
     }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @UserOwnerOrAdminPermission
+    public UserDeletion deleteUser(@PathVariable(name = "id") @NotBlank String userId) {
+        log.debug("deleteUser userId={}", userId);
+
+        User userToDelete = userRepository.findById(userId).orElseThrow(
+                () -> new UserNotFoundException("User not found, ID=" + userId, userId));
+
+        // Mark the user deleted straight away, so they can no longer log in. Their data is purged in the background.
+        if (!userToDelete.isDeleted()) {
+            userToDelete.setDeleted(true);
+            userRepository.save(userToDelete);
+            eventPublisher.publishEvent(new CollectionChangedEvent(UserDetailsCache.COLLECTION_NAME, userId));
+        }
+        UserDeletion deletion = userDataPurger.requestDeletion(userId);
+
+        log.debug("Returning user deletion userId={}, status={}", deletion.getUserId(), deletion.getStatus());
+        return deletion;
+    }
+
+    @GetMapping("/{id}/deletion")
+    @ResponseStatus(HttpStatus.OK)
+    @AdminPermission
+    public UserDeletion getUserDeletion(@PathVariable(name = "id") @NotBlank String userId) {
+        log.debug("getUserDeletion userId={}", userId);
+
+        UserDeletion deletion = userDeletionRepository.findById(userId).orElseThrow(
+                () -> new UserNotFoundException("User deletion not found, ID=" + userId, userId));
+
+        log.debug("Returning user deletion userId={}, status={}", deletion.getUserId(), deletion.getStatus());
+        return deletion;
+    }
 }
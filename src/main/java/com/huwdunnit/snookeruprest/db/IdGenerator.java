@@ -1,5 +1,6 @@
 package com.huwdunnit.snookeruprest.db;
 
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -9,7 +10,34 @@ import java.util.UUID;
  */
 public class IdGenerator {
 
+    /** Separates the user ID from the rest of a score ID. Generated IDs never contain it. */
+    private static final char SCORE_ID_SEPARATOR = '-';
+
     public static String createNewId() {
         return UUID.randomUUID().toString().replace("-", "");
     }
+
+    /**
+     * Create a new ID for a score, which includes the ID of the user the score belongs to. This means a score can be
+     * looked up by its ID alone using the shard key (i.e. user ID), without broadcasting to every shard.
+     * @param userId The ID of the user the score belongs to
+     * @return The new score ID
+     */
+    public static String createNewScoreId(String userId) {
+        return userId + SCORE_ID_SEPARATOR + createNewId();
+    }
+
+    /**
+     * Get the ID of the user a score belongs to, from the score's ID.
+     * @param scoreId The score ID
+     * @return An Optional containing the user ID, or empty if the score ID doesn't include it (i.e. scores added
+     *         before score IDs included the user ID)
+     */
+    public static Optional<String> getUserIdFromScoreId(String scoreId) {
+        int separatorIndex = scoreId.lastIndexOf(SCORE_ID_SEPARATOR);
+        if (separatorIndex <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(scoreId.substring(0, separatorIndex));
+    }
 }
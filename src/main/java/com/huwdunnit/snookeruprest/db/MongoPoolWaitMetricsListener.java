@@ -0,0 +1,63 @@
+package com.huwdunnit.snookeruprest.db;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long operations wait to check out a connection from the MongoDB connection pool, and how often they
+ * give up waiting. Pool size, checked-out and wait queue metrics are already recorded by Spring Boot's
+ * auto-configured pool listener (mongodb.driver.pool.*).
+ *
+ * @author Huwdunnit
+ */
+public class MongoPoolWaitMetricsListener implements ConnectionPoolListener {
+
+    private static final String SERVER_ADDRESS_TAG = "server.address";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<ServerId, Timer> waitTimers = new ConcurrentHashMap<>();
+
+    private final Map<ServerId, Counter> waitTimeoutCounters = new ConcurrentHashMap<>();
+
+    public MongoPoolWaitMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        getWaitTimer(event.getConnectionId().getServerId())
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        getWaitTimer(event.getServerId()).record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        if (event.getReason() == ConnectionCheckOutFailedEvent.Reason.TIMEOUT) {
+            getWaitTimeoutCounter(event.getServerId()).increment();
+        }
+    }
+
+    private Timer getWaitTimer(ServerId serverId) {
+        return waitTimers.computeIfAbsent(serverId, id -> Timer.builder("snookerup.mongodb.pool.wait")
+                .description("Time spent waiting to check out a connection from the pool")
+                .tag(SERVER_ADDRESS_TAG, id.getAddress().toString())
+                .register(meterRegistry));
+    }
+
+    private Counter getWaitTimeoutCounter(ServerId serverId) {
+        return waitTimeoutCounters.computeIfAbsent(serverId, id -> Counter.builder("snookerup.mongodb.pool.wait.timeouts")
+                .description("Number of times waiting for a connection from the pool timed out")
+                .tag(SERVER_ADDRESS_TAG, id.getAddress().toString())
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,24 @@
+package com.huwdunnit.snookeruprest.db;
+
+import com.huwdunnit.snookeruprest.model.PracticeSession;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data MongoDB repository for the PracticeSession collection.
+ *
+ * @author Huwdunnit
+ */
+@Repository
+public interface PracticeSessionRepository extends MongoRepository<PracticeSession, String> {
+
+    /**
+     * Get a page of a user's practice sessions, most recent first.
+     * @param userId The user ID to get sessions for
+     * @param pageConstraints Constraints for paging
+     * @return The page of sessions
+     */
+    Page<PracticeSession> findByUserIdOrderByEndDateTimeDesc(String userId, Pageable pageConstraints);
+}
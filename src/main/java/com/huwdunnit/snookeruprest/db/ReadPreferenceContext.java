@@ -0,0 +1,25 @@
+package com.huwdunnit.snookeruprest.db;
+
+import com.mongodb.ReadPreference;
+
+/**
+ * Holds the read preference for MongoDB reads made by the current thread, if it's not the default (i.e. primary).
+ *
+ * @author Huwdunnit
+ */
+public class ReadPreferenceContext {
+
+    private static final ThreadLocal<ReadPreference> READ_PREFERENCE = new ThreadLocal<>();
+
+    public static ReadPreference get() {
+        return READ_PREFERENCE.get();
+    }
+
+    public static void set(ReadPreference readPreference) {
+        READ_PREFERENCE.set(readPreference);
+    }
+
+    public static void clear() {
+        READ_PREFERENCE.remove();
+    }
+}
@@ -0,0 +1,29 @@
+package com.huwdunnit.snookeruprest.db;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * MongoTemplate that applies the read preference set for the current thread in ReadPreferenceContext, so reads made
+ * while handling a request to a @SecondaryReads endpoint can go to a secondary. Without one, the default (i.e.
+ * primary) is used.
+ *
+ * @author Huwdunnit
+ */
+public class ReadPreferenceRoutingMongoTemplate extends MongoTemplate {
+
+    public ReadPreferenceRoutingMongoTemplate(MongoDatabaseFactory mongoDbFactory, MongoConverter mongoConverter) {
+        super(mongoDbFactory, mongoConverter);
+    }
+
+    @Override
+    protected MongoCollection<Document> prepareCollection(MongoCollection<Document> collection) {
+        MongoCollection<Document> preparedCollection = super.prepareCollection(collection);
+        ReadPreference readPreference = ReadPreferenceContext.get();
+        return readPreference == null ? preparedCollection : preparedCollection.withReadPreference(readPreference);
+    }
+}
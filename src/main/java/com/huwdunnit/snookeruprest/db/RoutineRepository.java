@@ -4,6 +4,7 @@ import com.huwdunnit.snookeruprest.model.Routine;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,5 +17,25 @@ import java.util.List;
 @Repository
 public interface RoutineRepository extends MongoRepository<Routine, String> {
 
+    /** The fields read from the DB for the summary view of a routine. */
+    String SUMMARY_FIELDS = "{ title: 1, tags: 1 }";
+
     Page<Routine> findByTagsIn(Pageable pageConstraints, List<String> tags);
+
+    /**
+     * Get all routines, with only the fields in the summary view.
+     * @param pageConstraints Constraints for paging
+     * @return All routines, with only summary fields populated
+     */
+    @Query(value = "{}", fields = SUMMARY_FIELDS)
+    Page<Routine> findAllSummaries(Pageable pageConstraints);
+
+    /**
+     * Get all routines with any of the provided tags, with only the fields in the summary view.
+     * @param pageConstraints Constraints for paging
+     * @param tags The tags to get routines for
+     * @return All routines with any of the tags, with only summary fields populated
+     */
+    @Query(value = "{ tags: { $in: ?0 } }", fields = SUMMARY_FIELDS)
+    Page<Routine> findSummariesByTagsIn(Pageable pageConstraints, List<String> tags);
 }
@@ -0,0 +1,39 @@
+package com.huwdunnit.snookeruprest.db;
+
+import com.huwdunnit.snookeruprest.model.ScoreArchiveSummary;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Spring Data MongoDB repository for the ScoreArchiveSummary collection.
+ *
+ * @author Huwdunnit
+ */
+@Repository
+public interface ScoreArchiveSummaryRepository extends MongoRepository<ScoreArchiveSummary, String> {
+
+    /** Leaves out the archived score IDs, which aren't needed when reading a summary's counts or its month. */
+    String WITHOUT_SCORE_IDS = "{ scoreIds : 0 }";
+
+    /**
+     * Get the archive summaries for a user, for months in the provided (inclusive) range.
+     * @param userId The user ID to get archive summaries for
+     * @param months The range of months to include, in the form "yyyy-MM"
+     * @return The archive summaries for the user in the month range, ordered by month, without their score IDs
+     */
+    @Query(fields = WITHOUT_SCORE_IDS)
+    List<ScoreArchiveSummary> findByUserIdAndMonthBetweenOrderByMonth(String userId, Range<String> months);
+
+    /**
+     * Get the archive summary for the month an archived score is in.
+     * @param scoreId The ID of the archived score
+     * @return The archive summary, without its score IDs, or empty if no archived score has the ID
+     */
+    @Query(fields = WITHOUT_SCORE_IDS)
+    Optional<ScoreArchiveSummary> findFirstByScoreIds(String scoreId);
+}
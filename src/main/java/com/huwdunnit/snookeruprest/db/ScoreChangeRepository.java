@@ -0,0 +1,27 @@
+package com.huwdunnit.snookeruprest.db;
+
+import com.huwdunnit.snookeruprest.model.ScoreChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Spring Data MongoDB repository for the ScoreChange collection.
+ *
+ * @author Huwdunnit
+ */
+@Repository
+public interface ScoreChangeRepository extends MongoRepository<ScoreChange, String> {
+
+    /**
+     * Get changes to a user's scores after the provided sequence number, in sequence order.
+     * @param userId The user ID to get changes for
+     * @param sequence The sequence number to get changes after
+     * @param pageConstraints Constraints for paging, i.e. the maximum number of changes
+     * @return Changes after the provided sequence number, in sequence order
+     */
+    List<ScoreChange> findByUserIdAndSequenceGreaterThanOrderBySequence(String userId, long sequence,
+                                                                       Pageable pageConstraints);
+}
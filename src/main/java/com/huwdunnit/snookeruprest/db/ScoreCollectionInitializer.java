@@ -0,0 +1,153 @@
+package com.huwdunnit.snookeruprest.db;
+
+import com.huwdunnit.snookeruprest.config.ScoreStorageProperties;
+import com.huwdunnit.snookeruprest.config.ScoreStorageProperties.StorageMode;
+import com.huwdunnit.snookeruprest.model.Score;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.CollectionOptions.TimeSeriesOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the Score collection (and its indexes) on startup, according to the configured storage mode.
+ *
+ * In TIME_SERIES mode, the collection is created as a MongoDB time-series collection, with "dateTime" as the time
+ * field and "userId" as the meta field. Documents keep the same shape as in STANDARD mode, so ScoreRepository queries
+ * work unchanged in both modes.
+ *
+ * Migrating an existing standard collection runs on its own thread once the application has started, so a large
+ * collection doesn't hold up startup. The time-series collection's indexes are created as soon as it exists, before
+ * the copy starts. If the application stops part way through, the migration carries on at the next startup.
+ *
+ * @author Huwdunnit
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ScoreCollectionInitializer implements InitializingBean, SmartLifecycle {
+
+    /** The field used as the time-series time field. */
+    static final String TIME_FIELD = "dateTime";
+
+    /** The field used as the time-series meta field, i.e. the field measurements are bucketed by. */
+    static final String META_FIELD = "userId";
+
+    static final String IDEMPOTENCY_KEY_FIELD = "idempotencyKey";
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ScoreStorageProperties storageProperties;
+
+    private final ScoreTimeSeriesMigrator migrator;
+
+    /** Whether the Score collection needs migrating to a time-series collection once the application has started. */
+    private boolean migrationPending;
+
+    private volatile ExecutorService executor;
+
+    private volatile boolean running;
+
+    @Override
+    public void afterPropertiesSet() {
+        String collectionName = mongoTemplate.getCollectionName(Score.class);
+
+        if (storageProperties.getMode() == StorageMode.TIME_SERIES) {
+            if (migrator.isMigrationIncomplete(collectionName)) {
+                // Carry on with a migration that stopped part way through
+                migrationPending = true;
+            } else if (!mongoTemplate.collectionExists(collectionName)) {
+                log.info("Creating time-series collection {}", collectionName);
+                mongoTemplate.createCollection(collectionName, getTimeSeriesCollectionOptions());
+            } else if (!migrator.isTimeSeriesCollection(collectionName)) {
+                if (storageProperties.isMigrateOnStartup()) {
+                    migrationPending = true;
+                } else {
+                    log.warn("Score storage mode is TIME_SERIES, but collection {} is a standard collection. Set " +
+                            "snookerup.scores.storage.migrate-on-startup to migrate it", collectionName);
+                }
+            }
+        }
+
+        ensureIndexes(collectionName);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!migrationPending) {
+            return;
+        }
+        ThreadFactory threadFactory = Thread.ofPlatform().name("score-migrator").daemon().factory();
+        executor = Executors.newSingleThreadExecutor(threadFactory);
+        executor.execute(this::runMigration);
+    }
+
+    @Override
+    public void stop() {
+        // A migration in progress stops after its current batch
+        running = false;
+        ExecutorService runningExecutor = executor;
+        if (runningExecutor == null) {
+            return;
+        }
+        runningExecutor.shutdown();
+        try {
+            runningExecutor.awaitTermination(storageProperties.getMigrationLease().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runMigration() {
+        String collectionName = mongoTemplate.getCollectionName(Score.class);
+        try {
+            migrator.migrate(collectionName, getTimeSeriesCollectionOptions(),
+                    storageProperties.getMigrationBatchSize(), () -> ensureIndexes(collectionName), this::isRunning);
+        } catch (RuntimeException ex) {
+            log.error("Failed to migrate collection {} to a time-series collection, it carries on at the next " +
+                    "startup", collectionName, ex);
+        }
+    }
+
+    private void ensureIndexes(String collectionName) {
+        mongoTemplate.indexOps(collectionName).ensureIndex(new Index()
+                .on(META_FIELD, Sort.Direction.ASC)
+                .on(TIME_FIELD, Sort.Direction.ASC));
+
+        // Time-series collections don't support unique indexes, so there duplicate submissions are only caught by
+        // looking up the idempotency key before inserting
+        Index idempotencyKeyIndex = new Index()
+                .on(META_FIELD, Sort.Direction.ASC)
+                .on(IDEMPOTENCY_KEY_FIELD, Sort.Direction.ASC)
+                .partial(PartialIndexFilter.of(Criteria.where(IDEMPOTENCY_KEY_FIELD).exists(true)));
+        if (storageProperties.getMode() == StorageMode.STANDARD) {
+            idempotencyKeyIndex.unique();
+        }
+        mongoTemplate.indexOps(collectionName).ensureIndex(idempotencyKeyIndex);
+    }
+
+    private CollectionOptions getTimeSeriesCollectionOptions() {
+        return CollectionOptions.empty().timeSeries(TimeSeriesOptions.timeSeries(TIME_FIELD)
+                .metaField(META_FIELD)
+                .granularity(storageProperties.getGranularity()));
+    }
+}
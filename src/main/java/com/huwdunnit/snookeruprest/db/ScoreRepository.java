@@ -3,11 +3,14 @@ package com.huwdunnit.snookeruprest.db;
 import com.huwdunnit.snookeruprest.model.Score;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -18,12 +21,28 @@ import java.util.Optional;
 @Repository
 public interface ScoreRepository extends MongoRepository<Score, String> {
 
+    /** The fields read from the DB by user-scoped queries, i.e. everything except the user ID and idempotency key. */
+    String USER_SCOPED_FIELDS = "{ userId: 0, idempotencyKey: 0 }";
+
+    /**
+     * The fields read from the DB for scores being deleted in bulk, i.e. just enough to record each deletion and find
+     * the practice session it was in.
+     */
+    String DELETED_FIELDS = "{ _id: 1, userId: 1, dateTime: 1 }";
+
+    /**
+     * The longest queries across all users' scores (and counting their results) can run for, as they can't use an
+     * index. Above this, MongoDB aborts them with MongoExecutionTimeoutException.
+     */
+    long CROSS_USER_QUERY_MAX_TIME_MS = 5000;
+
     /**
      * Delete the score from the database with the provided ID, but only if the provided user ID also matches.
      * @param id The score ID to delete
      * @param userId The user ID that must also be present on the score in order for the delete to occur
+     * @return The deleted score, or an empty list if no score matched
      */
-    void deleteByIdAndUserId(String id, String userId);
+    List<Score> deleteByIdAndUserId(String id, String userId);
 
     /**
      * Get the score from the database with the provided ID, but only if the provided user ID also matches.
@@ -33,6 +52,14 @@ public interface ScoreRepository extends MongoRepository<Score, String> {
      */
     Optional<Score> findByIdAndUserId(String id, String userId);
 
+    /**
+     * Get the score added by the user with the provided user ID, in the request with the provided idempotency key.
+     * @param userId The user ID of the score
+     * @param idempotencyKey The idempotency key of the request that added the score
+     * @return An Optional containing the returned score
+     */
+    Optional<Score> findByUserIdAndIdempotencyKey(String userId, String idempotencyKey);
+
     /**
      * Get all scores for the provided user ID.
      * @param pageConstraints Constraints for paging
@@ -126,6 +153,7 @@ public interface ScoreRepository extends MongoRepository<Score, String> {
      * @return Returns all scores where fields match provided parameters, and non-provided optional parameters are
      *         ignored.
      */
+    @Meta(maxExecutionTimeMs = CROSS_USER_QUERY_MAX_TIME_MS)
     @Query("{ $and: [ { $or : [ { $expr: { $eq: ['?0', 'null'] } } , { routineId : ?0 } ] }, " +
                      "{ $or : [ { $expr: { $eq: ['?1', 'null'] } } , { userId : ?1 } ] }, " +
                      "{ $or : [ { $expr: { $eq: ['?2', 'null'] } } , { cushionLimit : ?2 } ] }, " +
@@ -154,6 +182,7 @@ public interface ScoreRepository extends MongoRepository<Score, String> {
      * @return Returns all scores up to provided date where fields match provided parameters, and non-provided optional
      *         parameters are ignored.
      */
+    @Meta(maxExecutionTimeMs = CROSS_USER_QUERY_MAX_TIME_MS)
     @Query("{ $and: [ { dateTime: { $lte: { $date: '?0' } } }," +
                      "{ $or : [ { $expr: { $eq: ['?1', 'null'] } } , { routineId : ?1 } ] }," +
                      "{ $or : [ { $expr: { $eq: ['?2', 'null'] } } , { userId : ?2 } ] }, " +
@@ -184,6 +213,7 @@ public interface ScoreRepository extends MongoRepository<Score, String> {
      * @return Returns all scores from provided date where fields match provided parameters, and non-provided optional
      *         parameters are ignored.
      */
+    @Meta(maxExecutionTimeMs = CROSS_USER_QUERY_MAX_TIME_MS)
     @Query("{ $and: [ { dateTime: { $gte: { $date: '?0' } } }," +
                      "{ $or : [ { $expr: { $eq: ['?1', 'null'] } } , { routineId : ?1 } ] }," +
                      "{ $or : [ { $expr: { $eq: ['?2', 'null'] } } , { userId : ?2 } ] }, " +
@@ -215,6 +245,7 @@ public interface ScoreRepository extends MongoRepository<Score, String> {
      * @return Returns all scores between provided dates where fields match provided parameters, and non-provided optional
      *         parameters are ignored.
      */
+    @Meta(maxExecutionTimeMs = CROSS_USER_QUERY_MAX_TIME_MS)
     @Query("{ $and: [ { dateTime: { $gte: { $date: '?0' }, $lte: { $date: '?1' } } }," +
                      "{ $or : [ { $expr: { $eq: ['?2', 'null'] } } , { routineId : ?2 } ] }," +
                      "{ $or : [ { $expr: { $eq: ['?3', 'null'] } } , { userId : ?3 } ] }, " +
@@ -232,4 +263,262 @@ public interface ScoreRepository extends MongoRepository<Score, String> {
                                                                Optional<String> colours,
                                                                Optional<Integer> numBalls,
                                                                Optional<Boolean> loop);
+
+    /*
+     * USER-SCOPED QUERIES:
+     * The below queries are the same as the ones above, but with a required user ID, matched at the top level of the
+     * query rather than inside an $or. When the score collection is sharded by user ID, mongos can only route a query
+     * to a single shard if the shard key is matched like this, so these should be used whenever the user is known.
+     *
+     * The user ID is left out of the returned scores, as the caller already knows it.
+     */
+
+    /**
+     * Find all scores for a user, with optional routine ID.
+     * @param pageConstraints Constraints for paging
+     * @param userId User ID
+     * @param routineId Routine ID. Can be null.
+     * @param cushionLimit The cushion limit on the score. Can be null.
+     * @param colours Any colours restraints applied to the score. Can be null.
+     * @param numBalls The configured number of balls applied to the routine. Can be null.
+     * @param loop Specifies whether this score is with looping of the routine. Can be null.
+     * @return Returns all scores for the user where fields match provided parameters, and non-provided optional
+     *         parameters are ignored.
+     */
+    @Query(value = "{ userId : ?0, $and: [ { $or : [ { $expr: { $eq: ['?1', 'null'] } } , { routineId : ?1 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?2', 'null'] } } , { cushionLimit : ?2 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?3', 'null'] } } , { colours : ?3 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?4', 'null'] } } , { numBalls : ?4 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?5', 'null'] } } , { loop : ?5 } ] } " +
+                   "] } ",
+           fields = USER_SCOPED_FIELDS)
+    Page<Score> findByUserIdWithOptionalRoutineIdAndScoreParams(Pageable pageConstraints,
+                                                               String userId,
+                                                               Optional<String> routineId,
+                                                               Optional<Integer> cushionLimit,
+                                                               Optional<String> colours,
+                                                               Optional<Integer> numBalls,
+                                                               Optional<Boolean> loop);
+
+    /**
+     * Find all scores for a user up to a provided date, with optional routine ID.
+     * @param pageConstraints Constraints for paging
+     * @param userId User ID
+     * @param to Date/time to get scores up to
+     * @param routineId Routine ID. Can be null.
+     * @param cushionLimit The cushion limit on the score. Can be null.
+     * @param colours Any colours restraints applied to the score. Can be null.
+     * @param numBalls The configured number of balls applied to the routine. Can be null.
+     * @param loop Specifies whether this score is with looping of the routine. Can be null.
+     * @return Returns all scores for the user up to provided date where fields match provided parameters, and
+     *         non-provided optional parameters are ignored.
+     */
+    @Query(value = "{ userId : ?0, dateTime: { $lte: { $date: '?1' } }, " +
+                   "$and: [ { $or : [ { $expr: { $eq: ['?2', 'null'] } } , { routineId : ?2 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?3', 'null'] } } , { cushionLimit : ?3 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?4', 'null'] } } , { colours : ?4 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?5', 'null'] } } , { numBalls : ?5 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?6', 'null'] } } , { loop : ?6 } ] } " +
+                   "] }",
+           fields = USER_SCOPED_FIELDS)
+    Page<Score> findByUserIdToDateWithOptionalRoutineIdAndScoreParams(Pageable pageConstraints,
+                                                                     String userId,
+                                                                     LocalDateTime to,
+                                                                     Optional<String> routineId,
+                                                                     Optional<Integer> cushionLimit,
+                                                                     Optional<String> colours,
+                                                                     Optional<Integer> numBalls,
+                                                                     Optional<Boolean> loop);
+
+    /**
+     * Find all scores for a user from a provided date, with optional routine ID.
+     * @param pageConstraints Constraints for paging
+     * @param userId User ID
+     * @param from Date/time to get scores from
+     * @param routineId Routine ID. Can be null.
+     * @param cushionLimit The cushion limit on the score. Can be null.
+     * @param colours Any colours restraints applied to the score. Can be null.
+     * @param numBalls The configured number of balls applied to the routine. Can be null.
+     * @param loop Specifies whether this score is with looping of the routine. Can be null.
+     * @return Returns all scores for the user from provided date where fields match provided parameters, and
+     *         non-provided optional parameters are ignored.
+     */
+    @Query(value = "{ userId : ?0, dateTime: { $gte: { $date: '?1' } }, " +
+                   "$and: [ { $or : [ { $expr: { $eq: ['?2', 'null'] } } , { routineId : ?2 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?3', 'null'] } } , { cushionLimit : ?3 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?4', 'null'] } } , { colours : ?4 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?5', 'null'] } } , { numBalls : ?5 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?6', 'null'] } } , { loop : ?6 } ] } " +
+                   "] }",
+           fields = USER_SCOPED_FIELDS)
+    Page<Score> findByUserIdFromDateWithOptionalRoutineIdAndScoreParams(Pageable pageConstraints,
+                                                                       String userId,
+                                                                       LocalDateTime from,
+                                                                       Optional<String> routineId,
+                                                                       Optional<Integer> cushionLimit,
+                                                                       Optional<String> colours,
+                                                                       Optional<Integer> numBalls,
+                                                                       Optional<Boolean> loop);
+
+    /**
+     * Find all scores for a user between two provided dates, with optional routine ID.
+     * @param pageConstraints Constraints for paging
+     * @param userId User ID
+     * @param from Start point in date range to get scores between
+     * @param to End point in date range to get scores between
+     * @param routineId Routine ID. Can be null.
+     * @param cushionLimit The cushion limit on the score. Can be null.
+     * @param colours Any colours restraints applied to the score. Can be null.
+     * @param numBalls The configured number of balls applied to the routine. Can be null.
+     * @param loop Specifies whether this score is with looping of the routine. Can be null.
+     * @return Returns all scores for the user between provided dates where fields match provided parameters, and
+     *         non-provided optional parameters are ignored.
+     */
+    @Query(value = "{ userId : ?0, dateTime: { $gte: { $date: '?1' }, $lte: { $date: '?2' } }, " +
+                   "$and: [ { $or : [ { $expr: { $eq: ['?3', 'null'] } } , { routineId : ?3 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?4', 'null'] } } , { cushionLimit : ?4 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?5', 'null'] } } , { colours : ?5 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?6', 'null'] } } , { numBalls : ?6 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?7', 'null'] } } , { loop : ?7 } ] } " +
+                   "] }",
+           fields = USER_SCOPED_FIELDS)
+    Page<Score> findByUserIdBetweenDatesWithOptionalRoutineIdAndScoreParams(Pageable pageConstraints,
+                                                                           String userId,
+                                                                           LocalDateTime from,
+                                                                           LocalDateTime to,
+                                                                           Optional<String> routineId,
+                                                                           Optional<Integer> cushionLimit,
+                                                                           Optional<String> colours,
+                                                                           Optional<Integer> numBalls,
+                                                                           Optional<Boolean> loop);
+
+    /*
+     * Bulk deletes of a user's scores, in batches. Each batch finds up to a page of matching scores (reading just the
+     * fields in DELETED_FIELDS), then removes them with deleteByUserIdAndIdIn. Scores are found before they're deleted
+     * so the deletions can be recorded (see ScoresDeletedEvent).
+     */
+
+    /**
+     * Delete the scores with the provided IDs, but only if they belong to the provided user.
+     * @param userId The user ID the scores must belong to
+     * @param ids The IDs of the scores to delete
+     * @return The number of scores deleted
+     */
+    long deleteByUserIdAndIdIn(String userId, Collection<String> ids);
+
+    /**
+     * Find a batch of scores to delete for a user, with optional routine ID.
+     * @param pageConstraints Constraints for paging, i.e. the batch size
+     * @param userId User ID
+     * @param routineId Routine ID. Can be null.
+     * @param cushionLimit The cushion limit on the score. Can be null.
+     * @param colours Any colours restraints applied to the score. Can be null.
+     * @param numBalls The configured number of balls applied to the routine. Can be null.
+     * @param loop Specifies whether this score is with looping of the routine. Can be null.
+     * @return Up to a page of matching scores, with only the fields in DELETED_FIELDS populated
+     */
+    @Query(value = "{ userId : ?0, " +
+                   "$and: [ { $or : [ { $expr: { $eq: ['?1', 'null'] } } , { routineId : ?1 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?2', 'null'] } } , { cushionLimit : ?2 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?3', 'null'] } } , { colours : ?3 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?4', 'null'] } } , { numBalls : ?4 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?5', 'null'] } } , { loop : ?5 } ] } " +
+                   "] }",
+           fields = DELETED_FIELDS)
+    List<Score> findToDeleteByUserIdWithOptionalRoutineIdAndScoreParams(Pageable pageConstraints,
+                                                                        String userId,
+                                                                        Optional<String> routineId,
+                                                                        Optional<Integer> cushionLimit,
+                                                                        Optional<String> colours,
+                                                                        Optional<Integer> numBalls,
+                                                                        Optional<Boolean> loop);
+
+    /**
+     * Find a batch of scores to delete for a user up to a provided date, with optional routine ID.
+     * @param pageConstraints Constraints for paging, i.e. the batch size
+     * @param userId User ID
+     * @param to Date/time to find scores up to
+     * @param routineId Routine ID. Can be null.
+     * @param cushionLimit The cushion limit on the score. Can be null.
+     * @param colours Any colours restraints applied to the score. Can be null.
+     * @param numBalls The configured number of balls applied to the routine. Can be null.
+     * @param loop Specifies whether this score is with looping of the routine. Can be null.
+     * @return Up to a page of matching scores, with only the fields in DELETED_FIELDS populated
+     */
+    @Query(value = "{ userId : ?0, dateTime: { $lte: { $date: '?1' } }, " +
+                   "$and: [ { $or : [ { $expr: { $eq: ['?2', 'null'] } } , { routineId : ?2 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?3', 'null'] } } , { cushionLimit : ?3 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?4', 'null'] } } , { colours : ?4 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?5', 'null'] } } , { numBalls : ?5 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?6', 'null'] } } , { loop : ?6 } ] } " +
+                   "] }",
+           fields = DELETED_FIELDS)
+    List<Score> findToDeleteByUserIdToDateWithOptionalRoutineIdAndScoreParams(Pageable pageConstraints,
+                                                                              String userId,
+                                                                              LocalDateTime to,
+                                                                              Optional<String> routineId,
+                                                                              Optional<Integer> cushionLimit,
+                                                                              Optional<String> colours,
+                                                                              Optional<Integer> numBalls,
+                                                                              Optional<Boolean> loop);
+
+    /**
+     * Find a batch of scores to delete for a user from a provided date, with optional routine ID.
+     * @param pageConstraints Constraints for paging, i.e. the batch size
+     * @param userId User ID
+     * @param from Date/time to find scores from
+     * @param routineId Routine ID. Can be null.
+     * @param cushionLimit The cushion limit on the score. Can be null.
+     * @param colours Any colours restraints applied to the score. Can be null.
+     * @param numBalls The configured number of balls applied to the routine. Can be null.
+     * @param loop Specifies whether this score is with looping of the routine. Can be null.
+     * @return Up to a page of matching scores, with only the fields in DELETED_FIELDS populated
+     */
+    @Query(value = "{ userId : ?0, dateTime: { $gte: { $date: '?1' } }, " +
+                   "$and: [ { $or : [ { $expr: { $eq: ['?2', 'null'] } } , { routineId : ?2 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?3', 'null'] } } , { cushionLimit : ?3 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?4', 'null'] } } , { colours : ?4 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?5', 'null'] } } , { numBalls : ?5 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?6', 'null'] } } , { loop : ?6 } ] } " +
+                   "] }",
+           fields = DELETED_FIELDS)
+    List<Score> findToDeleteByUserIdFromDateWithOptionalRoutineIdAndScoreParams(Pageable pageConstraints,
+                                                                                String userId,
+                                                                                LocalDateTime from,
+                                                                                Optional<String> routineId,
+                                                                                Optional<Integer> cushionLimit,
+                                                                                Optional<String> colours,
+                                                                                Optional<Integer> numBalls,
+                                                                                Optional<Boolean> loop);
+
+    /**
+     * Find a batch of scores to delete for a user between two provided dates, with optional routine ID.
+     * @param pageConstraints Constraints for paging, i.e. the batch size
+     * @param userId User ID
+     * @param from Start point in date range to find scores between
+     * @param to End point in date range to find scores between
+     * @param routineId Routine ID. Can be null.
+     * @param cushionLimit The cushion limit on the score. Can be null.
+     * @param colours Any colours restraints applied to the score. Can be null.
+     * @param numBalls The configured number of balls applied to the routine. Can be null.
+     * @param loop Specifies whether this score is with looping of the routine. Can be null.
+     * @return Up to a page of matching scores, with only the fields in DELETED_FIELDS populated
+     */
+    @Query(value = "{ userId : ?0, dateTime: { $gte: { $date: '?1' }, $lte: { $date: '?2' } }, " +
+                   "$and: [ { $or : [ { $expr: { $eq: ['?3', 'null'] } } , { routineId : ?3 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?4', 'null'] } } , { cushionLimit : ?4 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?5', 'null'] } } , { colours : ?5 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?6', 'null'] } } , { numBalls : ?6 } ] }, " +
+                     "{ $or : [ { $expr: { $eq: ['?7', 'null'] } } , { loop : ?7 } ] } " +
+                   "] }",
+           fields = DELETED_FIELDS)
+    List<Score> findToDeleteByUserIdBetweenDatesWithOptionalRoutineIdAndScoreParams(Pageable pageConstraints,
+                                                                                    String userId,
+                                                                                    LocalDateTime from,
+                                                                                    LocalDateTime to,
+                                                                                    Optional<String> routineId,
+                                                                                    Optional<Integer> cushionLimit,
+                                                                                    Optional<String> colours,
+                                                                                    Optional<Integer> numBalls,
+                                                                                    Optional<Boolean> loop);
 }
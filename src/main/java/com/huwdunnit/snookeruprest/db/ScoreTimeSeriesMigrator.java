@@ -0,0 +1,347 @@
+package com.huwdunnit.snookeruprest.db;
+
+import com.huwdunnit.snookeruprest.config.ScoreStorageProperties;
+import com.huwdunnit.snookeruprest.config.ScoreStorageProperties.StorageMode;
+import com.huwdunnit.snookeruprest.events.ScoresDeletedEvent;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.ScoreMigration;
+import com.huwdunnit.snookeruprest.model.ScoreMigration.Status;
+import com.mongodb.MongoNamespace;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Migrates an existing standard Score collection to a time-series collection.
+ *
+ * MongoDB can't rename a time-series collection, so the standard collection is renamed out of the way (with a
+ * "_legacy" suffix) first, and the time-series collection created under the original name. From then on, new scores
+ * are written straight to the time-series collection, so nothing is written to the legacy collection after it's
+ * copied. Documents are then copied across from the legacy collection in batches, in ID order, so the copy can't skip
+ * or repeat documents. Until the copy completes, queries only see the scores copied so far.
+ *
+ * Scores deleted while the copy is in progress are deleted from the legacy collection too, so ones not copied yet
+ * aren't copied afterwards. A score deleted while its batch is being copied is removed from the time-series collection
+ * again once the batch has been inserted, so the copy never brings deleted scores back.
+ *
+ * If another instance writes a score between the rename and the create, MongoDB creates a standard collection for
+ * it, which is moved into the legacy collection before trying again. Progress is stored in the ScoreMigration
+ * collection after every batch, under a lease, so only one instance migrates at a time, and a migration stopped part
+ * way through carries on where it left off, including one stopped between batches by the application shutting down. The
+ * legacy collection is left in place once the copy is checked, so it can be dropped manually.
+ *
+ * @author Huwdunnit
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ScoreTimeSeriesMigrator {
+
+    static final String LEGACY_SUFFIX = "_legacy";
+
+    /** Suffix for a standard collection created by a write while the time-series collection was being created. */
+    static final String STRAY_SUFFIX = "_stray";
+
+    /** How many times to try creating the time-series collection, if writes keep creating a standard one first. */
+    static final int MAX_CREATE_ATTEMPTS = 5;
+
+    private static final String ID_FIELD = "_id";
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ScoreStorageProperties storageProperties;
+
+    /**
+     * Migrate the provided collection to a time-series collection, or carry on with a migration that stopped part
+     * way through. Does nothing if another instance is already migrating it.
+     * @param collectionName The name of the standard collection to migrate
+     * @param timeSeriesOptions Options for creating the new time-series collection
+     * @param batchSize The number of documents to copy per batch
+     * @param onCreated Run once the time-series collection exists, before copying, e.g. to create its indexes
+     * @param keepCopying Checked before each batch. Once it returns false, the migration stops, to carry on later
+     * @return The number of documents copied, in total, or 0 if another instance is migrating the collection
+     */
+    public long migrate(String collectionName, CollectionOptions timeSeriesOptions, int batchSize, Runnable onCreated,
+                        BooleanSupplier keepCopying) {
+        String legacyCollectionName = collectionName + LEGACY_SUFFIX;
+        if (!isTimeSeriesCollection(collectionName)) {
+            // Left over from migrating before, and since switching back to a standard collection
+            mongoTemplate.remove(Query.query(Criteria.where(ID_FIELD).is(collectionName)
+                    .and("status").is(Status.COMPLETED)), ScoreMigration.class);
+        }
+
+        String leaseOwner = IdGenerator.createNewId();
+        ScoreMigration migration = claim(collectionName, leaseOwner);
+        if (migration == null) {
+            log.info("Collection {} is already being migrated by another instance", collectionName);
+            return 0;
+        }
+        log.info("Migrating collection {} to a time-series collection, status={}, copiedCount={}, batchSize={}",
+                collectionName, migration.getStatus(), migration.getCopiedCount(), batchSize);
+
+        boolean resuming = migration.getStatus() == Status.COPYING;
+        if (migration.getStatus() == Status.MOVING) {
+            if (!mongoTemplate.collectionExists(legacyCollectionName)) {
+                renameCollection(collectionName, legacyCollectionName);
+            }
+            createTimeSeriesCollection(collectionName, legacyCollectionName, timeSeriesOptions);
+            updateMigration(collectionName, leaseOwner, new Update().set("status", Status.COPYING));
+        }
+        onCreated.run();
+
+        long copied = copy(legacyCollectionName, collectionName, migration, leaseOwner, batchSize, resuming,
+                keepCopying);
+        if (!keepCopying.getAsBoolean()) {
+            log.info("Stopped migrating collection {} after copying {} documents, it carries on at the next startup",
+                    collectionName, copied);
+            updateMigration(collectionName, leaseOwner, new Update().unset("leaseExpiresAt"));
+            return copied;
+        }
+
+        // Nothing should be written to the legacy collection after it's renamed, but check before calling it done.
+        // Scores deleted during the copy are deleted from the legacy collection too, so it may have fewer documents
+        long legacyCount = mongoTemplate.count(new Query(), legacyCollectionName);
+        if (legacyCount > copied) {
+            throw new IllegalStateException(String.format("Copied %d documents to time-series collection %s, but " +
+                    "legacy collection %s has %d documents", copied, collectionName, legacyCollectionName, legacyCount));
+        }
+        updateMigration(collectionName, leaseOwner, new Update()
+                .set("status", Status.COMPLETED)
+                .unset("leaseExpiresAt"));
+
+        log.info("Migrated {} documents to time-series collection {}, original collection kept as {}", copied,
+                collectionName, legacyCollectionName);
+        return copied;
+    }
+
+    /**
+     * While the provided collection is being migrated, delete the provided scores from the legacy collection as well,
+     * so ones that haven't been copied yet aren't copied after being deleted. Does nothing if the collection isn't
+     * being migrated.
+     * @param collectionName The name of the collection the scores were deleted from
+     * @param query Matches the deleted scores
+     */
+    public void removeFromLegacy(String collectionName, Query query) {
+        if (!isMigrationIncomplete(collectionName)) {
+            return;
+        }
+        String legacyCollectionName = collectionName + LEGACY_SUFFIX;
+        long deleted = mongoTemplate.remove(query, legacyCollectionName).getDeletedCount();
+        if (deleted > 0) {
+            // The copy may have read these from the legacy collection, but not inserted them yet, when they were
+            // deleted from the time-series collection. Delete them again, in case the copy inserted them since
+            mongoTemplate.remove(query, collectionName);
+            log.debug("Deleted {} documents from {} during the migration", deleted, legacyCollectionName);
+        }
+    }
+
+    /**
+     * Delete scores from the legacy collection too, if they're deleted while the Score collection is being migrated.
+     * @param event The deleted scores
+     */
+    @EventListener
+    public void onScoresDeleted(ScoresDeletedEvent event) {
+        if (storageProperties.getMode() != StorageMode.TIME_SERIES || event.scores().isEmpty()) {
+            return;
+        }
+        List<String> scoreIds = event.scores().stream().map(Score::getId).toList();
+        removeFromLegacy(mongoTemplate.getCollectionName(Score.class),
+                Query.query(Criteria.where(ID_FIELD).in(scoreIds)));
+    }
+
+    /**
+     * Check whether a migration of the provided collection has been started, but not completed.
+     * @param collectionName The name of the collection
+     * @return true if the migration needs carrying on with
+     */
+    public boolean isMigrationIncomplete(String collectionName) {
+        return mongoTemplate.exists(Query.query(Criteria.where(ID_FIELD).is(collectionName)
+                .and("status").ne(Status.COMPLETED)), ScoreMigration.class);
+    }
+
+    /**
+     * Check whether the collection with the provided name is a time-series collection.
+     * @param collectionName The name of the collection to check
+     * @return true if the collection is a time-series collection, false otherwise
+     */
+    public boolean isTimeSeriesCollection(String collectionName) {
+        Document collectionInfo = mongoTemplate.getDb()
+                .listCollections()
+                .filter(new Document("name", collectionName))
+                .first();
+        return collectionInfo != null && "timeseries".equals(collectionInfo.getString("type"));
+    }
+
+    /**
+     * Claim the migration of a collection, starting it if it hasn't been started.
+     * @return The migration, or null if another instance has a lease on it
+     */
+    private ScoreMigration claim(String collectionName, String leaseOwner) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(Criteria.where(ID_FIELD).is(collectionName).and("status").ne(Status.COMPLETED)
+                .orOperator(Criteria.where("leaseExpiresAt").is(null), Criteria.where("leaseExpiresAt").lt(now)));
+        Update update = new Update()
+                .setOnInsert("status", Status.MOVING)
+                .setOnInsert("copiedCount", 0L)
+                .set("leaseOwner", leaseOwner)
+                .set("leaseExpiresAt", now.plus(storageProperties.getMigrationLease()))
+                .set("updatedAt", now);
+        try {
+            return mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), ScoreMigration.class);
+        } catch (DuplicateKeyException ex) {
+            // The migration exists, but didn't match, so another instance has it
+            return null;
+        }
+    }
+
+    /**
+     * Create the time-series collection, moving any standard collection created by a write since the rename out of
+     * the way first.
+     */
+    private void createTimeSeriesCollection(String collectionName, String legacyCollectionName,
+                                            CollectionOptions timeSeriesOptions) {
+        String strayCollectionName = collectionName + STRAY_SUFFIX;
+        for (int attempt = 1; attempt <= MAX_CREATE_ATTEMPTS; attempt++) {
+            if (mongoTemplate.collectionExists(strayCollectionName)) {
+                // Left over from a migration that stopped while moving a stray collection
+                moveStrayDocuments(strayCollectionName, legacyCollectionName);
+            }
+            if (mongoTemplate.collectionExists(collectionName)) {
+                if (isTimeSeriesCollection(collectionName)) {
+                    return;
+                }
+                log.info("Moving documents written to {} during the migration into {}", collectionName,
+                        legacyCollectionName);
+                renameCollection(collectionName, strayCollectionName);
+                moveStrayDocuments(strayCollectionName, legacyCollectionName);
+            }
+
+            try {
+                log.info("Creating time-series collection {}", collectionName);
+                mongoTemplate.createCollection(collectionName, timeSeriesOptions);
+                return;
+            } catch (DataAccessException ex) {
+                if (!mongoTemplate.collectionExists(collectionName)) {
+                    throw ex;
+                }
+                // A write created the collection first, so move it out of the way and try again
+            }
+        }
+        throw new IllegalStateException(String.format("Unable to create time-series collection %s after %d attempts",
+                collectionName, MAX_CREATE_ATTEMPTS));
+    }
+
+    private void moveStrayDocuments(String strayCollectionName, String legacyCollectionName) {
+        // Saving replaces by ID, so documents already moved by an earlier attempt aren't duplicated
+        for (Document document : mongoTemplate.findAll(Document.class, strayCollectionName)) {
+            mongoTemplate.save(document, legacyCollectionName);
+        }
+        mongoTemplate.dropCollection(strayCollectionName);
+    }
+
+    /**
+     * Copy documents from the legacy collection to the time-series collection, after the last one copied.
+     * @return The total number of documents copied
+     */
+    private long copy(String legacyCollectionName, String collectionName, ScoreMigration migration, String leaseOwner,
+                      int batchSize, boolean resuming, BooleanSupplier keepCopying) {
+        long copied = migration.getCopiedCount();
+        Object lastId = migration.getLastCopiedId();
+        boolean checkForCopied = resuming;
+        while (keepCopying.getAsBoolean()) {
+            Query batchQuery = new Query().with(Sort.by(Sort.Direction.ASC, ID_FIELD)).limit(batchSize);
+            if (lastId != null) {
+                batchQuery.addCriteria(Criteria.where(ID_FIELD).gt(lastId));
+            }
+            List<Document> batch = mongoTemplate.find(batchQuery, Document.class, legacyCollectionName);
+            if (batch.isEmpty()) {
+                return copied;
+            }
+
+            // A migration that stopped part way through may have copied this batch without recording it
+            List<Document> toCopy = checkForCopied ? withoutCopiedDocuments(batch, collectionName) : batch;
+            checkForCopied = false;
+            if (!toCopy.isEmpty()) {
+                mongoTemplate.insert(toCopy, collectionName);
+                removeDeletedDocuments(toCopy, legacyCollectionName, collectionName);
+            }
+            copied += batch.size();
+            lastId = batch.get(batch.size() - 1).get(ID_FIELD);
+
+            updateMigration(collectionName, leaseOwner, new Update()
+                    .set("lastCopiedId", lastId)
+                    .set("copiedCount", copied));
+            log.debug("Copied {} documents to {}", copied, collectionName);
+        }
+        return copied;
+    }
+
+    /**
+     * Remove copied documents from the time-series collection that were deleted from the legacy collection after
+     * being read for copying.
+     */
+    private void removeDeletedDocuments(List<Document> copiedDocuments, String legacyCollectionName,
+                                        String collectionName) {
+        Set<Object> copiedIds = copiedDocuments.stream().map(document -> document.get(ID_FIELD))
+                .collect(Collectors.toCollection(HashSet::new));
+        Query remainingQuery = Query.query(Criteria.where(ID_FIELD).in(copiedIds));
+        remainingQuery.fields().include(ID_FIELD);
+        mongoTemplate.find(remainingQuery, Document.class, legacyCollectionName)
+                .forEach(document -> copiedIds.remove(document.get(ID_FIELD)));
+        if (!copiedIds.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where(ID_FIELD).in(copiedIds)), collectionName);
+        }
+    }
+
+    private List<Document> withoutCopiedDocuments(List<Document> batch, String collectionName) {
+        Query copiedQuery = Query.query(Criteria.where(ID_FIELD).in(batch.stream().map(doc -> doc.get(ID_FIELD))
+                .toList()));
+        copiedQuery.fields().include(ID_FIELD);
+        Set<Object> copiedIds = mongoTemplate.find(copiedQuery, Document.class, collectionName).stream()
+                .map(document -> document.get(ID_FIELD))
+                .collect(Collectors.toSet());
+        return batch.stream().filter(document -> !copiedIds.contains(document.get(ID_FIELD))).toList();
+    }
+
+    /**
+     * Update the migration and renew the lease on it, as long as this instance still has the lease.
+     * @throws IllegalStateException If another instance has taken over the migration
+     */
+    private void updateMigration(String collectionName, String leaseOwner, Update update) {
+        LocalDateTime now = LocalDateTime.now();
+        update.set("updatedAt", now);
+        if (!update.modifies("leaseExpiresAt")) {
+            update.set("leaseExpiresAt", now.plus(storageProperties.getMigrationLease()));
+        }
+        long matched = mongoTemplate.updateFirst(Query.query(Criteria.where(ID_FIELD).is(collectionName)
+                .and("leaseOwner").is(leaseOwner)), update, ScoreMigration.class).getMatchedCount();
+        if (matched == 0) {
+            throw new IllegalStateException("Lost the lease on migrating collection " + collectionName);
+        }
+    }
+
+    private void renameCollection(String collectionName, String newCollectionName) {
+        log.info("Renaming collection {} to {}", collectionName, newCollectionName);
+        mongoTemplate.getCollection(collectionName)
+                .renameCollection(new MongoNamespace(mongoTemplate.getDb().getName(), newCollectionName));
+    }
+}
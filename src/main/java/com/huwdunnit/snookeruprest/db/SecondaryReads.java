@@ -0,0 +1,17 @@
+package com.huwdunnit.snookeruprest.db;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only endpoint whose MongoDB reads may go to a secondary, when secondary reads are enabled. Only use
+ * this where slightly stale results are acceptable, i.e. not where a user needs to see their own recent writes.
+ *
+ * @author Huwdunnit
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SecondaryReads {
+}
@@ -0,0 +1,44 @@
+package com.huwdunnit.snookeruprest.db;
+
+import com.huwdunnit.snookeruprest.config.SecondaryReadsProperties;
+import com.mongodb.ReadPreference;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sets the read preference to secondary preferred, with the configured max staleness, while handling requests to
+ * endpoints marked with @SecondaryReads.
+ *
+ * @author Huwdunnit
+ */
+public class SecondaryReadsInterceptor implements HandlerInterceptor {
+
+    private final SecondaryReadsProperties properties;
+
+    private final ReadPreference secondaryReadPreference;
+
+    public SecondaryReadsInterceptor(SecondaryReadsProperties properties) {
+        this.properties = properties;
+        this.secondaryReadPreference = ReadPreference.secondaryPreferred(
+                properties.getMaxStaleness().toSeconds(), TimeUnit.SECONDS);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (properties.isEnabled() && handler instanceof HandlerMethod handlerMethod
+                && handlerMethod.hasMethodAnnotation(SecondaryReads.class)) {
+            ReadPreferenceContext.set(secondaryReadPreference);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReadPreferenceContext.clear();
+    }
+}
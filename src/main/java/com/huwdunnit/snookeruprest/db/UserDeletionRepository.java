@@ -0,0 +1,14 @@
+package com.huwdunnit.snookeruprest.db;
+
+import com.huwdunnit.snookeruprest.model.UserDeletion;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data MongoDB repository for the UserDeletion collection.
+ *
+ * @author Huwdunnit
+ */
+@Repository
+public interface UserDeletionRepository extends MongoRepository<UserDeletion, String> {
+}
@@ -0,0 +1,17 @@
+package com.huwdunnit.snookeruprest.events;
+
+/**
+ * Application event published when a document in a MongoDB collection changes, possibly on another instance of the
+ * app, so anything derived from the collection (e.g. caches) can be updated.
+ *
+ * @param collectionName The name of the changed collection
+ * @param documentId The ID of the changed document, or null if the whole collection may have changed
+ *
+ * @author Huwdunnit
+ */
+public record CollectionChangedEvent(String collectionName, String documentId) {
+
+    public boolean isWholeCollection() {
+        return documentId == null;
+    }
+}
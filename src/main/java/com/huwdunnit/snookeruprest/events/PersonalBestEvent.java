@@ -0,0 +1,13 @@
+package com.huwdunnit.snookeruprest.events;
+
+import com.huwdunnit.snookeruprest.model.Score;
+
+/**
+ * Application event published after an added score has been found to be a new personal best.
+ *
+ * @param score The added score
+ *
+ * @author Huwdunnit
+ */
+public record PersonalBestEvent(Score score) {
+}
@@ -0,0 +1,13 @@
+package com.huwdunnit.snookeruprest.events;
+
+import com.huwdunnit.snookeruprest.model.Score;
+
+/**
+ * Application event published after a score has been added to the DB.
+ *
+ * @param score The added score
+ *
+ * @author Huwdunnit
+ */
+public record ScoreAddedEvent(Score score) {
+}
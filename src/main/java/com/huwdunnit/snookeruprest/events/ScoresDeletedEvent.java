@@ -0,0 +1,15 @@
+package com.huwdunnit.snookeruprest.events;
+
+import com.huwdunnit.snookeruprest.model.Score;
+
+import java.util.List;
+
+/**
+ * Application event published after one or more scores have been deleted from the DB.
+ *
+ * @param scores The deleted scores
+ *
+ * @author Huwdunnit
+ */
+public record ScoresDeletedEvent(List<Score> scores) {
+}
@@ -0,0 +1,17 @@
+package com.huwdunnit.snookeruprest.exceptions;
+
+/**
+ * Base class for exceptions caused by an invalid client request (e.g. an unknown ID or a disallowed field), which
+ * are mapped to 4xx responses.
+ *
+ * These are thrown on normal request paths, so they don't capture a stack trace or support suppression, which makes
+ * them cheap to create. The stack trace wouldn't be useful anyway, as the cause is the request, not the code.
+ *
+ * @author Huwdunnit
+ */
+public abstract class ClientErrorException extends RuntimeException {
+
+    protected ClientErrorException(String message) {
+        super(message, null, false, false);
+    }
+}
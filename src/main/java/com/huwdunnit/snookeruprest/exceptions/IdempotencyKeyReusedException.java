@@ -0,0 +1,14 @@
+package com.huwdunnit.snookeruprest.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class IdempotencyKeyReusedException extends ClientErrorException {
+
+    private final String idempotencyKey;
+
+    public IdempotencyKeyReusedException(String message, String idempotencyKey) {
+        super(message);
+        this.idempotencyKey = idempotencyKey;
+    }
+}
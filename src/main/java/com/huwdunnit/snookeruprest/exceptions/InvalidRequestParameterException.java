@@ -0,0 +1,14 @@
+package com.huwdunnit.snookeruprest.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class InvalidRequestParameterException extends ClientErrorException {
+
+    private final String parameterName;
+
+    public InvalidRequestParameterException(String message, String parameterName) {
+        super(message);
+        this.parameterName = parameterName;
+    }
+}
@@ -3,7 +3,7 @@ package com.huwdunnit.snookeruprest.exceptions;
 import lombok.Getter;
 
 @Getter
-public class InvalidScoreFieldException extends RuntimeException {
+public class InvalidScoreFieldException extends ClientErrorException {
 
     private final String fieldName;
 
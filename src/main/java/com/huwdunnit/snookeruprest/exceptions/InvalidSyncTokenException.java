@@ -0,0 +1,14 @@
+package com.huwdunnit.snookeruprest.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class InvalidSyncTokenException extends ClientErrorException {
+
+    private final String token;
+
+    public InvalidSyncTokenException(String message, String token) {
+        super(message);
+        this.token = token;
+    }
+}
@@ -0,0 +1,13 @@
+package com.huwdunnit.snookeruprest.exceptions;
+
+/**
+ * Thrown when a request is for a query that would be too expensive to run, e.g. a scan of a large collection.
+ *
+ * @author Huwdunnit
+ */
+public class QueryTooExpensiveException extends ClientErrorException {
+
+    public QueryTooExpensiveException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.huwdunnit.snookeruprest.exceptions;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a client has made more requests than its rate limit allows.
+ *
+ * @author Huwdunnit
+ */
+@Getter
+public class RateLimitExceededException extends ClientErrorException {
+
+    /** How long until the client can make another request. */
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
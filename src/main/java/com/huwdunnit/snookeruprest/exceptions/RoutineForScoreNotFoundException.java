@@ -3,7 +3,7 @@ package com.huwdunnit.snookeruprest.exceptions;
 import lombok.Getter;
 
 @Getter
-public class RoutineForScoreNotFoundException extends RuntimeException {
+public class RoutineForScoreNotFoundException extends ClientErrorException {
 
     private final String routineId;
 
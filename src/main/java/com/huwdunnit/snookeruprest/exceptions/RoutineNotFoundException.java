@@ -3,7 +3,7 @@ package com.huwdunnit.snookeruprest.exceptions;
 import lombok.Getter;
 
 @Getter
-public class RoutineNotFoundException extends RuntimeException {
+public class RoutineNotFoundException extends ClientErrorException {
 
     private final String routineId;
 
@@ -0,0 +1,18 @@
+package com.huwdunnit.snookeruprest.exceptions;
+
+/**
+ * Thrown when a score can't be accepted for writing, e.g. because the write-behind queue is full, or the write
+ * didn't complete in time.
+ *
+ * @author Huwdunnit
+ */
+public class ScoreIngestUnavailableException extends RuntimeException {
+
+    public ScoreIngestUnavailableException(String message) {
+        super(message);
+    }
+
+    public ScoreIngestUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -3,7 +3,7 @@ package com.huwdunnit.snookeruprest.exceptions;
 import lombok.Getter;
 
 @Getter
-public class ScoreNotFoundException extends RuntimeException {
+public class ScoreNotFoundException extends ClientErrorException {
 
     private final String scoreId;
 
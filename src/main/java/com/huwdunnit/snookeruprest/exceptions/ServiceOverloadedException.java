@@ -0,0 +1,15 @@
+package com.huwdunnit.snookeruprest.exceptions;
+
+/**
+ * Thrown when a request is rejected because the app is handling as many requests as it currently can.
+ *
+ * This is thrown most when the app is under the most load, so like client errors, it doesn't capture a stack trace.
+ *
+ * @author Huwdunnit
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException(String message) {
+        super(message, null, false, false);
+    }
+}
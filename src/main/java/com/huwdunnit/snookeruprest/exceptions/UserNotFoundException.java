@@ -3,7 +3,7 @@ package com.huwdunnit.snookeruprest.exceptions;
 import lombok.Getter;
 
 @Getter
-public class UserNotFoundException extends RuntimeException {
+public class UserNotFoundException extends ClientErrorException {
 
     private final String userId;
 
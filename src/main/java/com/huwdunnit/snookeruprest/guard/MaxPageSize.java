@@ -0,0 +1,18 @@
+package com.huwdunnit.snookeruprest.guard;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sets the largest page size allowed on a list endpoint, in place of the configured default.
+ *
+ * @author Huwdunnit
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaxPageSize {
+
+    int value();
+}
@@ -0,0 +1,69 @@
+package com.huwdunnit.snookeruprest.guard;
+
+import com.huwdunnit.snookeruprest.config.QueryGuardProperties;
+import com.huwdunnit.snookeruprest.exceptions.InvalidRequestParameterException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Rejects requests to list endpoints for pages that are too large (or otherwise invalid), before they reach the
+ * controller, so a single request can't load a whole collection into memory.
+ *
+ * The max page size is set per endpoint with @MaxPageSize, or else is the configured default.
+ *
+ * @author Huwdunnit
+ */
+public class PageSizeInterceptor implements HandlerInterceptor {
+
+    static final String PAGE_SIZE_PARAMETER = "pageSize";
+
+    static final String PAGE_NUMBER_PARAMETER = "pageNumber";
+
+    private final QueryGuardProperties properties;
+
+    public PageSizeInterceptor(QueryGuardProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        String pageSizeParameter = request.getParameter(PAGE_SIZE_PARAMETER);
+        if (pageSizeParameter != null) {
+            MaxPageSize maxPageSizeAnnotation = handlerMethod.getMethodAnnotation(MaxPageSize.class);
+            int maxPageSize = maxPageSizeAnnotation != null ? maxPageSizeAnnotation.value()
+                    : properties.getMaxPageSize();
+            Integer pageSize = parseInt(pageSizeParameter);
+            if (pageSize != null && (pageSize < 1 || pageSize > maxPageSize)) {
+                throw new InvalidRequestParameterException("Page size must be between 1 and " + maxPageSize
+                        + ", pageSize=" + pageSize, PAGE_SIZE_PARAMETER);
+            }
+        }
+
+        String pageNumberParameter = request.getParameter(PAGE_NUMBER_PARAMETER);
+        if (pageNumberParameter != null) {
+            Integer pageNumber = parseInt(pageNumberParameter);
+            if (pageNumber != null && pageNumber < 0) {
+                throw new InvalidRequestParameterException("Page number must not be negative, pageNumber="
+                        + pageNumber, PAGE_NUMBER_PARAMETER);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse a parameter as an int, or return null if it isn't one, leaving it to fail in parameter binding as usual.
+     */
+    private static Integer parseInt(String parameter) {
+        try {
+            return Integer.parseInt(parameter);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.huwdunnit.snookeruprest.guard;
+
+import com.huwdunnit.snookeruprest.config.QueryGuardProperties;
+import com.huwdunnit.snookeruprest.exceptions.QueryTooExpensiveException;
+import com.mongodb.MongoExecutionTimeoutException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refuses queries that would be too expensive to run, based on the size of the collection they'd have to scan, or how
+ * long they take.
+ *
+ * @author Huwdunnit
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class QueryCostGuard {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final QueryGuardProperties properties;
+
+    /**
+     * Check that a query which can't use an index (so would scan the whole collection, as would counting its
+     * results) is on a small enough collection. The collection size is estimated from its metadata, so this check is
+     * cheap. Queries limited to a date range are allowed on any size of collection, as they only match a limited
+     * number of documents, but they must run with a time limit (see {@link #isTimeLimitExceeded}).
+     * @param entityClass The class of entity in the collection being queried
+     * @param dateRanged Whether the query is limited to a date range
+     * @throws QueryTooExpensiveException If the query isn't limited to a date range, and the collection is too large
+     *                                    to scan
+     */
+    public void checkUnindexedScan(Class<?> entityClass, boolean dateRanged) {
+        String collectionName = mongoTemplate.getCollectionName(entityClass);
+        if (dateRanged) {
+            log.debug("Allowing date ranged unindexed scan of {}", collectionName);
+            return;
+        }
+        long estimatedDocuments = mongoTemplate.estimatedCount(collectionName);
+        if (estimatedDocuments > properties.getMaxUnindexedScanDocuments()) {
+            throw new QueryTooExpensiveException("Refusing unindexed scan of " + collectionName + ", estimatedDocuments="
+                    + estimatedDocuments);
+        }
+        log.debug("Allowing unindexed scan of {}, estimatedDocuments={}", collectionName, estimatedDocuments);
+    }
+
+    /**
+     * Check whether a query failed because it ran for longer than its time limit.
+     * @param ex The exception thrown by the query
+     * @return true if MongoDB aborted the query for taking too long
+     */
+    public static boolean isTimeLimitExceeded(DataAccessException ex) {
+        return ex.getMostSpecificCause() instanceof MongoExecutionTimeoutException;
+    }
+}
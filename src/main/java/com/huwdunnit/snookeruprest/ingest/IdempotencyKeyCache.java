@@ -0,0 +1,110 @@
+package com.huwdunnit.snookeruprest.ingest;
+
+import com.huwdunnit.snookeruprest.config.ScoreIngestProperties;
+import com.huwdunnit.snookeruprest.exceptions.ScoreIngestUnavailableException;
+import com.huwdunnit.snookeruprest.model.Score;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of recent idempotency keys, and the scores added by the requests with those keys.
+ *
+ * Entries are added as soon as a request starts adding a score, so a retry that arrives while the original request is
+ * still in progress waits for the original's result, rather than adding the score again. A retry only waits up to the
+ * submit timeout, the same as a request waiting for its score to be written. Only a bounded number of recent keys are
+ * kept, for a limited time, so older retries must be detected via the DB.
+ *
+ * @author Huwdunnit
+ */
+@Component
+public class IdempotencyKeyCache {
+
+    private final long ttlNanos;
+
+    private final long waitTimeoutMillis;
+
+    private final Map<String, Entry> entries;
+
+    public IdempotencyKeyCache(ScoreIngestProperties properties) {
+        this.ttlNanos = properties.getIdempotencyCacheTtl().toNanos();
+        this.waitTimeoutMillis = properties.getSubmitTimeout().toMillis();
+        int maxSize = properties.getIdempotencyCacheSize();
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get the score added by a previous request with the same user ID and idempotency key, or if there isn't one, add
+     * the score using the provided supplier.
+     * @param userId The ID of the user adding the score
+     * @param idempotencyKey The idempotency key provided with the request
+     * @param addScore Adds the score, if no previous request with the same key is found
+     * @return The score added by this request, or a previous request with the same key
+     * @throws ScoreIngestUnavailableException If a request with the same key is in progress, and doesn't finish within
+     *                                         the submit timeout
+     */
+    public Score getOrAdd(String userId, String idempotencyKey, Supplier<Score> addScore) {
+        String cacheKey = userId + ":" + idempotencyKey;
+        CompletableFuture<Score> result = new CompletableFuture<>();
+        CompletableFuture<Score> existingResult;
+        synchronized (entries) {
+            Entry existing = entries.get(cacheKey);
+            if (existing != null && System.nanoTime() - existing.createdNanos() < ttlNanos) {
+                existingResult = existing.result();
+            } else {
+                existingResult = null;
+                entries.remove(cacheKey);
+                entries.put(cacheKey, new Entry(result, System.nanoTime()));
+            }
+        }
+
+        if (existingResult != null) {
+            // A previous or in-progress request with the same key
+            try {
+                return existingResult.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new ScoreIngestUnavailableException("Failed to add score", ex.getCause());
+            } catch (TimeoutException ex) {
+                throw new ScoreIngestUnavailableException("Timed out waiting for request with the same idempotency " +
+                        "key", ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ScoreIngestUnavailableException("Interrupted waiting for request with the same " +
+                        "idempotency key", ex);
+            }
+        }
+
+        try {
+            Score addedScore = addScore.get();
+            result.complete(addedScore);
+            return addedScore;
+        } catch (RuntimeException ex) {
+            // Don't cache failures, so a retry can try again
+            synchronized (entries) {
+                Entry entry = entries.get(cacheKey);
+                if (entry != null && entry.result() == result) {
+                    entries.remove(cacheKey);
+                }
+            }
+            result.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private record Entry(CompletableFuture<Score> result, long createdNanos) {
+    }
+}
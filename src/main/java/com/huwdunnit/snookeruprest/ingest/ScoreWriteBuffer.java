@@ -0,0 +1,316 @@
+package com.huwdunnit.snookeruprest.ingest;
+
+import com.huwdunnit.snookeruprest.config.ScoreIngestProperties;
+import com.huwdunnit.snookeruprest.db.ScoreRepository;
+import com.huwdunnit.snookeruprest.exceptions.ScoreIngestUnavailableException;
+import com.huwdunnit.snookeruprest.model.Score;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind buffer for new scores, used when write-behind is enabled.
+ *
+ * Requests add validated scores to a bounded, lock-free queue. A single background writer drains the queue, inserting
+ * scores in batches with one bulk insert per batch. A batch is written when it's full, or when the max batch delay has
+ * passed since its first score arrived, whichever comes first.
+ *
+ * Each request waits until the batch containing its score has been acknowledged by MongoDB (i.e. group commit), so a
+ * successful response still means the score has been written. If a request gives up waiting before its score's batch
+ * has started being written, the score is cancelled, so it's never written after the client has been told it failed.
+ * If the batch has already started being written, the request waits for it instead, for up to the write timeout, after
+ * which it fails without knowing whether the score was written (so the client should retry with the same
+ * idempotency key).
+ *
+ * The writer stops after the web server, so requests still running during a graceful shutdown can have their scores
+ * written. Anything left in the queue when it stops is written before it exits.
+ *
+ * @author Huwdunnit
+ */
+@Component
+@Slf4j
+public class ScoreWriteBuffer implements SmartLifecycle {
+
+    /**
+     * Lower than the phases of the web server's graceful shutdown and stop, so the writer starts before the web server,
+     * and stops after it.
+     */
+    static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+    /** How long the writer sleeps for when idle, before re-checking whether it's been stopped. */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final ScoreRepository scoreRepository;
+
+    private final ScoreIngestProperties properties;
+
+    private final Queue<PendingScore> queue = new ConcurrentLinkedQueue<>();
+
+    /** Tracks the queue size separately, as ConcurrentLinkedQueue.size() is O(n). */
+    private final AtomicInteger queueSize = new AtomicInteger();
+
+    private final DistributionSummary batchSizeSummary;
+
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+
+    private volatile Thread writerThread;
+
+    public ScoreWriteBuffer(ScoreRepository scoreRepository, ScoreIngestProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.scoreRepository = scoreRepository;
+        this.properties = properties;
+        Gauge.builder("snookerup.scores.ingest.queue.depth", queueSize, AtomicInteger::get)
+                .description("Number of scores waiting to be written")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("snookerup.scores.ingest.batch.size")
+                .description("Number of scores written per batch")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("snookerup.scores.ingest.flush.latency")
+                .description("Time taken to write a batch of scores")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isWriteBehind();
+    }
+
+    /**
+     * Queue a score to be inserted, and wait for the batch it's written in to be acknowledged.
+     * @param score The score to insert, with its ID already set
+     * @return The inserted score
+     * @throws ScoreIngestUnavailableException If the queue is full, or the score isn't written within the submit
+     *                                         timeout (or, once its batch is being written, the write timeout)
+     */
+    public Score insert(Score score) {
+        if (!running) {
+            throw new ScoreIngestUnavailableException("Score writer is not running");
+        }
+        if (queueSize.incrementAndGet() > properties.getQueueCapacity()) {
+            queueSize.decrementAndGet();
+            throw new ScoreIngestUnavailableException("Score write queue is full");
+        }
+
+        PendingScore pendingScore = new PendingScore(score);
+        queue.offer(pendingScore);
+        LockSupport.unpark(writerThread);
+
+        try {
+            try {
+                return pendingScore.result.get(properties.getSubmitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                if (pendingScore.cancel()) {
+                    throw new ScoreIngestUnavailableException("Timed out waiting for score to be written", ex);
+                }
+                // Too late to cancel, as the score's batch is being written, so report how that turns out. Every
+                // batch is completed one way or the other when it's written (see flush), but don't wait forever.
+                return awaitWrite(pendingScore);
+            }
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ScoreIngestUnavailableException("Failed to write score", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (pendingScore.cancel()) {
+                throw new ScoreIngestUnavailableException("Interrupted waiting for score to be written", ex);
+            }
+            throw new ScoreIngestUnavailableException("Interrupted waiting for score to be written, but it may " +
+                    "still be written", ex);
+        }
+    }
+
+    /**
+     * Wait for a score whose batch is already being written, up to the write timeout.
+     */
+    private Score awaitWrite(PendingScore pendingScore) throws ExecutionException, InterruptedException {
+        try {
+            return pendingScore.result.get(properties.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new ScoreIngestUnavailableException("Timed out waiting for score's batch to be written, but it " +
+                    "may still be written", ex);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        running = true;
+        writerThread = Thread.ofPlatform().name("score-writer").daemon().start(this::runWriter);
+        log.info("Started score write-behind writer, maxBatchSize={}, maxBatchDelay={}",
+                properties.getMaxBatchSize(), properties.getMaxBatchDelay());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        // The writer drains anything left in the queue before exiting
+        running = false;
+        Thread thread = writerThread;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Stopped score write-behind writer");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runWriter() {
+        int maxBatchSize = properties.getMaxBatchSize();
+        long maxBatchDelayNanos = properties.getMaxBatchDelay().toNanos();
+        List<PendingScore> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || queueSize.get() > 0) {
+            PendingScore first = poll();
+            if (first == null) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            batch.add(first);
+
+            // Fill the batch, until it's full or the max delay since the first score has passed
+            long deadline = System.nanoTime() + maxBatchDelayNanos;
+            while (batch.size() < maxBatchSize) {
+                PendingScore next = poll();
+                if (next != null) {
+                    batch.add(next);
+                    continue;
+                }
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0 || !running) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remainingNanos);
+            }
+
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private PendingScore poll() {
+        PendingScore pendingScore = queue.poll();
+        if (pendingScore != null) {
+            queueSize.decrementAndGet();
+        }
+        return pendingScore;
+    }
+
+    private void flush(List<PendingScore> batch) {
+        // Leave out scores whose requests have already given up waiting. Once started, the rest can't be cancelled.
+        batch.removeIf(pendingScore -> !pendingScore.startWriting());
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        batchSizeSummary.record(batch.size());
+        long startNanos = System.nanoTime();
+        try {
+            List<Score> insertedScores = scoreRepository.insert(batch.stream().map(PendingScore::getScore).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(insertedScores.get(i));
+            }
+        } catch (RuntimeException ex) {
+            // A bulk insert stops at the first failure, so retry individually, so one bad score doesn't fail the rest
+            log.warn("Batch insert of {} scores failed, retrying individually: {}", batch.size(), ex.getMessage());
+            for (PendingScore pendingScore : batch) {
+                insertIndividually(pendingScore);
+            }
+        } finally {
+            // Requests that couldn't cancel wait for their score until the write timeout, so never leave one incomplete
+            for (PendingScore pendingScore : batch) {
+                pendingScore.result.completeExceptionally(
+                        new ScoreIngestUnavailableException("Score writer failed while writing score"));
+            }
+            flushTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void insertIndividually(PendingScore pendingScore) {
+        Score score = pendingScore.getScore();
+        try {
+            pendingScore.result.complete(scoreRepository.insert(score));
+        } catch (DuplicateKeyException ex) {
+            if (scoreRepository.existsById(score.getId())) {
+                // Already inserted by the failed batch insert, before it hit the failing score
+                pendingScore.result.complete(score);
+            } else {
+                pendingScore.result.completeExceptionally(ex);
+            }
+        } catch (RuntimeException ex) {
+            pendingScore.result.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * A score waiting to be written, and the request waiting for it.
+     */
+    private static final class PendingScore {
+
+        private static final int QUEUED = 0;
+
+        private static final int WRITING = 1;
+
+        private static final int CANCELLED = 2;
+
+        private final Score score;
+
+        private final CompletableFuture<Score> result = new CompletableFuture<>();
+
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private PendingScore(Score score) {
+            this.score = score;
+        }
+
+        private Score getScore() {
+            return score;
+        }
+
+        /**
+         * Cancel the score, so it isn't written.
+         * @return true if cancelled, or false if it's already being written
+         */
+        private boolean cancel() {
+            return state.compareAndSet(QUEUED, CANCELLED);
+        }
+
+        /**
+         * Mark the score as being written, so it can no longer be cancelled.
+         * @return true if it can be written, or false if it's been cancelled
+         */
+        private boolean startWriting() {
+            return state.compareAndSet(QUEUED, WRITING);
+        }
+    }
+}
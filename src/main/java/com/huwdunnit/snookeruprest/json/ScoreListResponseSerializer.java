@@ -0,0 +1,66 @@
+package com.huwdunnit.snookeruprest.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.ScoreListResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Hand-written serializer for pages of scores. Looks up the score serializer once per page, rather than once per score
+ * as the collection serializer would for a list of (possibly differently typed) elements.
+ *
+ * @author Huwdunnit
+ */
+public class ScoreListResponseSerializer extends StdSerializer<ScoreListResponse> {
+
+    public ScoreListResponseSerializer() {
+        super(ScoreListResponse.class);
+    }
+
+    @Override
+    public void serialize(ScoreListResponse response, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        gen.writeStartObject(response);
+
+        List<Score> scores = response.getScores();
+        gen.writeFieldName("scores");
+        if (scores == null) {
+            gen.writeNull();
+        } else {
+            JsonSerializer<Object> scoreSerializer = provider.findValueSerializer(Score.class);
+            gen.writeStartArray(scores, scores.size());
+            for (Score score : scores) {
+                if (score == null) {
+                    gen.writeNull();
+                } else {
+                    scoreSerializer.serialize(score, gen, provider);
+                }
+            }
+            gen.writeEndArray();
+        }
+
+        writeNullableNumberField(gen, "pageSize", response.getPageSize());
+        writeNullableNumberField(gen, "pageNumber", response.getPageNumber());
+        writeNullableNumberField(gen, "totalPages", response.getTotalPages());
+        if (response.getTotalItems() == null) {
+            gen.writeNullField("totalItems");
+        } else {
+            gen.writeNumberField("totalItems", response.getTotalItems());
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeNullableNumberField(JsonGenerator gen, String fieldName, Integer value)
+            throws IOException {
+        if (value == null) {
+            gen.writeNullField(fieldName);
+        } else {
+            gen.writeNumberField(fieldName, value);
+        }
+    }
+}
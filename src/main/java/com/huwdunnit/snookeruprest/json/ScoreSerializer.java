@@ -0,0 +1,62 @@
+package com.huwdunnit.snookeruprest.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.Views;
+
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Hand-written serializer for scores, as they're serialized in pages of hundreds. Writes the same JSON as the bean
+ * serializer would from the annotations on Score, including leaving out the user ID in the summary view, without
+ * looking up property writers and views for each field. The personal best flag is only ever set on a single added
+ * score, so scores in pages never have it.
+ *
+ * @author Huwdunnit
+ */
+public class ScoreSerializer extends StdSerializer<Score> {
+
+    /** Formatter for the date/time, built once, rather than per property as the JSR-310 serializers do. */
+    static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(Score.DATE_FORMAT);
+
+    public ScoreSerializer() {
+        super(Score.class);
+    }
+
+    @Override
+    public void serialize(Score score, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(score);
+        gen.writeStringField("id", score.getId());
+        gen.writeNumberField("value", score.getValue());
+        gen.writeStringField("routineId", score.getRoutineId());
+        Class<?> activeView = provider.getActiveView();
+        if (activeView == null || Views.Full.class.isAssignableFrom(activeView)) {
+            gen.writeStringField("userId", score.getUserId());
+        }
+        if (score.getDateTime() == null) {
+            gen.writeNullField("dateTime");
+        } else {
+            gen.writeStringField("dateTime", DATE_TIME_FORMATTER.format(score.getDateTime()));
+        }
+        writeNullableNumberField(gen, "cushionLimit", score.getCushionLimit());
+        gen.writeStringField("colours", score.getColours());
+        writeNullableNumberField(gen, "numBalls", score.getNumBalls());
+        gen.writeBooleanField("loop", score.isLoop());
+        if (score.getPersonalBest() != null) {
+            gen.writeBooleanField("personalBest", score.getPersonalBest());
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeNullableNumberField(JsonGenerator gen, String fieldName, Integer value)
+            throws IOException {
+        if (value == null) {
+            gen.writeNullField(fieldName);
+        } else {
+            gen.writeNumberField(fieldName, value);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.huwdunnit.snookeruprest.live;
+
+import com.huwdunnit.snookeruprest.config.LiveScoreProperties;
+import com.huwdunnit.snookeruprest.events.ScoreAddedEvent;
+import com.huwdunnit.snookeruprest.exceptions.ServiceOverloadedException;
+import com.huwdunnit.snookeruprest.model.Score;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes new scores to live dashboards, as server-sent events.
+ *
+ * Each subscriber has a bounded queue of scores waiting to be sent, and its own virtual thread sending them, so a
+ * slow subscriber only holds up itself. New scores are offered to each matching subscriber's queue without blocking,
+ * and a subscriber whose queue is full is disconnected (it can reconnect and carry on from the latest scores), so
+ * memory use is bounded however far behind a subscriber falls.
+ *
+ * Only scores added through this instance are sent, as scores are taken from ScoreAddedEvents.
+ *
+ * @author Huwdunnit
+ */
+@Component
+@Slf4j
+public class LiveScoreBroadcaster implements SmartLifecycle {
+
+    static final String SCORE_EVENT_NAME = "score";
+
+    private final LiveScoreProperties properties;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /** Tracks the number of subscribers separately, so the limit can be checked and reserved in one step. */
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final Counter droppedCounter;
+
+    private volatile boolean running;
+
+    public LiveScoreBroadcaster(LiveScoreProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("snookerup.live.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Number of subscribers to the live score stream")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("snookerup.live.dropped")
+                .description("Subscribers disconnected for falling too far behind")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribe to new scores.
+     * @param filter Which scores to send to the subscriber
+     * @return The emitter to return from the request handler
+     * @throws ServiceOverloadedException If the maximum number of subscribers are already connected
+     */
+    public SseEmitter subscribe(LiveScoreFilter filter) {
+        if (!running) {
+            throw new ServiceOverloadedException("Live score stream is not running");
+        }
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceOverloadedException("Too many live score subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, filter, new ArrayBlockingQueue<>(properties.getBufferSize()));
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+        subscriber.thread = Thread.ofVirtual().name("live-score-subscriber").start(subscriber::sendScores);
+
+        log.debug("Added live score subscriber, filter={}, subscribers={}", filter, subscriberCount.get());
+        return emitter;
+    }
+
+    @EventListener
+    public void onScoreAdded(ScoreAddedEvent event) {
+        Score score = event.score();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.filter.matches(score) && !subscriber.queue.offer(score)) {
+                log.info("Disconnecting live score subscriber that has fallen {} scores behind",
+                        properties.getBufferSize());
+                droppedCounter.increment();
+                subscriber.close();
+            }
+        }
+    }
+
+    int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        subscribers.forEach(Subscriber::close);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final LiveScoreFilter filter;
+
+        private final BlockingQueue<Score> queue;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private volatile Thread thread;
+
+        private Subscriber(SseEmitter emitter, LiveScoreFilter filter, BlockingQueue<Score> queue) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.queue = queue;
+        }
+
+        private void sendScores() {
+            long heartbeatMillis = properties.getHeartbeatInterval().toMillis();
+            try {
+                while (!closed.get()) {
+                    Score score = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (closed.get()) {
+                        break;
+                    }
+                    if (score == null) {
+                        // Writing something is the only way to find out whether the client has gone
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(score.getId())
+                                .name(SCORE_EVENT_NAME)
+                                .data(score, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // The client has gone, or the emitter has already completed
+                log.debug("Stopped sending to live score subscriber: {}", ex.getMessage());
+            } catch (InterruptedException ex) {
+                // Closed while waiting for a score
+            } finally {
+                close();
+                emitter.complete();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                subscriberCount.decrementAndGet();
+                queue.clear();
+                Thread subscriberThread = thread;
+                if (subscriberThread != null && subscriberThread != Thread.currentThread()) {
+                    subscriberThread.interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.huwdunnit.snookeruprest.live;
+
+import com.huwdunnit.snookeruprest.model.Score;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Selects which new scores a live score subscriber is sent.
+ *
+ * @param routineId Only send scores on this routine. If empty, scores on any routine are sent.
+ * @param userIds Only send scores by these users. If empty, scores by any user are sent.
+ *
+ * @author Huwdunnit
+ */
+public record LiveScoreFilter(Optional<String> routineId, Set<String> userIds) {
+
+    public boolean matches(Score score) {
+        return (routineId.isEmpty() || routineId.get().equals(score.getRoutineId()))
+                && (userIds.isEmpty() || userIds.contains(score.getUserId()));
+    }
+}
@@ -0,0 +1,62 @@
+package com.huwdunnit.snookeruprest.logging;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wraps a logger so that at most a fixed number of messages are written per time window. Messages over the limit are
+ * dropped and counted, and the number dropped is reported with the first message of the next window.
+ *
+ * Intended for logging caused by clients (e.g. 404s from scrapers), where the volume is outside our control.
+ *
+ * @author Huwdunnit
+ */
+public class RateLimitedLogger {
+
+    private final Logger delegate;
+
+    private final int maxPerWindow;
+
+    private final long windowNanos;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+
+    private final AtomicInteger loggedInWindow = new AtomicInteger();
+
+    private final AtomicInteger suppressedInWindow = new AtomicInteger();
+
+    public RateLimitedLogger(Logger delegate, int maxPerWindow, Duration window) {
+        this.delegate = delegate;
+        this.maxPerWindow = maxPerWindow;
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Log a message at WARN level, if the limit for the current window hasn't been reached.
+     * @param format The SLF4J format string
+     * @param args The format arguments
+     */
+    public void warn(String format, Object... args) {
+        if (!delegate.isWarnEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            loggedInWindow.set(0);
+            int suppressed = suppressedInWindow.getAndSet(0);
+            if (suppressed > 0) {
+                delegate.warn("Suppressed {} client error log messages in the last window", suppressed);
+            }
+        }
+
+        if (loggedInWindow.incrementAndGet() <= maxPerWindow) {
+            delegate.warn(format, args);
+        } else {
+            suppressedInWindow.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.huwdunnit.snookeruprest.logging;
+
+import com.huwdunnit.snookeruprest.config.RequestLoggingProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet filter that logs a one-line summary (method, path, status, duration) of each request, rather than the
+ * request and response payloads.
+ *
+ * Successful, fast requests are sampled according to the configured sample rate, while server errors and slow
+ * requests are always logged.
+ *
+ * @author Huwdunnit
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestSummaryLoggingFilter extends OncePerRequestFilter {
+
+    /** Separate logger, so request summaries can be routed or levelled independently of the application logs. */
+    private static final Logger REQUEST_LOG = LoggerFactory.getLogger("com.huwdunnit.snookeruprest.requests");
+
+    private final RequestLoggingProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!properties.isEnabled() || !REQUEST_LOG.isInfoEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long durationNanos = System.nanoTime() - startNanos;
+            int status = response.getStatus();
+            if (shouldLog(status, durationNanos)) {
+                REQUEST_LOG.info("method={} path={} status={} durationMs={}", request.getMethod(),
+                        request.getRequestURI(), status, TimeUnit.NANOSECONDS.toMillis(durationNanos));
+            }
+        }
+    }
+
+    /**
+     * Decide whether to log a request's summary.
+     * @param status The response status
+     * @param durationNanos How long the request took, in nanoseconds
+     * @return true if the summary should be logged
+     */
+    boolean shouldLog(int status, long durationNanos) {
+        if (status >= 500 || durationNanos >= properties.getSlowThreshold().toNanos()) {
+            return true;
+        }
+        double sampleRate = properties.getSampleRate();
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
@@ -0,0 +1,31 @@
+package com.huwdunnit.snookeruprest.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stores the resume token of the last change stream event handled by an instance of the app for a collection, so
+ * the instance can carry on from where it left off after a restart.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@Document
+public class ChangeStreamResumeToken {
+
+    /** The ID, in the form "nodeId:collectionName". */
+    @Id
+    private String id;
+
+    /** The resume token, as JSON. */
+    private String token;
+
+    private LocalDateTime updatedAt;
+
+    public static String createId(String nodeId, String collectionName) {
+        return nodeId + ":" + collectionName;
+    }
+}
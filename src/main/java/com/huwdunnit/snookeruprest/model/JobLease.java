@@ -0,0 +1,27 @@
+package com.huwdunnit.snookeruprest.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A lease on a background job, so when the app runs on more than one instance, only one of them runs the job at once.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@Document
+public class JobLease {
+
+    /** The name of the job. */
+    @Id
+    private String jobName;
+
+    /** Identifies the instance (and run) that has the lease. */
+    private String leaseOwner;
+
+    /** Until when the lease owner has exclusive use of the job. Null when no instance has it. */
+    private LocalDateTime leaseExpiresAt;
+}
@@ -0,0 +1,50 @@
+package com.huwdunnit.snookeruprest.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Holds a user's best score on one configuration of a routine (i.e. one combination of cushion limit, colours,
+ * number of balls and loop), so whether a new score is a personal best can be checked by ID.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@Document
+@CompoundIndex(def = "{'userId': 1, 'scoreId': 1}")
+public class PersonalBest {
+
+    /** The ID, made up of the user ID, routine ID and configuration (see {@link #createId}). */
+    @Id
+    private String id;
+
+    private String userId;
+
+    private String routineId;
+
+    private Integer cushionLimit;
+
+    private String colours;
+
+    private Integer numBalls;
+
+    private boolean loop;
+
+    /** The value of the best score. */
+    private int value;
+
+    /** The ID of the best score. */
+    private String scoreId;
+
+    private LocalDateTime dateTime;
+
+    public static String createId(String userId, String routineId, Integer cushionLimit, String colours,
+                                  Integer numBalls, boolean loop) {
+        return String.join(":", userId, routineId, String.valueOf(cushionLimit), String.valueOf(colours),
+                String.valueOf(numBalls), String.valueOf(loop));
+    }
+}
@@ -0,0 +1,41 @@
+package com.huwdunnit.snookeruprest.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Models a practice session, i.e. a run of a user's scores with no more than the configured gap between each.
+ *
+ * Sessions don't overlap, so ordering a user's sessions by their end date/time also orders them by their start.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@Document
+@CompoundIndex(def = "{'userId': 1, 'endDateTime': -1}")
+public class PracticeSession {
+
+    @Id
+    private String id;
+
+    @JsonIgnore
+    private String userId;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = Score.DATE_FORMAT)
+    private LocalDateTime startDateTime;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = Score.DATE_FORMAT)
+    private LocalDateTime endDateTime;
+
+    private int scoreCount;
+
+    /** The IDs of the routines scored on in the session. */
+    private Set<String> routineIds;
+}
@@ -0,0 +1,37 @@
+package com.huwdunnit.snookeruprest.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Models a pageable list of practice sessions.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PracticeSessionListResponse {
+
+    private List<PracticeSession> sessions;
+
+    private Integer pageSize;
+
+    private Integer pageNumber;
+
+    private Integer totalPages;
+
+    private Long totalItems;
+
+    public PracticeSessionListResponse(Page<PracticeSession> pageOfSessions) {
+        this.sessions = pageOfSessions.getContent();
+        this.pageSize = pageOfSessions.getSize();
+        this.pageNumber = pageOfSessions.getNumber();
+        this.totalPages = pageOfSessions.getTotalPages();
+        this.totalItems = pageOfSessions.getTotalElements();
+    }
+}
@@ -0,0 +1,27 @@
+package com.huwdunnit.snookeruprest.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A lock on a user's practice sessions, so only one request at a time updates them.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@Document
+public class PracticeSessionLock {
+
+    /** The user ID. */
+    @Id
+    private String id;
+
+    /** Identifies the update that has the lock. */
+    private String lockOwner;
+
+    /** Until when the lock owner has exclusive use of the user's sessions. Null when no update has it. */
+    private LocalDateTime lockExpiresAt;
+}
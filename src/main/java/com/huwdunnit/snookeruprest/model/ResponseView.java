@@ -0,0 +1,35 @@
+package com.huwdunnit.snookeruprest.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * The predefined views a list endpoint can return, selected with the "view" request parameter. The summary view is
+ * also pushed down to MongoDB as a projection, so fields left out of the response aren't read either.
+ *
+ * @author Huwdunnit
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ResponseView {
+
+    FULL(Views.Full.class),
+    SUMMARY(Views.Summary.class);
+
+    public static final String PARAMETER_NAME = "view";
+
+    /** The Jackson view used when serializing the response. */
+    private final Class<?> jsonView;
+
+    /**
+     * Get the view for a request parameter value, ignoring case.
+     * @param value The request parameter value
+     * @return The matching view
+     * @throws IllegalArgumentException If there's no view with the provided name
+     */
+    public static ResponseView fromParameter(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
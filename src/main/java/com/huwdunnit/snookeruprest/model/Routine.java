@@ -1,5 +1,6 @@
 package com.huwdunnit.snookeruprest.model;
 
+import com.fasterxml.jackson.annotation.JsonView;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,19 +24,26 @@ public class Routine {
     @Indexed(unique = true)
     private String title;
 
+    @JsonView(Views.Full.class)
     private List<String> description;
 
     private List<String> tags;
 
+    @JsonView(Views.Full.class)
     private List<Integer> cushionLimits;
 
+    @JsonView(Views.Full.class)
     private List<String> colours;
 
+    @JsonView(Views.Full.class)
     private Balls balls;
 
+    @JsonView(Views.Full.class)
     private List<String> images;
 
+    @JsonView(Views.Full.class)
     private boolean canLoop;
 
+    @JsonView(Views.Full.class)
     private List<String> ballStriking;
 }
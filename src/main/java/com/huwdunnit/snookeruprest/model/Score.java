@@ -1,8 +1,12 @@
 package com.huwdunnit.snookeruprest.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonView;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -20,6 +24,7 @@ public class Score {
 
     private String routineId;
 
+    @JsonView(Views.Full.class)
     private String userId;
 
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = DATE_FORMAT)
@@ -36,4 +41,19 @@ public class Score {
 
     /** Whether this score (and it's value) is the number of successful loops of a routine. */
     private boolean loop;
+
+    /**
+     * Whether this score is the user's best on its routine and configuration. Only set on the response to adding a
+     * score, and not stored.
+     */
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean personalBest;
+
+    /**
+     * The client-supplied key identifying the request that added this score, so retried requests don't add the score
+     * again. Taken from the Idempotency-Key header, rather than the request body.
+     */
+    @JsonIgnore
+    private String idempotencyKey;
 }
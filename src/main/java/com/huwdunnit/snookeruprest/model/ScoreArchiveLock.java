@@ -0,0 +1,28 @@
+package com.huwdunnit.snookeruprest.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A lock on a user's archive files, so only one change at a time (e.g. archiving more scores, or deleting archived
+ * scores) rewrites them.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@Document
+public class ScoreArchiveLock {
+
+    /** The user ID. */
+    @Id
+    private String id;
+
+    /** Identifies the change that has the lock. */
+    private String lockOwner;
+
+    /** Until when the lock owner has exclusive use of the user's archive files. Null when no change has it. */
+    private LocalDateTime lockExpiresAt;
+}
@@ -0,0 +1,78 @@
+package com.huwdunnit.snookeruprest.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Summarises the scores for one user in one month, which have been archived out of the Score collection into a file
+ * on disk.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@Document
+@CompoundIndex(def = "{'userId': 1, 'month': 1}")
+public class ScoreArchiveSummary {
+
+    /** The ID, in the form "userId:month". */
+    @Id
+    private String id;
+
+    private String userId;
+
+    /** The month the archived scores are in, in the form "yyyy-MM". */
+    private String month;
+
+    private int scoreCount;
+
+    private int bestValue;
+
+    private long totalValue;
+
+    private LocalDateTime firstDateTime;
+
+    private LocalDateTime lastDateTime;
+
+    /**
+     * The IDs of the archived scores, so an archived score can be found by its ID. Left out when summaries are
+     * listed, as there can be thousands per month.
+     */
+    @Indexed
+    private List<String> scoreIds;
+
+    /**
+     * The best score on each routine and configuration scored on in the month, so a user's best archived score can be
+     * found without reading every month. Null for months archived before these were kept.
+     */
+    private List<ConfigurationBest> configurationBests;
+
+    /** When the archive file for this user and month was last written. */
+    private LocalDateTime archivedAt;
+
+    public static String createId(String userId, String month) {
+        return userId + ":" + month;
+    }
+
+    /**
+     * The best score in a month on one routine and configuration. If more than one score has the best value, this is
+     * the earliest.
+     */
+    @Data
+    public static class ConfigurationBest {
+
+        /** The routine and configuration, as the ID of the matching {@link PersonalBest}. */
+        private String configurationId;
+
+        private String scoreId;
+
+        private int value;
+
+        private LocalDateTime dateTime;
+    }
+}
@@ -0,0 +1,52 @@
+package com.huwdunnit.snookeruprest.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Models a change (i.e. an addition or deletion) to one of a user's scores, so clients can sync just the changes
+ * since they last synced, rather than all of a user's scores.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@Document
+@CompoundIndex(def = "{'userId': 1, 'sequence': 1}", unique = true)
+public class ScoreChange {
+
+    /** How long changes are kept for. Clients that last synced before this must re-sync all scores. */
+    public static final String RETENTION = "90d";
+
+    @Id
+    @JsonIgnore
+    private String id;
+
+    @JsonIgnore
+    private String userId;
+
+    /** The position of this change in the user's changes, which increases by one with each change. */
+    private long sequence;
+
+    private ChangeType type;
+
+    private String scoreId;
+
+    /** The added score, for ADDED changes. Null for DELETED changes. */
+    private Score score;
+
+    @Indexed(expireAfter = RETENTION)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = Score.DATE_FORMAT)
+    private LocalDateTime changedAt;
+
+    public enum ChangeType {
+        ADDED,
+        DELETED
+    }
+}
@@ -0,0 +1,26 @@
+package com.huwdunnit.snookeruprest.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Holds the sequence number of the latest change to a user's scores.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@Document
+public class ScoreChangeSequence {
+
+    /** The user ID. */
+    @Id
+    private String id;
+
+    private long sequence;
+
+    /** When sequence numbers were last reserved, i.e. when the latest change started being written. */
+    private LocalDateTime updatedAt;
+}
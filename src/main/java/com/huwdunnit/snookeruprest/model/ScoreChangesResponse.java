@@ -0,0 +1,32 @@
+package com.huwdunnit.snookeruprest.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Models a list of changes to a user's scores since a sync token.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreChangesResponse {
+
+    private List<ScoreChange> changes;
+
+    /** The token to pass as "since" on the next request, to get changes after these ones. */
+    private String nextToken;
+
+    /** Whether there are more changes after these ones, i.e. whether to request again straight away. */
+    private boolean hasMore;
+
+    /**
+     * Whether changes since the provided token are no longer available, in which case the client must re-sync all
+     * scores, then continue from the returned token.
+     */
+    private boolean resyncRequired;
+}
@@ -0,0 +1,49 @@
+package com.huwdunnit.snookeruprest.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tracks the progress of migrating a standard Score collection to a time-series collection, so a migration stopped
+ * part way through (e.g. by a restart) can carry on where it left off, and instances don't migrate at once.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@Document
+public class ScoreMigration {
+
+    /** The name of the collection being migrated. */
+    @Id
+    private String collectionName;
+
+    private Status status;
+
+    /**
+     * The ID of the last document copied from the legacy collection, or null if none have been copied yet. Stored as
+     * the ID's own BSON type (e.g. an ObjectId), so it compares with the IDs in the legacy collection.
+     */
+    private Object lastCopiedId;
+
+    /** The number of documents copied from the legacy collection so far. */
+    private long copiedCount;
+
+    /** Identifies the instance running the migration. */
+    private String leaseOwner;
+
+    /** Until when the lease owner has exclusive use of the migration. */
+    private LocalDateTime leaseExpiresAt;
+
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        /** The standard collection is being moved aside, and the time-series collection created in its place. */
+        MOVING,
+        /** Documents are being copied from the legacy collection into the time-series collection. */
+        COPYING,
+        COMPLETED
+    }
+}
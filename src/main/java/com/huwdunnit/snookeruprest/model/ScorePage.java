@@ -0,0 +1,328 @@
+package com.huwdunnit.snookeruprest.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * A compact, read-only list of scores, stored as columns (one array per field) rather than as Score objects.
+ *
+ * Values are held in primitive arrays, date/times as epoch seconds, and repetitive strings (routine IDs, user IDs and
+ * colours) are dictionary encoded, storing each distinct string once plus an int index per score. This takes a
+ * fraction of the heap of the equivalent list of Scores, which matters for archived scores read from files, as a
+ * query can cover many months of them.
+ *
+ * Scores are created on demand by {@link #get(int)}, each a detached copy. Callers that only need a few fields can
+ * read the columns directly through the per-field getters instead, to avoid creating them at all.
+ *
+ * @author Huwdunnit
+ */
+public final class ScorePage extends AbstractList<Score> implements RandomAccess {
+
+    private static final ScorePage EMPTY = new Builder(0).build();
+
+    /** Marks a null value in an int column, or a null dictionary index. */
+    private static final int NULL_INT = Integer.MIN_VALUE;
+
+    /** Marks a null date/time. */
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private final int size;
+
+    private final String[] ids;
+
+    private final int[] values;
+
+    private final String[] routineIdDictionary;
+
+    private final int[] routineIdIndexes;
+
+    private final String[] userIdDictionary;
+
+    private final int[] userIdIndexes;
+
+    private final long[] dateTimes;
+
+    private final int[] cushionLimits;
+
+    private final String[] colourDictionary;
+
+    private final int[] colourIndexes;
+
+    private final int[] numBalls;
+
+    private final BitSet loops;
+
+    private ScorePage(Builder builder) {
+        this.size = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.values = Arrays.copyOf(builder.values, size);
+        this.routineIdDictionary = builder.routineIds.toArray();
+        this.routineIdIndexes = Arrays.copyOf(builder.routineIdIndexes, size);
+        this.userIdDictionary = builder.userIds.toArray();
+        this.userIdIndexes = Arrays.copyOf(builder.userIdIndexes, size);
+        this.dateTimes = Arrays.copyOf(builder.dateTimes, size);
+        this.cushionLimits = Arrays.copyOf(builder.cushionLimits, size);
+        this.colourDictionary = builder.colours.toArray();
+        this.colourIndexes = Arrays.copyOf(builder.colourIndexes, size);
+        this.numBalls = Arrays.copyOf(builder.numBalls, size);
+        this.loops = (BitSet) builder.loops.clone();
+    }
+
+    /**
+     * Create a score page holding the provided scores.
+     * @param scores The scores, which can be any list (including another score page)
+     * @return The score page
+     */
+    public static ScorePage of(List<Score> scores) {
+        if (scores instanceof ScorePage scorePage) {
+            return scorePage;
+        }
+        if (scores.isEmpty()) {
+            return EMPTY;
+        }
+        Builder builder = new Builder(scores.size());
+        scores.forEach(builder::add);
+        return builder.build();
+    }
+
+    public static ScorePage empty() {
+        return EMPTY;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the score at the provided index, as a new Score each call. The Score is a detached copy, so changing it
+     * doesn't change this page, and two calls for the same index return different (but equal) objects.
+     * @param index The index of the score
+     * @return A new Score with the values at the index
+     */
+    @Override
+    public Score get(int index) {
+        checkIndex(index);
+        Score score = new Score();
+        score.setId(ids[index]);
+        score.setValue(values[index]);
+        score.setRoutineId(getRoutineId(index));
+        score.setUserId(getUserId(index));
+        score.setDateTime(getDateTime(index));
+        score.setCushionLimit(getCushionLimit(index));
+        score.setColours(getColours(index));
+        score.setNumBalls(getNumBalls(index));
+        score.setLoop(isLoop(index));
+        return score;
+    }
+
+    public String getId(int index) {
+        checkIndex(index);
+        return ids[index];
+    }
+
+    public int getValue(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    public String getRoutineId(int index) {
+        checkIndex(index);
+        return lookup(routineIdDictionary, routineIdIndexes[index]);
+    }
+
+    public String getUserId(int index) {
+        checkIndex(index);
+        return lookup(userIdDictionary, userIdIndexes[index]);
+    }
+
+    public LocalDateTime getDateTime(int index) {
+        checkIndex(index);
+        long epochSecond = dateTimes[index];
+        return epochSecond == NULL_LONG ? null : LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    public Integer getCushionLimit(int index) {
+        checkIndex(index);
+        return cushionLimits[index] == NULL_INT ? null : cushionLimits[index];
+    }
+
+    public String getColours(int index) {
+        checkIndex(index);
+        return lookup(colourDictionary, colourIndexes[index]);
+    }
+
+    public Integer getNumBalls(int index) {
+        checkIndex(index);
+        return numBalls[index] == NULL_INT ? null : numBalls[index];
+    }
+
+    public boolean isLoop(int index) {
+        checkIndex(index);
+        return loops.get(index);
+    }
+
+    /**
+     * Get a copy of this page with the scores in date/time order (earliest first), or this page if they already are.
+     * Scores with the same date/time keep their relative order.
+     * @return The sorted score page
+     */
+    public ScorePage sortedByDateTime() {
+        boolean sorted = true;
+        for (int i = 1; i < size && sorted; i++) {
+            sorted = dateTimes[i - 1] <= dateTimes[i];
+        }
+        if (sorted) {
+            return this;
+        }
+
+        Builder builder = new Builder(size);
+        IntStream.range(0, size).boxed()
+                .sorted(Comparator.comparingLong(index -> dateTimes[index]))
+                .forEach(index -> builder.add(this, index));
+        return builder.build();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private static String lookup(String[] dictionary, int index) {
+        return index == NULL_INT ? null : dictionary[index];
+    }
+
+    /**
+     * Builds a score page one score at a time, so the scores can be added as they're read, without holding them all
+     * as Score objects first.
+     */
+    public static final class Builder {
+
+        private int size;
+
+        private String[] ids;
+
+        private int[] values;
+
+        private final Dictionary routineIds = new Dictionary();
+
+        private int[] routineIdIndexes;
+
+        private final Dictionary userIds = new Dictionary();
+
+        private int[] userIdIndexes;
+
+        private long[] dateTimes;
+
+        private int[] cushionLimits;
+
+        private final Dictionary colours = new Dictionary();
+
+        private int[] colourIndexes;
+
+        private int[] numBalls;
+
+        private final BitSet loops = new BitSet();
+
+        /**
+         * @param expectedSize The expected number of scores, used as the initial capacity
+         */
+        public Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 1);
+            ids = new String[capacity];
+            values = new int[capacity];
+            routineIdIndexes = new int[capacity];
+            userIdIndexes = new int[capacity];
+            dateTimes = new long[capacity];
+            cushionLimits = new int[capacity];
+            colourIndexes = new int[capacity];
+            numBalls = new int[capacity];
+        }
+
+        public Builder add(Score score) {
+            int index = nextIndex();
+            ids[index] = score.getId();
+            values[index] = score.getValue();
+            routineIdIndexes[index] = routineIds.indexOf(score.getRoutineId());
+            userIdIndexes[index] = userIds.indexOf(score.getUserId());
+            dateTimes[index] = score.getDateTime() == null ? NULL_LONG
+                    : score.getDateTime().toEpochSecond(ZoneOffset.UTC);
+            cushionLimits[index] = score.getCushionLimit() == null ? NULL_INT : score.getCushionLimit();
+            colourIndexes[index] = colours.indexOf(score.getColours());
+            numBalls[index] = score.getNumBalls() == null ? NULL_INT : score.getNumBalls();
+            loops.set(index, score.isLoop());
+            return this;
+        }
+
+        private void add(ScorePage page, int pageIndex) {
+            int index = nextIndex();
+            ids[index] = page.ids[pageIndex];
+            values[index] = page.values[pageIndex];
+            routineIdIndexes[index] = routineIds.indexOf(lookup(page.routineIdDictionary,
+                    page.routineIdIndexes[pageIndex]));
+            userIdIndexes[index] = userIds.indexOf(lookup(page.userIdDictionary, page.userIdIndexes[pageIndex]));
+            dateTimes[index] = page.dateTimes[pageIndex];
+            cushionLimits[index] = page.cushionLimits[pageIndex];
+            colourIndexes[index] = colours.indexOf(lookup(page.colourDictionary, page.colourIndexes[pageIndex]));
+            numBalls[index] = page.numBalls[pageIndex];
+            loops.set(index, page.loops.get(pageIndex));
+        }
+
+        public ScorePage build() {
+            return new ScorePage(this);
+        }
+
+        private int nextIndex() {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                values = Arrays.copyOf(values, capacity);
+                routineIdIndexes = Arrays.copyOf(routineIdIndexes, capacity);
+                userIdIndexes = Arrays.copyOf(userIdIndexes, capacity);
+                dateTimes = Arrays.copyOf(dateTimes, capacity);
+                cushionLimits = Arrays.copyOf(cushionLimits, capacity);
+                colourIndexes = Arrays.copyOf(colourIndexes, capacity);
+                numBalls = Arrays.copyOf(numBalls, capacity);
+            }
+            return size++;
+        }
+    }
+
+    /**
+     * Dictionary of the distinct values of a string column.
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        private final List<String> entries = new ArrayList<>();
+
+        int indexOf(String value) {
+            if (value == null) {
+                return NULL_INT;
+            }
+            Integer index = indexes.get(value);
+            if (index == null) {
+                index = entries.size();
+                indexes.put(value, index);
+                entries.add(value);
+            }
+            return index;
+        }
+
+        String[] toArray() {
+            return entries.toArray(new String[0]);
+        }
+    }
+}
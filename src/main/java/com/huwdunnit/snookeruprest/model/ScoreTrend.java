@@ -0,0 +1,50 @@
+package com.huwdunnit.snookeruprest.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Models the trend in a user's scores on one configuration of a routine (i.e. one combination of cushion limit,
+ * colours, number of balls and loop).
+ *
+ * @author Huwdunnit
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreTrend {
+
+    private Integer cushionLimit;
+
+    private String colours;
+
+    private Integer numBalls;
+
+    private boolean loop;
+
+    private int scoreCount;
+
+    private double average;
+
+    private int best;
+
+    /**
+     * The slope of the least squares regression line through the scores, i.e. the average change in score per day.
+     * Null if all the scores were at the same time, as there's no line to fit.
+     */
+    private Double slopePerDay;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = Score.DATE_FORMAT)
+    private LocalDateTime firstDateTime;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = Score.DATE_FORMAT)
+    private LocalDateTime lastDateTime;
+
+    /** The scores grouped into periods, in date order. Only periods with scores in are included. */
+    private List<ScoreTrendPoint> points;
+}
@@ -0,0 +1,40 @@
+package com.huwdunnit.snookeruprest.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Models the scores in one period (day or week) of a trend.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreTrendPoint {
+
+    public static final String DATE_FORMAT = "dd/M/yyyy";
+
+    /** The first day of the period. */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = DATE_FORMAT)
+    private LocalDate periodStart;
+
+    private int scoreCount;
+
+    private double average;
+
+    private int best;
+
+    /** The average of all scores in the rolling window of periods ending with this one. */
+    private double rollingAverage;
+
+    /** The best score in the rolling window of periods ending with this one. */
+    private int rollingBest;
+
+    /** The best score in this period or any before it. */
+    private int bestToDate;
+}
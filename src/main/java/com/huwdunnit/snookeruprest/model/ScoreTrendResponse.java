@@ -0,0 +1,30 @@
+package com.huwdunnit.snookeruprest.model;
+
+import com.huwdunnit.snookeruprest.trend.TrendInterval;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Models the trends in a user's scores on a routine, one per configuration of the routine they've scored on.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreTrendResponse {
+
+    private String userId;
+
+    private String routineId;
+
+    private TrendInterval interval;
+
+    /** The number of periods in the rolling window used for rolling averages and bests. */
+    private int window;
+
+    private List<ScoreTrend> trends;
+}
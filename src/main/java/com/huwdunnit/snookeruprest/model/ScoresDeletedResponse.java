@@ -0,0 +1,19 @@
+package com.huwdunnit.snookeruprest.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Models the result of deleting a user's scores in bulk.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoresDeletedResponse {
+
+    /** The number of scores deleted. */
+    private long deletedCount;
+}
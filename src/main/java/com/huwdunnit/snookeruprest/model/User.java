@@ -1,5 +1,6 @@
 package com.huwdunnit.snookeruprest.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.huwdunnit.snookeruprest.security.Roles;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
@@ -31,4 +32,11 @@ public class User {
 
     //TODO: don't allow a user to be created or updated as admin!!!
     private boolean isAdmin;
+
+    /**
+     * Whether the user has been deleted. Deleted users can't log in, and their data is purged in the background,
+     * after which the user itself is removed.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private boolean deleted;
 }
@@ -0,0 +1,52 @@
+package com.huwdunnit.snookeruprest.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Tracks the progress of purging a deleted user's data, which happens in the background after the user is deleted.
+ *
+ * @author Huwdunnit
+ */
+@Data
+@Document
+public class UserDeletion {
+
+    /** The ID of the deleted user. */
+    @Id
+    private String userId;
+
+    private Status status;
+
+    /** The number of documents (or files) deleted so far, keyed by collection name (or "archiveFiles"). */
+    private Map<String, Long> deletedCounts;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = Score.DATE_FORMAT)
+    private LocalDateTime requestedAt;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = Score.DATE_FORMAT)
+    private LocalDateTime updatedAt;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = Score.DATE_FORMAT)
+    private LocalDateTime completedAt;
+
+    /** Identifies the purge run that has the lease on this user's data. Null when no instance has it. */
+    @JsonIgnore
+    private String leaseOwner;
+
+    /** Until when the instance purging this user's data has exclusive use of it. Null when no instance has it. */
+    @JsonIgnore
+    private LocalDateTime leaseExpiresAt;
+
+    public enum Status {
+        PENDING,
+        IN_PROGRESS,
+        COMPLETED
+    }
+}
@@ -0,0 +1,20 @@
+package com.huwdunnit.snookeruprest.model;
+
+/**
+ * Jackson views, for returning less of each object from list endpoints.
+ *
+ * Only fields left out of the summary need annotating with {@code @JsonView(Views.Full.class)}, as fields without a
+ * view are included in every view.
+ *
+ * @author Huwdunnit
+ */
+public class Views {
+
+    /** The fields needed for showing an object in a list or menu. */
+    public interface Summary {
+    }
+
+    /** All fields. */
+    public interface Full extends Summary {
+    }
+}
@@ -1,20 +1,20 @@
 package com.huwdunnit.snookeruprest.model.errors;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Model class for mapping error responses.
  *
+ * Instances are immutable, so responses with fixed content are created once and shared between requests.
+ *
  * @author Huwdunnit
  */
-@Data
+@Value
 @Builder
-@AllArgsConstructor
 public class ErrorResponse {
 
     public static final String DUPLICATE_FIELD = "Duplicate value error";
@@ -29,6 +29,20 @@ public class ErrorResponse {
 
     public static final String INVALID_SCORE_FIELD = "Invalid field for routine";
 
+    public static final String SCORE_INGEST_UNAVAILABLE = "Unable to save score, please try again later";
+
+    public static final String IDEMPOTENCY_KEY_REUSED = "Idempotency key already used for a different score";
+
+    public static final String INVALID_SYNC_TOKEN = "Invalid sync token";
+
+    public static final String RATE_LIMITED = "Too many requests, please try again later";
+
+    public static final String SERVICE_OVERLOADED = "Server is busy, please try again later";
+
+    public static final String INVALID_REQUEST_PARAMETER = "Invalid request parameter";
+
+    public static final String QUERY_TOO_EXPENSIVE = "Query is too broad, please narrow it down (e.g. to a user)";
+
     public static final String FIELD_NAME = "field";
 
     /** The main, high-level error message for the user. */
@@ -40,30 +54,95 @@ public class ErrorResponse {
      */
     private Map<String, String> context;
 
+    private static final ErrorResponse DUPLICATE_VALUE_RESPONSE = ErrorResponse.builder().errorMessage(DUPLICATE_FIELD).build();
+
+    private static final ErrorResponse USER_NOT_FOUND_RESPONSE = ErrorResponse.builder().errorMessage(USER_NOT_FOUND).build();
+
+    private static final ErrorResponse ROUTINE_NOT_FOUND_RESPONSE = ErrorResponse.builder().errorMessage(ROUTINE_NOT_FOUND).build();
+
+    private static final ErrorResponse SCORE_NOT_FOUND_RESPONSE = ErrorResponse.builder().errorMessage(SCORE_NOT_FOUND).build();
+
+    private static final ErrorResponse ROUTINE_FOR_SCORE_NOT_FOUND_RESPONSE =
+            ErrorResponse.builder().errorMessage(ROUTINE_IN_SCORE_DOESNT_EXIST).build();
+
+    private static final ErrorResponse SCORE_INGEST_UNAVAILABLE_RESPONSE =
+            ErrorResponse.builder().errorMessage(SCORE_INGEST_UNAVAILABLE).build();
+
+    private static final ErrorResponse IDEMPOTENCY_KEY_REUSED_RESPONSE =
+            ErrorResponse.builder().errorMessage(IDEMPOTENCY_KEY_REUSED).build();
+
+    private static final ErrorResponse INVALID_SYNC_TOKEN_RESPONSE =
+            ErrorResponse.builder().errorMessage(INVALID_SYNC_TOKEN).build();
+
+    private static final ErrorResponse RATE_LIMITED_RESPONSE = ErrorResponse.builder().errorMessage(RATE_LIMITED).build();
+
+    private static final ErrorResponse SERVICE_OVERLOADED_RESPONSE =
+            ErrorResponse.builder().errorMessage(SERVICE_OVERLOADED).build();
+
+    private static final ErrorResponse QUERY_TOO_EXPENSIVE_RESPONSE =
+            ErrorResponse.builder().errorMessage(QUERY_TOO_EXPENSIVE).build();
+
+    /** Invalid field responses, keyed by field name. There are only a handful of score fields, so this stays small. */
+    private static final Map<String, ErrorResponse> INVALID_SCORE_FIELD_RESPONSES = new ConcurrentHashMap<>();
+
+    /** Invalid parameter responses, keyed by parameter name. Only a few parameters are validated, so this stays small. */
+    private static final Map<String, ErrorResponse> INVALID_REQUEST_PARAMETER_RESPONSES = new ConcurrentHashMap<>();
+
     public static ErrorResponse createDuplicateValueErrorResponse() {
-        return ErrorResponse.builder().errorMessage(DUPLICATE_FIELD).build();
+        return DUPLICATE_VALUE_RESPONSE;
     }
 
     public static ErrorResponse createUserNotFoundErrorResponse() {
-        return ErrorResponse.builder().errorMessage(USER_NOT_FOUND).build();
+        return USER_NOT_FOUND_RESPONSE;
     }
 
     public static ErrorResponse createRoutineNotFoundErrorResponse() {
-        return ErrorResponse.builder().errorMessage(ROUTINE_NOT_FOUND).build();
+        return ROUTINE_NOT_FOUND_RESPONSE;
     }
 
     public static ErrorResponse createScoreNotFoundErrorResponse() {
-        return ErrorResponse.builder().errorMessage(SCORE_NOT_FOUND).build();
+        return SCORE_NOT_FOUND_RESPONSE;
     }
 
     public static ErrorResponse createRoutineForScoreNotFoundErrorResponse() {
-        return ErrorResponse.builder().errorMessage(ROUTINE_IN_SCORE_DOESNT_EXIST).build();
+        return ROUTINE_FOR_SCORE_NOT_FOUND_RESPONSE;
+    }
+
+    public static ErrorResponse createScoreIngestUnavailableErrorResponse() {
+        return SCORE_INGEST_UNAVAILABLE_RESPONSE;
+    }
+
+    public static ErrorResponse createIdempotencyKeyReusedErrorResponse() {
+        return IDEMPOTENCY_KEY_REUSED_RESPONSE;
+    }
+
+    public static ErrorResponse createInvalidSyncTokenErrorResponse() {
+        return INVALID_SYNC_TOKEN_RESPONSE;
+    }
+
+    public static ErrorResponse createRateLimitedErrorResponse() {
+        return RATE_LIMITED_RESPONSE;
+    }
+
+    public static ErrorResponse createServiceOverloadedErrorResponse() {
+        return SERVICE_OVERLOADED_RESPONSE;
     }
 
     public static ErrorResponse createInvalidScoreFieldErrorResponse(String fieldName) {
-        return ErrorResponse.builder()
+        return INVALID_SCORE_FIELD_RESPONSES.computeIfAbsent(fieldName, name -> ErrorResponse.builder()
                 .errorMessage(INVALID_SCORE_FIELD)
-                .context(Map.of(FIELD_NAME, fieldName))
-                .build();
+                .context(Map.of(FIELD_NAME, name))
+                .build());
+    }
+
+    public static ErrorResponse createQueryTooExpensiveErrorResponse() {
+        return QUERY_TOO_EXPENSIVE_RESPONSE;
+    }
+
+    public static ErrorResponse createInvalidRequestParameterErrorResponse(String parameterName) {
+        return INVALID_REQUEST_PARAMETER_RESPONSES.computeIfAbsent(parameterName, name -> ErrorResponse.builder()
+                .errorMessage(INVALID_REQUEST_PARAMETER)
+                .context(Map.of(FIELD_NAME, name))
+                .build());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,285 @@
+package com.huwdunnit.snookeruprest.purge;
+
+import com.huwdunnit.snookeruprest.archive.ScoreArchive;
+import com.huwdunnit.snookeruprest.cache.UserDetailsCache;
+import com.huwdunnit.snookeruprest.config.ScoreStorageProperties;
+import com.huwdunnit.snookeruprest.config.ScoreStorageProperties.StorageMode;
+import com.huwdunnit.snookeruprest.config.UserPurgeProperties;
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.db.ScoreTimeSeriesMigrator;
+import com.huwdunnit.snookeruprest.events.CollectionChangedEvent;
+import com.huwdunnit.snookeruprest.model.PersonalBest;
+import com.huwdunnit.snookeruprest.model.PracticeSession;
+import com.huwdunnit.snookeruprest.model.PracticeSessionLock;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.ScoreArchiveLock;
+import com.huwdunnit.snookeruprest.model.ScoreArchiveSummary;
+import com.huwdunnit.snookeruprest.model.ScoreChange;
+import com.huwdunnit.snookeruprest.model.ScoreChangeSequence;
+import com.huwdunnit.snookeruprest.model.User;
+import com.huwdunnit.snookeruprest.model.UserDeletion;
+import com.huwdunnit.snookeruprest.model.UserDeletion.Status;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purges deleted users' data in the background, in bounded batches with a pause between each, so deleting a user with
+ * lots of scores doesn't slow down requests. Progress is stored in the UserDeletion collection after every batch.
+ * Purging runs on its own thread, rather than the shared scheduler, as it spends most of its time paused.
+ *
+ * Scores are deleted first, then data derived from them, then the user itself (which frees up their email address).
+ * An instance takes a lease on a deletion while purging it, so instances don't purge the same user at once, and
+ * another instance carries on if the first one stops part way through. Purging doesn't start until other instances'
+ * cached user details have expired, as until then the deleted user can still authenticate there, and add data.
+ *
+ * @author Huwdunnit
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UserDataPurger implements SmartLifecycle {
+
+    static final String ARCHIVE_FILES_COUNT = "archiveFiles";
+
+    /** Collections of data derived from a user's scores, and the field in each holding the user ID. */
+    private static final List<UserDataCollection> DERIVED_COLLECTIONS = List.of(
+            new UserDataCollection(ScoreChange.class, "userId"),
+            new UserDataCollection(ScoreChangeSequence.class, "_id"),
+            new UserDataCollection(ScoreArchiveSummary.class, "userId"),
+            new UserDataCollection(ScoreArchiveLock.class, "_id"),
+            new UserDataCollection(PracticeSession.class, "userId"),
+            new UserDataCollection(PracticeSessionLock.class, "_id"),
+            new UserDataCollection(PersonalBest.class, "userId"));
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ScoreArchive scoreArchive;
+
+    private final ScoreStorageProperties storageProperties;
+
+    private final ScoreTimeSeriesMigrator migrator;
+
+    private final UserPurgeProperties properties;
+
+    private final UserDetailsCache userDetailsCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile ScheduledExecutorService executor;
+
+    private volatile boolean running;
+
+    /**
+     * Record that a user's data needs purging. Does nothing if it's already been recorded.
+     * @param userId The ID of the deleted user
+     * @return The deletion, with its progress so far
+     */
+    public UserDeletion requestDeletion(String userId) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .setOnInsert("status", Status.PENDING)
+                .setOnInsert("requestedAt", now)
+                .setOnInsert("updatedAt", now);
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(userId)), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), UserDeletion.class);
+    }
+
+    @Override
+    public void start() {
+        ThreadFactory threadFactory = Thread.ofPlatform().name("user-purger").daemon().factory();
+        running = true;
+        executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        long intervalMillis = properties.getInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::runPurge, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService runningExecutor = executor;
+        if (runningExecutor == null) {
+            return;
+        }
+        // Any run in progress stops after its current batch
+        running = false;
+        runningExecutor.shutdown();
+        try {
+            runningExecutor.awaitTermination(properties.getLease().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runPurge() {
+        // An exception would stop the executor running this again, so log it and carry on in the next run
+        try {
+            purgeDeletedUsers();
+        } catch (RuntimeException ex) {
+            log.error("Failed to purge deleted users' data", ex);
+        }
+    }
+
+    /**
+     * Purge data for deleted users, until there are none left or the max run duration has passed.
+     */
+    void purgeDeletedUsers() {
+        long deadlineNanos = System.nanoTime() + properties.getMaxRunDuration().toNanos();
+        String leaseOwner = IdGenerator.createNewId();
+        UserDeletion deletion;
+        while (running && System.nanoTime() < deadlineNanos && (deletion = claimNextDeletion(leaseOwner)) != null) {
+            if (!purge(deletion.getUserId(), leaseOwner, deadlineNanos)) {
+                // Out of time, so let this or another instance carry on in the next run
+                releaseLease(deletion.getUserId(), leaseOwner);
+                return;
+            }
+        }
+    }
+
+    private UserDeletion claimNextDeletion(String leaseOwner) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(Criteria.where("status").in(Status.PENDING, Status.IN_PROGRESS)
+                .and("requestedAt").lt(now.minus(userDetailsCache.getTtl()))
+                .orOperator(Criteria.where("leaseExpiresAt").is(null), Criteria.where("leaseExpiresAt").lt(now)));
+        query.with(Sort.by("requestedAt"));
+        Update update = new Update()
+                .set("status", Status.IN_PROGRESS)
+                .set("leaseOwner", leaseOwner)
+                .set("leaseExpiresAt", now.plus(properties.getLease()));
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                UserDeletion.class);
+    }
+
+    /**
+     * Purge a user's data.
+     * @return true if all the user's data was purged, or false if the deadline passed (or the purger was stopped) first
+     * @throws IllegalStateException If another instance has taken over the deletion
+     */
+    private boolean purge(String userId, String leaseOwner, long deadlineNanos) {
+        log.info("Purging data for deleted user, userId={}", userId);
+
+        String scoreCollection = mongoTemplate.getCollectionName(Score.class);
+        if (storageProperties.getMode() == StorageMode.TIME_SERIES) {
+            // Deletes from a time-series collection can only filter on the meta field (i.e. user ID), which deletes
+            // whole buckets, so it's cheap to do in one go
+            Query scoresQuery = Query.query(Criteria.where("userId").is(userId));
+            long deleted = mongoTemplate.remove(scoresQuery, scoreCollection).getDeletedCount();
+            migrator.removeFromLegacy(scoreCollection, scoresQuery);
+            recordProgress(userId, leaseOwner, scoreCollection, deleted);
+        } else if (!purgeCollection(userId, leaseOwner, scoreCollection, "userId", deadlineNanos)) {
+            return false;
+        }
+
+        for (UserDataCollection collection : DERIVED_COLLECTIONS) {
+            String collectionName = mongoTemplate.getCollectionName(collection.entityClass());
+            if (!purgeCollection(userId, leaseOwner, collectionName, collection.userIdField(), deadlineNanos)) {
+                return false;
+            }
+        }
+        recordProgress(userId, leaseOwner, ARCHIVE_FILES_COUNT, scoreArchive.deleteUserArchives(userId));
+
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(userId)), User.class);
+        eventPublisher.publishEvent(new CollectionChangedEvent(UserDetailsCache.COLLECTION_NAME, userId));
+
+        LocalDateTime now = LocalDateTime.now();
+        updateDeletion(userId, leaseOwner, new Update()
+                .set("status", Status.COMPLETED)
+                .set("completedAt", now)
+                .set("updatedAt", now)
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt"));
+        log.info("Finished purging data for deleted user, userId={}", userId);
+        return true;
+    }
+
+    /**
+     * Delete a user's documents from a collection, in batches.
+     * @return true if all the documents were deleted, or false if the deadline passed (or the purger was stopped) first
+     */
+    private boolean purgeCollection(String userId, String leaseOwner, String collectionName, String userIdField,
+                                    long deadlineNanos) {
+        while (true) {
+            if (!running || System.nanoTime() >= deadlineNanos) {
+                return false;
+            }
+
+            Query idQuery = Query.query(Criteria.where(userIdField).is(userId)).limit(properties.getBatchSize());
+            idQuery.fields().include("_id");
+            List<Object> ids = mongoTemplate.find(idQuery, Document.class, collectionName).stream()
+                    .map(document -> document.get("_id"))
+                    .toList();
+            if (ids.isEmpty()) {
+                return true;
+            }
+
+            // Match on the user ID too, so the delete only goes to the user's shard
+            Criteria deleteCriteria = "_id".equals(userIdField) ? Criteria.where("_id").is(userId)
+                    : Criteria.where(userIdField).is(userId).and("_id").in(ids);
+            Query deleteQuery = Query.query(deleteCriteria);
+            long deleted = mongoTemplate.remove(deleteQuery, collectionName).getDeletedCount();
+            recordProgress(userId, leaseOwner, collectionName, deleted);
+
+            if (ids.size() < properties.getBatchSize()) {
+                return true;
+            }
+            pauseBetweenBatches();
+        }
+    }
+
+    private void recordProgress(String userId, String leaseOwner, String countName, long deleted) {
+        LocalDateTime now = LocalDateTime.now();
+        updateDeletion(userId, leaseOwner, new Update()
+                .inc("deletedCounts." + countName, deleted)
+                .set("updatedAt", now)
+                .set("leaseExpiresAt", now.plus(properties.getLease())));
+    }
+
+    private void releaseLease(String userId, String leaseOwner) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId).and("leaseOwner").is(leaseOwner)),
+                new Update().unset("leaseOwner").unset("leaseExpiresAt"), UserDeletion.class);
+    }
+
+    /**
+     * Update a deletion, as long as this run still has the lease on it.
+     * @throws IllegalStateException If another instance has taken over the deletion
+     */
+    private void updateDeletion(String userId, String leaseOwner, Update update) {
+        long matched = mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)
+                .and("leaseOwner").is(leaseOwner)), update, UserDeletion.class).getMatchedCount();
+        if (matched == 0) {
+            throw new IllegalStateException("Lost the lease on purging data for userId=" + userId);
+        }
+    }
+
+    private void pauseBetweenBatches() {
+        try {
+            Thread.sleep(properties.getBatchDelay());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record UserDataCollection(Class<?> entityClass, String userIdField) {
+    }
+}
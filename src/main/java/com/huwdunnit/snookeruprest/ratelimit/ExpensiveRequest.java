@@ -0,0 +1,17 @@
+package com.huwdunnit.snookeruprest.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an endpoint that's expensive to serve (e.g. a potentially large query), so requests to it are rate limited
+ * against the separate, smaller, expensive request budget.
+ *
+ * @author Huwdunnit
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExpensiveRequest {
+}
@@ -0,0 +1,58 @@
+package com.huwdunnit.snookeruprest.ratelimit;
+
+import com.huwdunnit.snookeruprest.config.RateLimitProperties;
+import com.huwdunnit.snookeruprest.exceptions.RateLimitExceededException;
+import com.huwdunnit.snookeruprest.security.UserPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Rate limits requests per client, when rate limiting is enabled. Authenticated clients are identified by user ID,
+ * and unauthenticated clients (e.g. adding a user, or getting routines) by IP address.
+ *
+ * Requests over the limit are rejected with a RateLimitExceededException, before reaching the controller.
+ *
+ * @author Huwdunnit
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimitProperties properties;
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitInterceptor(RateLimitProperties properties, RateLimiter rateLimiter) {
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!properties.isEnabled() || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        RequestBudget budget = handlerMethod.hasMethodAnnotation(ExpensiveRequest.class)
+                ? RequestBudget.EXPENSIVE : RequestBudget.STANDARD;
+        String clientKey = getClientKey(request);
+        long waitNanos = rateLimiter.tryAcquire(clientKey, budget);
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException("Rate limit exceeded, client=" + clientKey + ", budget=" + budget,
+                    Duration.ofNanos(waitNanos));
+        }
+        return true;
+    }
+
+    private String getClientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            return "user:" + userPrincipal.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,114 @@
+package com.huwdunnit.snookeruprest.ratelimit;
+
+import com.huwdunnit.snookeruprest.config.RateLimitProperties;
+import com.huwdunnit.snookeruprest.config.RateLimitProperties.Budget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token bucket rate limiter, with a separate bucket per client in each request budget.
+ *
+ * Each bucket is a single AtomicLong holding the time the bucket will next be full (the generic cell rate algorithm),
+ * updated with compare-and-set, so taking a token never locks, and clients never contend with each other. The
+ * buckets are held in concurrent maps, which spread updates across their bins.
+ *
+ * A full bucket behaves the same as a new one, so full buckets are removed periodically, so the maps only hold
+ * recently active clients.
+ *
+ * @author Huwdunnit
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    private final Map<RequestBudget, BudgetBuckets> budgets = new EnumMap<>(RequestBudget.class);
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        budgets.put(RequestBudget.STANDARD, new BudgetBuckets(properties.getStandard(),
+                rejectedCounter(RequestBudget.STANDARD, meterRegistry)));
+        budgets.put(RequestBudget.EXPENSIVE, new BudgetBuckets(properties.getExpensive(),
+                rejectedCounter(RequestBudget.EXPENSIVE, meterRegistry)));
+        budgets.forEach((budget, buckets) -> Gauge.builder("snookerup.ratelimit.clients", buckets.buckets,
+                        Map::size)
+                .description("Number of clients with recent requests being tracked for rate limiting")
+                .tag("budget", budget.name())
+                .register(meterRegistry));
+    }
+
+    /**
+     * Take a token from a client's bucket for a budget, if there's one available.
+     * @param clientKey Identifies the client
+     * @param budget The budget the request counts against
+     * @return 0 if a token was taken, i.e. the request is allowed, otherwise how many nanoseconds until a token will
+     *         be available
+     */
+    public long tryAcquire(String clientKey, RequestBudget budget) {
+        BudgetBuckets buckets = budgets.get(budget);
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.buckets.computeIfAbsent(clientKey, key -> new AtomicLong(now));
+
+        while (true) {
+            long fullAt = bucket.get();
+            // Taking a token moves the time the bucket is next full on by one interval
+            long newFullAt = (fullAt - now > 0 ? fullAt : now) + buckets.intervalNanos;
+            long waitNanos = newFullAt - now - buckets.capacityNanos;
+            if (waitNanos > 0) {
+                buckets.rejectedCounter.increment();
+                return waitNanos;
+            }
+            if (bucket.compareAndSet(fullAt, newFullAt)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Remove buckets that have refilled, i.e. for clients that haven't made requests recently.
+     */
+    @Scheduled(fixedDelayString = "${snookerup.rate-limit.cleanup-interval:PT1M}")
+    public void removeFullBuckets() {
+        long now = System.nanoTime();
+        budgets.forEach((budget, buckets) -> {
+            // A client making a request as its bucket is removed may get one extra request, which doesn't matter
+            buckets.buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+            log.debug("Tracking {} clients for budget {}", buckets.buckets.size(), budget);
+        });
+    }
+
+    private static Counter rejectedCounter(RequestBudget budget, MeterRegistry meterRegistry) {
+        return Counter.builder("snookerup.ratelimit.rejected")
+                .description("Number of requests rejected for exceeding a rate limit")
+                .tag("budget", budget.name())
+                .register(meterRegistry);
+    }
+
+    private static class BudgetBuckets {
+
+        /** Time for one token to be added to a bucket. */
+        private final long intervalNanos;
+
+        /** Time for an empty bucket to refill. */
+        private final long capacityNanos;
+
+        private final Counter rejectedCounter;
+
+        /** Each client's bucket, holding the time (from System.nanoTime()) when the bucket will be full again. */
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+        BudgetBuckets(Budget budget, Counter rejectedCounter) {
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / budget.getRequestsPerSecond());
+            this.capacityNanos = intervalNanos * budget.getBurst();
+            this.rejectedCounter = rejectedCounter;
+        }
+    }
+}
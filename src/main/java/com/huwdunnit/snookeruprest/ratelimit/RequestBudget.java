@@ -0,0 +1,11 @@
+package com.huwdunnit.snookeruprest.ratelimit;
+
+/**
+ * The budgets requests are rate limited against. Each client has a separate allowance in each budget.
+ *
+ * @author Huwdunnit
+ */
+public enum RequestBudget {
+    STANDARD,
+    EXPENSIVE
+}
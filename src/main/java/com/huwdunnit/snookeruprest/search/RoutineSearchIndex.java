@@ -0,0 +1,230 @@
+package com.huwdunnit.snookeruprest.search;
+
+import com.huwdunnit.snookeruprest.cache.RoutineCache;
+import com.huwdunnit.snookeruprest.db.RoutineRepository;
+import com.huwdunnit.snookeruprest.events.CollectionChangedEvent;
+import com.huwdunnit.snookeruprest.model.Routine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index of routines, for searching routines by text and tags without querying MongoDB.
+ *
+ * Words in each routine's title, description, tags and ball striking are indexed, with matches in the title counting
+ * most towards a routine's relevance, then tags, then ball striking, then description. Each word in a query matches
+ * any indexed word it's a prefix of (so results can be shown as the user types), with exact matches counting for more
+ * than prefix matches, and rarer words counting for more than common ones. Routines must match every word in the
+ * query.
+ *
+ * There are only a small number of routines, so the index is rebuilt from scratch whenever any routine changes, and
+ * periodically in case a change is missed. Each build creates a new immutable snapshot, which is swapped in
+ * atomically, so searches never block.
+ *
+ * @author Huwdunnit
+ */
+@Component
+@Slf4j
+public class RoutineSearchIndex {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int TITLE_WEIGHT = 8;
+
+    private static final int TAG_WEIGHT = 4;
+
+    private static final int BALL_STRIKING_WEIGHT = 2;
+
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    /** How much more an exact word match counts for than a prefix match. */
+    private static final double EXACT_MATCH_BOOST = 2.0;
+
+    private final RoutineRepository routineRepository;
+
+    private volatile Snapshot snapshot;
+
+    public RoutineSearchIndex(RoutineRepository routineRepository) {
+        this.routineRepository = routineRepository;
+    }
+
+    /**
+     * Search for routines.
+     * @param query Words to search for. Can be empty, to only filter by tags.
+     * @param tags Tags routines must have. Can be empty.
+     * @param tagMatch Whether routines must have all or any of the tags
+     * @return Matching routines, most relevant first. Routines with the same relevance (e.g. when only filtering by
+     *         tags) are ordered by title.
+     */
+    public List<Routine> search(String query, List<String> tags, TagMatch tagMatch) {
+        Snapshot currentSnapshot = getSnapshot();
+        int numRoutines = currentSnapshot.routines().size();
+
+        BitSet candidates = new BitSet(numRoutines);
+        candidates.set(0, numRoutines);
+        if (!tags.isEmpty()) {
+            candidates = currentSnapshot.matchTags(tags, tagMatch);
+        }
+
+        double[] relevance = new double[numRoutines];
+        for (String word : tokenize(query)) {
+            double[] wordRelevance = currentSnapshot.matchWord(word);
+            for (int routineIndex = candidates.nextSetBit(0); routineIndex >= 0;
+                 routineIndex = candidates.nextSetBit(routineIndex + 1)) {
+                if (wordRelevance[routineIndex] == 0) {
+                    candidates.clear(routineIndex);
+                } else {
+                    relevance[routineIndex] += wordRelevance[routineIndex];
+                }
+            }
+        }
+
+        List<Integer> matches = new ArrayList<>(candidates.cardinality());
+        candidates.stream().forEach(matches::add);
+        // Routines are already in title order in the snapshot, and the sort is stable
+        matches.sort(Comparator.comparingDouble((Integer routineIndex) -> relevance[routineIndex]).reversed());
+        return matches.stream().map(currentSnapshot.routines()::get).toList();
+    }
+
+    /**
+     * Rebuild the index from the routines in the DB.
+     */
+    @Scheduled(fixedDelayString = "${snookerup.routine-search.refresh-interval:PT5M}",
+            initialDelayString = "${snookerup.routine-search.refresh-interval:PT5M}")
+    public synchronized void rebuild() {
+        long startNanos = System.nanoTime();
+        List<Routine> routines = new ArrayList<>(routineRepository.findAll());
+        routines.sort(Comparator.comparing(Routine::getTitle, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+        snapshot = Snapshot.build(routines);
+        log.debug("Rebuilt routine search index, routines={}, words={}, timeMicros={}", routines.size(),
+                snapshot.words().size(), (System.nanoTime() - startNanos) / 1000);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @EventListener
+    public void onCollectionChanged(CollectionChangedEvent event) {
+        if (RoutineCache.COLLECTION_NAME.equals(event.collectionName())) {
+            rebuild();
+        }
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot currentSnapshot = snapshot;
+        if (currentSnapshot == null) {
+            rebuild();
+            currentSnapshot = snapshot;
+        }
+        return currentSnapshot;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    /**
+     * The postings for a word, i.e. the routines containing it and the weight of the word in each.
+     */
+    private record Postings(int[] routineIndexes, int[] weights) {
+    }
+
+    private record Snapshot(List<Routine> routines, NavigableMap<String, Postings> words,
+                            Map<String, BitSet> tags) {
+
+        static Snapshot build(List<Routine> routines) {
+            Map<String, Map<Integer, Integer>> wordWeights = new HashMap<>();
+            Map<String, BitSet> tags = new HashMap<>();
+
+            for (int routineIndex = 0; routineIndex < routines.size(); routineIndex++) {
+                Routine routine = routines.get(routineIndex);
+                addWords(wordWeights, routineIndex, TITLE_WEIGHT, routine.getTitle());
+                addWords(wordWeights, routineIndex, TAG_WEIGHT, routine.getTags());
+                addWords(wordWeights, routineIndex, BALL_STRIKING_WEIGHT, routine.getBallStriking());
+                addWords(wordWeights, routineIndex, DESCRIPTION_WEIGHT, routine.getDescription());
+                if (routine.getTags() != null) {
+                    for (String tag : routine.getTags()) {
+                        tags.computeIfAbsent(tag.toLowerCase(Locale.ROOT), key -> new BitSet()).set(routineIndex);
+                    }
+                }
+            }
+
+            NavigableMap<String, Postings> words = new TreeMap<>();
+            wordWeights.forEach((word, weightsByRoutine) -> {
+                int[] routineIndexes = new int[weightsByRoutine.size()];
+                int[] weights = new int[weightsByRoutine.size()];
+                int i = 0;
+                for (Map.Entry<Integer, Integer> entry : weightsByRoutine.entrySet()) {
+                    routineIndexes[i] = entry.getKey();
+                    weights[i] = entry.getValue();
+                    i++;
+                }
+                words.put(word, new Postings(routineIndexes, weights));
+            });
+
+            return new Snapshot(List.copyOf(routines), Collections.unmodifiableNavigableMap(words),
+                    Map.copyOf(tags));
+        }
+
+        private static void addWords(Map<String, Map<Integer, Integer>> wordWeights, int routineIndex, int weight,
+                                     List<String> texts) {
+            if (texts != null) {
+                texts.forEach(text -> addWords(wordWeights, routineIndex, weight, text));
+            }
+        }
+
+        private static void addWords(Map<String, Map<Integer, Integer>> wordWeights, int routineIndex, int weight,
+                                     String text) {
+            for (String word : tokenize(text)) {
+                wordWeights.computeIfAbsent(word, key -> new HashMap<>()).merge(routineIndex, weight, Integer::sum);
+            }
+        }
+
+        /**
+         * Get the relevance of each routine to a query word, i.e. the best match of any indexed word it's a prefix of.
+         */
+        double[] matchWord(String queryWord) {
+            double[] relevance = new double[routines.size()];
+            // All words starting with the query word sort between it and the query word followed by the highest char
+            for (Map.Entry<String, Postings> entry
+                    : words.subMap(queryWord, true, queryWord + Character.MAX_VALUE, false).entrySet()) {
+                Postings postings = entry.getValue();
+                double rarity = 1 + Math.log((double) routines.size() / postings.routineIndexes().length);
+                double boost = entry.getKey().equals(queryWord) ? EXACT_MATCH_BOOST : 1.0;
+                for (int i = 0; i < postings.routineIndexes().length; i++) {
+                    int routineIndex = postings.routineIndexes()[i];
+                    relevance[routineIndex] = Math.max(relevance[routineIndex],
+                            postings.weights()[i] * rarity * boost);
+                }
+            }
+            return relevance;
+        }
+
+        BitSet matchTags(List<String> queryTags, TagMatch tagMatch) {
+            BitSet matches = null;
+            for (String tag : queryTags) {
+                BitSet tagRoutines = tags.getOrDefault(tag.toLowerCase(Locale.ROOT), new BitSet());
+                if (matches == null) {
+                    matches = (BitSet) tagRoutines.clone();
+                } else if (tagMatch == TagMatch.ALL) {
+                    matches.and(tagRoutines);
+                } else {
+                    matches.or(tagRoutines);
+                }
+            }
+            return matches == null ? new BitSet() : matches;
+        }
+    }
+}
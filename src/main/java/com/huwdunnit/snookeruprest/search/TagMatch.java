@@ -0,0 +1,15 @@
+package com.huwdunnit.snookeruprest.search;
+
+/**
+ * How multiple tags in a routine search are combined.
+ *
+ * @author Huwdunnit
+ */
+public enum TagMatch {
+
+    /** Routines must have all of the tags. */
+    ALL,
+
+    /** Routines must have at least one of the tags. */
+    ANY
+}
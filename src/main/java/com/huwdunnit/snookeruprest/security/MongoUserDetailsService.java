@@ -1,5 +1,6 @@
 package com.huwdunnit.snookeruprest.security;
 
+import com.huwdunnit.snookeruprest.cache.UserDetailsCache;
 import com.huwdunnit.snookeruprest.db.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -19,15 +20,18 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class MongoUserDetailsService implements UserDetailsService {
 
-    UserRepository userRepository;
+    private final UserRepository userRepository;
+
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     public UserDetails loadUserByUsername(String userName) throws UsernameNotFoundException {
 
-        Optional<com.huwdunnit.snookeruprest.model.User> userLookup = userRepository.findByEmail(userName);
+        Optional<UserPrincipal> userLookup = userDetailsCache.findByEmail(userName,
+                email -> userRepository.findByEmail(email).filter(user -> !user.isDeleted()).map(UserPrincipal::new));
 
         if (userLookup.isPresent()) {
-            return new UserPrincipal(userLookup.get());
+            return userLookup.get();
         }
         throw new UsernameNotFoundException("Username " + userName + " not found");
 
@@ -0,0 +1,242 @@
+package com.huwdunnit.snookeruprest.sessions;
+
+import com.huwdunnit.snookeruprest.config.PracticeSessionProperties;
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.events.ScoreAddedEvent;
+import com.huwdunnit.snookeruprest.events.ScoresDeletedEvent;
+import com.huwdunnit.snookeruprest.model.PracticeSession;
+import com.huwdunnit.snookeruprest.model.PracticeSessionLock;
+import com.huwdunnit.snookeruprest.model.Score;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Groups users' scores into practice sessions as they're added, so listing a user's sessions is a cheap indexed query
+ * rather than a scan of all their scores.
+ *
+ * A score joins the session it's within the configured gap of, or starts a new session if there isn't one. A score
+ * added out of order can fill the gap between two sessions, in which case they're merged. Deleting scores reduces
+ * the count of the sessions they were in, and removes sessions left empty, but doesn't shrink a session's start and
+ * end.
+ *
+ * Each update reads a user's sessions, then writes them based on what it read, so updates to the same user's sessions
+ * take a lock on them first. Otherwise, two scores added at once could both start a session, or both merge the same
+ * sessions. The lock is a lease, so it's freed if an instance stops while holding it.
+ *
+ * @author Huwdunnit
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PracticeSessionTracker {
+
+    /** How long to wait before trying again to take the lock on a user's sessions. */
+    private static final long LOCK_RETRY_MILLIS = 20;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final PracticeSessionProperties properties;
+
+    @EventListener
+    public void onScoreAdded(ScoreAddedEvent event) {
+        Score score = event.score();
+        if (score.getUserId() == null || score.getDateTime() == null) {
+            return;
+        }
+
+        withSessionsLocked(score.getUserId(), () -> addScore(score));
+    }
+
+    @EventListener
+    public void onScoresDeleted(ScoresDeletedEvent event) {
+        Map<String, List<LocalDateTime>> dateTimesByUser = new LinkedHashMap<>();
+        for (Score score : event.scores()) {
+            if (score.getUserId() != null && score.getDateTime() != null) {
+                dateTimesByUser.computeIfAbsent(score.getUserId(), userId -> new ArrayList<>())
+                        .add(score.getDateTime());
+            }
+        }
+        dateTimesByUser.forEach((userId, dateTimes) ->
+                withSessionsLocked(userId, () -> removeFromSessions(userId, dateTimes)));
+    }
+
+    /**
+     * Run an update to a user's sessions, while holding the lock on them.
+     */
+    private void withSessionsLocked(String userId, Runnable sessionsUpdate) {
+        String lockOwner = IdGenerator.createNewId();
+        long deadlineNanos = System.nanoTime() + properties.getLockWait().toNanos();
+        while (!tryLock(userId, lockOwner)) {
+            if (System.nanoTime() >= deadlineNanos) {
+                throw new IllegalStateException("Timed out waiting to update practice sessions for userId=" + userId);
+            }
+            try {
+                Thread.sleep(LOCK_RETRY_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting to update practice sessions for userId=" + userId,
+                        ex);
+            }
+        }
+
+        try {
+            sessionsUpdate.run();
+        } finally {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId).and("lockOwner").is(lockOwner)),
+                    new Update().unset("lockExpiresAt"), PracticeSessionLock.class);
+        }
+    }
+
+    /**
+     * Take the lock on a user's sessions, if no other update has it.
+     * @return true if the lock is now held by the given owner
+     */
+    private boolean tryLock(String userId, String lockOwner) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(Criteria.where("_id").is(userId)
+                .orOperator(Criteria.where("lockExpiresAt").is(null), Criteria.where("lockExpiresAt").lt(now)));
+        Update update = new Update()
+                .set("lockOwner", lockOwner)
+                .set("lockExpiresAt", now.plus(properties.getLockLease()));
+        try {
+            return mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), PracticeSessionLock.class) != null;
+        } catch (DuplicateKeyException ex) {
+            // The lock exists, but didn't match, so another update has it
+            return false;
+        }
+    }
+
+    private void addScore(Score score) {
+        LocalDateTime dateTime = score.getDateTime();
+        Duration gap = properties.getGap();
+        List<PracticeSession> sessions = mongoTemplate.find(Query.query(Criteria.where("userId").is(score.getUserId())
+                        .and("endDateTime").gte(dateTime.minus(gap))
+                        .and("startDateTime").lte(dateTime.plus(gap)))
+                .with(Sort.by("startDateTime")), PracticeSession.class);
+
+        if (sessions.isEmpty()) {
+            startSession(score);
+        } else {
+            addToSession(score, sessions);
+        }
+    }
+
+    private void startSession(Score score) {
+        PracticeSession session = new PracticeSession();
+        session.setId(IdGenerator.createNewId());
+        session.setUserId(score.getUserId());
+        session.setStartDateTime(score.getDateTime());
+        session.setEndDateTime(score.getDateTime());
+        session.setScoreCount(1);
+        session.setRoutineIds(score.getRoutineId() == null ? Set.of() : Set.of(score.getRoutineId()));
+        mongoTemplate.insert(session);
+        log.debug("Started practice session id={} for userId={}", session.getId(), score.getUserId());
+    }
+
+    /**
+     * Add a score to the first of the sessions it's within the gap of, merging the rest of them into it.
+     */
+    private void addToSession(Score score, List<PracticeSession> sessions) {
+        PracticeSession target = sessions.get(0);
+        List<PracticeSession> merged = sessions.subList(1, sessions.size());
+
+        LocalDateTime start = score.getDateTime();
+        LocalDateTime end = score.getDateTime();
+        int scoreCount = 1;
+        Set<String> routineIds = new HashSet<>();
+        if (score.getRoutineId() != null) {
+            routineIds.add(score.getRoutineId());
+        }
+        for (PracticeSession session : merged) {
+            start = min(start, session.getStartDateTime());
+            end = max(end, session.getEndDateTime());
+            scoreCount += session.getScoreCount();
+            if (session.getRoutineIds() != null) {
+                routineIds.addAll(session.getRoutineIds());
+            }
+        }
+
+        // Update with $min/$max/$inc rather than setting values, so an update that got in after the lock's lease ran
+        // out isn't overwritten
+        Update update = new Update()
+                .min("startDateTime", start)
+                .max("endDateTime", end)
+                .inc("scoreCount", scoreCount);
+        if (!routineIds.isEmpty()) {
+            update.addToSet("routineIds").each(routineIds.toArray());
+        }
+        mongoTemplate.updateFirst(sessionQuery(target.getUserId(), target.getId()), update, PracticeSession.class);
+
+        if (!merged.isEmpty()) {
+            List<String> mergedIds = merged.stream().map(PracticeSession::getId).toList();
+            mongoTemplate.remove(Query.query(Criteria.where("userId").is(target.getUserId())
+                    .and("_id").in(mergedIds)), PracticeSession.class);
+            log.debug("Merged practice sessions {} into id={} for userId={}", mergedIds, target.getId(),
+                    target.getUserId());
+        }
+    }
+
+    private void removeFromSessions(String userId, List<LocalDateTime> dateTimes) {
+        LocalDateTime earliest = dateTimes.stream().min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime latest = dateTimes.stream().max(Comparator.naturalOrder()).orElseThrow();
+        List<PracticeSession> sessions = mongoTemplate.find(Query.query(Criteria.where("userId").is(userId)
+                .and("endDateTime").gte(earliest)
+                .and("startDateTime").lte(latest)), PracticeSession.class);
+
+        // Count the deleted scores in each session, so each session is only updated once
+        Map<String, Integer> deletedCounts = new LinkedHashMap<>();
+        for (LocalDateTime dateTime : dateTimes) {
+            sessions.stream()
+                    .filter(session -> !dateTime.isBefore(session.getStartDateTime())
+                            && !dateTime.isAfter(session.getEndDateTime()))
+                    .findFirst()
+                    .ifPresent(session -> deletedCounts.merge(session.getId(), 1, Integer::sum));
+        }
+        if (deletedCounts.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                PracticeSession.class);
+        deletedCounts.forEach((sessionId, count) -> bulkOperations.updateOne(sessionQuery(userId, sessionId),
+                new Update().inc("scoreCount", -count)));
+        bulkOperations.execute();
+
+        mongoTemplate.remove(Query.query(Criteria.where("userId").is(userId)
+                .and("_id").in(deletedCounts.keySet())
+                .and("scoreCount").lte(0)), PracticeSession.class);
+    }
+
+    private static Query sessionQuery(String userId, String sessionId) {
+        return Query.query(Criteria.where("userId").is(userId).and("_id").is(sessionId));
+    }
+
+    private static LocalDateTime min(LocalDateTime first, LocalDateTime second) {
+        return first.isBefore(second) ? first : second;
+    }
+
+    private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+}
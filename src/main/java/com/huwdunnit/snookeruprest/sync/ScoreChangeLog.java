@@ -0,0 +1,246 @@
+package com.huwdunnit.snookeruprest.sync;
+
+import com.huwdunnit.snookeruprest.db.ScoreChangeRepository;
+import com.huwdunnit.snookeruprest.events.ScoreAddedEvent;
+import com.huwdunnit.snookeruprest.events.ScoresDeletedEvent;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.ScoreChange;
+import com.huwdunnit.snookeruprest.model.ScoreChange.ChangeType;
+import com.huwdunnit.snookeruprest.model.ScoreChangeSequence;
+import com.huwdunnit.snookeruprest.model.ScoreChangesResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Records additions and deletions of scores, as a per-user log of changes, each with a sequence number one higher
+ * than the user's previous change. Clients use the sequence number of the last change they've seen as a sync token,
+ * to get just the changes since they last synced.
+ *
+ * Changes are kept for a limited time (see {@link ScoreChange#RETENTION}), after which clients that haven't synced
+ * must re-sync all scores.
+ *
+ * Sequence numbers are reserved before the changes are inserted, so concurrent writers can insert their changes out
+ * of order, and a reader can briefly see a change without the one before it. Readers only ever return an unbroken run
+ * of changes from the client's token, holding back at a gap until the missing change arrives. A change still missing
+ * after {@link #IN_FLIGHT_GRACE} has been lost (e.g. its writer failed) or has expired, so the client must re-sync.
+ * Writers retry inserting their changes a few times, well within the grace period, so a brief DB error doesn't leave a
+ * gap that forces clients to re-sync.
+ *
+ * @author Huwdunnit
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ScoreChangeLog {
+
+    /** How long a reserved sequence number can go without its change being inserted, before it's treated as lost. */
+    static final Duration IN_FLIGHT_GRACE = Duration.ofSeconds(30);
+
+    /** The number of times to try inserting changes, after their sequence numbers have been reserved. */
+    static final int MAX_INSERT_ATTEMPTS = 3;
+
+    /** How long to wait before the first retry of inserting changes. This doubles with each retry. */
+    static final long INSERT_RETRY_MILLIS = 100;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ScoreChangeRepository scoreChangeRepository;
+
+    @EventListener
+    public void onScoreAdded(ScoreAddedEvent event) {
+        Score score = event.score();
+        recordChanges(score.getUserId(), ChangeType.ADDED, List.of(score));
+    }
+
+    @EventListener
+    public void onScoresDeleted(ScoresDeletedEvent event) {
+        Map<String, List<Score>> scoresByUser = new LinkedHashMap<>();
+        for (Score score : event.scores()) {
+            scoresByUser.computeIfAbsent(score.getUserId(), userId -> new ArrayList<>()).add(score);
+        }
+        scoresByUser.forEach((userId, scores) -> recordChanges(userId, ChangeType.DELETED, scores));
+    }
+
+    /**
+     * Get changes to a user's scores since the provided sequence number.
+     * @param userId The user ID to get changes for
+     * @param since The sequence number of the last change the client has seen. If empty, no changes are returned, just
+     *              a token for the latest change, which the client should get before re-syncing all scores.
+     * @param limit The maximum number of changes to return
+     * @return The changes, and the token to get the next changes. If the change after the token is still being
+     *         written, no changes are returned yet.
+     */
+    public ScoreChangesResponse getChangesSince(String userId, Optional<Long> since, int limit) {
+        if (since.isEmpty()) {
+            return new ScoreChangesResponse(List.of(), String.valueOf(getLatestSequence(userId)), false, false);
+        }
+
+        long sinceSequence = since.get();
+        ScoreChangeSequence changeSequence = mongoTemplate.findById(userId, ScoreChangeSequence.class);
+        long latestSequence = changeSequence == null ? 0 : changeSequence.getSequence();
+        if (sinceSequence > latestSequence) {
+            // The token is from before the user's changes were reset (e.g. by purging their data)
+            log.debug("Token {} is after latest change {} for userId={}", sinceSequence, latestSequence, userId);
+            return new ScoreChangesResponse(List.of(), String.valueOf(latestSequence), false, true);
+        }
+        if (sinceSequence == latestSequence) {
+            return new ScoreChangesResponse(List.of(), String.valueOf(sinceSequence), false, false);
+        }
+
+        // Get one more than the limit, to tell whether there are more changes after these ones
+        List<ScoreChange> foundChanges = scoreChangeRepository.findByUserIdAndSequenceGreaterThanOrderBySequence(
+                userId, sinceSequence, PageRequest.of(0, limit + 1));
+
+        // Only return the unbroken run of changes after the token, so a change inserted late isn't skipped
+        List<ScoreChange> changes = new ArrayList<>();
+        ScoreChange changeAfterGap = null;
+        for (ScoreChange change : foundChanges) {
+            if (change.getSequence() != sinceSequence + changes.size() + 1) {
+                changeAfterGap = change;
+                break;
+            }
+            changes.add(change);
+        }
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        long nextSequence = changes.isEmpty() ? sinceSequence : changes.get(changes.size() - 1).getSequence();
+
+        if (!hasMore && nextSequence < latestSequence) {
+            // The next change is missing. If it's been missing for too long, it's never going to arrive.
+            // Sequence numbers are reserved in order, so the missing one was reserved before the next change was made
+            boolean missingTooLong = isOlderThanGrace(changeAfterGap != null
+                    ? changeAfterGap.getChangedAt() : changeSequence.getUpdatedAt());
+            if (missingTooLong) {
+                if (changes.isEmpty()) {
+                    log.debug("Change {} is missing for userId={}, so a re-sync is required", sinceSequence + 1,
+                            userId);
+                    return new ScoreChangesResponse(List.of(), String.valueOf(latestSequence), false, true);
+                }
+                // Return the changes before the gap, then the client's next request will be told to re-sync
+                hasMore = true;
+            } else {
+                log.debug("Holding back at change {} for userId={}, as it's still being written", nextSequence + 1,
+                        userId);
+            }
+        }
+
+        return new ScoreChangesResponse(changes, String.valueOf(nextSequence), hasMore, false);
+    }
+
+    /**
+     * Check whether the provided date/time is before the in-flight grace period, i.e. whether a change reserved
+     * before then should have been written by now.
+     */
+    private static boolean isOlderThanGrace(LocalDateTime dateTime) {
+        // Sequences reserved before their reservation time was recorded are long since written
+        return dateTime == null || dateTime.isBefore(LocalDateTime.now().minus(IN_FLIGHT_GRACE));
+    }
+
+    private void recordChanges(String userId, ChangeType type, List<Score> scores) {
+        long lastSequence = allocateSequences(userId, scores.size());
+        long sequence = lastSequence - scores.size();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<ScoreChange> changes = new ArrayList<>(scores.size());
+        for (Score score : scores) {
+            ScoreChange change = new ScoreChange();
+            change.setUserId(userId);
+            change.setSequence(++sequence);
+            change.setType(type);
+            change.setScoreId(score.getId());
+            change.setScore(type == ChangeType.ADDED ? score : null);
+            change.setChangedAt(now);
+            changes.add(change);
+        }
+        insertChanges(userId, changes);
+
+        log.debug("Recorded {} {} changes for userId={}, lastSequence={}", changes.size(), type, userId, lastSequence);
+    }
+
+    /**
+     * Insert changes with reserved sequence numbers, retrying on failure, as a sequence number that's never inserted
+     * leaves a gap that clients can only get past by re-syncing all scores.
+     * @param userId The user ID
+     * @param changes The changes to insert
+     * @throws DataAccessException If the changes still can't be inserted after {@link #MAX_INSERT_ATTEMPTS} tries
+     */
+    private void insertChanges(String userId, List<ScoreChange> changes) {
+        List<ScoreChange> changesToInsert = changes;
+        long retryMillis = INSERT_RETRY_MILLIS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (attempt > 1) {
+                    // The failed attempt may have inserted some of the changes before it stopped
+                    changesToInsert = withoutInsertedChanges(userId, changesToInsert);
+                }
+                scoreChangeRepository.insert(changesToInsert);
+                return;
+            } catch (DataAccessException ex) {
+                if (attempt == MAX_INSERT_ATTEMPTS) {
+                    throw ex;
+                }
+                log.warn("Failed to insert {} changes for userId={}, attempt {}: {}", changesToInsert.size(), userId,
+                        attempt, ex.getMessage());
+            }
+
+            try {
+                Thread.sleep(retryMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted inserting changes for userId=" + userId, ex);
+            }
+            retryMillis *= 2;
+        }
+    }
+
+    private List<ScoreChange> withoutInsertedChanges(String userId, List<ScoreChange> changes) {
+        List<Long> sequences = changes.stream().map(ScoreChange::getSequence).toList();
+        Query insertedQuery = Query.query(Criteria.where("userId").is(userId).and("sequence").in(sequences));
+        insertedQuery.fields().include("sequence");
+        Set<Long> insertedSequences = mongoTemplate.find(insertedQuery, ScoreChange.class).stream()
+                .map(ScoreChange::getSequence)
+                .collect(Collectors.toSet());
+        return changes.stream().filter(change -> !insertedSequences.contains(change.getSequence())).toList();
+    }
+
+    /**
+     * Atomically reserve the next sequence numbers for a user's changes.
+     * @param userId The user ID
+     * @param count The number of sequence numbers to reserve
+     * @return The last reserved sequence number
+     */
+    private long allocateSequences(String userId, int count) {
+        ScoreChangeSequence changeSequence = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(userId)),
+                new Update().inc("sequence", count).set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                ScoreChangeSequence.class);
+        return changeSequence.getSequence();
+    }
+
+    private long getLatestSequence(String userId) {
+        ScoreChangeSequence changeSequence = mongoTemplate.findById(userId, ScoreChangeSequence.class);
+        return changeSequence == null ? 0 : changeSequence.getSequence();
+    }
+}
@@ -0,0 +1,227 @@
+package com.huwdunnit.snookeruprest.trend;
+
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.ScoreTrend;
+import com.huwdunnit.snookeruprest.model.ScoreTrendPoint;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calculates the trends in a user's scores on a routine, in a single pass over the scores in date/time order, without
+ * holding on to the scores themselves. Scores on different configurations of a routine (cushion limit, colours,
+ * number of balls and loop) aren't comparable, so each configuration has its own trend.
+ *
+ * Within a trend, scores are grouped into periods (days or weeks). Each period has the average and best score in it,
+ * and the average and best over a rolling window of periods ending with it. A least squares regression line is also
+ * fitted to all the scores, the slope of which shows whether the user is improving.
+ *
+ * Not thread-safe, as it's intended to be used for a single request.
+ *
+ * @author Huwdunnit
+ */
+public class ScoreTrendCalculator {
+
+    private static final double SECONDS_PER_DAY = 86400.0;
+
+    private final TrendInterval interval;
+
+    private final int window;
+
+    private final Map<Configuration, ConfigurationTrend> trends = new LinkedHashMap<>();
+
+    private LocalDateTime lastDateTime;
+
+    /**
+     * @param interval The length of the periods to group scores into
+     * @param window The number of periods in the rolling window
+     */
+    public ScoreTrendCalculator(TrendInterval interval, int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Window must be at least 1, was " + window);
+        }
+        this.interval = interval;
+        this.window = window;
+    }
+
+    public void add(Score score) {
+        add(score.getDateTime(), score.getValue(), score.getCushionLimit(), score.getColours(), score.getNumBalls(),
+                score.isLoop());
+    }
+
+    /**
+     * Add a score. Scores must be added in date/time order.
+     * @throws IllegalArgumentException If the score is earlier than the last one added
+     */
+    public void add(LocalDateTime dateTime, int value, Integer cushionLimit, String colours, Integer numBalls,
+                    boolean loop) {
+        if (lastDateTime != null && dateTime.isBefore(lastDateTime)) {
+            throw new IllegalArgumentException("Scores must be added in date/time order, " + dateTime
+                    + " is before " + lastDateTime);
+        }
+        lastDateTime = dateTime;
+
+        Configuration configuration = new Configuration(cushionLimit, colours, numBalls, loop);
+        trends.computeIfAbsent(configuration, ConfigurationTrend::new).add(dateTime, value);
+    }
+
+    /**
+     * Get the trends, one per configuration, in the order each configuration was first scored on. Call once all the
+     * scores have been added.
+     * @return The trends
+     */
+    public List<ScoreTrend> getTrends() {
+        return trends.values().stream().map(ConfigurationTrend::toScoreTrend).toList();
+    }
+
+    private record Configuration(Integer cushionLimit, String colours, Integer numBalls, boolean loop) {
+    }
+
+    /**
+     * The scores in one period.
+     */
+    private static final class Period {
+
+        private final LocalDate start;
+
+        private int count;
+
+        private long total;
+
+        private int best = Integer.MIN_VALUE;
+
+        private Period(LocalDate start) {
+            this.start = start;
+        }
+
+        private void add(int value) {
+            count++;
+            total += value;
+            best = Math.max(best, value);
+        }
+    }
+
+    /**
+     * Running totals for the trend of one configuration.
+     */
+    private final class ConfigurationTrend {
+
+        private final Configuration configuration;
+
+        private final List<ScoreTrendPoint> points = new ArrayList<>();
+
+        /** Periods in the rolling window, oldest first, including the current period once it's finished. */
+        private final Deque<Period> windowPeriods = new ArrayDeque<>();
+
+        /** Periods in the rolling window that might still be its best, with decreasing bests. */
+        private final Deque<Period> windowBests = new ArrayDeque<>();
+
+        private long windowCount;
+
+        private long windowTotal;
+
+        private Period currentPeriod;
+
+        private int count;
+
+        private long total;
+
+        private int best = Integer.MIN_VALUE;
+
+        private LocalDateTime firstDateTime;
+
+        private LocalDateTime lastDateTime;
+
+        // Regression running totals, using Welford's method for numerical stability. Times are in days since the
+        // first score.
+        private long firstEpochSecond;
+
+        private double meanX;
+
+        private double meanY;
+
+        private double sumSquaresX;
+
+        private double sumProductsXY;
+
+        private ConfigurationTrend(Configuration configuration) {
+            this.configuration = configuration;
+        }
+
+        private void add(LocalDateTime dateTime, int value) {
+            long epochSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+            if (count == 0) {
+                firstDateTime = dateTime;
+                firstEpochSecond = epochSecond;
+            }
+            lastDateTime = dateTime;
+
+            count++;
+            total += value;
+            best = Math.max(best, value);
+
+            double x = (epochSecond - firstEpochSecond) / SECONDS_PER_DAY;
+            double dx = x - meanX;
+            meanX += dx / count;
+            meanY += (value - meanY) / count;
+            sumSquaresX += dx * (x - meanX);
+            sumProductsXY += dx * (value - meanY);
+
+            LocalDate periodStart = interval.getPeriodStart(dateTime.toLocalDate());
+            if (currentPeriod != null && !currentPeriod.start.equals(periodStart)) {
+                finishPeriod();
+            }
+            if (currentPeriod == null) {
+                currentPeriod = new Period(periodStart);
+            }
+            currentPeriod.add(value);
+        }
+
+        private void finishPeriod() {
+            Period period = currentPeriod;
+            currentPeriod = null;
+
+            // Drop periods that have moved out of the window ending with this period
+            LocalDate windowStart = period.start.minus(window - 1L, interval.getUnit());
+            while (!windowPeriods.isEmpty() && windowPeriods.peekFirst().start.isBefore(windowStart)) {
+                Period expired = windowPeriods.pollFirst();
+                windowCount -= expired.count;
+                windowTotal -= expired.total;
+            }
+            while (!windowBests.isEmpty() && windowBests.peekFirst().start.isBefore(windowStart)) {
+                windowBests.pollFirst();
+            }
+
+            windowPeriods.addLast(period);
+            windowCount += period.count;
+            windowTotal += period.total;
+            // Earlier periods with a best no higher than this one's can't be the window's best again
+            while (!windowBests.isEmpty() && windowBests.peekLast().best <= period.best) {
+                windowBests.pollLast();
+            }
+            windowBests.addLast(period);
+
+            int bestToDate = points.isEmpty() ? period.best
+                    : Math.max(points.get(points.size() - 1).getBestToDate(), period.best);
+            points.add(new ScoreTrendPoint(period.start, period.count, (double) period.total / period.count,
+                    period.best, (double) windowTotal / windowCount, windowBests.peekFirst().best, bestToDate));
+        }
+
+        private ScoreTrend toScoreTrend() {
+            if (currentPeriod != null) {
+                finishPeriod();
+            }
+            Double slopePerDay = sumSquaresX > 0 ? sumProductsXY / sumSquaresX : null;
+            return new ScoreTrend(configuration.cushionLimit(), configuration.colours(), configuration.numBalls(),
+                    configuration.loop(), count, (double) total / count, best, slopePerDay, firstDateTime,
+                    lastDateTime, List.copyOf(points));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.huwdunnit.snookeruprest.trend;
+
+import com.huwdunnit.snookeruprest.archive.ScoreArchive;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.ScorePage;
+import com.huwdunnit.snookeruprest.model.ScoreTrend;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Works out the trends in a user's scores on a routine, by streaming their scores from the DB (and archive) through a
+ * {@link ScoreTrendCalculator}, so the scores are never all held in memory at once. Archived scores are read a month at
+ * a time, so at most one month of them is held.
+ *
+ * @author Huwdunnit
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ScoreTrendService {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ScoreArchive scoreArchive;
+
+    /**
+     * Get the trends in a user's scores on a routine, one per configuration of the routine.
+     * @param userId User ID
+     * @param routineId Routine ID
+     * @param from Date/time to include scores from. Can be empty.
+     * @param to Date/time to include scores up to. Can be empty.
+     * @param interval The length of the periods to group scores into
+     * @param window The number of periods in the rolling window
+     * @return The trends
+     */
+    public List<ScoreTrend> getTrends(String userId,
+                                      String routineId,
+                                      Optional<LocalDateTime> from,
+                                      Optional<LocalDateTime> to,
+                                      TrendInterval interval,
+                                      int window) {
+        ScoreTrendCalculator calculator = new ScoreTrendCalculator(interval, window);
+
+        ArchivedScoreCursor archivedScores = new ArchivedScoreCursor(scoreArchive.reachesIntoArchive(from)
+                ? scoreArchive.findScoresByMonth(userId, from, to, Optional.of(routineId), Optional.empty(),
+                        Optional.empty(), Optional.empty(), Optional.empty())
+                : Collections.emptyIterator());
+
+        // Archived scores are normally all older than scores in the DB, but merge the two in date/time order in case
+        // any months haven't been archived yet
+        int scoreCount = 0;
+        try (Stream<Score> liveScores = mongoTemplate.stream(createLiveScoresQuery(userId, routineId, from, to),
+                Score.class)) {
+            Iterator<Score> liveScoreIterator = liveScores.iterator();
+            while (liveScoreIterator.hasNext()) {
+                Score score = liveScoreIterator.next();
+                while (archivedScores.hasNext() && !archivedScores.nextDateTime().isAfter(score.getDateTime())) {
+                    archivedScores.addNextTo(calculator);
+                }
+                calculator.add(score);
+                scoreCount++;
+            }
+        }
+        while (archivedScores.hasNext()) {
+            archivedScores.addNextTo(calculator);
+        }
+
+        log.debug("Calculated trends for userId={}, routineId={} from {} scores and {} archived scores", userId,
+                routineId, scoreCount, archivedScores.count);
+        return calculator.getTrends();
+    }
+
+    private Query createLiveScoresQuery(String userId,
+                                        String routineId,
+                                        Optional<LocalDateTime> from,
+                                        Optional<LocalDateTime> to) {
+        // Match the user ID at the top level, so the query uses the { userId, dateTime } index (and only goes to the
+        // user's shard)
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (from.isPresent() || to.isPresent()) {
+            Criteria dateTimeCriteria = criteria.and("dateTime");
+            from.ifPresent(dateTimeCriteria::gte);
+            to.ifPresent(dateTimeCriteria::lte);
+        }
+        criteria.and("routineId").is(routineId);
+
+        Query query = Query.query(criteria).with(Sort.by("dateTime"));
+        // Only read the fields the trend needs
+        query.fields().include("value", "dateTime", "cushionLimit", "colours", "numBalls", "loop").exclude("_id");
+        return query;
+    }
+
+    /**
+     * Reads through archived scores in date/time order, a month at a time, so only one month is held at once.
+     */
+    private static final class ArchivedScoreCursor {
+
+        private final Iterator<ScorePage> months;
+
+        private ScorePage month = ScorePage.empty();
+
+        private int index;
+
+        private int count;
+
+        private ArchivedScoreCursor(Iterator<ScorePage> months) {
+            this.months = months;
+        }
+
+        private boolean hasNext() {
+            // Skip months with no matching scores
+            while (index == month.size() && months.hasNext()) {
+                month = months.next();
+                index = 0;
+            }
+            return index < month.size();
+        }
+
+        private LocalDateTime nextDateTime() {
+            return month.getDateTime(index);
+        }
+
+        private void addNextTo(ScoreTrendCalculator calculator) {
+            // Read the score's fields straight from the month's columns, rather than creating a Score for each one
+            calculator.add(month.getDateTime(index), month.getValue(index), month.getCushionLimit(index),
+                    month.getColours(index), month.getNumBalls(index), month.isLoop(index));
+            index++;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.huwdunnit.snookeruprest.trend;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * The length of the periods scores are grouped into for a trend.
+ *
+ * @author Huwdunnit
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TrendInterval {
+
+    DAY(ChronoUnit.DAYS),
+
+    /** Weeks starting on a Monday. */
+    WEEK(ChronoUnit.WEEKS);
+
+    private final ChronoUnit unit;
+
+    /**
+     * Get the start of the period a date is in.
+     * @param date The date
+     * @return The first day of the period
+     */
+    public LocalDate getPeriodStart(LocalDate date) {
+        return this == WEEK ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : date;
+    }
+}
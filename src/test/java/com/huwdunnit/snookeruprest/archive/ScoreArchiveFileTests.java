@@ -0,0 +1,88 @@
+package com.huwdunnit.snookeruprest.archive;
+
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.model.Score;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ScoreArchiveFile class.
+ *
+ * @author Huwdunnit
+ */
+public class ScoreArchiveFileTests {
+
+    private static final String PLAYER_ID = IdGenerator.createNewId();
+
+    private static final String ROUTINE_ID_1 = IdGenerator.createNewId();
+
+    private static final String ROUTINE_ID_2 = IdGenerator.createNewId();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void read_Should_ReturnWrittenScores_When_FileWritten() throws IOException {
+        // Define variables
+        Path path = tempDir.resolve(PLAYER_ID).resolve("2024-02.scores");
+        List<Score> scores = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Score score = new Score();
+            score.setId(IdGenerator.createNewId());
+            score.setUserId(PLAYER_ID);
+            score.setValue(i * 3);
+            score.setRoutineId(i % 2 == 0 ? ROUTINE_ID_1 : ROUTINE_ID_2);
+            score.setDateTime(LocalDateTime.of(2024, 2, 1 + (i % 28), 19, i % 60));
+            score.setCushionLimit(i % 3 == 0 ? null : 3);
+            score.setColours(i % 5 == 0 ? null : "pink,black");
+            score.setNumBalls(i % 7 == 0 ? null : 15);
+            score.setLoop(i % 4 == 0);
+            scores.add(score);
+        }
+
+        // Execute method under test
+        ScoreArchiveFile.write(path, scores);
+        List<Score> readScores = ScoreArchiveFile.read(path, PLAYER_ID);
+
+        // Verify
+        assertEquals(scores, readScores);
+        assertFalse(Files.exists(path.resolveSibling("2024-02.scores.tmp")));
+    }
+
+    @Test
+    public void read_Should_ReturnNoScores_When_EmptyFileWritten() throws IOException {
+        // Define variables
+        Path path = tempDir.resolve(PLAYER_ID).resolve("2024-02.scores");
+
+        // Execute method under test
+        ScoreArchiveFile.write(path, List.of());
+        List<Score> readScores = ScoreArchiveFile.read(path, PLAYER_ID);
+
+        // Verify
+        assertTrue(readScores.isEmpty());
+    }
+
+    @Test
+    public void read_Should_ThrowIOException_When_FileIsNotAnArchive() throws IOException {
+        // Define variables
+        Path path = tempDir.resolve("not-an-archive.scores");
+        Files.writeString(path, "This is not an archive file");
+
+        // Execute method under test
+        try {
+            ScoreArchiveFile.read(path, PLAYER_ID);
+            fail("Expected IOException");
+        } catch (IOException ex) {
+            // Expected exception, i.e. test pass
+        }
+    }
+}
@@ -0,0 +1,482 @@
+package com.huwdunnit.snookeruprest.archive;
+
+import com.huwdunnit.snookeruprest.config.ScoreArchiveProperties;
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.db.ScoreArchiveSummaryRepository;
+import com.huwdunnit.snookeruprest.model.PersonalBest;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.ScoreArchiveLock;
+import com.huwdunnit.snookeruprest.model.ScoreArchiveSummary;
+import com.huwdunnit.snookeruprest.model.ScoreArchiveSummary.ConfigurationBest;
+import com.huwdunnit.snookeruprest.model.ScorePage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the ScoreArchive class.
+ *
+ * @author Huwdunnit
+ */
+public class ScoreArchiveTests {
+
+    private static final String PLAYER_ID = IdGenerator.createNewId();
+
+    private static final String ROUTINE_ID = IdGenerator.createNewId();
+
+    @TempDir
+    Path tempDir;
+
+    private ScoreArchiveSummaryRepository mockSummaryRepository;
+
+    private MongoTemplate mockMongoTemplate;
+
+    private ScoreArchive scoreArchive;
+
+    @BeforeEach
+    public void beforeEach() {
+        mockSummaryRepository = mock(ScoreArchiveSummaryRepository.class);
+        mockMongoTemplate = mock(MongoTemplate.class);
+        ScoreArchiveProperties properties = new ScoreArchiveProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(tempDir.toString());
+        properties.setLockWait(Duration.ofMillis(100));
+
+        // The lock on the user's archive is free, unless a test says otherwise
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScoreArchiveLock.class))).thenReturn(new ScoreArchiveLock());
+
+        scoreArchive = new ScoreArchive(properties, mockSummaryRepository, mockMongoTemplate);
+    }
+
+    @Test
+    public void findScorePage_Should_SkipMonthsBeforePage_When_NoFilters() throws IOException {
+        // Define variables
+        ScoreArchiveSummary januarySummary = writeCorruptMonth("2024-01", 3);
+        List<Score> februaryScores = writeMonth("2024-02", 3);
+
+        // Set mock expectations
+        when(mockSummaryRepository.findByUserIdAndMonthBetweenOrderByMonth(eq(PLAYER_ID), any(Range.class)))
+                .thenReturn(List.of(januarySummary, getSummary("2024-02", februaryScores)));
+
+        // Execute method under test
+        ArchivedScorePage page = scoreArchive.findScorePage(PLAYER_ID, Optional.empty(), Optional.empty(),
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), 4, 2);
+
+        // Verify
+        assertEquals(februaryScores.subList(1, 3), page.scores());
+        assertEquals(6, page.totalCount());
+    }
+
+    @Test
+    public void findScorePage_Should_SkipMonthsAfterPage_When_NoFilters() throws IOException {
+        // Define variables
+        List<Score> januaryScores = writeMonth("2024-01", 3);
+        ScoreArchiveSummary februarySummary = writeCorruptMonth("2024-02", 5);
+
+        // Set mock expectations
+        when(mockSummaryRepository.findByUserIdAndMonthBetweenOrderByMonth(eq(PLAYER_ID), any(Range.class)))
+                .thenReturn(List.of(getSummary("2024-01", januaryScores), februarySummary));
+
+        // Execute method under test
+        ArchivedScorePage page = scoreArchive.findScorePage(PLAYER_ID, Optional.empty(), Optional.empty(),
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), 0, 3);
+
+        // Verify
+        assertEquals(januaryScores, page.scores());
+        assertEquals(8, page.totalCount());
+    }
+
+    @Test
+    public void findScorePage_Should_ReadMonthToCount_When_DateRangeStartsPartWayThroughMonth() throws IOException {
+        // Define variables
+        List<Score> januaryScores = writeMonth("2024-01", 3);
+        ScoreArchiveSummary februarySummary = writeCorruptMonth("2024-02", 5);
+        LocalDateTime from = januaryScores.get(1).getDateTime();
+
+        // Set mock expectations
+        when(mockSummaryRepository.findByUserIdAndMonthBetweenOrderByMonth(eq(PLAYER_ID), any(Range.class)))
+                .thenReturn(List.of(getSummary("2024-01", januaryScores), februarySummary));
+
+        // Execute method under test
+        ArchivedScorePage page = scoreArchive.findScorePage(PLAYER_ID, Optional.of(from), Optional.empty(),
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), 0, 2);
+
+        // Verify
+        assertEquals(januaryScores.subList(1, 3), page.scores());
+        assertEquals(7, page.totalCount());
+    }
+
+    @Test
+    public void findScorePage_Should_ReadEveryMonth_When_FilteredOnScoreFields() throws IOException {
+        // Define variables
+        ScoreArchiveSummary januarySummary = writeCorruptMonth("2024-01", 3);
+        writeMonth("2024-02", 3);
+
+        // Set mock expectations
+        when(mockSummaryRepository.findByUserIdAndMonthBetweenOrderByMonth(eq(PLAYER_ID), any(Range.class)))
+                .thenReturn(List.of(januarySummary));
+
+        // Execute method under test and verify
+        assertThrows(UncheckedIOException.class, () -> scoreArchive.findScorePage(PLAYER_ID, Optional.empty(),
+                Optional.empty(), Optional.of(ROUTINE_ID), Optional.empty(), Optional.empty(), Optional.empty(),
+                Optional.empty(), 10, 2));
+    }
+
+    @Test
+    public void findScoresByMonth_Should_ReadEachMonthOnlyWhenReached() throws IOException {
+        // Define variables
+        List<Score> januaryScores = writeMonth("2024-01", 3);
+        ScoreArchiveSummary corruptFebruary = writeCorruptMonth("2024-02", 2);
+        LocalDateTime from = januaryScores.get(1).getDateTime();
+
+        // Set mock expectations
+        when(mockSummaryRepository.findByUserIdAndMonthBetweenOrderByMonth(PLAYER_ID,
+                Range.closed("2024-01", "9999-99"))).thenReturn(List.of(getSummary("2024-01", januaryScores),
+                corruptFebruary));
+
+        // Execute method under test
+        Iterator<ScorePage> months = scoreArchive.findScoresByMonth(PLAYER_ID, Optional.of(from), Optional.empty(),
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+
+        // Verify
+        assertEquals(januaryScores.subList(1, 3), months.next());
+        // February is only read when the iterator gets to it
+        assertTrue(months.hasNext());
+        assertThrows(UncheckedIOException.class, months::next);
+    }
+
+    @Test
+    public void findScoreById_Should_ReturnScore_When_ScoreArchived() throws IOException {
+        // Define variables
+        List<Score> januaryScores = writeMonth("2024-01", 3);
+        Score score = januaryScores.get(1);
+
+        // Set mock expectations
+        when(mockSummaryRepository.findFirstByScoreIds(score.getId()))
+                .thenReturn(Optional.of(getSummary("2024-01", januaryScores)));
+
+        // Execute method under test
+        Optional<Score> foundScore = scoreArchive.findScoreById(score.getId());
+
+        // Verify
+        assertEquals(Optional.of(score), foundScore);
+    }
+
+    @Test
+    public void findScoreById_Should_ReturnEmpty_When_ScoreNotArchived() {
+        // Define variables
+        String scoreId = IdGenerator.createNewScoreId(PLAYER_ID);
+
+        // Set mock expectations
+        when(mockSummaryRepository.findFirstByScoreIds(scoreId)).thenReturn(Optional.empty());
+
+        // Execute method under test
+        Optional<Score> foundScore = scoreArchive.findScoreById(scoreId);
+
+        // Verify
+        assertTrue(foundScore.isEmpty());
+    }
+
+    @Test
+    public void deleteScoreById_Should_RewriteMonthAndSummaryWithoutScore_When_ScoreArchived() throws IOException {
+        // Define variables
+        List<Score> januaryScores = writeMonth("2024-01", 3);
+        Score score = januaryScores.get(1);
+
+        // Set mock expectations
+        when(mockSummaryRepository.findFirstByScoreIds(score.getId()))
+                .thenReturn(Optional.of(getSummary("2024-01", januaryScores)));
+
+        // Execute method under test
+        Optional<Score> deletedScore = scoreArchive.deleteScoreById(score.getId(), Optional.of(PLAYER_ID));
+
+        // Verify
+        assertEquals(Optional.of(score), deletedScore);
+        assertEquals(List.of(januaryScores.get(0), januaryScores.get(2)), scoreArchive.readMonth(PLAYER_ID,
+                "2024-01"));
+        ArgumentCaptor<ScoreArchiveSummary> summaryCaptor = ArgumentCaptor.forClass(ScoreArchiveSummary.class);
+        verify(mockSummaryRepository).save(summaryCaptor.capture());
+        ScoreArchiveSummary summary = summaryCaptor.getValue();
+        assertEquals(2, summary.getScoreCount());
+        assertEquals(List.of(januaryScores.get(0).getId(), januaryScores.get(2).getId()), summary.getScoreIds());
+        assertEquals(januaryScores.get(0).getValue() + januaryScores.get(2).getValue(), summary.getTotalValue());
+        // The lock on the user's archive is released
+        verify(mockMongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(ScoreArchiveLock.class));
+    }
+
+    @Test
+    public void deleteScoreById_Should_DeleteMonthAndSummary_When_LastScoreInMonth() throws IOException {
+        // Define variables
+        List<Score> januaryScores = writeMonth("2024-01", 1);
+        Score score = januaryScores.get(0);
+
+        // Set mock expectations
+        when(mockSummaryRepository.findFirstByScoreIds(score.getId()))
+                .thenReturn(Optional.of(getSummary("2024-01", januaryScores)));
+
+        // Execute method under test
+        Optional<Score> deletedScore = scoreArchive.deleteScoreById(score.getId(), Optional.empty());
+
+        // Verify
+        assertEquals(Optional.of(score), deletedScore);
+        assertFalse(Files.exists(scoreArchive.getArchivePath(PLAYER_ID, "2024-01")));
+        verify(mockSummaryRepository).deleteById(ScoreArchiveSummary.createId(PLAYER_ID, "2024-01"));
+        verify(mockSummaryRepository, never()).save(any(ScoreArchiveSummary.class));
+    }
+
+    @Test
+    public void deleteScoreById_Should_DoNothing_When_ScoreArchivedForAnotherUser() throws IOException {
+        // Define variables
+        List<Score> januaryScores = writeMonth("2024-01", 2);
+        Score score = januaryScores.get(0);
+
+        // Set mock expectations
+        when(mockSummaryRepository.findFirstByScoreIds(score.getId()))
+                .thenReturn(Optional.of(getSummary("2024-01", januaryScores)));
+
+        // Execute method under test
+        Optional<Score> deletedScore = scoreArchive.deleteScoreById(score.getId(),
+                Optional.of(IdGenerator.createNewId()));
+
+        // Verify
+        assertTrue(deletedScore.isEmpty());
+        assertEquals(januaryScores, scoreArchive.readMonth(PLAYER_ID, "2024-01"));
+        verifyNoInteractions(mockMongoTemplate);
+    }
+
+    @Test
+    public void addScores_Should_MergeWithArchivedScores_When_MonthAlreadyArchived() throws IOException {
+        // Define variables
+        List<Score> januaryScores = writeMonth("2024-01", 2);
+        Score lateScore = getScore(januaryScores.get(1).getDateTime().plusHours(1));
+
+        // Execute method under test
+        // Archiving an already archived score again doesn't duplicate it
+        scoreArchive.addScores(PLAYER_ID, "2024-01", List.of(lateScore, januaryScores.get(0)));
+
+        // Verify
+        assertEquals(List.of(januaryScores.get(0), januaryScores.get(1), lateScore),
+                scoreArchive.readMonth(PLAYER_ID, "2024-01"));
+        ArgumentCaptor<ScoreArchiveSummary> summaryCaptor = ArgumentCaptor.forClass(ScoreArchiveSummary.class);
+        verify(mockSummaryRepository).save(summaryCaptor.capture());
+        assertEquals(3, summaryCaptor.getValue().getScoreCount());
+        assertEquals(3, summaryCaptor.getValue().getScoreIds().size());
+    }
+
+    @Test
+    public void addScores_Should_ThrowException_When_ArchiveLockedByAnotherChange() {
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScoreArchiveLock.class))).thenThrow(new DuplicateKeyException("Duplicate key"));
+
+        // Execute method under test
+        assertThrows(IllegalStateException.class, () -> scoreArchive.addScores(PLAYER_ID, "2024-01",
+                List.of(getScore(LocalDateTime.of(2024, 1, 5, 12, 0)))));
+
+        // Verify
+        assertFalse(Files.exists(scoreArchive.getArchivePath(PLAYER_ID, "2024-01")));
+        verify(mockSummaryRepository, never()).save(any(ScoreArchiveSummary.class));
+    }
+
+    @Test
+    public void deleteScores_Should_RewriteEachMonthWithoutMatchingScores() throws IOException {
+        // Define variables
+        List<Score> januaryScores = writeMonth("2024-01", 3);
+        List<Score> februaryScores = writeMonth("2024-02", 2);
+        LocalDateTime from = januaryScores.get(1).getDateTime();
+        List<List<Score>> deletedMonths = new ArrayList<>();
+
+        // Set mock expectations
+        when(mockSummaryRepository.findByUserIdAndMonthBetweenOrderByMonth(PLAYER_ID,
+                Range.closed("2024-01", "9999-99"))).thenReturn(List.of(getSummary("2024-01", januaryScores),
+                getSummary("2024-02", februaryScores)));
+
+        // Execute method under test
+        long deletedCount = scoreArchive.deleteScores(PLAYER_ID, Optional.of(from), Optional.empty(),
+                Optional.of(ROUTINE_ID), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                deletedMonths::add);
+
+        // Verify
+        assertEquals(4, deletedCount);
+        assertEquals(List.of(januaryScores.subList(1, 3), februaryScores), deletedMonths);
+        assertEquals(List.of(januaryScores.get(0)), scoreArchive.readMonth(PLAYER_ID, "2024-01"));
+        assertFalse(Files.exists(scoreArchive.getArchivePath(PLAYER_ID, "2024-02")));
+        verify(mockSummaryRepository).deleteById(ScoreArchiveSummary.createId(PLAYER_ID, "2024-02"));
+    }
+
+    @Test
+    public void deleteScores_Should_LeaveMonthUnchanged_When_NoScoresMatch() throws IOException {
+        // Define variables
+        List<Score> januaryScores = writeMonth("2024-01", 2);
+
+        // Set mock expectations
+        when(mockSummaryRepository.findByUserIdAndMonthBetweenOrderByMonth(PLAYER_ID,
+                Range.closed("0000-00", "9999-99"))).thenReturn(List.of(getSummary("2024-01", januaryScores)));
+
+        // Execute method under test
+        long deletedCount = scoreArchive.deleteScores(PLAYER_ID, Optional.empty(), Optional.empty(),
+                Optional.of(IdGenerator.createNewId()), Optional.empty(), Optional.empty(), Optional.empty(),
+                Optional.empty(), scores -> fail("No scores should be deleted"));
+
+        // Verify
+        assertEquals(0, deletedCount);
+        assertEquals(januaryScores, scoreArchive.readMonth(PLAYER_ID, "2024-01"));
+        verify(mockSummaryRepository, never()).save(any(ScoreArchiveSummary.class));
+    }
+
+    @Test
+    public void addScores_Should_KeepEarliestBestPerConfigurationInSummary() throws IOException {
+        // Define variables
+        Score firstBest = getScore(LocalDateTime.of(2024, 1, 5, 12, 0));
+        firstBest.setValue(50);
+        Score laterEqualScore = getScore(LocalDateTime.of(2024, 1, 6, 12, 0));
+        laterEqualScore.setValue(50);
+        Score loopScore = getScore(LocalDateTime.of(2024, 1, 7, 12, 0));
+        loopScore.setLoop(true);
+
+        // Execute method under test
+        scoreArchive.addScores(PLAYER_ID, "2024-01", List.of(laterEqualScore, loopScore, firstBest));
+
+        // Verify
+        ArgumentCaptor<ScoreArchiveSummary> summaryCaptor = ArgumentCaptor.forClass(ScoreArchiveSummary.class);
+        verify(mockSummaryRepository).save(summaryCaptor.capture());
+        List<ConfigurationBest> configurationBests = summaryCaptor.getValue().getConfigurationBests();
+        assertEquals(2, configurationBests.size());
+        assertEquals(firstBest.getId(), configurationBests.get(0).getScoreId());
+        assertEquals(50, configurationBests.get(0).getValue());
+        assertEquals(loopScore.getId(), configurationBests.get(1).getScoreId());
+    }
+
+    @Test
+    public void findBestScore_Should_UseSummaryBests_When_SummariesHaveThem() throws IOException {
+        // Define variables
+        ScoreArchiveSummary corruptJanuary = writeCorruptMonth("2024-01", 2);
+        corruptJanuary.setConfigurationBests(List.of(getConfigurationBest("2024-01-best", 40, false)));
+        ScoreArchiveSummary corruptFebruary = writeCorruptMonth("2024-02", 2);
+        corruptFebruary.setConfigurationBests(List.of(getConfigurationBest("2024-02-best", 60, false),
+                getConfigurationBest("2024-02-loop-best", 90, true)));
+
+        // Set mock expectations
+        when(mockSummaryRepository.findByUserIdAndMonthBetweenOrderByMonth(PLAYER_ID,
+                Range.closed("0000-00", "9999-99"))).thenReturn(List.of(corruptJanuary, corruptFebruary));
+
+        // Execute method under test
+        Optional<Score> best = scoreArchive.findBestScore(PLAYER_ID, ROUTINE_ID, null, null, null, false, Set.of());
+
+        // Verify (the months' files can't be read, so the bests must have come from the summaries)
+        assertTrue(best.isPresent());
+        assertEquals("2024-02-best", best.get().getId());
+        assertEquals(60, best.get().getValue());
+    }
+
+    @Test
+    public void findBestScore_Should_ReadMonth_When_SummaryBestExcludedOrMissing() throws IOException {
+        // Define variables
+        List<Score> januaryScores = writeMonth("2024-01", 3);
+        ScoreArchiveSummary januarySummary = getSummary("2024-01", januaryScores);
+        januarySummary.setConfigurationBests(List.of(getConfigurationBest(januaryScores.get(2).getId(), 12, false)));
+        // Archived before bests were kept
+        List<Score> februaryScores = writeMonth("2024-02", 1);
+        ScoreArchiveSummary februarySummary = getSummary("2024-02", februaryScores);
+
+        // Set mock expectations
+        when(mockSummaryRepository.findByUserIdAndMonthBetweenOrderByMonth(PLAYER_ID,
+                Range.closed("0000-00", "9999-99"))).thenReturn(List.of(januarySummary, februarySummary));
+
+        // Execute method under test
+        Optional<Score> best = scoreArchive.findBestScore(PLAYER_ID, ROUTINE_ID, null, null, null, false,
+                Set.of(januaryScores.get(2).getId()));
+
+        // Verify
+        assertEquals(Optional.of(januaryScores.get(1)), best);
+    }
+
+    private ConfigurationBest getConfigurationBest(String scoreId, int value, boolean loop) {
+        ConfigurationBest configurationBest = new ConfigurationBest();
+        configurationBest.setConfigurationId(PersonalBest.createId(PLAYER_ID, ROUTINE_ID, null, null, null, loop));
+        configurationBest.setScoreId(scoreId);
+        configurationBest.setValue(value);
+        configurationBest.setDateTime(LocalDateTime.of(2024, 1, 1, 12, 0));
+        return configurationBest;
+    }
+
+    private Score getScore(LocalDateTime dateTime) {
+        Score score = new Score();
+        score.setId(IdGenerator.createNewScoreId(PLAYER_ID));
+        score.setUserId(PLAYER_ID);
+        score.setRoutineId(ROUTINE_ID);
+        score.setValue(30);
+        score.setDateTime(dateTime);
+        return score;
+    }
+
+    private List<Score> writeMonth(String month, int count) throws IOException {
+        List<Score> scores = new ArrayList<>();
+        LocalDateTime monthStart = LocalDateTime.parse(month + "-01T00:00:00");
+        for (int i = 0; i < count; i++) {
+            Score score = new Score();
+            score.setId(IdGenerator.createNewScoreId(PLAYER_ID));
+            score.setUserId(PLAYER_ID);
+            score.setRoutineId(ROUTINE_ID);
+            score.setValue(10 + i);
+            score.setDateTime(monthStart.plusDays(i + 1));
+            scores.add(score);
+        }
+        ScoreArchiveFile.write(scoreArchive.getArchivePath(PLAYER_ID, month), scores);
+        return scores;
+    }
+
+    /**
+     * Write a month whose file can't be read, so any test that reads it fails.
+     */
+    private ScoreArchiveSummary writeCorruptMonth(String month, int count) throws IOException {
+        Path path = scoreArchive.getArchivePath(PLAYER_ID, month);
+        Files.createDirectories(path.getParent());
+        Files.write(path, new byte[]{1, 2, 3, 4});
+
+        LocalDateTime monthStart = LocalDateTime.parse(month + "-01T00:00:00");
+        ScoreArchiveSummary summary = new ScoreArchiveSummary();
+        summary.setId(ScoreArchiveSummary.createId(PLAYER_ID, month));
+        summary.setUserId(PLAYER_ID);
+        summary.setMonth(month);
+        summary.setScoreCount(count);
+        summary.setFirstDateTime(monthStart.plusDays(1));
+        summary.setLastDateTime(monthStart.plusDays(count));
+        return summary;
+    }
+
+    private ScoreArchiveSummary getSummary(String month, List<Score> scores) {
+        ScoreArchiveSummary summary = new ScoreArchiveSummary();
+        summary.setId(ScoreArchiveSummary.createId(PLAYER_ID, month));
+        summary.setUserId(PLAYER_ID);
+        summary.setMonth(month);
+        summary.setScoreCount(scores.size());
+        summary.setFirstDateTime(scores.get(0).getDateTime());
+        summary.setLastDateTime(scores.get(scores.size() - 1).getDateTime());
+        return summary;
+    }
+}
@@ -0,0 +1,177 @@
+package com.huwdunnit.snookeruprest.archive;
+
+import com.huwdunnit.snookeruprest.config.ScoreArchiveProperties;
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.db.ScoreRepository;
+import com.huwdunnit.snookeruprest.model.JobLease;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.mongodb.client.result.UpdateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the ScoreArchiver class.
+ *
+ * @author Huwdunnit
+ */
+public class ScoreArchiverTests {
+
+    private static final String PLAYER_ID = IdGenerator.createNewId();
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    private ScoreArchive mockScoreArchive;
+
+    private MongoTemplate mockMongoTemplate;
+
+    private ScoreRepository mockScoreRepository;
+
+    private ScoreArchiver scoreArchiver;
+
+    @BeforeEach
+    public void beforeEach() {
+        mockScoreArchive = mock(ScoreArchive.class);
+        mockMongoTemplate = mock(MongoTemplate.class);
+        mockScoreRepository = mock(ScoreRepository.class);
+
+        when(mockScoreArchive.isEnabled()).thenReturn(true);
+        when(mockScoreArchive.getCutoff()).thenReturn(CUTOFF);
+
+        scoreArchiver = new ScoreArchiver(mockScoreArchive, new ScoreArchiveProperties(), mockMongoTemplate,
+                mockScoreRepository);
+    }
+
+    @Test
+    public void archiveOldScores_Should_ArchiveAndReleaseLease_When_LeaseClaimed() {
+        // Define variables
+        Score score = getScore(LocalDateTime.of(2024, 2, 10, 19, 0));
+
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(JobLease.class))).thenReturn(new JobLease());
+        when(mockMongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(JobLease.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mockMongoTemplate.find(argThat(isBatchQuery()), eq(Score.class))).thenReturn(List.of(score), List.of());
+        when(mockMongoTemplate.find(argThat(isRemainingIdsQuery()), eq(Score.class)))
+                .thenReturn(List.of(score));
+
+        // Execute method under test
+        scoreArchiver.archiveOldScores();
+
+        // Verify
+        verify(mockScoreArchive).addScores(PLAYER_ID, "2024-02", List.of(score));
+        verify(mockScoreRepository).deleteAllById(Set.of(score.getId()));
+        verify(mockScoreArchive, never()).removeScores(anyString(), anyString(), anySet());
+        // Renewed for the batch, then released
+        verify(mockMongoTemplate, times(2)).updateFirst(any(Query.class), any(Update.class), eq(JobLease.class));
+    }
+
+    @Test
+    public void archiveOldScores_Should_DoNothing_When_AnotherInstanceHasLease() {
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(JobLease.class))).thenThrow(new DuplicateKeyException("Duplicate key"));
+
+        // Execute method under test
+        scoreArchiver.archiveOldScores();
+
+        // Verify
+        verify(mockMongoTemplate, never()).find(any(Query.class), eq(Score.class));
+        verify(mockScoreRepository, never()).deleteAllById(any());
+        verify(mockMongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(JobLease.class));
+    }
+
+    @Test
+    public void archiveOldScores_Should_StopBeforeArchiving_When_LeaseLost() {
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(JobLease.class))).thenReturn(new JobLease());
+        when(mockMongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(JobLease.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        when(mockMongoTemplate.find(any(Query.class), eq(Score.class)))
+                .thenReturn(List.of(getScore(LocalDateTime.of(2024, 2, 10, 19, 0))));
+
+        // Execute method under test
+        scoreArchiver.archiveOldScores();
+
+        // Verify
+        verify(mockScoreArchive, never()).addScores(anyString(), anyString(), anyList());
+        verify(mockScoreRepository, never()).deleteAllById(any());
+    }
+
+    @Test
+    public void archiveOldScores_Should_RemoveFromArchive_When_ScoreDeletedWhileArchiving() {
+        // Define variables
+        Score keptScore = getScore(LocalDateTime.of(2024, 2, 10, 19, 0));
+        Score deletedScore = getScore(LocalDateTime.of(2024, 2, 11, 19, 0));
+
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(JobLease.class))).thenReturn(new JobLease());
+        when(mockMongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(JobLease.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mockMongoTemplate.find(argThat(isBatchQuery()), eq(Score.class)))
+                .thenReturn(List.of(keptScore, deletedScore), List.of());
+        // The second score was deleted from the DB after the batch was read
+        when(mockMongoTemplate.find(argThat(isRemainingIdsQuery()), eq(Score.class)))
+                .thenReturn(List.of(keptScore));
+
+        // Execute method under test
+        scoreArchiver.archiveOldScores();
+
+        // Verify
+        verify(mockScoreArchive).addScores(PLAYER_ID, "2024-02", List.of(keptScore, deletedScore));
+        verify(mockScoreRepository).deleteAllById(Set.of(keptScore.getId()));
+        verify(mockScoreArchive).removeScores(PLAYER_ID, "2024-02", Set.of(deletedScore.getId()));
+    }
+
+    @Test
+    public void archiveOldScores_Should_DoNothing_When_ArchivingDisabled() {
+        // Set mock expectations
+        when(mockScoreArchive.isEnabled()).thenReturn(false);
+
+        // Execute method under test
+        scoreArchiver.archiveOldScores();
+
+        // Verify
+        verifyNoInteractions(mockMongoTemplate, mockScoreRepository);
+    }
+
+    /**
+     * Matches the query for the next batch of scores to archive.
+     */
+    private static ArgumentMatcher<Query> isBatchQuery() {
+        return query -> query != null && query.getQueryObject().containsKey("dateTime");
+    }
+
+    /**
+     * Matches the query for which scores in an archived batch are still in the DB.
+     */
+    private static ArgumentMatcher<Query> isRemainingIdsQuery() {
+        return query -> query != null && query.getQueryObject().containsKey("_id");
+    }
+
+    private Score getScore(LocalDateTime dateTime) {
+        Score score = new Score();
+        score.setId(IdGenerator.createNewScoreId(PLAYER_ID));
+        score.setUserId(PLAYER_ID);
+        score.setRoutineId(IdGenerator.createNewId());
+        score.setValue(25);
+        score.setDateTime(dateTime);
+        return score;
+    }
+}
@@ -0,0 +1,215 @@
+package com.huwdunnit.snookeruprest.bests;
+
+import com.huwdunnit.snookeruprest.archive.ScoreArchive;
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.events.ScoresDeletedEvent;
+import com.huwdunnit.snookeruprest.model.PersonalBest;
+import com.huwdunnit.snookeruprest.model.Score;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the PersonalBestTable class.
+ *
+ * @author Huwdunnit
+ */
+public class PersonalBestTableTests {
+
+    private static final String PLAYER_ID = IdGenerator.createNewId();
+
+    private static final String ROUTINE_ID = IdGenerator.createNewId();
+
+    private MongoTemplate mockMongoTemplate;
+
+    private ScoreArchive mockScoreArchive;
+
+    private PersonalBestTable personalBestTable;
+
+    @BeforeEach
+    public void beforeEach() {
+        mockMongoTemplate = mock(MongoTemplate.class);
+        mockScoreArchive = mock(ScoreArchive.class);
+
+        personalBestTable = new PersonalBestTable(mockMongoTemplate, mockScoreArchive);
+    }
+
+    @Test
+    public void recordScore_Should_ReturnTrue_When_ScoreHigherThanStoredBest() {
+        // Define variables
+        Score score = getScore(50);
+
+        // Set mock expectations
+        when(mockMongoTemplate.exists(any(Query.class), eq(PersonalBest.class))).thenReturn(true);
+
+        // Execute method under test
+        boolean personalBest = personalBestTable.recordScore(score);
+
+        // Verify
+        assertTrue(personalBest);
+        verify(mockMongoTemplate).upsert(any(Query.class), any(Update.class), eq(PersonalBest.class));
+        verify(mockMongoTemplate, never()).findOne(any(Query.class), eq(Score.class));
+    }
+
+    @Test
+    public void recordScore_Should_ReturnFalse_When_StoredBestAtLeastAsHigh() {
+        // Define variables
+        Score score = getScore(50);
+
+        // Set mock expectations
+        when(mockMongoTemplate.exists(any(Query.class), eq(PersonalBest.class))).thenReturn(true);
+        when(mockMongoTemplate.upsert(any(Query.class), any(Update.class), eq(PersonalBest.class)))
+                .thenThrow(new DuplicateKeyException("Duplicate key"));
+
+        // Execute method under test
+        boolean personalBest = personalBestTable.recordScore(score);
+
+        // Verify
+        assertFalse(personalBest);
+    }
+
+    @Test
+    public void recordScore_Should_StoreBestFromHistory_When_NoStoredBest() {
+        // Define variables
+        Score score = getScore(50);
+        Score earlierScore = getScore(70);
+
+        // Set mock expectations
+        when(mockMongoTemplate.exists(any(Query.class), eq(PersonalBest.class))).thenReturn(false);
+        when(mockMongoTemplate.findOne(any(Query.class), eq(Score.class))).thenReturn(earlierScore);
+        when(mockMongoTemplate.upsert(any(Query.class), any(Update.class), eq(PersonalBest.class)))
+                .thenThrow(new DuplicateKeyException("Duplicate key"));
+
+        // Execute method under test
+        boolean personalBest = personalBestTable.recordScore(score);
+
+        // Verify
+        assertFalse(personalBest);
+        ArgumentCaptor<PersonalBest> bestCaptor = ArgumentCaptor.forClass(PersonalBest.class);
+        verify(mockMongoTemplate).insert(bestCaptor.capture());
+        PersonalBest capturedBest = bestCaptor.getValue();
+        assertEquals(70, capturedBest.getValue());
+        assertEquals(earlierScore.getId(), capturedBest.getScoreId());
+        assertEquals(PLAYER_ID, capturedBest.getUserId());
+        assertEquals(ROUTINE_ID, capturedBest.getRoutineId());
+    }
+
+    @Test
+    public void recordScore_Should_StoreBestFromArchive_When_ArchivedBestHigherThanDb() {
+        // Define variables
+        Score score = getScore(50);
+        Score dbScore = getScore(70);
+        Score archivedScore = getScore(90);
+
+        // Set mock expectations
+        when(mockMongoTemplate.exists(any(Query.class), eq(PersonalBest.class))).thenReturn(false);
+        when(mockMongoTemplate.findOne(any(Query.class), eq(Score.class))).thenReturn(dbScore);
+        when(mockScoreArchive.findBestScore(PLAYER_ID, ROUTINE_ID, null, null, null, false, Set.of(score.getId())))
+                .thenReturn(Optional.of(archivedScore));
+        when(mockMongoTemplate.upsert(any(Query.class), any(Update.class), eq(PersonalBest.class)))
+                .thenThrow(new DuplicateKeyException("Duplicate key"));
+
+        // Execute method under test
+        personalBestTable.recordScore(score);
+
+        // Verify
+        ArgumentCaptor<PersonalBest> bestCaptor = ArgumentCaptor.forClass(PersonalBest.class);
+        verify(mockMongoTemplate).insert(bestCaptor.capture());
+        assertEquals(90, bestCaptor.getValue().getValue());
+        assertEquals(archivedScore.getId(), bestCaptor.getValue().getScoreId());
+    }
+
+    @Test
+    public void isPersonalBest_Should_CheckStoredBestIsScore() {
+        // Define variables
+        Score score = getScore(50);
+
+        // Set mock expectations
+        when(mockMongoTemplate.exists(any(Query.class), eq(PersonalBest.class))).thenReturn(true);
+
+        // Execute method under test
+        boolean personalBest = personalBestTable.isPersonalBest(score);
+
+        // Verify
+        assertTrue(personalBest);
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mockMongoTemplate).exists(queryCaptor.capture(), eq(PersonalBest.class));
+        assertEquals(score.getId(), queryCaptor.getValue().getQueryObject().get("scoreId"));
+    }
+
+    @Test
+    public void onScoresDeleted_Should_ReplaceBest_When_BestScoreDeleted() {
+        // Define variables
+        Score deletedScore = getScore(70);
+        Score nextBestScore = getScore(60);
+        PersonalBest storedBest = getPersonalBest(deletedScore);
+
+        // Set mock expectations
+        when(mockMongoTemplate.find(any(Query.class), eq(PersonalBest.class))).thenReturn(List.of(storedBest));
+        when(mockMongoTemplate.findOne(any(Query.class), eq(Score.class))).thenReturn(nextBestScore);
+
+        // Execute method under test
+        personalBestTable.onScoresDeleted(new ScoresDeletedEvent(List.of(deletedScore)));
+
+        // Verify
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        verify(mockMongoTemplate).updateFirst(any(Query.class), updateCaptor.capture(), eq(PersonalBest.class));
+        Document setFields = updateCaptor.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(nextBestScore.getId(), setFields.get("scoreId"));
+        assertEquals(60, setFields.get("value"));
+        verify(mockMongoTemplate, never()).remove(any(Query.class), eq(PersonalBest.class));
+    }
+
+    @Test
+    public void onScoresDeleted_Should_RemoveBest_When_NoScoresLeft() {
+        // Define variables
+        Score deletedScore = getScore(70);
+        PersonalBest storedBest = getPersonalBest(deletedScore);
+
+        // Set mock expectations
+        when(mockMongoTemplate.find(any(Query.class), eq(PersonalBest.class))).thenReturn(List.of(storedBest));
+        when(mockMongoTemplate.findOne(any(Query.class), eq(Score.class))).thenReturn(null);
+
+        // Execute method under test
+        personalBestTable.onScoresDeleted(new ScoresDeletedEvent(List.of(deletedScore)));
+
+        // Verify
+        verify(mockMongoTemplate).remove(any(Query.class), eq(PersonalBest.class));
+        verify(mockMongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(PersonalBest.class));
+    }
+
+    private Score getScore(int value) {
+        Score score = new Score();
+        score.setId(IdGenerator.createNewScoreId(PLAYER_ID));
+        score.setUserId(PLAYER_ID);
+        score.setRoutineId(ROUTINE_ID);
+        score.setValue(value);
+        score.setDateTime(LocalDateTime.of(2023, 3, 1, 18, 0));
+        return score;
+    }
+
+    private PersonalBest getPersonalBest(Score score) {
+        PersonalBest personalBest = new PersonalBest();
+        personalBest.setId(PersonalBest.createId(PLAYER_ID, ROUTINE_ID, null, null, null, false));
+        personalBest.setUserId(PLAYER_ID);
+        personalBest.setRoutineId(ROUTINE_ID);
+        personalBest.setValue(score.getValue());
+        personalBest.setScoreId(score.getId());
+        personalBest.setDateTime(score.getDateTime());
+        return personalBest;
+    }
+}
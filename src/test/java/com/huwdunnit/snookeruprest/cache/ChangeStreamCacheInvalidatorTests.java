@@ -0,0 +1,168 @@
+package com.huwdunnit.snookeruprest.cache;
+
+import com.huwdunnit.snookeruprest.config.CacheProperties;
+import com.huwdunnit.snookeruprest.events.CollectionChangedEvent;
+import com.huwdunnit.snookeruprest.model.ChangeStreamResumeToken;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the ChangeStreamCacheInvalidator class.
+ *
+ * @author Huwdunnit
+ */
+public class ChangeStreamCacheInvalidatorTests {
+
+    private static final String NODE_ID = "node1";
+
+    private static final long VERIFY_TIMEOUT_MILLIS = 5000;
+
+    private MongoTemplate mockMongoTemplate;
+
+    private ApplicationEventPublisher mockEventPublisher;
+
+    private ChangeStreamIterable<Document> mockStream;
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> mockCursor;
+
+    private CacheProperties properties;
+
+    private ChangeStreamCacheInvalidator changeStreamCacheInvalidator;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void beforeEach() {
+        mockMongoTemplate = mock(MongoTemplate.class);
+        mockEventPublisher = mock(ApplicationEventPublisher.class);
+        mockStream = mock(ChangeStreamIterable.class);
+        mockCursor = mock(MongoChangeStreamCursor.class);
+        MongoCollection<Document> mockCollection = mock(MongoCollection.class);
+
+        properties = new CacheProperties();
+        properties.getChangeStreams().setEnabled(true);
+        properties.getChangeStreams().setNodeId(NODE_ID);
+        properties.getChangeStreams().setRetryDelay(Duration.ofMillis(10));
+
+        when(mockMongoTemplate.getCollection(anyString())).thenReturn(mockCollection);
+        when(mockCollection.watch()).thenReturn(mockStream);
+        when(mockStream.maxAwaitTime(anyLong(), any(TimeUnit.class))).thenReturn(mockStream);
+        when(mockStream.resumeAfter(any(BsonDocument.class))).thenReturn(mockStream);
+        when(mockStream.cursor()).thenReturn(mockCursor);
+        // Behave like an idle stream, rather than spinning
+        when(mockCursor.tryNext()).thenAnswer(invocation -> {
+            Thread.sleep(10);
+            return null;
+        });
+
+        changeStreamCacheInvalidator = new ChangeStreamCacheInvalidator(mockMongoTemplate, properties,
+                mockEventPublisher);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        changeStreamCacheInvalidator.stop();
+    }
+
+    @Test
+    public void start_Should_DoNothing_When_ChangeStreamsDisabled() {
+        // Define variables
+        properties.getChangeStreams().setEnabled(false);
+
+        // Execute method under test
+        changeStreamCacheInvalidator.start();
+
+        // Verify
+        verifyNoInteractions(mockMongoTemplate, mockEventPublisher);
+    }
+
+    @Test
+    public void start_Should_InvalidateWholeCollections_When_NoStoredResumeToken() {
+        // Execute method under test
+        changeStreamCacheInvalidator.start();
+
+        // Verify
+        verify(mockEventPublisher, timeout(VERIFY_TIMEOUT_MILLIS))
+                .publishEvent(new CollectionChangedEvent(UserDetailsCache.COLLECTION_NAME, null));
+        verify(mockEventPublisher, timeout(VERIFY_TIMEOUT_MILLIS))
+                .publishEvent(new CollectionChangedEvent(RoutineCache.COLLECTION_NAME, null));
+        verify(mockStream, never()).resumeAfter(any(BsonDocument.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void start_Should_PublishChangedDocument_When_ChangeEventReceived() {
+        // Define variables
+        BsonDocument resumeToken = new BsonDocument("_data", new BsonString("token1"));
+        ChangeStreamDocument<Document> mockChange = mock(ChangeStreamDocument.class);
+
+        // Set mock expectations
+        givenStoredResumeTokens(resumeToken);
+        when(mockChange.getOperationType()).thenReturn(OperationType.UPDATE);
+        when(mockChange.getDocumentKey()).thenReturn(new BsonDocument("_id", new BsonString("user1")));
+        when(mockCursor.tryNext()).thenReturn(mockChange).thenAnswer(invocation -> {
+            Thread.sleep(10);
+            return null;
+        });
+        when(mockCursor.getResumeToken()).thenReturn(resumeToken);
+
+        // Execute method under test
+        changeStreamCacheInvalidator.start();
+
+        // Verify
+        verify(mockEventPublisher, timeout(VERIFY_TIMEOUT_MILLIS))
+                .publishEvent(argThat((Object event) -> event instanceof CollectionChangedEvent changedEvent
+                        && "user1".equals(changedEvent.documentId())));
+        verify(mockStream, atLeastOnce()).resumeAfter(resumeToken);
+        verify(mockMongoTemplate, timeout(VERIFY_TIMEOUT_MILLIS).atLeastOnce())
+                .save(any(ChangeStreamResumeToken.class));
+        verify(mockEventPublisher, never()).publishEvent(argThat((Object event) ->
+                event instanceof CollectionChangedEvent changedEvent && changedEvent.isWholeCollection()));
+    }
+
+    @Test
+    public void start_Should_DeleteTokenAndInvalidateWholeCollection_When_StreamCannotResume() {
+        // Set mock expectations
+        givenStoredResumeTokens(new BsonDocument("_data", new BsonString("token1")));
+        when(mockStream.cursor()).thenThrow(new MongoException(286, "Change stream history lost"))
+                .thenReturn(mockCursor);
+
+        // Execute method under test
+        changeStreamCacheInvalidator.start();
+
+        // Verify
+        verify(mockMongoTemplate, timeout(VERIFY_TIMEOUT_MILLIS))
+                .remove(any(Query.class), eq(ChangeStreamResumeToken.class));
+        verify(mockEventPublisher, timeout(VERIFY_TIMEOUT_MILLIS)).publishEvent(
+                argThat((Object event) -> event instanceof CollectionChangedEvent changedEvent
+                        && changedEvent.isWholeCollection()));
+    }
+
+    private void givenStoredResumeTokens(BsonDocument resumeToken) {
+        for (String collectionName : ChangeStreamCacheInvalidator.WATCHED_COLLECTIONS) {
+            ChangeStreamResumeToken storedToken = new ChangeStreamResumeToken();
+            storedToken.setId(ChangeStreamResumeToken.createId(NODE_ID, collectionName));
+            storedToken.setToken(resumeToken.toJson());
+            when(mockMongoTemplate.findById(storedToken.getId(), ChangeStreamResumeToken.class))
+                    .thenReturn(storedToken);
+        }
+    }
+}
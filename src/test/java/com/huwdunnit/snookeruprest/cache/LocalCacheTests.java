@@ -0,0 +1,90 @@
+package com.huwdunnit.snookeruprest.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the LocalCache class.
+ *
+ * @author Huwdunnit
+ */
+public class LocalCacheTests {
+
+    @Test
+    public void get_Should_LoadValueOnce_When_ValueCached() {
+        // Define variables
+        LocalCache<String, String> cache = new LocalCache<>(Duration.ofMinutes(5), 10, true);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        // Execute method under test
+        Optional<String> firstValue = cache.get("key", key -> Optional.of("value" + loadCount.incrementAndGet()));
+        Optional<String> secondValue = cache.get("key", key -> Optional.of("value" + loadCount.incrementAndGet()));
+
+        // Verify
+        assertEquals(Optional.of("value1"), firstValue, "Unexpected first value");
+        assertEquals(Optional.of("value1"), secondValue, "Unexpected second value");
+        assertEquals(1, loadCount.get(), "Unexpected load count");
+    }
+
+    @Test
+    public void get_Should_ReloadValue_When_EntryExpired() {
+        // Define variables
+        LocalCache<String, String> cache = new LocalCache<>(Duration.ZERO, 10, true);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        // Execute method under test
+        cache.get("key", key -> Optional.of("value" + loadCount.incrementAndGet()));
+        Optional<String> secondValue = cache.get("key", key -> Optional.of("value" + loadCount.incrementAndGet()));
+
+        // Verify
+        assertEquals(Optional.of("value2"), secondValue, "Unexpected second value");
+    }
+
+    @Test
+    public void get_Should_ReloadValue_When_EntryInvalidated() {
+        // Define variables
+        LocalCache<String, String> cache = new LocalCache<>(Duration.ofMinutes(5), 10, true);
+        AtomicInteger loadCount = new AtomicInteger();
+        cache.get("key", key -> Optional.of("value" + loadCount.incrementAndGet()));
+
+        // Execute method under test
+        cache.invalidate("key");
+        Optional<String> secondValue = cache.get("key", key -> Optional.of("value" + loadCount.incrementAndGet()));
+
+        // Verify
+        assertEquals(Optional.of("value2"), secondValue, "Unexpected second value");
+    }
+
+    @Test
+    public void get_Should_NotCacheMissingValue_When_LoaderReturnsEmpty() {
+        // Define variables
+        LocalCache<String, String> cache = new LocalCache<>(Duration.ofMinutes(5), 10, true);
+
+        // Execute method under test
+        Optional<String> firstValue = cache.get("key", key -> Optional.empty());
+        Optional<String> secondValue = cache.get("key", key -> Optional.of("value"));
+
+        // Verify
+        assertTrue(firstValue.isEmpty(), "Expected first value to be empty");
+        assertEquals(Optional.of("value"), secondValue, "Unexpected second value");
+    }
+
+    @Test
+    public void get_Should_AlwaysLoad_When_CacheDisabled() {
+        // Define variables
+        LocalCache<String, String> cache = new LocalCache<>(Duration.ofMinutes(5), 10, false);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        // Execute method under test
+        cache.get("key", key -> Optional.of("value" + loadCount.incrementAndGet()));
+        cache.get("key", key -> Optional.of("value" + loadCount.incrementAndGet()));
+
+        // Verify
+        assertEquals(2, loadCount.get(), "Unexpected load count");
+    }
+}
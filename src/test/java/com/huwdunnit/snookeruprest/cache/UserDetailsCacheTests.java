@@ -0,0 +1,57 @@
+package com.huwdunnit.snookeruprest.cache;
+
+import com.huwdunnit.snookeruprest.config.CacheProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the UserDetailsCache class.
+ *
+ * @author Huwdunnit
+ */
+public class UserDetailsCacheTests {
+
+    @Test
+    public void resolveTtl_Should_ReturnUserDetailsTtl_When_ChangeStreamsDisabled() {
+        // Define variables
+        CacheProperties cacheProperties = new CacheProperties();
+        cacheProperties.setTtl(Duration.ofMinutes(5));
+        cacheProperties.setUserDetailsTtl(Duration.ofSeconds(10));
+
+        // Execute method under test
+        Duration ttl = UserDetailsCache.resolveTtl(cacheProperties);
+
+        // Verify
+        assertEquals(Duration.ofSeconds(10), ttl);
+    }
+
+    @Test
+    public void resolveTtl_Should_ReturnCacheTtl_When_ChangeStreamsEnabled() {
+        // Define variables
+        CacheProperties cacheProperties = new CacheProperties();
+        cacheProperties.setTtl(Duration.ofMinutes(5));
+        cacheProperties.getChangeStreams().setEnabled(true);
+
+        // Execute method under test
+        Duration ttl = UserDetailsCache.resolveTtl(cacheProperties);
+
+        // Verify
+        assertEquals(Duration.ofMinutes(5), ttl);
+    }
+
+    @Test
+    public void resolveTtl_Should_ReturnCacheTtl_When_ShorterThanUserDetailsTtl() {
+        // Define variables
+        CacheProperties cacheProperties = new CacheProperties();
+        cacheProperties.setTtl(Duration.ofSeconds(1));
+
+        // Execute method under test
+        Duration ttl = UserDetailsCache.resolveTtl(cacheProperties);
+
+        // Verify
+        assertEquals(Duration.ofSeconds(1), ttl);
+    }
+}
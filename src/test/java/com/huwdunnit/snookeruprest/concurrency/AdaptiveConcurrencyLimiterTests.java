@@ -0,0 +1,133 @@
+package com.huwdunnit.snookeruprest.concurrency;
+
+import com.huwdunnit.snookeruprest.config.ConcurrencyLimitProperties.Limit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the AdaptiveConcurrencyLimiter class.
+ *
+ * @author Huwdunnit
+ */
+public class AdaptiveConcurrencyLimiterTests {
+
+    private static final long FAST_NANOS = Duration.ofMillis(10).toNanos();
+
+    private static final long SLOW_NANOS = Duration.ofSeconds(2).toNanos();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void tryAcquire_Should_RejectRequest_When_LimitReached() {
+        // Define variables
+        AdaptiveConcurrencyLimiter limiter = createLimiter(2, 1, 10);
+
+        // Execute method under test
+        boolean firstAcquired = limiter.tryAcquire();
+        boolean secondAcquired = limiter.tryAcquire();
+        boolean thirdAcquired = limiter.tryAcquire();
+
+        // Verify
+        assertTrue(firstAcquired);
+        assertTrue(secondAcquired);
+        assertFalse(thirdAcquired);
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, meterRegistry.get("snookerup.concurrency.rejected").tag("endpointClass", "STANDARD")
+                .counter().count());
+    }
+
+    @Test
+    public void release_Should_IncreaseLimit_When_FastAndLimitInUse() {
+        // Define variables
+        AdaptiveConcurrencyLimiter limiter = createLimiter(2, 1, 10);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        // Execute method under test
+        limiter.release(FAST_NANOS);
+
+        // Verify
+        assertEquals(3, limiter.getLimit());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    public void release_Should_NotIncreaseLimit_When_FastButLimitMostlyUnused() {
+        // Define variables
+        AdaptiveConcurrencyLimiter limiter = createLimiter(10, 1, 20);
+        limiter.tryAcquire();
+
+        // Execute method under test
+        limiter.release(FAST_NANOS);
+
+        // Verify
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    public void release_Should_DecreaseLimit_When_Slow() {
+        // Define variables
+        AdaptiveConcurrencyLimiter limiter = createLimiter(10, 1, 20);
+        limiter.tryAcquire();
+
+        // Execute method under test
+        limiter.release(SLOW_NANOS);
+
+        // Verify
+        assertEquals(5, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void release_Should_KeepLimitWithinBounds_When_RepeatedlyAdjusted() {
+        // Define variables
+        AdaptiveConcurrencyLimiter limiter = createLimiter(3, 2, 4);
+
+        // Execute method under test
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW_NANOS);
+        }
+        int limitAfterSlowRequests = limiter.getLimit();
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(FAST_NANOS);
+            limiter.release(FAST_NANOS);
+        }
+
+        // Verify
+        assertEquals(2, limitAfterSlowRequests);
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void releaseWithoutSample_Should_NotChangeLimit_When_Called() {
+        // Define variables
+        AdaptiveConcurrencyLimiter limiter = createLimiter(2, 1, 10);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        // Execute method under test
+        limiter.releaseWithoutSample();
+
+        // Verify
+        assertEquals(2, limiter.getLimit());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(int initialLimit, int minLimit, int maxLimit) {
+        Limit limit = new Limit(initialLimit, minLimit, maxLimit, Duration.ofSeconds(1), 0.5);
+        return new AdaptiveConcurrencyLimiter(EndpointClass.STANDARD, limit, meterRegistry);
+    }
+}
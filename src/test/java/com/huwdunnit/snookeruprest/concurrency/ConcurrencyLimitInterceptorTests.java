@@ -0,0 +1,117 @@
+package com.huwdunnit.snookeruprest.concurrency;
+
+import com.huwdunnit.snookeruprest.config.ConcurrencyLimitProperties;
+import com.huwdunnit.snookeruprest.exceptions.ServiceOverloadedException;
+import com.huwdunnit.snookeruprest.ratelimit.ExpensiveRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ConcurrencyLimitInterceptor class.
+ *
+ * @author Huwdunnit
+ */
+public class ConcurrencyLimitInterceptorTests {
+
+    private ConcurrencyLimitProperties properties;
+
+    private ConcurrencyLimits concurrencyLimits;
+
+    private ConcurrencyLimitInterceptor interceptor;
+
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void beforeEach() {
+        properties = new ConcurrencyLimitProperties();
+        properties.setEnabled(true);
+        properties.getAdmin().setInitialLimit(1);
+        concurrencyLimits = new ConcurrencyLimits(properties, new SimpleMeterRegistry());
+        interceptor = new ConcurrencyLimitInterceptor(properties, concurrencyLimits);
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void getEndpointClass_Should_ReturnClassForAnnotations_When_Called() throws Exception {
+        // Execute method under test
+        EndpointClass adminClass = ConcurrencyLimitInterceptor.getEndpointClass(
+                new HandlerMethod(new TestController(), "adminEndpoint"));
+        EndpointClass expensiveClass = ConcurrencyLimitInterceptor.getEndpointClass(
+                new HandlerMethod(new TestController(), "expensiveEndpoint"));
+        EndpointClass standardClass = ConcurrencyLimitInterceptor.getEndpointClass(
+                new HandlerMethod(new TestController(), "standardEndpoint"));
+
+        // Verify
+        assertEquals(EndpointClass.ADMIN, adminClass);
+        assertEquals(EndpointClass.EXPENSIVE, expensiveClass);
+        assertEquals(EndpointClass.STANDARD, standardClass);
+    }
+
+    @Test
+    public void preHandle_Should_ThrowServiceOverloadedException_When_AdminLimitReached() throws Exception {
+        // Define variables
+        HandlerMethod adminHandler = new HandlerMethod(new TestController(), "adminEndpoint");
+        HandlerMethod standardHandler = new HandlerMethod(new TestController(), "standardEndpoint");
+        interceptor.preHandle(new MockHttpServletRequest(), response, adminHandler);
+
+        // Execute method under test
+        assertThrows(ServiceOverloadedException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest(), response, adminHandler));
+        boolean standardProceeds = interceptor.preHandle(new MockHttpServletRequest(), response, standardHandler);
+
+        // Verify
+        assertTrue(standardProceeds, "Expected other requests to be unaffected by admin requests");
+    }
+
+    @Test
+    public void afterCompletion_Should_ReleaseLimit_When_RequestAcquiredIt() throws Exception {
+        // Define variables
+        HandlerMethod adminHandler = new HandlerMethod(new TestController(), "adminEndpoint");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        interceptor.preHandle(request, response, adminHandler);
+
+        // Execute method under test
+        interceptor.afterCompletion(request, response, adminHandler, null);
+
+        // Verify
+        assertEquals(0, concurrencyLimits.get(EndpointClass.ADMIN).getInFlight());
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), response, adminHandler));
+    }
+
+    @Test
+    public void afterCompletion_Should_NotReleaseLimit_When_RequestRejected() throws Exception {
+        // Define variables
+        HandlerMethod adminHandler = new HandlerMethod(new TestController(), "adminEndpoint");
+        interceptor.preHandle(new MockHttpServletRequest(), response, adminHandler);
+        MockHttpServletRequest rejectedRequest = new MockHttpServletRequest();
+        assertThrows(ServiceOverloadedException.class,
+                () -> interceptor.preHandle(rejectedRequest, response, adminHandler));
+
+        // Execute method under test
+        interceptor.afterCompletion(rejectedRequest, response, adminHandler, null);
+
+        // Verify
+        assertEquals(1, concurrencyLimits.get(EndpointClass.ADMIN).getInFlight());
+    }
+
+    private static class TestController {
+
+        @AdminQuery
+        @ExpensiveRequest
+        public void adminEndpoint() {
+        }
+
+        @ExpensiveRequest
+        public void expensiveEndpoint() {
+        }
+
+        public void standardEndpoint() {
+        }
+    }
+}
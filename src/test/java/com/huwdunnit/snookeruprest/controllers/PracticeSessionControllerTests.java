@@ -0,0 +1,94 @@
+package com.huwdunnit.snookeruprest.controllers;
+
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.db.PracticeSessionRepository;
+import com.huwdunnit.snookeruprest.model.PracticeSession;
+import com.huwdunnit.snookeruprest.model.PracticeSessionListResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the PracticeSessionController class.
+ *
+ * @author Huwdunnit
+ */
+public class PracticeSessionControllerTests {
+
+    private static final String PLAYER_ID = IdGenerator.createNewId();
+
+    private static final String ROUTINE_ID = IdGenerator.createNewId();
+
+    private PracticeSessionRepository mockPracticeSessionRepository;
+
+    private PracticeSessionController practiceSessionController;
+
+    @BeforeEach
+    public void beforeEach() {
+        mockPracticeSessionRepository = mock(PracticeSessionRepository.class);
+
+        practiceSessionController = new PracticeSessionController(mockPracticeSessionRepository);
+    }
+
+    @Test
+    public void getSessionsForUser_Should_ReturnPageOfSessions() {
+        // Define variables
+        int pageNumber = 1;
+        int pageSize = 2;
+        PageRequest pageRequest = PageRequest.of(pageNumber, pageSize);
+        List<PracticeSession> sessions = List.of(
+                getSession(LocalDateTime.of(2023, 3, 2, 18, 0), LocalDateTime.of(2023, 3, 2, 19, 0), 4),
+                getSession(LocalDateTime.of(2023, 3, 1, 18, 0), LocalDateTime.of(2023, 3, 1, 18, 30), 2));
+        PracticeSessionListResponse expectedResponse = new PracticeSessionListResponse(sessions, pageSize, pageNumber,
+                3, 5L);
+
+        // Set mock expectations
+        when(mockPracticeSessionRepository.findByUserIdOrderByEndDateTimeDesc(PLAYER_ID, pageRequest))
+                .thenReturn(new PageImpl<>(sessions, pageRequest, 5));
+
+        // Execute method under test
+        PracticeSessionListResponse sessionListResponse = practiceSessionController.getSessionsForUser(pageNumber,
+                pageSize, PLAYER_ID);
+
+        // Verify
+        assertEquals(expectedResponse, sessionListResponse);
+        verify(mockPracticeSessionRepository).findByUserIdOrderByEndDateTimeDesc(PLAYER_ID, pageRequest);
+    }
+
+    @Test
+    public void getSessionsForUser_Should_ReturnEmptyList_When_UserHasNoSessions() {
+        // Define variables
+        PageRequest pageRequest = PageRequest.of(0, 50);
+
+        // Set mock expectations
+        when(mockPracticeSessionRepository.findByUserIdOrderByEndDateTimeDesc(PLAYER_ID, pageRequest))
+                .thenReturn(new PageImpl<>(List.of(), pageRequest, 0));
+
+        // Execute method under test
+        PracticeSessionListResponse sessionListResponse = practiceSessionController.getSessionsForUser(0, 50,
+                PLAYER_ID);
+
+        // Verify
+        assertTrue(sessionListResponse.getSessions().isEmpty());
+        assertEquals(0L, sessionListResponse.getTotalItems());
+    }
+
+    private PracticeSession getSession(LocalDateTime start, LocalDateTime end, int scoreCount) {
+        PracticeSession session = new PracticeSession();
+        session.setId(IdGenerator.createNewId());
+        session.setUserId(PLAYER_ID);
+        session.setStartDateTime(start);
+        session.setEndDateTime(end);
+        session.setScoreCount(scoreCount);
+        session.setRoutineIds(Set.of(ROUTINE_ID));
+        return session;
+    }
+}
@@ -1,13 +1,18 @@
 package com.huwdunnit.snookeruprest.controllers;
 
+import com.huwdunnit.snookeruprest.cache.RoutineCache;
+import com.huwdunnit.snookeruprest.config.CacheProperties;
 import com.huwdunnit.snookeruprest.db.IdGenerator;
 import com.huwdunnit.snookeruprest.db.RoutineRepository;
+import com.huwdunnit.snookeruprest.events.CollectionChangedEvent;
 import com.huwdunnit.snookeruprest.exceptions.RoutineNotFoundException;
 import com.huwdunnit.snookeruprest.model.Balls;
+import com.huwdunnit.snookeruprest.model.ResponseView;
 import com.huwdunnit.snookeruprest.model.Routine;
 import com.huwdunnit.snookeruprest.model.RoutineListResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -52,13 +57,17 @@ public class RoutineControllerTests {
 
     private RoutineRepository mockRoutineRepository;
 
+    private ApplicationEventPublisher mockEventPublisher;
+
     private RoutineController routineController;
 
     @BeforeEach
     public void beforeEach() {
         mockRoutineRepository = mock(RoutineRepository.class);
 
-        routineController = new RoutineController(mockRoutineRepository);
+        mockEventPublisher = mock(ApplicationEventPublisher.class);
+        routineController = new RoutineController(mockRoutineRepository,
+                new RoutineCache(mockRoutineRepository, new CacheProperties()), mockEventPublisher);
     }
 
     @Test
@@ -79,6 +88,7 @@ public class RoutineControllerTests {
         assertEquals(expectedRoutine, addedRoutine);
 
         verify(mockRoutineRepository).insert(any(Routine.class));
+        verify(mockEventPublisher).publishEvent(new CollectionChangedEvent("routine", expectedRoutine.getId()));
     }
 
     @Test
@@ -118,7 +128,7 @@ public class RoutineControllerTests {
         when(mockRoutinesPage.getTotalElements()).thenReturn(2L);
 
         // Execute method under test
-        RoutineListResponse routinesResponse = routineController.getRoutines(0, 50, Optional.empty());
+        RoutineListResponse routinesResponse = routineController.getRoutines(0, 50, Optional.empty(), ResponseView.FULL);
 
         // Verify
         assertEquals(2, routinesResponse.getRoutines().size());
@@ -144,7 +154,7 @@ public class RoutineControllerTests {
         when(mockRoutinesPage.getTotalElements()).thenReturn(0L);
 
         // Execute method under test
-        RoutineListResponse routinesResponse = routineController.getRoutines(0, 50, Optional.empty());
+        RoutineListResponse routinesResponse = routineController.getRoutines(0, 50, Optional.empty(), ResponseView.FULL);
 
         // Verify
         assertEquals(0, routinesResponse.getRoutines().size());
@@ -172,7 +182,7 @@ public class RoutineControllerTests {
         when(mockRoutinesPage.getTotalElements()).thenReturn(3L);
 
         // Execute method under test
-        RoutineListResponse routinesResponse = routineController.getRoutines(0, 2, Optional.empty());
+        RoutineListResponse routinesResponse = routineController.getRoutines(0, 2, Optional.empty(), ResponseView.FULL);
 
         // Verify
         assertEquals(2, routinesResponse.getRoutines().size());
@@ -201,7 +211,7 @@ public class RoutineControllerTests {
         when(mockRoutinesPage.getTotalElements()).thenReturn(1L);
 
         // Execute method under test
-        RoutineListResponse routinesResponse = routineController.getRoutines(0, 50, Optional.of(tagList));
+        RoutineListResponse routinesResponse = routineController.getRoutines(0, 50, Optional.of(tagList), ResponseView.FULL);
 
         // Verify
         assertEquals(1, routinesResponse.getRoutines().size());
@@ -212,6 +222,26 @@ public class RoutineControllerTests {
         assertEquals(1L, routinesResponse.getTotalItems());
     }
 
+    @Test
+    public void getRoutines_Should_ReadOnlySummaryFields_When_SummaryViewRequested() {
+        // Define variables
+        Routine lineUpSummary = Routine.builder().id(IdGenerator.createNewId()).title("The Line Up").build();
+        Page<Routine> mockRoutinesPage = mock(Page.class);
+
+        // Set mock expectations
+        when(mockRoutineRepository.findAllSummaries(any(Pageable.class))).thenReturn(mockRoutinesPage);
+        when(mockRoutinesPage.getContent()).thenReturn(List.of(lineUpSummary));
+
+        // Execute method under test
+        RoutineListResponse routinesResponse = routineController.getRoutines(0, 50, Optional.empty(), ResponseView.SUMMARY);
+
+        // Verify
+        assertEquals(List.of(lineUpSummary), routinesResponse.getRoutines());
+
+        verify(mockRoutineRepository).findAllSummaries(any(Pageable.class));
+        verify(mockRoutineRepository, never()).findAll(any(Pageable.class));
+    }
+
     @Test
     public void getRoutineById_Should_ReturnRoutine_When_RoutineWithIdExists() {
         // Define variables
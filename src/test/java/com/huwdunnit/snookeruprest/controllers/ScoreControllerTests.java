@@ -1,25 +1,53 @@
 package com.huwdunnit.snookeruprest.controllers;
 
+import com.huwdunnit.snookeruprest.archive.ArchivedScorePage;
+import com.huwdunnit.snookeruprest.archive.ScoreArchive;
+import com.huwdunnit.snookeruprest.bests.PersonalBestTable;
+import com.huwdunnit.snookeruprest.cache.RoutineCache;
+import com.huwdunnit.snookeruprest.config.CacheProperties;
 import com.huwdunnit.snookeruprest.db.IdGenerator;
 import com.huwdunnit.snookeruprest.db.RoutineRepository;
 import com.huwdunnit.snookeruprest.db.ScoreRepository;
+import com.huwdunnit.snookeruprest.events.PersonalBestEvent;
+import com.huwdunnit.snookeruprest.events.ScoreAddedEvent;
+import com.huwdunnit.snookeruprest.events.ScoresDeletedEvent;
+import com.huwdunnit.snookeruprest.exceptions.IdempotencyKeyReusedException;
+import com.huwdunnit.snookeruprest.exceptions.InvalidRequestParameterException;
 import com.huwdunnit.snookeruprest.exceptions.InvalidScoreFieldException;
+import com.huwdunnit.snookeruprest.exceptions.QueryTooExpensiveException;
 import com.huwdunnit.snookeruprest.exceptions.RoutineForScoreNotFoundException;
 import com.huwdunnit.snookeruprest.exceptions.ScoreNotFoundException;
+import com.huwdunnit.snookeruprest.config.ScoreIngestProperties;
+import com.huwdunnit.snookeruprest.guard.QueryCostGuard;
+import com.huwdunnit.snookeruprest.ingest.IdempotencyKeyCache;
+import com.huwdunnit.snookeruprest.ingest.ScoreWriteBuffer;
 import com.huwdunnit.snookeruprest.model.*;
 import com.huwdunnit.snookeruprest.security.UserPrincipal;
+import com.mongodb.MongoExecutionTimeoutException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.verify;
 
@@ -48,6 +76,16 @@ public class ScoreControllerTests {
 
     private RoutineRepository mockRoutineRepository;
 
+    private ScoreArchive mockScoreArchive;
+
+    private ScoreWriteBuffer mockScoreWriteBuffer;
+
+    private ApplicationEventPublisher mockEventPublisher;
+
+    private QueryCostGuard mockQueryCostGuard;
+
+    private PersonalBestTable mockPersonalBestTable;
+
     private Routine mockRoutine;
 
     private ScoreController scoreController;
@@ -56,9 +94,17 @@ public class ScoreControllerTests {
     public void beforeEach() {
         mockScoreRepository = mock(ScoreRepository.class);
         mockRoutineRepository = mock(RoutineRepository.class);
+        mockScoreArchive = mock(ScoreArchive.class);
+        mockScoreWriteBuffer = mock(ScoreWriteBuffer.class);
+        mockEventPublisher = mock(ApplicationEventPublisher.class);
+        mockQueryCostGuard = mock(QueryCostGuard.class);
+        mockPersonalBestTable = mock(PersonalBestTable.class);
         mockRoutine = mock(Routine.class);
 
-        scoreController = new ScoreController(mockScoreRepository, mockRoutineRepository);
+        scoreController = new ScoreController(mockScoreRepository,
+                new RoutineCache(mockRoutineRepository, new CacheProperties()), mockScoreArchive,
+                mockScoreWriteBuffer, new IdempotencyKeyCache(new ScoreIngestProperties()), mockEventPublisher,
+                mockQueryCostGuard, mockPersonalBestTable);
     }
 
     @Test
@@ -73,7 +119,7 @@ public class ScoreControllerTests {
 
         // Execute method under test
         try {
-            Score addedScore = scoreController.addScore(scoreToAdd);
+            Score addedScore = scoreController.addScore(scoreToAdd, Optional.empty());
             fail("Expected RoutineForScoreNotFoundException");
         } catch (RoutineForScoreNotFoundException ex) {
             // Expected exception, i.e. test pass
@@ -95,7 +141,7 @@ public class ScoreControllerTests {
 
         // Execute method under test
         try {
-            Score addedScore = scoreController.addScore(scoreToAdd);
+            Score addedScore = scoreController.addScore(scoreToAdd, Optional.empty());
             fail("Expected InvalidScoreFieldException");
         } catch (InvalidScoreFieldException ex) {
             // Expected exception, i.e. test pass
@@ -117,7 +163,7 @@ public class ScoreControllerTests {
 
         // Execute method under test
         try {
-            Score addedScore = scoreController.addScore(scoreToAdd);
+            Score addedScore = scoreController.addScore(scoreToAdd, Optional.empty());
             fail("Expected InvalidScoreFieldException");
         } catch (InvalidScoreFieldException ex) {
             // Expected exception, i.e. test pass
@@ -139,7 +185,7 @@ public class ScoreControllerTests {
 
         // Execute method under test
         try {
-            Score addedScore = scoreController.addScore(scoreToAdd);
+            Score addedScore = scoreController.addScore(scoreToAdd, Optional.empty());
             fail("Expected InvalidScoreFieldException");
         } catch (InvalidScoreFieldException ex) {
             // Expected exception, i.e. test pass
@@ -161,7 +207,7 @@ public class ScoreControllerTests {
 
         // Execute method under test
         try {
-            Score addedScore = scoreController.addScore(scoreToAdd);
+            Score addedScore = scoreController.addScore(scoreToAdd, Optional.empty());
             fail("Expected InvalidScoreFieldException");
         } catch (InvalidScoreFieldException ex) {
             // Expected exception, i.e. test pass
@@ -195,7 +241,7 @@ public class ScoreControllerTests {
         when(mockRoutine.isCanLoop()).thenReturn(true);
 
         // Execute method under test
-        Score addedScore = scoreController.addScore(scoreToAdd);
+        Score addedScore = scoreController.addScore(scoreToAdd, Optional.empty());
 
         // Verify
         assertNotNull(addedScore);
@@ -217,13 +263,171 @@ public class ScoreControllerTests {
         when(mockScoreRepository.insert(any(Score.class))).thenReturn(expectedScore);
 
         // Execute method under test
-        Score addedScore = scoreController.addScore(scoreToAdd);
+        Score addedScore = scoreController.addScore(scoreToAdd, Optional.empty());
 
         // Verify
         assertNotNull(addedScore);
         assertEquals(expectedScore, addedScore);
 
         verify(mockScoreRepository).insert(any(Score.class));
+        verify(mockEventPublisher).publishEvent(new ScoreAddedEvent(expectedScore));
+    }
+
+    @Test
+    public void addScore_Should_AddScoreThroughWriteBuffer_When_WriteBehindEnabled() {
+        // Define variables
+        Score scoreToAdd = getScoreToAddWithoutDateTimeSet();
+        scoreToAdd.setDateTime(LocalDateTime.parse(DATE_STRING_1, DATE_FORMATTER));
+        Score expectedScore = getScoreToAddWithoutDateTimeSet();
+        expectedScore.setDateTime(LocalDateTime.parse(DATE_STRING_1, DATE_FORMATTER));
+
+        // Set mock expectations
+        when(mockRoutineRepository.findById(ROUTINE_ID_1)).thenReturn(Optional.of(mockRoutine));
+        when(mockScoreWriteBuffer.isEnabled()).thenReturn(true);
+        when(mockScoreWriteBuffer.insert(any(Score.class))).thenReturn(expectedScore);
+
+        // Execute method under test
+        Score addedScore = scoreController.addScore(scoreToAdd, Optional.empty());
+
+        // Verify
+        assertEquals(expectedScore, addedScore);
+
+        verify(mockScoreWriteBuffer).insert(any(Score.class));
+        verify(mockScoreRepository, never()).insert(any(Score.class));
+    }
+
+    @Test
+    public void addScore_Should_ReturnOriginalScoreWithoutInserting_When_IdempotencyKeyAlreadyUsed() {
+        // Define variables
+        String idempotencyKey = IdGenerator.createNewId();
+        Score scoreToAdd = getScoreToAddWithoutDateTimeSet();
+        Score retriedScore = getScoreToAddWithoutDateTimeSet();
+        Score expectedScore = getScoreToAddWithoutDateTimeSet();
+        expectedScore.setId(IdGenerator.createNewId());
+        expectedScore.setDateTime(LocalDateTime.parse(DATE_STRING_1, DATE_FORMATTER));
+
+        // Set mock expectations
+        when(mockRoutineRepository.findById(ROUTINE_ID_1)).thenReturn(Optional.of(mockRoutine));
+        when(mockScoreRepository.findByUserIdAndIdempotencyKey(PLAYER_ID_1, idempotencyKey)).thenReturn(Optional.empty());
+        when(mockScoreRepository.insert(any(Score.class))).thenReturn(expectedScore);
+
+        // Execute method under test
+        Score addedScore = scoreController.addScore(scoreToAdd, Optional.of(idempotencyKey));
+        Score retriedAddedScore = scoreController.addScore(retriedScore, Optional.of(idempotencyKey));
+
+        // Verify
+        assertEquals(expectedScore, addedScore);
+        assertEquals(expectedScore, retriedAddedScore);
+        assertEquals(idempotencyKey, scoreToAdd.getIdempotencyKey());
+
+        verify(mockScoreRepository, times(1)).insert(any(Score.class));
+    }
+
+    @Test
+    public void addScore_Should_ReturnScoreFromDb_When_IdempotencyKeyUsedInEarlierRequest() {
+        // Define variables
+        String idempotencyKey = IdGenerator.createNewId();
+        Score scoreToAdd = getScoreToAddWithoutDateTimeSet();
+        Score existingScore = getScoreOne();
+        existingScore.setId(IdGenerator.createNewId());
+
+        // Set mock expectations
+        when(mockRoutineRepository.findById(ROUTINE_ID_1)).thenReturn(Optional.of(mockRoutine));
+        when(mockScoreRepository.findByUserIdAndIdempotencyKey(PLAYER_ID_1, idempotencyKey))
+                .thenReturn(Optional.of(existingScore));
+
+        when(mockPersonalBestTable.isPersonalBest(existingScore)).thenReturn(true);
+
+        // Execute method under test
+        Score addedScore = scoreController.addScore(scoreToAdd, Optional.of(idempotencyKey));
+
+        // Verify
+        assertEquals(existingScore, addedScore);
+        assertTrue(addedScore.getPersonalBest());
+
+        verify(mockScoreRepository, never()).insert(any(Score.class));
+        verify(mockPersonalBestTable, never()).recordScore(any(Score.class));
+        verifyNoInteractions(mockEventPublisher);
+    }
+
+    @Test
+    public void addScore_Should_ThrowIdempotencyKeyReusedException_When_IdempotencyKeyUsedForDifferentScore() {
+        // Define variables
+        String idempotencyKey = IdGenerator.createNewId();
+        Score scoreToAdd = getScoreToAddWithoutDateTimeSet();
+        scoreToAdd.setValue(50);
+        Score existingScore = getScoreOne();
+        existingScore.setId(IdGenerator.createNewId());
+
+        // Set mock expectations
+        when(mockRoutineRepository.findById(ROUTINE_ID_1)).thenReturn(Optional.of(mockRoutine));
+        when(mockScoreRepository.findByUserIdAndIdempotencyKey(PLAYER_ID_1, idempotencyKey))
+                .thenReturn(Optional.of(existingScore));
+
+        // Execute method under test
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> scoreController.addScore(scoreToAdd, Optional.of(idempotencyKey)));
+
+        // Verify
+        verify(mockScoreRepository, never()).insert(any(Score.class));
+    }
+
+    @Test
+    public void addScore_Should_ThrowIdempotencyKeyReusedException_When_RetryHasDifferentDateTime() {
+        // Define variables
+        String idempotencyKey = IdGenerator.createNewId();
+        Score scoreToAdd = getScoreTwo();
+        scoreToAdd.setUserId(PLAYER_ID_1);
+        scoreToAdd.setRoutineId(ROUTINE_ID_1);
+        scoreToAdd.setValue(100);
+        Score existingScore = getScoreOne();
+        existingScore.setId(IdGenerator.createNewId());
+
+        // Set mock expectations
+        when(mockRoutineRepository.findById(ROUTINE_ID_1)).thenReturn(Optional.of(mockRoutine));
+        when(mockScoreRepository.findByUserIdAndIdempotencyKey(PLAYER_ID_1, idempotencyKey))
+                .thenReturn(Optional.of(existingScore));
+
+        // Execute method under test and verify
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> scoreController.addScore(scoreToAdd, Optional.of(idempotencyKey)));
+    }
+
+    @Test
+    public void addScore_Should_ThrowInvalidRequestParameterException_When_IdempotencyKeyInvalid() {
+        // Define variables
+        Score scoreToAdd = getScoreToAddWithoutDateTimeSet();
+        List<String> invalidKeys = List.of("", "  ", "a".repeat(256), "key\u00e9", "key\ttab");
+
+        // Execute method under test and verify
+        for (String invalidKey : invalidKeys) {
+            InvalidRequestParameterException ex = assertThrows(InvalidRequestParameterException.class,
+                    () -> scoreController.addScore(scoreToAdd, Optional.of(invalidKey)));
+            assertEquals(ScoreController.IDEMPOTENCY_KEY_HEADER, ex.getParameterName());
+        }
+
+        verifyNoInteractions(mockScoreRepository);
+    }
+
+    @Test
+    public void addScore_Should_AddScore_When_IdempotencyKeyIs255PrintableCharacters() {
+        // Define variables
+        String idempotencyKey = "a b~".repeat(63) + "xyz";
+        Score scoreToAdd = getScoreToAddWithoutDateTimeSet();
+        Score expectedScore = getScoreToAddWithoutDateTimeSet();
+        expectedScore.setId(IdGenerator.createNewId());
+
+        // Set mock expectations
+        when(mockRoutineRepository.findById(ROUTINE_ID_1)).thenReturn(Optional.of(mockRoutine));
+        when(mockScoreRepository.findByUserIdAndIdempotencyKey(PLAYER_ID_1, idempotencyKey)).thenReturn(Optional.empty());
+        when(mockScoreRepository.insert(any(Score.class))).thenReturn(expectedScore);
+
+        // Execute method under test
+        Score addedScore = scoreController.addScore(scoreToAdd, Optional.of(idempotencyKey));
+
+        // Verify
+        assertEquals(expectedScore, addedScore);
+        assertEquals(255, idempotencyKey.length());
     }
 
     @Test
@@ -238,7 +442,7 @@ public class ScoreControllerTests {
         when(mockScoreRepository.insert(any(Score.class))).thenReturn(expectedScore);
 
         // Execute method under test
-        Score addedScore = scoreController.addScore(scoreToAdd);
+        Score addedScore = scoreController.addScore(scoreToAdd, Optional.empty());
 
         // Verify
         assertNotNull(addedScore);
@@ -247,6 +451,93 @@ public class ScoreControllerTests {
         verify(mockScoreRepository).insert(any(Score.class));
     }
 
+    @Test
+    public void addScore_Should_FlagScoreAndPublishEvent_When_ScoreIsPersonalBest() {
+        // Define variables
+        Score scoreToAdd = getScoreToAddWithoutDateTimeSet();
+        scoreToAdd.setDateTime(LocalDateTime.parse(DATE_STRING_1, DATE_FORMATTER));
+        Score expectedScore = getScoreToAddWithoutDateTimeSet();
+        expectedScore.setDateTime(LocalDateTime.parse(DATE_STRING_1, DATE_FORMATTER));
+
+        // Set mock expectations
+        when(mockRoutineRepository.findById(ROUTINE_ID_1)).thenReturn(Optional.of(mockRoutine));
+        when(mockScoreRepository.insert(any(Score.class))).thenReturn(expectedScore);
+        when(mockPersonalBestTable.recordScore(expectedScore)).thenReturn(true);
+
+        // Execute method under test
+        Score addedScore = scoreController.addScore(scoreToAdd, Optional.empty());
+
+        // Verify
+        assertTrue(addedScore.getPersonalBest());
+        verify(mockEventPublisher).publishEvent(new PersonalBestEvent(expectedScore));
+    }
+
+    @Test
+    public void addScore_Should_NotPublishPersonalBestEvent_When_ScoreIsNotPersonalBest() {
+        // Define variables
+        Score scoreToAdd = getScoreToAddWithoutDateTimeSet();
+        scoreToAdd.setDateTime(LocalDateTime.parse(DATE_STRING_1, DATE_FORMATTER));
+        Score expectedScore = getScoreToAddWithoutDateTimeSet();
+        expectedScore.setDateTime(LocalDateTime.parse(DATE_STRING_1, DATE_FORMATTER));
+
+        // Set mock expectations
+        when(mockRoutineRepository.findById(ROUTINE_ID_1)).thenReturn(Optional.of(mockRoutine));
+        when(mockScoreRepository.insert(any(Score.class))).thenReturn(expectedScore);
+        when(mockPersonalBestTable.recordScore(expectedScore)).thenReturn(false);
+
+        // Execute method under test
+        Score addedScore = scoreController.addScore(scoreToAdd, Optional.empty());
+
+        // Verify
+        assertFalse(addedScore.getPersonalBest());
+        verify(mockEventPublisher, never()).publishEvent(any(PersonalBestEvent.class));
+    }
+
+    @Test
+    public void addScore_Should_ReturnScoreAndPublishEvent_When_RecordingPersonalBestFails() {
+        // Define variables
+        Score scoreToAdd = getScoreToAddWithoutDateTimeSet();
+        scoreToAdd.setDateTime(LocalDateTime.parse(DATE_STRING_1, DATE_FORMATTER));
+        Score expectedScore = getScoreToAddWithoutDateTimeSet();
+        expectedScore.setDateTime(LocalDateTime.parse(DATE_STRING_1, DATE_FORMATTER));
+
+        // Set mock expectations
+        when(mockRoutineRepository.findById(ROUTINE_ID_1)).thenReturn(Optional.of(mockRoutine));
+        when(mockScoreRepository.insert(any(Score.class))).thenReturn(expectedScore);
+        when(mockPersonalBestTable.recordScore(expectedScore))
+                .thenThrow(new DataAccessResourceFailureException("Failed"));
+
+        // Execute method under test
+        Score addedScore = scoreController.addScore(scoreToAdd, Optional.empty());
+
+        // Verify
+        assertEquals(expectedScore, addedScore);
+        assertNull(addedScore.getPersonalBest());
+        verify(mockEventPublisher).publishEvent(new ScoreAddedEvent(expectedScore));
+        verify(mockEventPublisher, never()).publishEvent(any(PersonalBestEvent.class));
+    }
+
+    @Test
+    public void addScore_Should_ReturnScore_When_ScoreAddedListenerFails() {
+        // Define variables
+        Score scoreToAdd = getScoreToAddWithoutDateTimeSet();
+        scoreToAdd.setDateTime(LocalDateTime.parse(DATE_STRING_1, DATE_FORMATTER));
+        Score expectedScore = getScoreToAddWithoutDateTimeSet();
+        expectedScore.setDateTime(LocalDateTime.parse(DATE_STRING_1, DATE_FORMATTER));
+
+        // Set mock expectations
+        when(mockRoutineRepository.findById(ROUTINE_ID_1)).thenReturn(Optional.of(mockRoutine));
+        when(mockScoreRepository.insert(any(Score.class))).thenReturn(expectedScore);
+        doThrow(new IllegalStateException("Failed")).when(mockEventPublisher)
+                .publishEvent(any(ScoreAddedEvent.class));
+
+        // Execute method under test
+        Score addedScore = scoreController.addScore(scoreToAdd, Optional.empty());
+
+        // Verify
+        assertEquals(expectedScore, addedScore);
+    }
+
     @Test
     public void getScoresForUser_Should_RespondWithOneScore_When_OnlyOneScoreInDbForUser() {
         // Define variables
@@ -257,10 +548,10 @@ public class ScoreControllerTests {
         LocalDateTime toDate = LocalDateTime.parse(toDateString, DATE_FORMATTER);
 
         // Set mock expectations
-        when(mockScoreRepository.findWithOptionalRoutineIdAndUserIdAndScoreParams(
+        when(mockScoreRepository.findByUserIdWithOptionalRoutineIdAndScoreParams(
                     any(Pageable.class),
+                    eq(PLAYER_ID_2),
                     eq(Optional.empty()),
-                    eq(Optional.of(PLAYER_ID_2)),
                     eq(Optional.empty()),
                     eq(Optional.empty()),
                     eq(Optional.empty()),
@@ -282,7 +573,8 @@ public class ScoreControllerTests {
                 Optional.empty(),
                 Optional.empty(),
                 Optional.empty(),
-                Optional.empty());
+                Optional.empty(),
+                ResponseView.FULL);
 
         // Verify
         assertEquals(1, scoresResponse.getScores().size());
@@ -293,6 +585,64 @@ public class ScoreControllerTests {
         assertEquals(1L, scoresResponse.getTotalItems());
     }
 
+    @Test
+    public void getScoresForUser_Should_CombineArchivedAndDbScores_When_QueryReachesIntoArchive() {
+        // Define variables
+        Score archivedScore = getScoreOne();
+        archivedScore.setId(IdGenerator.createNewId());
+        archivedScore.setUserId(PLAYER_ID_2);
+        Score dbScore = getScoreTwo();
+        dbScore.setId(IdGenerator.createNewId());
+        Page<Score> mockScoresPage = mock(Page.class);
+
+        // Set mock expectations
+        when(mockScoreArchive.reachesIntoArchive(Optional.empty())).thenReturn(true);
+        when(mockScoreArchive.findScorePage(
+                    PLAYER_ID_2,
+                    Optional.empty(),
+                    Optional.empty(),
+                    Optional.empty(),
+                    Optional.empty(),
+                    Optional.empty(),
+                    Optional.empty(),
+                    Optional.empty(),
+                    0L,
+                    50
+                )).thenReturn(new ArchivedScorePage(ScorePage.of(List.of(archivedScore)), 1L));
+        when(mockScoreRepository.findByUserIdWithOptionalRoutineIdAndScoreParams(
+                    argThat(pageable -> pageable.getOffset() == 0 && pageable.getPageSize() == 49),
+                    eq(PLAYER_ID_2),
+                    eq(Optional.empty()),
+                    eq(Optional.empty()),
+                    eq(Optional.empty()),
+                    eq(Optional.empty()),
+                    eq(Optional.empty())
+                )).thenReturn(mockScoresPage);
+        when(mockScoresPage.getContent()).thenReturn(List.of(dbScore));
+        when(mockScoresPage.getTotalElements()).thenReturn(1L);
+
+        // Execute method under test
+        ScoreListResponse scoresResponse = scoreController.getScoresForUser(
+                0,
+                50,
+                Optional.empty(),
+                Optional.empty(),
+                PLAYER_ID_2,
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                ResponseView.FULL);
+
+        // Verify
+        assertEquals(List.of(archivedScore, dbScore), scoresResponse.getScores());
+        assertEquals(0, scoresResponse.getPageNumber());
+        assertEquals(50, scoresResponse.getPageSize());
+        assertEquals(1, scoresResponse.getTotalPages());
+        assertEquals(2L, scoresResponse.getTotalItems());
+    }
+
     @Test
     public void getScoresForUser_Should_RespondWithOneScore_When_RoutineIdProvidedAndOnlyOneMatchingScore() {
         // Define variables
@@ -303,10 +653,10 @@ public class ScoreControllerTests {
         LocalDateTime toDate = LocalDateTime.parse(toDateString, DATE_FORMATTER);
 
         // Set mock expectations
-        when(mockScoreRepository.findWithOptionalRoutineIdAndUserIdAndScoreParams(
+        when(mockScoreRepository.findByUserIdWithOptionalRoutineIdAndScoreParams(
                     any(Pageable.class),
+                    eq(PLAYER_ID_2),
                     eq(Optional.of(ROUTINE_ID_2)),
-                    eq(Optional.of(PLAYER_ID_2)),
                     eq(Optional.empty()),
                     eq(Optional.empty()),
                     eq(Optional.empty()),
@@ -329,7 +679,8 @@ public class ScoreControllerTests {
                 Optional.empty(),
                 Optional.empty(),
                 Optional.empty(),
-                Optional.empty());
+                Optional.empty(),
+                ResponseView.FULL);
 
         // Verify
         assertEquals(1, scoresResponse.getScores().size());
@@ -346,10 +697,10 @@ public class ScoreControllerTests {
         Page<Score> mockScoresPage = mock(Page.class);
 
         // Set mock expectations
-        when(mockScoreRepository.findWithOptionalRoutineIdAndUserIdAndScoreParams(
+        when(mockScoreRepository.findByUserIdWithOptionalRoutineIdAndScoreParams(
                     any(Pageable.class),
+                    eq(PLAYER_ID_2),
                     eq(Optional.of(ROUTINE_ID_1)),
-                    eq(Optional.of(PLAYER_ID_2)),
                     eq(Optional.empty()),
                     eq(Optional.empty()),
                     eq(Optional.empty()),
@@ -372,7 +723,8 @@ public class ScoreControllerTests {
                 Optional.empty(),
                 Optional.empty(),
                 Optional.empty(),
-                Optional.empty());
+                Optional.empty(),
+                ResponseView.FULL);
 
         // Verify
         assertEquals(0, scoresResponse.getScores().size());
@@ -392,10 +744,10 @@ public class ScoreControllerTests {
         boolean loop = true;
 
         // Set mock expectations
-        when(mockScoreRepository.findWithOptionalRoutineIdAndUserIdAndScoreParams(
+        when(mockScoreRepository.findByUserIdWithOptionalRoutineIdAndScoreParams(
                 any(Pageable.class),
+                eq(PLAYER_ID_2),
                 eq(Optional.of(ROUTINE_ID_1)),
-                eq(Optional.of(PLAYER_ID_2)),
                 eq(Optional.of(cushionLimit)),
                 eq(Optional.of(colours)),
                 eq(Optional.of(numBalls)),
@@ -418,7 +770,8 @@ public class ScoreControllerTests {
                 Optional.of(cushionLimit),
                 Optional.of(colours),
                 Optional.of(numBalls),
-                Optional.of(loop));
+                Optional.of(loop),
+                ResponseView.FULL);
 
         // Verify
         assertEquals(0, scoresResponse.getScores().size());
@@ -560,6 +913,56 @@ public class ScoreControllerTests {
         assertEquals(0L, scoresResponse.getTotalItems());
     }
 
+    @Test
+    public void getScores_Should_ThrowQueryTooExpensiveException_When_ScoreCollectionTooLargeToScan() {
+        // Set mock expectations
+        doThrow(new QueryTooExpensiveException("Too large")).when(mockQueryCostGuard)
+                .checkUnindexedScan(Score.class, false);
+
+        // Execute method under test
+        assertThrows(QueryTooExpensiveException.class, () -> scoreController.getScores(
+                0,
+                50,
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty()));
+
+        // Verify
+        verifyNoInteractions(mockScoreRepository);
+    }
+
+    @Test
+    public void getScores_Should_ThrowQueryTooExpensiveException_When_DateRangedQueryExceedsTimeLimit() {
+        // Define variables
+        LocalDateTime from = LocalDateTime.of(2023, 1, 1, 0, 0);
+        Pageable pageConstraints = PageRequest.of(0, 50);
+
+        // Set mock expectations
+        when(mockScoreRepository.findFromDateWithOptionalRoutineIdAndUserIdAndScoreParams(pageConstraints, from,
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                Optional.empty())).thenThrow(new UncategorizedMongoDbException("Timed out",
+                new MongoExecutionTimeoutException(50, "operation exceeded time limit")));
+
+        // Execute method under test
+        assertThrows(QueryTooExpensiveException.class, () -> scoreController.getScores(
+                0,
+                50,
+                Optional.of(from),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty()));
+
+        // Verify
+        verify(mockQueryCostGuard).checkUnindexedScan(Score.class, true);
+    }
+
     @Test
     public void getScores_Should_RespondWithTwoScoresAndOneFurtherPage_When_ThreeScoresInDb() {
         // Define variables
@@ -872,6 +1275,29 @@ public class ScoreControllerTests {
         verify(mockScoreRepository).findById(scoreId);
     }
 
+    @Test
+    public void getScoreById_Should_LookUpByIdAndUserId_When_ScoreIdIncludesUserIdAndAdminUser() {
+        // Define variables
+        String scoreId = IdGenerator.createNewScoreId(PLAYER_ID_1);
+        Score scoreOne = getScoreOne();
+        scoreOne.setId(scoreId);
+        User adminUser = new User();
+        adminUser.setAdmin(true);
+        UserPrincipal userPrincipal = new UserPrincipal(adminUser);
+
+        // Set mock expectations
+        when(mockScoreRepository.findByIdAndUserId(scoreId, PLAYER_ID_1)).thenReturn(Optional.of(scoreOne));
+
+        // Execute method under test
+        Score returnedScore = scoreController.getScoreById(scoreId, userPrincipal);
+
+        // Verify
+        assertEquals(scoreOne, returnedScore);
+
+        verify(mockScoreRepository).findByIdAndUserId(scoreId, PLAYER_ID_1);
+        verify(mockScoreRepository, never()).findById(any());
+    }
+
     @Test
     public void getScoreById_Should_ReturnScore_When_ScoreWithIdExistsAndIsOwnedByUser() {
         // Define variables
@@ -920,6 +1346,102 @@ public class ScoreControllerTests {
         assertNull(returnedScore);
     }
 
+    @Test
+    public void getScoresForUser_Should_PageOnFromArchiveIntoSortedDbScores_When_PagesCrossArchiveBoundary() {
+        // Define variables
+        Score lastArchivedScore = getScoreOne();
+        lastArchivedScore.setId(IdGenerator.createNewScoreId(PLAYER_ID_2));
+        Score firstDbScore = getScoreTwo();
+        firstDbScore.setId(IdGenerator.createNewScoreId(PLAYER_ID_2));
+        Score secondDbScore = getScoreTwo();
+        secondDbScore.setId(IdGenerator.createNewScoreId(PLAYER_ID_2));
+        Score thirdDbScore = getScoreTwo();
+        thirdDbScore.setId(IdGenerator.createNewScoreId(PLAYER_ID_2));
+        Page<Score> firstDbPage = new PageImpl<>(List.of(firstDbScore, secondDbScore), PageRequest.of(0, 2), 3);
+        Page<Score> secondDbPage = new PageImpl<>(List.of(thirdDbScore), PageRequest.of(1, 2), 3);
+
+        // Set mock expectations
+        // 4 archived scores, then 3 in the DB, so the second page of 3 is the last archived score, then 2 from the DB
+        when(mockScoreArchive.reachesIntoArchive(Optional.empty())).thenReturn(true);
+        when(mockScoreArchive.findScorePage(eq(PLAYER_ID_2), any(), any(), any(), any(), any(), any(), any(),
+                eq(3L), eq(3))).thenReturn(new ArchivedScorePage(ScorePage.of(List.of(lastArchivedScore)), 4L));
+        when(mockScoreArchive.findScorePage(eq(PLAYER_ID_2), any(), any(), any(), any(), any(), any(), any(),
+                eq(6L), eq(3))).thenReturn(new ArchivedScorePage(ScorePage.of(List.of()), 4L));
+        when(mockScoreRepository.findByUserIdWithOptionalRoutineIdAndScoreParams(
+                    argThat(pageable -> pageable != null && pageable.getOffset() == 0
+                            && pageable.getPageSize() == 2),
+                    eq(PLAYER_ID_2), any(), any(), any(), any(), any()
+                )).thenReturn(firstDbPage);
+        when(mockScoreRepository.findByUserIdWithOptionalRoutineIdAndScoreParams(
+                    argThat(pageable -> pageable != null && pageable.getOffset() == 2
+                            && pageable.getPageSize() == 3),
+                    eq(PLAYER_ID_2), any(), any(), any(), any(), any()
+                )).thenReturn(secondDbPage);
+
+        // Execute method under test
+        ScoreListResponse secondPage = scoreController.getScoresForUser(1, 3, Optional.empty(), Optional.empty(),
+                PLAYER_ID_2, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                Optional.empty(), ResponseView.FULL);
+        ScoreListResponse thirdPage = scoreController.getScoresForUser(2, 3, Optional.empty(), Optional.empty(),
+                PLAYER_ID_2, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                Optional.empty(), ResponseView.FULL);
+
+        // Verify
+        assertEquals(List.of(lastArchivedScore, firstDbScore, secondDbScore), secondPage.getScores());
+        assertEquals(List.of(thirdDbScore), thirdPage.getScores());
+        assertEquals(7L, secondPage.getTotalItems());
+        assertEquals(7L, thirdPage.getTotalItems());
+        // DB scores are in the same order as archived scores, with the ID breaking ties, so pages don't overlap
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(mockScoreRepository, times(2)).findByUserIdWithOptionalRoutineIdAndScoreParams(
+                pageableCaptor.capture(), eq(PLAYER_ID_2), any(), any(), any(), any(), any());
+        for (Pageable pageable : pageableCaptor.getAllValues()) {
+            assertEquals(Sort.by("dateTime").and(Sort.by("_id")), pageable.getSort());
+        }
+    }
+
+    @Test
+    public void getScoreById_Should_ReturnArchivedScore_When_NotInDbAndOwnedByUser() {
+        // Define variables
+        String userId = IdGenerator.createNewId();
+        String scoreId = IdGenerator.createNewScoreId(userId);
+        Score archivedScore = getScoreOne();
+        archivedScore.setId(scoreId);
+        archivedScore.setUserId(userId);
+        User user = new User();
+        user.setId(userId);
+        UserPrincipal userPrincipal = new UserPrincipal(user);
+
+        // Set mock expectations
+        when(mockScoreRepository.findByIdAndUserId(scoreId, userId)).thenReturn(Optional.empty());
+        when(mockScoreArchive.findScoreById(scoreId)).thenReturn(Optional.of(archivedScore));
+
+        // Execute method under test
+        Score returnedScore = scoreController.getScoreById(scoreId, userPrincipal);
+
+        // Verify
+        assertEquals(archivedScore, returnedScore);
+    }
+
+    @Test
+    public void getScoreById_Should_ThrowScoreNotFoundException_When_ArchivedScoreOwnedByAnotherUser() {
+        // Define variables
+        String scoreId = IdGenerator.createNewScoreId(PLAYER_ID_1);
+        Score archivedScore = getScoreOne();
+        archivedScore.setId(scoreId);
+        archivedScore.setUserId(PLAYER_ID_1);
+        User user = new User();
+        user.setId(PLAYER_ID_2);
+        UserPrincipal userPrincipal = new UserPrincipal(user);
+
+        // Set mock expectations
+        when(mockScoreRepository.findByIdAndUserId(scoreId, PLAYER_ID_2)).thenReturn(Optional.empty());
+        when(mockScoreArchive.findScoreById(scoreId)).thenReturn(Optional.of(archivedScore));
+
+        // Execute method under test and verify
+        assertThrows(ScoreNotFoundException.class, () -> scoreController.getScoreById(scoreId, userPrincipal));
+    }
+
     @Test
     public void getScoreById_Should_ThrowScoreNotFoundException_When_ScoreForUserNotFound() {
         // Define variables
@@ -964,6 +1486,28 @@ public class ScoreControllerTests {
         verify(mockScoreRepository).deleteById(scoreId);
     }
 
+    @Test
+    public void deleteScoreById_Should_DeleteByIdAndUserId_When_ScoreIdIncludesUserIdAndAdminUser() {
+        // Define variables
+        String scoreId = IdGenerator.createNewScoreId(PLAYER_ID_1);
+        Score scoreOne = getScoreOne();
+        scoreOne.setId(scoreId);
+        User adminUser = new User();
+        adminUser.setAdmin(true);
+        UserPrincipal userPrincipal = new UserPrincipal(adminUser);
+
+        // Set mock expectations
+        when(mockScoreRepository.deleteByIdAndUserId(scoreId, PLAYER_ID_1)).thenReturn(List.of(scoreOne));
+
+        // Execute method under test
+        scoreController.deleteScoreById(scoreId, userPrincipal);
+
+        // Verify
+        verify(mockScoreRepository).deleteByIdAndUserId(scoreId, PLAYER_ID_1);
+        verify(mockScoreRepository, never()).deleteById(any());
+        verify(mockEventPublisher).publishEvent(new ScoresDeletedEvent(List.of(scoreOne)));
+    }
+
     @Test
     public void deleteScoreById_Should_DeleteScore_When_ScoreWithIdExistsAndOwnedByUser() {
         // Define variables
@@ -976,12 +1520,38 @@ public class ScoreControllerTests {
         UserPrincipal userPrincipal = new UserPrincipal(user);
 
         // Set mock expectations
+        when(mockScoreRepository.deleteByIdAndUserId(scoreId, userId)).thenReturn(List.of(scoreOne));
 
         // Execute method under test
         scoreController.deleteScoreById(scoreId, userPrincipal);
 
         // Verify
         verify(mockScoreRepository).deleteByIdAndUserId(scoreId, userId);
+        verify(mockEventPublisher).publishEvent(new ScoresDeletedEvent(List.of(scoreOne)));
+    }
+
+    @Test
+    public void deleteScoreById_Should_DeleteArchivedScoreAndPublishEvent_When_NotInDbAndOwnedByUser() {
+        // Define variables
+        String userId = IdGenerator.createNewId();
+        String scoreId = IdGenerator.createNewScoreId(userId);
+        Score archivedScore = getScoreOne();
+        archivedScore.setId(scoreId);
+        archivedScore.setUserId(userId);
+        User user = new User();
+        user.setId(userId);
+        UserPrincipal userPrincipal = new UserPrincipal(user);
+
+        // Set mock expectations
+        when(mockScoreRepository.deleteByIdAndUserId(scoreId, userId)).thenReturn(List.of());
+        when(mockScoreArchive.deleteScoreById(scoreId, Optional.of(userId))).thenReturn(Optional.of(archivedScore));
+
+        // Execute method under test
+        scoreController.deleteScoreById(scoreId, userPrincipal);
+
+        // Verify
+        verify(mockScoreArchive).deleteScoreById(scoreId, Optional.of(userId));
+        verify(mockEventPublisher).publishEvent(new ScoresDeletedEvent(List.of(archivedScore)));
     }
 
     @Test
@@ -1000,6 +1570,141 @@ public class ScoreControllerTests {
 
         // Verify
         verify(mockScoreRepository).deleteById(scoreId);
+        verify(mockEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void deleteScoresForUser_Should_DeleteScoresBetweenDatesAndPublishEvent_When_FromAndToProvided() {
+        // Define variables
+        LocalDateTime from = LocalDateTime.of(2023, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2023, 1, 2, 0, 0);
+        Optional<String> routineId = Optional.of(ROUTINE_ID_1);
+        Score scoreOne = getScoreOne();
+        scoreOne.setId(IdGenerator.createNewScoreId(PLAYER_ID_1));
+        Score scoreTwo = getScoreOne();
+        scoreTwo.setId(IdGenerator.createNewScoreId(PLAYER_ID_1));
+        List<Score> deletedScores = List.of(scoreOne, scoreTwo);
+
+        // Set mock expectations
+        when(mockScoreRepository.findToDeleteByUserIdBetweenDatesWithOptionalRoutineIdAndScoreParams(
+                PageRequest.of(0, ScoreController.DELETE_BATCH_SIZE), PLAYER_ID_1, from, to, routineId,
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty())).thenReturn(deletedScores);
+        when(mockScoreRepository.deleteByUserIdAndIdIn(PLAYER_ID_1, List.of(scoreOne.getId(), scoreTwo.getId())))
+                .thenReturn(2L);
+
+        // Execute method under test
+        ScoresDeletedResponse response = scoreController.deleteScoresForUser(Optional.of(from), Optional.of(to),
+                PLAYER_ID_1, routineId, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+
+        // Verify
+        assertEquals(2, response.getDeletedCount());
+        verify(mockEventPublisher).publishEvent(new ScoresDeletedEvent(deletedScores));
+    }
+
+    @Test
+    public void deleteScoresForUser_Should_DeleteAllMatchingScores_When_NoDatesProvided() {
+        // Define variables
+        Optional<Integer> cushionLimit = Optional.of(3);
+        Score scoreOne = getScoreOne();
+        scoreOne.setId(IdGenerator.createNewScoreId(PLAYER_ID_1));
+
+        // Set mock expectations
+        when(mockScoreRepository.findToDeleteByUserIdWithOptionalRoutineIdAndScoreParams(
+                PageRequest.of(0, ScoreController.DELETE_BATCH_SIZE), PLAYER_ID_1, Optional.empty(), cushionLimit,
+                Optional.empty(), Optional.empty(), Optional.empty())).thenReturn(List.of(scoreOne));
+        when(mockScoreRepository.deleteByUserIdAndIdIn(PLAYER_ID_1, List.of(scoreOne.getId()))).thenReturn(1L);
+
+        // Execute method under test
+        ScoresDeletedResponse response = scoreController.deleteScoresForUser(Optional.empty(), Optional.empty(),
+                PLAYER_ID_1, Optional.empty(), cushionLimit, Optional.empty(), Optional.empty(), Optional.empty());
+
+        // Verify
+        assertEquals(1, response.getDeletedCount());
+        verify(mockEventPublisher).publishEvent(new ScoresDeletedEvent(List.of(scoreOne)));
+    }
+
+    @Test
+    public void deleteScoresForUser_Should_NotPublishEvent_When_NoScoresMatch() {
+        // Define variables
+        LocalDateTime to = LocalDateTime.of(2023, 1, 2, 0, 0);
+
+        // Set mock expectations
+        when(mockScoreRepository.findToDeleteByUserIdToDateWithOptionalRoutineIdAndScoreParams(
+                PageRequest.of(0, ScoreController.DELETE_BATCH_SIZE), PLAYER_ID_1, to, Optional.empty(),
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty())).thenReturn(List.of());
+
+        // Execute method under test
+        ScoresDeletedResponse response = scoreController.deleteScoresForUser(Optional.empty(), Optional.of(to),
+                PLAYER_ID_1, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+
+        // Verify
+        assertEquals(0, response.getDeletedCount());
+        verify(mockEventPublisher, never()).publishEvent(any());
+        verify(mockScoreRepository, never()).deleteByUserIdAndIdIn(any(), any());
+    }
+
+    @Test
+    public void deleteScoresForUser_Should_DeleteInBatches_When_MoreScoresThanBatchSize() {
+        // Define variables
+        LocalDateTime from = LocalDateTime.of(2023, 1, 1, 0, 0);
+        List<Score> firstBatch = new ArrayList<>();
+        for (int i = 0; i < ScoreController.DELETE_BATCH_SIZE; i++) {
+            Score score = getScoreOne();
+            score.setId(IdGenerator.createNewScoreId(PLAYER_ID_1));
+            firstBatch.add(score);
+        }
+        Score lastScore = getScoreOne();
+        lastScore.setId(IdGenerator.createNewScoreId(PLAYER_ID_1));
+
+        // Set mock expectations
+        when(mockScoreRepository.findToDeleteByUserIdFromDateWithOptionalRoutineIdAndScoreParams(
+                PageRequest.of(0, ScoreController.DELETE_BATCH_SIZE), PLAYER_ID_1, from, Optional.empty(),
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty()))
+                .thenReturn(firstBatch).thenReturn(List.of(lastScore));
+        when(mockScoreRepository.deleteByUserIdAndIdIn(eq(PLAYER_ID_1), anyCollection()))
+                .thenAnswer(invocation -> (long) invocation.<Collection<String>>getArgument(1).size());
+
+        // Execute method under test
+        ScoresDeletedResponse response = scoreController.deleteScoresForUser(Optional.of(from), Optional.empty(),
+                PLAYER_ID_1, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+
+        // Verify
+        assertEquals(ScoreController.DELETE_BATCH_SIZE + 1, response.getDeletedCount());
+        verify(mockScoreRepository, times(2)).deleteByUserIdAndIdIn(eq(PLAYER_ID_1), anyCollection());
+        verify(mockEventPublisher).publishEvent(new ScoresDeletedEvent(firstBatch));
+        verify(mockEventPublisher).publishEvent(new ScoresDeletedEvent(List.of(lastScore)));
+    }
+
+    @Test
+    public void deleteScoresForUser_Should_AlsoDeleteArchivedScores_When_FiltersReachIntoArchive() {
+        // Define variables
+        Optional<String> routineId = Optional.of(ROUTINE_ID_1);
+        Score scoreOne = getScoreOne();
+        scoreOne.setId(IdGenerator.createNewScoreId(PLAYER_ID_1));
+        Score archivedScore = getScoreOne();
+        archivedScore.setId(IdGenerator.createNewScoreId(PLAYER_ID_1));
+
+        // Set mock expectations
+        when(mockScoreRepository.findToDeleteByUserIdWithOptionalRoutineIdAndScoreParams(
+                PageRequest.of(0, ScoreController.DELETE_BATCH_SIZE), PLAYER_ID_1, routineId, Optional.empty(),
+                Optional.empty(), Optional.empty(), Optional.empty())).thenReturn(List.of(scoreOne));
+        when(mockScoreRepository.deleteByUserIdAndIdIn(PLAYER_ID_1, List.of(scoreOne.getId()))).thenReturn(1L);
+        when(mockScoreArchive.reachesIntoArchive(Optional.empty())).thenReturn(true);
+        when(mockScoreArchive.deleteScores(eq(PLAYER_ID_1), eq(Optional.empty()), eq(Optional.empty()), eq(routineId),
+                eq(Optional.empty()), eq(Optional.empty()), eq(Optional.empty()), eq(Optional.empty()), any()))
+                .thenAnswer(invocation -> {
+                    invocation.<Consumer<List<Score>>>getArgument(8).accept(List.of(archivedScore));
+                    return 1L;
+                });
+
+        // Execute method under test
+        ScoresDeletedResponse response = scoreController.deleteScoresForUser(Optional.empty(), Optional.empty(),
+                PLAYER_ID_1, routineId, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+
+        // Verify
+        assertEquals(2, response.getDeletedCount());
+        verify(mockEventPublisher).publishEvent(new ScoresDeletedEvent(List.of(scoreOne)));
+        verify(mockEventPublisher).publishEvent(new ScoresDeletedEvent(List.of(archivedScore)));
     }
 
     private Score getScoreOne() {
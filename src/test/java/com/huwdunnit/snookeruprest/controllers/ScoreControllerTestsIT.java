@@ -207,7 +207,8 @@ public class ScoreControllerTestsIT extends BaseIT {
                         jsonPath("$.dateTime").value(scoreToAdd.getDateTime().format(DATE_FORMATTER)),
                         jsonPath("$.cushionLimit").value(cushionLimit),
                         jsonPath("$.colours").value(colours),
-                        jsonPath("$.numBalls").value(numBalls))
+                        jsonPath("$.numBalls").value(numBalls),
+                        jsonPath("$.personalBest").value(true))
                 .andReturn();
 
         // Get the score's ID so we can check it exists in the DB
@@ -0,0 +1,79 @@
+package com.huwdunnit.snookeruprest.controllers;
+
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.exceptions.InvalidSyncTokenException;
+import com.huwdunnit.snookeruprest.model.ScoreChangesResponse;
+import com.huwdunnit.snookeruprest.sync.ScoreChangeLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the ScoreSyncController class.
+ *
+ * @author Huwdunnit
+ */
+public class ScoreSyncControllerTests {
+
+    private static final String PLAYER_ID = IdGenerator.createNewId();
+
+    private ScoreChangeLog mockScoreChangeLog;
+
+    private ScoreSyncController scoreSyncController;
+
+    @BeforeEach
+    public void beforeEach() {
+        mockScoreChangeLog = mock(ScoreChangeLog.class);
+
+        scoreSyncController = new ScoreSyncController(mockScoreChangeLog);
+    }
+
+    @Test
+    public void getScoreChanges_Should_ReturnChangesSinceToken_When_ValidTokenProvided() {
+        // Define variables
+        ScoreChangesResponse expectedResponse = new ScoreChangesResponse(List.of(), "12", false, false);
+
+        // Set mock expectations
+        when(mockScoreChangeLog.getChangesSince(PLAYER_ID, Optional.of(12L), 500)).thenReturn(expectedResponse);
+
+        // Execute method under test
+        ScoreChangesResponse changesResponse = scoreSyncController.getScoreChanges(PLAYER_ID, Optional.of("12"), 500);
+
+        // Verify
+        assertEquals(expectedResponse, changesResponse);
+    }
+
+    @Test
+    public void getScoreChanges_Should_LimitNumberOfChanges_When_LimitTooLarge() {
+        // Define variables
+        ScoreChangesResponse expectedResponse = new ScoreChangesResponse(List.of(), "0", false, false);
+
+        // Set mock expectations
+        when(mockScoreChangeLog.getChangesSince(PLAYER_ID, Optional.empty(), 1000)).thenReturn(expectedResponse);
+
+        // Execute method under test
+        ScoreChangesResponse changesResponse = scoreSyncController.getScoreChanges(PLAYER_ID, Optional.empty(), 100000);
+
+        // Verify
+        assertEquals(expectedResponse, changesResponse);
+    }
+
+    @Test
+    public void getScoreChanges_Should_ThrowInvalidSyncTokenException_When_TokenNotValid() {
+        // Execute method under test
+        try {
+            scoreSyncController.getScoreChanges(PLAYER_ID, Optional.of("not-a-token"), 500);
+            fail("Expected InvalidSyncTokenException");
+        } catch (InvalidSyncTokenException ex) {
+            // Expected exception, i.e. test pass
+        }
+
+        // Verify
+        verifyNoInteractions(mockScoreChangeLog);
+    }
+}
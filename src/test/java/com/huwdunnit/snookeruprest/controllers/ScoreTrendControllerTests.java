@@ -0,0 +1,91 @@
+package com.huwdunnit.snookeruprest.controllers;
+
+import com.huwdunnit.snookeruprest.cache.RoutineCache;
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.exceptions.InvalidRequestParameterException;
+import com.huwdunnit.snookeruprest.exceptions.RoutineNotFoundException;
+import com.huwdunnit.snookeruprest.model.Routine;
+import com.huwdunnit.snookeruprest.model.ScoreTrend;
+import com.huwdunnit.snookeruprest.model.ScoreTrendResponse;
+import com.huwdunnit.snookeruprest.trend.ScoreTrendService;
+import com.huwdunnit.snookeruprest.trend.TrendInterval;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the ScoreTrendController class.
+ *
+ * @author Huwdunnit
+ */
+public class ScoreTrendControllerTests {
+
+    private static final String PLAYER_ID = IdGenerator.createNewId();
+
+    private static final String ROUTINE_ID = IdGenerator.createNewId();
+
+    private RoutineCache mockRoutineCache;
+
+    private ScoreTrendService mockScoreTrendService;
+
+    private ScoreTrendController scoreTrendController;
+
+    @BeforeEach
+    public void beforeEach() {
+        mockRoutineCache = mock(RoutineCache.class);
+        mockScoreTrendService = mock(ScoreTrendService.class);
+
+        scoreTrendController = new ScoreTrendController(mockRoutineCache, mockScoreTrendService);
+    }
+
+    @Test
+    public void getScoreTrend_Should_ReturnTrends_When_RoutineExists() {
+        // Define variables
+        Routine routine = new Routine();
+        routine.setId(ROUTINE_ID);
+        List<ScoreTrend> trends = List.of(new ScoreTrend());
+
+        // Set mock expectations
+        when(mockRoutineCache.findById(ROUTINE_ID)).thenReturn(Optional.of(routine));
+        when(mockScoreTrendService.getTrends(PLAYER_ID, ROUTINE_ID, Optional.empty(), Optional.empty(),
+                TrendInterval.WEEK, 4)).thenReturn(trends);
+
+        // Execute method under test
+        ScoreTrendResponse trendResponse = scoreTrendController.getScoreTrend(PLAYER_ID, ROUTINE_ID, Optional.empty(),
+                Optional.empty(), TrendInterval.WEEK, 4);
+
+        // Verify
+        assertEquals(new ScoreTrendResponse(PLAYER_ID, ROUTINE_ID, TrendInterval.WEEK, 4, trends), trendResponse);
+    }
+
+    @Test
+    public void getScoreTrend_Should_ThrowRoutineNotFoundException_When_RoutineDoesNotExist() {
+        // Set mock expectations
+        when(mockRoutineCache.findById(ROUTINE_ID)).thenReturn(Optional.empty());
+
+        // Execute method under test
+        assertThrows(RoutineNotFoundException.class, () -> scoreTrendController.getScoreTrend(PLAYER_ID, ROUTINE_ID,
+                Optional.empty(), Optional.empty(), TrendInterval.DAY, 7));
+
+        // Verify
+        verify(mockScoreTrendService, never()).getTrends(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    public void getScoreTrend_Should_ThrowInvalidRequestParameterException_When_WindowTooLarge() {
+        // Execute method under test
+        InvalidRequestParameterException ex = assertThrows(InvalidRequestParameterException.class,
+                () -> scoreTrendController.getScoreTrend(PLAYER_ID, ROUTINE_ID, Optional.empty(), Optional.empty(),
+                        TrendInterval.DAY, ScoreTrendController.MAX_WINDOW + 1));
+
+        // Verify
+        assertEquals("window", ex.getParameterName());
+        verify(mockScoreTrendService, never()).getTrends(any(), any(), any(), any(), any(), anyInt());
+    }
+}
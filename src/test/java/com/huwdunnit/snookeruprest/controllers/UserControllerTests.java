@@ -1,12 +1,17 @@
 package com.huwdunnit.snookeruprest.controllers;
 
+import com.huwdunnit.snookeruprest.db.UserDeletionRepository;
 import com.huwdunnit.snookeruprest.db.UserRepository;
+import com.huwdunnit.snookeruprest.events.CollectionChangedEvent;
 import com.huwdunnit.snookeruprest.exceptions.UserNotFoundException;
 import com.huwdunnit.snookeruprest.model.User;
+import com.huwdunnit.snookeruprest.model.UserDeletion;
 import com.huwdunnit.snookeruprest.model.UserListResponse;
+import com.huwdunnit.snookeruprest.purge.UserDataPurger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -37,18 +42,25 @@ public class UserControllerTests {
     private static final String ENCRYPTED_PASSWORD = "encryptedPassword";
 
     private UserRepository mockUserRepository;
+    private UserDeletionRepository mockUserDeletionRepository;
     private PasswordEncoder mockPasswordEncoder;
+    private UserDataPurger mockUserDataPurger;
+    private ApplicationEventPublisher mockEventPublisher;
 
     private UserController userController;
 
     @BeforeEach
     public void beforeEach() {
         mockUserRepository = mock(UserRepository.class);
+        mockUserDeletionRepository = mock(UserDeletionRepository.class);
         mockPasswordEncoder = mock(PasswordEncoder.class);
+        mockUserDataPurger = mock(UserDataPurger.class);
+        mockEventPublisher = mock(ApplicationEventPublisher.class);
 
         when(mockPasswordEncoder.encode(PLAINTEXT_PASSWORD)).thenReturn(ENCRYPTED_PASSWORD);
 
-        userController = new UserController(mockUserRepository, mockPasswordEncoder);
+        userController = new UserController(mockUserRepository, mockUserDeletionRepository, mockPasswordEncoder,
+                mockUserDataPurger, mockEventPublisher);
     }
 
     @Test
@@ -281,4 +293,87 @@ public class UserControllerTests {
         // Verify
         assertNull(returnedUser);
     }
+
+    @Test
+    public void getUserById_Should_ThrowUserNotFoundException_When_UserDeleted() {
+        // Define variables
+        String userId = "1234";
+        User deletedUser = new User();
+        deletedUser.setId(userId);
+        deletedUser.setDeleted(true);
+
+        // Set mock expectations
+        when(mockUserRepository.findById(userId)).thenReturn(Optional.of(deletedUser));
+
+        // Execute method under test
+        assertThrows(UserNotFoundException.class, () -> userController.getUserById(userId));
+    }
+
+    @Test
+    public void deleteUser_Should_MarkUserDeletedAndRequestPurge_When_UserExists() {
+        // Define variables
+        String userId = "1234";
+        User ronnieUser = new User();
+        ronnieUser.setId(userId);
+        ronnieUser.setEmail(RONNIE_EMAIL);
+        UserDeletion expectedDeletion = new UserDeletion();
+        expectedDeletion.setUserId(userId);
+        expectedDeletion.setStatus(UserDeletion.Status.PENDING);
+        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
+
+        // Set mock expectations
+        when(mockUserRepository.findById(userId)).thenReturn(Optional.of(ronnieUser));
+        when(mockUserDataPurger.requestDeletion(userId)).thenReturn(expectedDeletion);
+
+        // Execute method under test
+        UserDeletion returnedDeletion = userController.deleteUser(userId);
+
+        // Verify
+        assertEquals(expectedDeletion, returnedDeletion);
+
+        verify(mockUserRepository).save(userCaptor.capture());
+        assertTrue(userCaptor.getValue().isDeleted(), "Expected user to be marked deleted");
+        verify(mockEventPublisher).publishEvent(new CollectionChangedEvent("user", userId));
+        verify(mockUserDataPurger).requestDeletion(userId);
+    }
+
+    @Test
+    public void deleteUser_Should_OnlyRequestPurge_When_UserAlreadyDeleted() {
+        // Define variables
+        String userId = "1234";
+        User deletedUser = new User();
+        deletedUser.setId(userId);
+        deletedUser.setDeleted(true);
+        UserDeletion expectedDeletion = new UserDeletion();
+        expectedDeletion.setUserId(userId);
+        expectedDeletion.setStatus(UserDeletion.Status.IN_PROGRESS);
+
+        // Set mock expectations
+        when(mockUserRepository.findById(userId)).thenReturn(Optional.of(deletedUser));
+        when(mockUserDataPurger.requestDeletion(userId)).thenReturn(expectedDeletion);
+
+        // Execute method under test
+        UserDeletion returnedDeletion = userController.deleteUser(userId);
+
+        // Verify
+        assertEquals(expectedDeletion, returnedDeletion);
+
+        verify(mockUserRepository, never()).save(any(User.class));
+        verify(mockEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void deleteUser_Should_ThrowUserNotFoundException_When_UserNotFound() {
+        // Define variables
+        String userId = "1234";
+
+        // Set mock expectations
+        when(mockUserRepository.findById(userId)).thenReturn(Optional.empty());
+
+        // Execute method under test
+        assertThrows(UserNotFoundException.class, () -> userController.deleteUser(userId));
+
+        // Verify
+        verify(mockUserDataPurger, never()).requestDeletion(any());
+    }
 }
@@ -0,0 +1,78 @@
+package com.huwdunnit.snookeruprest.db;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the MongoPoolWaitMetricsListener class.
+ *
+ * @author Huwdunnit
+ */
+public class MongoPoolWaitMetricsListenerTests {
+
+    private static final ServerId SERVER_ID = new ServerId(new ClusterId(), new ServerAddress("db1", 27017));
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MongoPoolWaitMetricsListener listener;
+
+    @BeforeEach
+    public void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new MongoPoolWaitMetricsListener(meterRegistry);
+    }
+
+    @Test
+    public void connectionCheckedOut_Should_RecordWaitTime() {
+        // Define variables
+        ConnectionCheckedOutEvent event = new ConnectionCheckedOutEvent(new ConnectionId(SERVER_ID), 1L,
+                TimeUnit.MILLISECONDS.toNanos(5));
+
+        // Execute method under test
+        listener.connectionCheckedOut(event);
+
+        // Verify
+        Timer waitTimer = meterRegistry.get("snookerup.mongodb.pool.wait").tag("server.address", "db1:27017").timer();
+        assertEquals(1, waitTimer.count());
+        assertEquals(5.0, waitTimer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    public void connectionCheckOutFailed_Should_CountTimeout_When_ReasonIsTimeout() {
+        // Define variables
+        ConnectionCheckOutFailedEvent event = new ConnectionCheckOutFailedEvent(SERVER_ID, 1L,
+                ConnectionCheckOutFailedEvent.Reason.TIMEOUT, TimeUnit.SECONDS.toNanos(2));
+
+        // Execute method under test
+        listener.connectionCheckOutFailed(event);
+
+        // Verify
+        assertEquals(1.0, meterRegistry.get("snookerup.mongodb.pool.wait.timeouts").counter().count());
+        assertEquals(1, meterRegistry.get("snookerup.mongodb.pool.wait").timer().count());
+    }
+
+    @Test
+    public void connectionCheckOutFailed_Should_NotCountTimeout_When_ReasonIsNotTimeout() {
+        // Define variables
+        ConnectionCheckOutFailedEvent event = new ConnectionCheckOutFailedEvent(SERVER_ID, 1L,
+                ConnectionCheckOutFailedEvent.Reason.CONNECTION_ERROR, 0L);
+
+        // Execute method under test
+        listener.connectionCheckOutFailed(event);
+
+        // Verify
+        assertNull(meterRegistry.find("snookerup.mongodb.pool.wait.timeouts").counter());
+    }
+}
@@ -0,0 +1,239 @@
+package com.huwdunnit.snookeruprest.db;
+
+import com.huwdunnit.snookeruprest.config.ScoreStorageProperties;
+import com.huwdunnit.snookeruprest.config.ScoreStorageProperties.StorageMode;
+import com.huwdunnit.snookeruprest.model.Score;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the ScoreCollectionInitializer class.
+ *
+ * @author Huwdunnit
+ */
+public class ScoreCollectionInitializerTests {
+
+    private static final String COLLECTION_NAME = "score";
+
+    private MongoTemplate mockMongoTemplate;
+
+    private IndexOperations mockIndexOperations;
+
+    private ScoreTimeSeriesMigrator mockMigrator;
+
+    private ScoreStorageProperties storageProperties;
+
+    private ScoreCollectionInitializer initializer;
+
+    @BeforeEach
+    public void beforeEach() {
+        mockMongoTemplate = mock(MongoTemplate.class);
+        mockIndexOperations = mock(IndexOperations.class);
+        mockMigrator = mock(ScoreTimeSeriesMigrator.class);
+        storageProperties = new ScoreStorageProperties();
+
+        when(mockMongoTemplate.getCollectionName(Score.class)).thenReturn(COLLECTION_NAME);
+        when(mockMongoTemplate.indexOps(COLLECTION_NAME)).thenReturn(mockIndexOperations);
+
+        initializer = new ScoreCollectionInitializer(mockMongoTemplate, storageProperties, mockMigrator);
+    }
+
+    @Test
+    public void afterPropertiesSet_Should_OnlyEnsureIndexes_When_StandardMode() {
+        // Execute method under test
+        initializer.afterPropertiesSet();
+
+        // Verify
+        verify(mockMongoTemplate, never()).createCollection(anyString(), any(CollectionOptions.class));
+        verify(mockMigrator, never()).migrate(anyString(), any(CollectionOptions.class), anyInt(), any(Runnable.class),
+                any(BooleanSupplier.class));
+        ArgumentCaptor<IndexDefinition> indexCaptor = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(mockIndexOperations, times(2)).ensureIndex(indexCaptor.capture());
+        List<IndexDefinition> indexes = indexCaptor.getAllValues();
+        assertEquals(Boolean.TRUE, indexes.get(1).getIndexOptions().get("unique"));
+    }
+
+    @Test
+    public void afterPropertiesSet_Should_CreateTimeSeriesCollection_When_TimeSeriesModeAndNoCollection() {
+        // Define variables
+        storageProperties.setMode(StorageMode.TIME_SERIES);
+
+        // Set mock expectations
+        when(mockMongoTemplate.collectionExists(COLLECTION_NAME)).thenReturn(false);
+
+        // Execute method under test
+        initializer.afterPropertiesSet();
+
+        // Verify
+        ArgumentCaptor<CollectionOptions> optionsCaptor = ArgumentCaptor.forClass(CollectionOptions.class);
+        verify(mockMongoTemplate).createCollection(eq(COLLECTION_NAME), optionsCaptor.capture());
+        CollectionOptions.TimeSeriesOptions timeSeriesOptions = optionsCaptor.getValue().getTimeSeriesOptions()
+                .orElseThrow();
+        assertEquals(ScoreCollectionInitializer.TIME_FIELD, timeSeriesOptions.getTimeField());
+        assertEquals(ScoreCollectionInitializer.META_FIELD, timeSeriesOptions.getMetaField());
+        verify(mockMigrator, never()).migrate(anyString(), any(CollectionOptions.class), anyInt(), any(Runnable.class),
+                any(BooleanSupplier.class));
+
+        // Time-series collections don't support unique indexes
+        ArgumentCaptor<Index> indexCaptor = ArgumentCaptor.forClass(Index.class);
+        verify(mockIndexOperations, times(2)).ensureIndex(indexCaptor.capture());
+        assertNull(indexCaptor.getAllValues().get(1).getIndexOptions().get("unique"));
+    }
+
+    @Test
+    public void afterPropertiesSet_Should_Migrate_When_StandardCollectionAndMigrateOnStartup() {
+        // Define variables
+        storageProperties.setMode(StorageMode.TIME_SERIES);
+        storageProperties.setMigrateOnStartup(true);
+
+        // Set mock expectations
+        when(mockMongoTemplate.collectionExists(COLLECTION_NAME)).thenReturn(true);
+        when(mockMigrator.isTimeSeriesCollection(COLLECTION_NAME)).thenReturn(false);
+
+        // Execute method under test
+        initializer.afterPropertiesSet();
+
+        // Verify
+        // The migration doesn't start until the application has started
+        verify(mockMigrator, never()).migrate(anyString(), any(CollectionOptions.class), anyInt(), any(Runnable.class),
+                any(BooleanSupplier.class));
+        runMigration();
+        verify(mockMigrator).migrate(eq(COLLECTION_NAME), any(CollectionOptions.class),
+                eq(storageProperties.getMigrationBatchSize()), any(Runnable.class), any(BooleanSupplier.class));
+        verify(mockMongoTemplate, never()).createCollection(anyString(), any(CollectionOptions.class));
+    }
+
+    @Test
+    public void afterPropertiesSet_Should_NotMigrate_When_StandardCollectionAndNotMigrateOnStartup() {
+        // Define variables
+        storageProperties.setMode(StorageMode.TIME_SERIES);
+
+        // Set mock expectations
+        when(mockMongoTemplate.collectionExists(COLLECTION_NAME)).thenReturn(true);
+        when(mockMigrator.isTimeSeriesCollection(COLLECTION_NAME)).thenReturn(false);
+
+        // Execute method under test
+        initializer.afterPropertiesSet();
+
+        // Verify
+        verify(mockMigrator, never()).migrate(anyString(), any(CollectionOptions.class), anyInt(), any(Runnable.class),
+                any(BooleanSupplier.class));
+        verify(mockMongoTemplate, never()).createCollection(anyString(), any(CollectionOptions.class));
+    }
+
+    @Test
+    public void afterPropertiesSet_Should_CarryOnMigrating_When_MigrationIncomplete() {
+        // Define variables
+        storageProperties.setMode(StorageMode.TIME_SERIES);
+
+        // Set mock expectations
+        when(mockMigrator.isMigrationIncomplete(COLLECTION_NAME)).thenReturn(true);
+
+        // Execute method under test
+        initializer.afterPropertiesSet();
+
+        // Verify
+        // The migration doesn't start until the application has started
+        verify(mockMigrator, never()).migrate(anyString(), any(CollectionOptions.class), anyInt(), any(Runnable.class),
+                any(BooleanSupplier.class));
+        runMigration();
+        verify(mockMigrator).migrate(eq(COLLECTION_NAME), any(CollectionOptions.class),
+                eq(storageProperties.getMigrationBatchSize()), any(Runnable.class), any(BooleanSupplier.class));
+        verify(mockMongoTemplate, never()).createCollection(anyString(), any(CollectionOptions.class));
+    }
+
+    @Test
+    public void start_Should_EnsureIndexesOnTimeSeriesCollection_When_Migrated() {
+        // Define variables
+        storageProperties.setMode(StorageMode.TIME_SERIES);
+
+        // Set mock expectations
+        when(mockMigrator.isMigrationIncomplete(COLLECTION_NAME)).thenReturn(true);
+        when(mockMigrator.migrate(eq(COLLECTION_NAME), any(CollectionOptions.class), anyInt(), any(Runnable.class),
+                any(BooleanSupplier.class))).thenAnswer(invocation -> {
+                    invocation.getArgument(3, Runnable.class).run();
+                    return 0L;
+                });
+        initializer.afterPropertiesSet();
+
+        // Execute method under test
+        runMigration();
+
+        // Verify
+        // Once on startup, then again once the time-series collection has been created
+        verify(mockIndexOperations, times(4)).ensureIndex(any(IndexDefinition.class));
+    }
+
+    @Test
+    public void stop_Should_StopMigration_When_MigrationInProgress() throws InterruptedException {
+        // Define variables
+        storageProperties.setMode(StorageMode.TIME_SERIES);
+        CountDownLatch migrationStarted = new CountDownLatch(1);
+        AtomicBoolean keptCopying = new AtomicBoolean(true);
+
+        // Set mock expectations
+        when(mockMigrator.isMigrationIncomplete(COLLECTION_NAME)).thenReturn(true);
+        when(mockMigrator.migrate(eq(COLLECTION_NAME), any(CollectionOptions.class), anyInt(), any(Runnable.class),
+                any(BooleanSupplier.class))).thenAnswer(invocation -> {
+                    BooleanSupplier keepCopying = invocation.getArgument(4);
+                    migrationStarted.countDown();
+                    while (keepCopying.getAsBoolean()) {
+                        Thread.sleep(5);
+                    }
+                    keptCopying.set(false);
+                    return 0L;
+                });
+        initializer.afterPropertiesSet();
+        initializer.start();
+        assertTrue(migrationStarted.await(5, TimeUnit.SECONDS));
+
+        // Execute method under test
+        initializer.stop();
+
+        // Verify
+        assertFalse(keptCopying.get());
+        assertFalse(initializer.isRunning());
+    }
+
+    @Test
+    public void afterPropertiesSet_Should_DoNothingMore_When_AlreadyTimeSeriesCollection() {
+        // Define variables
+        storageProperties.setMode(StorageMode.TIME_SERIES);
+
+        // Set mock expectations
+        when(mockMongoTemplate.collectionExists(COLLECTION_NAME)).thenReturn(true);
+        when(mockMigrator.isTimeSeriesCollection(COLLECTION_NAME)).thenReturn(true);
+
+        // Execute method under test
+        initializer.afterPropertiesSet();
+
+        // Verify
+        verify(mockMigrator, never()).migrate(anyString(), any(CollectionOptions.class), anyInt(), any(Runnable.class),
+                any(BooleanSupplier.class));
+        verify(mockMongoTemplate, never()).createCollection(anyString(), any(CollectionOptions.class));
+    }
+
+    /**
+     * Start the initializer, then stop it, which waits for the migration to finish.
+     */
+    private void runMigration() {
+        initializer.start();
+        initializer.stop();
+    }
+}
@@ -0,0 +1,345 @@
+package com.huwdunnit.snookeruprest.db;
+
+import com.huwdunnit.snookeruprest.config.ScoreStorageProperties;
+import com.huwdunnit.snookeruprest.config.ScoreStorageProperties.StorageMode;
+import com.huwdunnit.snookeruprest.events.ScoresDeletedEvent;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.ScoreMigration;
+import com.huwdunnit.snookeruprest.model.ScoreMigration.Status;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.ListCollectionsIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the ScoreTimeSeriesMigrator class.
+ *
+ * @author Huwdunnit
+ */
+public class ScoreTimeSeriesMigratorTests {
+
+    private static final String DATABASE_NAME = "snookerup";
+
+    private static final String COLLECTION_NAME = "score";
+
+    private static final String LEGACY_COLLECTION_NAME = COLLECTION_NAME + ScoreTimeSeriesMigrator.LEGACY_SUFFIX;
+
+    private static final String STRAY_COLLECTION_NAME = COLLECTION_NAME + ScoreTimeSeriesMigrator.STRAY_SUFFIX;
+
+    private static final CollectionOptions TIME_SERIES_OPTIONS = CollectionOptions.timeSeries("dateTime");
+
+    private MongoTemplate mockMongoTemplate;
+
+    private ListCollectionsIterable<Document> mockListCollections;
+
+    private MongoCollection<Document> mockCollection;
+
+    private ScoreStorageProperties storageProperties;
+
+    private ScoreTimeSeriesMigrator migrator;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void beforeEach() {
+        mockMongoTemplate = mock(MongoTemplate.class);
+        MongoDatabase mockDatabase = mock(MongoDatabase.class);
+        mockListCollections = mock(ListCollectionsIterable.class);
+        mockCollection = mock(MongoCollection.class);
+
+        when(mockMongoTemplate.getDb()).thenReturn(mockDatabase);
+        when(mockDatabase.getName()).thenReturn(DATABASE_NAME);
+        when(mockDatabase.listCollections()).thenReturn(mockListCollections);
+        when(mockListCollections.filter(any())).thenReturn(mockListCollections);
+        // The collection being migrated is a standard collection
+        when(mockListCollections.first()).thenReturn(new Document("name", COLLECTION_NAME).append("type", "collection"));
+        when(mockMongoTemplate.getCollection(COLLECTION_NAME)).thenReturn(mockCollection);
+        when(mockMongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ScoreMigration.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        storageProperties = new ScoreStorageProperties();
+        storageProperties.setMode(StorageMode.TIME_SERIES);
+        migrator = new ScoreTimeSeriesMigrator(mockMongoTemplate, storageProperties);
+    }
+
+    @Test
+    public void migrate_Should_RenameCreateAndCopy_When_NewMigration() {
+        // Define variables
+        List<Document> batch = List.of(getDocument("a"), getDocument("b"));
+
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScoreMigration.class))).thenReturn(getMigration(Status.MOVING));
+        when(mockMongoTemplate.find(any(Query.class), eq(Document.class), eq(LEGACY_COLLECTION_NAME)))
+                .thenReturn(batch, batch, List.of());
+        when(mockMongoTemplate.count(any(Query.class), eq(LEGACY_COLLECTION_NAME))).thenReturn(2L);
+
+        // Execute method under test
+        long copied = migrate();
+
+        // Verify
+        assertEquals(2, copied);
+        verify(mockCollection).renameCollection(new MongoNamespace(DATABASE_NAME, LEGACY_COLLECTION_NAME));
+        verify(mockMongoTemplate).createCollection(COLLECTION_NAME, TIME_SERIES_OPTIONS);
+        verify(mockMongoTemplate).insert(batch, COLLECTION_NAME);
+        verify(mockMongoTemplate, never()).remove(any(Query.class), anyString());
+        // The time-series collection is never renamed
+        verify(mockMongoTemplate, never()).getCollection(LEGACY_COLLECTION_NAME);
+    }
+
+    @Test
+    public void migrate_Should_DoNothing_When_AnotherInstanceHasLease() {
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScoreMigration.class))).thenThrow(new DuplicateKeyException("Duplicate key"));
+
+        // Execute method under test
+        long copied = migrate();
+
+        // Verify
+        assertEquals(0, copied);
+        verify(mockCollection, never()).renameCollection(any(MongoNamespace.class));
+        verify(mockMongoTemplate, never()).createCollection(anyString(), any(CollectionOptions.class));
+    }
+
+    @Test
+    public void migrate_Should_SkipCopiedDocuments_When_ResumingCopy() {
+        // Define variables
+        ScoreMigration migration = getMigration(Status.COPYING);
+        migration.setLastCopiedId("a");
+        migration.setCopiedCount(1);
+        Document copiedDocument = getDocument("b");
+        Document uncopiedDocument = getDocument("c");
+
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScoreMigration.class))).thenReturn(migration);
+        when(mockMongoTemplate.find(any(Query.class), eq(Document.class), eq(LEGACY_COLLECTION_NAME)))
+                .thenReturn(List.of(copiedDocument, uncopiedDocument), List.of(uncopiedDocument), List.of());
+        when(mockMongoTemplate.find(any(Query.class), eq(Document.class), eq(COLLECTION_NAME)))
+                .thenReturn(List.of(new Document("_id", "b")));
+        when(mockMongoTemplate.count(any(Query.class), eq(LEGACY_COLLECTION_NAME))).thenReturn(3L);
+
+        // Execute method under test
+        long copied = migrate();
+
+        // Verify
+        assertEquals(3, copied);
+        verify(mockMongoTemplate).insert(List.of(uncopiedDocument), COLLECTION_NAME);
+        verify(mockCollection, never()).renameCollection(any(MongoNamespace.class));
+        verify(mockMongoTemplate, never()).createCollection(anyString(), any(CollectionOptions.class));
+    }
+
+    @Test
+    public void migrate_Should_MoveStrayDocumentsToLegacy_When_WriteCreatedStandardCollection() {
+        // Define variables
+        Document strayDocument = getDocument("stray");
+
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScoreMigration.class))).thenReturn(getMigration(Status.MOVING));
+        // Already renamed, but a write created a standard collection before the time-series one was created
+        when(mockMongoTemplate.collectionExists(LEGACY_COLLECTION_NAME)).thenReturn(true);
+        when(mockMongoTemplate.collectionExists(COLLECTION_NAME)).thenReturn(true);
+        when(mockMongoTemplate.findAll(Document.class, STRAY_COLLECTION_NAME)).thenReturn(List.of(strayDocument));
+        when(mockMongoTemplate.find(any(Query.class), eq(Document.class), eq(LEGACY_COLLECTION_NAME)))
+                .thenReturn(List.of(strayDocument), List.of(strayDocument), List.of());
+        when(mockMongoTemplate.count(any(Query.class), eq(LEGACY_COLLECTION_NAME))).thenReturn(1L);
+
+        // Execute method under test
+        long copied = migrate();
+
+        // Verify
+        assertEquals(1, copied);
+        verify(mockCollection).renameCollection(new MongoNamespace(DATABASE_NAME, STRAY_COLLECTION_NAME));
+        verify(mockMongoTemplate).save(strayDocument, LEGACY_COLLECTION_NAME);
+        verify(mockMongoTemplate).dropCollection(STRAY_COLLECTION_NAME);
+        verify(mockMongoTemplate).createCollection(COLLECTION_NAME, TIME_SERIES_OPTIONS);
+        verify(mockMongoTemplate).insert(List.of(strayDocument), COLLECTION_NAME);
+    }
+
+    @Test
+    public void migrate_Should_ThrowException_When_LegacyCollectionHasUncopiedDocuments() {
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScoreMigration.class))).thenReturn(getMigration(Status.MOVING));
+        when(mockMongoTemplate.find(any(Query.class), eq(Document.class), eq(LEGACY_COLLECTION_NAME)))
+                .thenReturn(List.of(getDocument("a")), List.of(getDocument("a")), List.of());
+        when(mockMongoTemplate.count(any(Query.class), eq(LEGACY_COLLECTION_NAME))).thenReturn(2L);
+
+        // Execute method under test
+        assertThrows(IllegalStateException.class, () -> migrate());
+
+        // Verify
+        verify(mockMongoTemplate, never()).updateFirst(any(Query.class),
+                argThat(update -> update.modifies("status") && update.getUpdateObject().get("$set", Document.class)
+                        .get("status") == Status.COMPLETED), eq(ScoreMigration.class));
+    }
+
+    @Test
+    public void migrate_Should_ThrowException_When_LeaseLost() {
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScoreMigration.class))).thenReturn(getMigration(Status.COPYING));
+        when(mockMongoTemplate.find(any(Query.class), eq(Document.class), eq(LEGACY_COLLECTION_NAME)))
+                .thenReturn(List.of(getDocument("a")), List.of());
+        when(mockMongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ScoreMigration.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        // Execute method under test
+        assertThrows(IllegalStateException.class, () -> migrate());
+
+        // Verify
+        verify(mockMongoTemplate, never()).count(any(Query.class), anyString());
+    }
+
+    @Test
+    public void migrate_Should_ResumeFromBsonId_When_ObjectIds() {
+        // Define variables
+        ObjectId firstId = new ObjectId();
+        ObjectId secondId = new ObjectId();
+        ScoreMigration migration = getMigration(Status.COPYING);
+        migration.setLastCopiedId(firstId);
+        migration.setCopiedCount(1);
+        Document document = new Document("_id", secondId).append("userId", "1234");
+
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScoreMigration.class))).thenReturn(migration);
+        when(mockMongoTemplate.find(any(Query.class), eq(Document.class), eq(LEGACY_COLLECTION_NAME)))
+                .thenReturn(List.of(document), List.of(document), List.of());
+        when(mockMongoTemplate.count(any(Query.class), eq(LEGACY_COLLECTION_NAME))).thenReturn(2L);
+
+        // Execute method under test
+        long copied = migrate();
+
+        // Verify
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mockMongoTemplate, atLeastOnce()).find(queryCaptor.capture(), eq(Document.class),
+                eq(LEGACY_COLLECTION_NAME));
+        // The IDs are compared as ObjectIds, not strings
+        assertEquals(firstId, queryCaptor.getAllValues().get(0).getQueryObject().get("_id", Document.class).get("$gt"));
+        verify(mockMongoTemplate).updateFirst(any(Query.class),
+                argThat(update -> secondId.equals(update.getUpdateObject().get("$set", Document.class)
+                        .get("lastCopiedId"))), eq(ScoreMigration.class));
+        assertEquals(2, copied);
+    }
+
+    @Test
+    public void migrate_Should_RemoveCopiedDocument_When_DeletedDuringCopy() {
+        // Define variables
+        Document keptDocument = getDocument("a");
+        Document deletedDocument = getDocument("b");
+
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScoreMigration.class))).thenReturn(getMigration(Status.COPYING));
+        // The batch, then the documents still in the legacy collection once it's inserted, then no more batches
+        when(mockMongoTemplate.find(any(Query.class), eq(Document.class), eq(LEGACY_COLLECTION_NAME)))
+                .thenReturn(List.of(keptDocument, deletedDocument), List.of(new Document("_id", "a")), List.of());
+        when(mockMongoTemplate.count(any(Query.class), eq(LEGACY_COLLECTION_NAME))).thenReturn(1L);
+
+        // Execute method under test
+        long copied = migrate();
+
+        // Verify
+        assertEquals(2, copied);
+        verify(mockMongoTemplate).insert(List.of(keptDocument, deletedDocument), COLLECTION_NAME);
+        verify(mockMongoTemplate).remove(argThat((Query query) -> query.getQueryObject().get("_id", Document.class)
+                .get("$in", Collection.class).equals(Set.of("b"))), eq(COLLECTION_NAME));
+        verify(mockMongoTemplate).updateFirst(any(Query.class),
+                argThat(update -> update.getUpdateObject().get("$set", Document.class).get("status") ==
+                        Status.COMPLETED), eq(ScoreMigration.class));
+    }
+
+    @Test
+    public void migrate_Should_StopWithoutCompleting_When_AskedToStop() {
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScoreMigration.class))).thenReturn(getMigration(Status.COPYING));
+
+        // Execute method under test
+        long copied = migrator.migrate(COLLECTION_NAME, TIME_SERIES_OPTIONS, 2, () -> {}, () -> false);
+
+        // Verify
+        assertEquals(0, copied);
+        verify(mockMongoTemplate, never()).find(any(Query.class), eq(Document.class), anyString());
+        verify(mockMongoTemplate, never()).count(any(Query.class), anyString());
+        verify(mockMongoTemplate, never()).updateFirst(any(Query.class),
+                argThat(update -> update.modifies("status")), eq(ScoreMigration.class));
+    }
+
+    @Test
+    public void onScoresDeleted_Should_DeleteFromLegacyAndAgain_When_MigrationIncomplete() {
+        // Define variables
+        Score score = new Score();
+        score.setId("1234-5678");
+
+        // Set mock expectations
+        when(mockMongoTemplate.getCollectionName(Score.class)).thenReturn(COLLECTION_NAME);
+        when(mockMongoTemplate.exists(any(Query.class), eq(ScoreMigration.class))).thenReturn(true);
+        when(mockMongoTemplate.remove(any(Query.class), eq(LEGACY_COLLECTION_NAME)))
+                .thenReturn(DeleteResult.acknowledged(1));
+
+        // Execute method under test
+        migrator.onScoresDeleted(new ScoresDeletedEvent(List.of(score)));
+
+        // Verify
+        InOrder inOrder = inOrder(mockMongoTemplate);
+        inOrder.verify(mockMongoTemplate).remove(any(Query.class), eq(LEGACY_COLLECTION_NAME));
+        inOrder.verify(mockMongoTemplate).remove(any(Query.class), eq(COLLECTION_NAME));
+    }
+
+    @Test
+    public void onScoresDeleted_Should_DoNothing_When_NoMigration() {
+        // Define variables
+        Score score = new Score();
+        score.setId("1234-5678");
+
+        // Set mock expectations
+        when(mockMongoTemplate.getCollectionName(Score.class)).thenReturn(COLLECTION_NAME);
+        when(mockMongoTemplate.exists(any(Query.class), eq(ScoreMigration.class))).thenReturn(false);
+
+        // Execute method under test
+        migrator.onScoresDeleted(new ScoresDeletedEvent(List.of(score)));
+
+        // Verify
+        verify(mockMongoTemplate, never()).remove(any(Query.class), anyString());
+    }
+
+    private long migrate() {
+        return migrator.migrate(COLLECTION_NAME, TIME_SERIES_OPTIONS, 2, () -> {}, () -> true);
+    }
+
+    private Document getDocument(String id) {
+        return new Document("_id", id).append("userId", "1234").append("value", 10);
+    }
+
+    private ScoreMigration getMigration(Status status) {
+        ScoreMigration migration = new ScoreMigration();
+        migration.setCollectionName(COLLECTION_NAME);
+        migration.setStatus(status);
+        return migration;
+    }
+}
@@ -0,0 +1,106 @@
+package com.huwdunnit.snookeruprest.db;
+
+import com.huwdunnit.snookeruprest.config.SecondaryReadsProperties;
+import com.mongodb.ReadPreference;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for the SecondaryReadsInterceptor class.
+ *
+ * @author Huwdunnit
+ */
+public class SecondaryReadsInterceptorTests {
+
+    private SecondaryReadsProperties properties;
+
+    private HttpServletRequest mockRequest;
+
+    private HttpServletResponse mockResponse;
+
+    @BeforeEach
+    public void beforeEach() {
+        properties = new SecondaryReadsProperties();
+        properties.setEnabled(true);
+        mockRequest = mock(HttpServletRequest.class);
+        mockResponse = mock(HttpServletResponse.class);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        ReadPreferenceContext.clear();
+    }
+
+    @Test
+    public void preHandle_Should_SetSecondaryReadPreference_When_EndpointMarkedForSecondaryReads() throws Exception {
+        // Define variables
+        SecondaryReadsInterceptor interceptor = new SecondaryReadsInterceptor(properties);
+        HandlerMethod handler = new HandlerMethod(new TestController(), "secondaryReadsEndpoint");
+
+        // Execute method under test
+        interceptor.preHandle(mockRequest, mockResponse, handler);
+
+        // Verify
+        assertEquals(ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS), ReadPreferenceContext.get());
+    }
+
+    @Test
+    public void preHandle_Should_NotSetReadPreference_When_EndpointNotMarkedForSecondaryReads() throws Exception {
+        // Define variables
+        SecondaryReadsInterceptor interceptor = new SecondaryReadsInterceptor(properties);
+        HandlerMethod handler = new HandlerMethod(new TestController(), "primaryEndpoint");
+
+        // Execute method under test
+        interceptor.preHandle(mockRequest, mockResponse, handler);
+
+        // Verify
+        assertNull(ReadPreferenceContext.get());
+    }
+
+    @Test
+    public void preHandle_Should_NotSetReadPreference_When_SecondaryReadsDisabled() throws Exception {
+        // Define variables
+        properties.setEnabled(false);
+        SecondaryReadsInterceptor interceptor = new SecondaryReadsInterceptor(properties);
+        HandlerMethod handler = new HandlerMethod(new TestController(), "secondaryReadsEndpoint");
+
+        // Execute method under test
+        interceptor.preHandle(mockRequest, mockResponse, handler);
+
+        // Verify
+        assertNull(ReadPreferenceContext.get());
+    }
+
+    @Test
+    public void afterCompletion_Should_ClearReadPreference() throws Exception {
+        // Define variables
+        SecondaryReadsInterceptor interceptor = new SecondaryReadsInterceptor(properties);
+        HandlerMethod handler = new HandlerMethod(new TestController(), "secondaryReadsEndpoint");
+        interceptor.preHandle(mockRequest, mockResponse, handler);
+
+        // Execute method under test
+        interceptor.afterCompletion(mockRequest, mockResponse, handler, null);
+
+        // Verify
+        assertNull(ReadPreferenceContext.get());
+    }
+
+    static class TestController {
+
+        @SecondaryReads
+        public void secondaryReadsEndpoint() {
+        }
+
+        public void primaryEndpoint() {
+        }
+    }
+}
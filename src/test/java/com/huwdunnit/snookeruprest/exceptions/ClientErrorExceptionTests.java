@@ -0,0 +1,26 @@
+package com.huwdunnit.snookeruprest.exceptions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ClientErrorException class.
+ *
+ * @author Huwdunnit
+ */
+public class ClientErrorExceptionTests {
+
+    @Test
+    public void clientErrorException_Should_HaveNoStackTraceOrSuppressedExceptions() {
+        // Execute method under test
+        UserNotFoundException ex = new UserNotFoundException("User not found", "1234");
+        ex.addSuppressed(new IllegalStateException());
+
+        // Verify
+        assertEquals(0, ex.getStackTrace().length);
+        assertEquals(0, ex.getSuppressed().length);
+        assertEquals("User not found", ex.getMessage());
+        assertEquals("1234", ex.getUserId());
+    }
+}
@@ -0,0 +1,123 @@
+package com.huwdunnit.snookeruprest.guard;
+
+import com.huwdunnit.snookeruprest.config.QueryGuardProperties;
+import com.huwdunnit.snookeruprest.exceptions.InvalidRequestParameterException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the PageSizeInterceptor class.
+ *
+ * @author Huwdunnit
+ */
+public class PageSizeInterceptorTests {
+
+    private PageSizeInterceptor interceptor;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void beforeEach() {
+        QueryGuardProperties properties = new QueryGuardProperties();
+        properties.setMaxPageSize(400);
+        interceptor = new PageSizeInterceptor(properties);
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void preHandle_Should_AllowRequest_When_PageSizeWithinDefaultMax() throws Exception {
+        // Define variables
+        HandlerMethod handler = new HandlerMethod(new TestController(), "defaultMaxEndpoint");
+        request.setParameter("pageSize", "400");
+        request.setParameter("pageNumber", "2");
+
+        // Execute method under test
+        boolean proceed = interceptor.preHandle(request, response, handler);
+
+        // Verify
+        assertTrue(proceed);
+    }
+
+    @Test
+    public void preHandle_Should_ThrowInvalidRequestParameterException_When_PageSizeOverDefaultMax()
+            throws Exception {
+        // Define variables
+        HandlerMethod handler = new HandlerMethod(new TestController(), "defaultMaxEndpoint");
+        request.setParameter("pageSize", "1000000");
+
+        // Execute method under test
+        InvalidRequestParameterException ex = assertThrows(InvalidRequestParameterException.class,
+                () -> interceptor.preHandle(request, response, handler));
+
+        // Verify
+        assertEquals("pageSize", ex.getParameterName());
+    }
+
+    @Test
+    public void preHandle_Should_ThrowInvalidRequestParameterException_When_PageSizeOverEndpointMax()
+            throws Exception {
+        // Define variables
+        HandlerMethod handler = new HandlerMethod(new TestController(), "smallMaxEndpoint");
+        request.setParameter("pageSize", "11");
+
+        // Execute method under test
+        assertThrows(InvalidRequestParameterException.class,
+                () -> interceptor.preHandle(request, response, handler));
+    }
+
+    @Test
+    public void preHandle_Should_ThrowInvalidRequestParameterException_When_PageSizeZero() throws Exception {
+        // Define variables
+        HandlerMethod handler = new HandlerMethod(new TestController(), "defaultMaxEndpoint");
+        request.setParameter("pageSize", "0");
+
+        // Execute method under test
+        assertThrows(InvalidRequestParameterException.class,
+                () -> interceptor.preHandle(request, response, handler));
+    }
+
+    @Test
+    public void preHandle_Should_ThrowInvalidRequestParameterException_When_PageNumberNegative() throws Exception {
+        // Define variables
+        HandlerMethod handler = new HandlerMethod(new TestController(), "defaultMaxEndpoint");
+        request.setParameter("pageNumber", "-1");
+
+        // Execute method under test
+        InvalidRequestParameterException ex = assertThrows(InvalidRequestParameterException.class,
+                () -> interceptor.preHandle(request, response, handler));
+
+        // Verify
+        assertEquals("pageNumber", ex.getParameterName());
+    }
+
+    @Test
+    public void preHandle_Should_AllowRequest_When_PageSizeNotANumber() throws Exception {
+        // Define variables
+        HandlerMethod handler = new HandlerMethod(new TestController(), "defaultMaxEndpoint");
+        request.setParameter("pageSize", "lots");
+
+        // Execute method under test
+        boolean proceed = interceptor.preHandle(request, response, handler);
+
+        // Verify
+        assertTrue(proceed, "Expected invalid numbers to be left to parameter binding");
+    }
+
+    private static class TestController {
+
+        public void defaultMaxEndpoint() {
+        }
+
+        @MaxPageSize(10)
+        public void smallMaxEndpoint() {
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.huwdunnit.snookeruprest.guard;
+
+import com.huwdunnit.snookeruprest.config.QueryGuardProperties;
+import com.huwdunnit.snookeruprest.exceptions.QueryTooExpensiveException;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.mongodb.MongoExecutionTimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the QueryCostGuard class.
+ *
+ * @author Huwdunnit
+ */
+public class QueryCostGuardTests {
+
+    private MongoTemplate mockMongoTemplate;
+
+    private QueryCostGuard queryCostGuard;
+
+    @BeforeEach
+    public void beforeEach() {
+        mockMongoTemplate = mock(MongoTemplate.class);
+        QueryGuardProperties properties = new QueryGuardProperties();
+        properties.setMaxUnindexedScanDocuments(1000);
+        queryCostGuard = new QueryCostGuard(mockMongoTemplate, properties);
+
+        when(mockMongoTemplate.getCollectionName(Score.class)).thenReturn("score");
+    }
+
+    @Test
+    public void checkUnindexedScan_Should_Allow_When_CollectionSmallEnough() {
+        // Set mock expectations
+        when(mockMongoTemplate.estimatedCount("score")).thenReturn(1000L);
+
+        // Execute method under test
+        queryCostGuard.checkUnindexedScan(Score.class, false);
+    }
+
+    @Test
+    public void checkUnindexedScan_Should_ThrowQueryTooExpensiveException_When_CollectionTooLargeAndNoDateRange() {
+        // Set mock expectations
+        when(mockMongoTemplate.estimatedCount("score")).thenReturn(1001L);
+
+        // Execute method under test
+        assertThrows(QueryTooExpensiveException.class, () -> queryCostGuard.checkUnindexedScan(Score.class, false));
+    }
+
+    @Test
+    public void checkUnindexedScan_Should_AllowWithoutCounting_When_DateRanged() {
+        // Execute method under test
+        queryCostGuard.checkUnindexedScan(Score.class, true);
+
+        // Verify
+        verify(mockMongoTemplate, never()).estimatedCount(anyString());
+    }
+
+    @Test
+    public void isTimeLimitExceeded_Should_ReturnTrue_Only_When_CausedByExecutionTimeout() {
+        // Define variables
+        UncategorizedMongoDbException timeoutException = new UncategorizedMongoDbException("Timed out",
+                new MongoExecutionTimeoutException(50, "operation exceeded time limit"));
+        DataAccessResourceFailureException otherException = new DataAccessResourceFailureException("Failed");
+
+        // Execute method under test, and verify
+        assertTrue(QueryCostGuard.isTimeLimitExceeded(timeoutException));
+        assertFalse(QueryCostGuard.isTimeLimitExceeded(otherException));
+    }
+}
@@ -0,0 +1,94 @@
+package com.huwdunnit.snookeruprest.ingest;
+
+import com.huwdunnit.snookeruprest.config.ScoreIngestProperties;
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.exceptions.ScoreIngestUnavailableException;
+import com.huwdunnit.snookeruprest.model.Score;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the IdempotencyKeyCache class.
+ *
+ * @author Huwdunnit
+ */
+public class IdempotencyKeyCacheTests {
+
+    private static final String USER_ID = "user1";
+
+    private static final String IDEMPOTENCY_KEY = "key1";
+
+    private IdempotencyKeyCache idempotencyKeyCache;
+
+    @BeforeEach
+    public void beforeEach() {
+        ScoreIngestProperties properties = new ScoreIngestProperties();
+        properties.setSubmitTimeout(Duration.ofMillis(50));
+        idempotencyKeyCache = new IdempotencyKeyCache(properties);
+    }
+
+    @Test
+    public void getOrAdd_Should_ReturnPreviousScore_When_SameKeyUsedAgain() {
+        // Define variables
+        Score score = getScore();
+
+        // Execute method under test
+        Score firstScore = idempotencyKeyCache.getOrAdd(USER_ID, IDEMPOTENCY_KEY, () -> score);
+        Score retriedScore = idempotencyKeyCache.getOrAdd(USER_ID, IDEMPOTENCY_KEY, () -> {
+            throw new IllegalStateException("Score shouldn't be added again");
+        });
+
+        // Verify
+        assertEquals(score, firstScore);
+        assertEquals(score, retriedScore);
+    }
+
+    @Test
+    public void getOrAdd_Should_ThrowScoreIngestUnavailableException_When_InProgressRequestTakesTooLong()
+            throws Exception {
+        // Define variables
+        CountDownLatch addStarted = new CountDownLatch(1);
+        CountDownLatch releaseAdd = new CountDownLatch(1);
+        CompletableFuture<Score> firstRequest = CompletableFuture.supplyAsync(() ->
+                idempotencyKeyCache.getOrAdd(USER_ID, IDEMPOTENCY_KEY, () -> {
+                    addStarted.countDown();
+                    try {
+                        releaseAdd.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return getScore();
+                }));
+        assertTrue(addStarted.await(5, TimeUnit.SECONDS));
+
+        // Execute method under test
+        try {
+            idempotencyKeyCache.getOrAdd(USER_ID, IDEMPOTENCY_KEY, () -> {
+                throw new IllegalStateException("Score shouldn't be added again");
+            });
+            fail("Expected ScoreIngestUnavailableException");
+        } catch (ScoreIngestUnavailableException ex) {
+            // Expected exception, i.e. test pass
+        } finally {
+            releaseAdd.countDown();
+        }
+
+        // Verify
+        assertNotNull(firstRequest.get(5, TimeUnit.SECONDS));
+    }
+
+    private Score getScore() {
+        Score score = new Score();
+        score.setId(IdGenerator.createNewId());
+        score.setValue(50);
+        score.setUserId(USER_ID);
+        return score;
+    }
+}
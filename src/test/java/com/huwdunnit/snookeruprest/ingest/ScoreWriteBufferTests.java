@@ -0,0 +1,206 @@
+package com.huwdunnit.snookeruprest.ingest;
+
+import com.huwdunnit.snookeruprest.config.ScoreIngestProperties;
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.db.ScoreRepository;
+import com.huwdunnit.snookeruprest.exceptions.ScoreIngestUnavailableException;
+import com.huwdunnit.snookeruprest.model.Score;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the ScoreWriteBuffer class.
+ *
+ * @author Huwdunnit
+ */
+public class ScoreWriteBufferTests {
+
+    private ScoreRepository mockScoreRepository;
+
+    private ScoreIngestProperties properties;
+
+    private ScoreWriteBuffer scoreWriteBuffer;
+
+    @BeforeEach
+    public void beforeEach() {
+        mockScoreRepository = mock(ScoreRepository.class);
+        properties = new ScoreIngestProperties();
+        properties.setWriteBehind(true);
+        properties.setMaxBatchDelay(Duration.ofMillis(50));
+
+        scoreWriteBuffer = new ScoreWriteBuffer(mockScoreRepository, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        scoreWriteBuffer.stop();
+    }
+
+    @Test
+    public void insert_Should_InsertConcurrentScoresInOneBatch_When_SubmittedWithinMaxDelay() throws Exception {
+        // Define variables
+        int numScores = 10;
+        List<Score> scores = new ArrayList<>();
+        for (int i = 0; i < numScores; i++) {
+            scores.add(getScore());
+        }
+
+        // Set mock expectations
+        when(mockScoreRepository.insert(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Execute method under test
+        scoreWriteBuffer.start();
+        ExecutorService executor = Executors.newFixedThreadPool(numScores);
+        try {
+            List<Future<Score>> results = new ArrayList<>();
+            for (Score score : scores) {
+                results.add(executor.submit(() -> scoreWriteBuffer.insert(score)));
+            }
+
+            // Verify
+            for (int i = 0; i < numScores; i++) {
+                assertEquals(scores.get(i), results.get(i).get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        verify(mockScoreRepository, atMost(2)).insert(anyList());
+        verify(mockScoreRepository, never()).insert(any(Score.class));
+    }
+
+    @Test
+    public void insert_Should_ThrowOriginalException_When_ScoreFailsToInsert() {
+        // Define variables
+        Score score = getScore();
+
+        // Set mock expectations
+        when(mockScoreRepository.insert(anyList())).thenThrow(new DuplicateKeyException("Duplicate"));
+        when(mockScoreRepository.insert(score)).thenThrow(new DuplicateKeyException("Duplicate"));
+        when(mockScoreRepository.existsById(score.getId())).thenReturn(false);
+
+        // Execute method under test
+        scoreWriteBuffer.start();
+        try {
+            scoreWriteBuffer.insert(score);
+            fail("Expected DuplicateKeyException");
+        } catch (DuplicateKeyException ex) {
+            // Expected exception, i.e. test pass
+        }
+    }
+
+    @Test
+    public void insert_Should_ThrowScoreIngestUnavailableException_When_NotStarted() {
+        // Execute method under test
+        try {
+            scoreWriteBuffer.insert(getScore());
+            fail("Expected ScoreIngestUnavailableException");
+        } catch (ScoreIngestUnavailableException ex) {
+            // Expected exception, i.e. test pass
+        }
+
+        // Verify
+        verifyNoInteractions(mockScoreRepository);
+    }
+
+    @Test
+    public void insert_Should_NotWriteScore_When_TimedOutBeforeBatchWritten() {
+        // Define variables
+        properties.setSubmitTimeout(Duration.ofMillis(10));
+        properties.setMaxBatchDelay(Duration.ofMillis(500));
+
+        // Execute method under test
+        scoreWriteBuffer.start();
+        try {
+            scoreWriteBuffer.insert(getScore());
+            fail("Expected ScoreIngestUnavailableException");
+        } catch (ScoreIngestUnavailableException ex) {
+            // Expected exception, i.e. test pass
+        }
+        // Stopping waits for the writer to flush the batch the cancelled score was in
+        scoreWriteBuffer.stop();
+
+        // Verify
+        verifyNoInteractions(mockScoreRepository);
+    }
+
+    @Test
+    public void insert_Should_ReturnScore_When_TimedOutWhileBatchBeingWritten() {
+        // Define variables
+        properties.setSubmitTimeout(Duration.ofMillis(10));
+        properties.setMaxBatchDelay(Duration.ofMillis(1));
+        Score score = getScore();
+        CountDownLatch insertStarted = new CountDownLatch(1);
+
+        // Set mock expectations
+        when(mockScoreRepository.insert(anyList())).thenAnswer(invocation -> {
+            insertStarted.countDown();
+            Thread.sleep(200);
+            return invocation.getArgument(0);
+        });
+
+        // Execute method under test
+        scoreWriteBuffer.start();
+        Score insertedScore = scoreWriteBuffer.insert(score);
+
+        // Verify
+        assertEquals(0, insertStarted.getCount());
+        assertEquals(score, insertedScore);
+    }
+
+    @Test
+    public void insert_Should_ThrowScoreIngestUnavailableException_When_BatchWriteOutlastsWriteTimeout()
+            throws InterruptedException {
+        // Define variables
+        properties.setSubmitTimeout(Duration.ofMillis(10));
+        properties.setWriteTimeout(Duration.ofMillis(50));
+        properties.setMaxBatchDelay(Duration.ofMillis(1));
+        CountDownLatch releaseInsert = new CountDownLatch(1);
+
+        // Set mock expectations
+        when(mockScoreRepository.insert(anyList())).thenAnswer(invocation -> {
+            releaseInsert.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+
+        // Execute method under test
+        scoreWriteBuffer.start();
+        try {
+            assertThrows(ScoreIngestUnavailableException.class, () -> scoreWriteBuffer.insert(getScore()));
+        } finally {
+            releaseInsert.countDown();
+        }
+
+        // Verify
+        verify(mockScoreRepository, timeout(1000)).insert(anyList());
+    }
+
+    @Test
+    public void getPhase_Should_StopAfterWebServer() {
+        // Execute method under test and verify
+        // Lower phases start earlier and stop later
+        assertTrue(scoreWriteBuffer.getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+    }
+
+    private Score getScore() {
+        Score score = new Score();
+        score.setId(IdGenerator.createNewId());
+        score.setValue(50);
+        score.setUserId(IdGenerator.createNewId());
+        score.setRoutineId(IdGenerator.createNewId());
+        return score;
+    }
+}
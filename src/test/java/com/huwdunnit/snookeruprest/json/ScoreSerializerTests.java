@@ -0,0 +1,149 @@
+package com.huwdunnit.snookeruprest.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.huwdunnit.snookeruprest.config.JsonConfig;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.ScoreListResponse;
+import com.huwdunnit.snookeruprest.model.Views;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the hand-written score serializers, checking they write the same JSON as the annotation-driven bean
+ * serializers.
+ *
+ * @author Huwdunnit
+ */
+public class ScoreSerializerTests {
+
+    private ObjectMapper objectMapper;
+
+    private ObjectMapper beanSerializerObjectMapper;
+
+    @BeforeEach
+    public void beforeEach() {
+        objectMapper = new JsonConfig().objectMapper();
+        beanSerializerObjectMapper = new ObjectMapper();
+        beanSerializerObjectMapper.registerModule(new JavaTimeModule());
+    }
+
+    @Test
+    public void serialize_Should_MatchBeanSerializer_When_AllFieldsSet() throws Exception {
+        // Define variables
+        Score score = getScore();
+
+        // Execute method under test
+        String json = objectMapper.writeValueAsString(score);
+
+        // Verify
+        assertEquals(beanSerializerObjectMapper.writeValueAsString(score), json);
+        assertTrue(json.contains("\"dateTime\":\"05/3/2023-09:07\""), "Unexpected date format: " + json);
+    }
+
+    @Test
+    public void serialize_Should_MatchBeanSerializer_When_PersonalBestSet() throws Exception {
+        // Define variables
+        Score score = getScore();
+        score.setPersonalBest(true);
+
+        // Execute method under test
+        String json = objectMapper.writeValueAsString(score);
+
+        // Verify
+        assertEquals(beanSerializerObjectMapper.writeValueAsString(score), json);
+        assertTrue(json.endsWith("\"personalBest\":true}"), "Unexpected JSON: " + json);
+    }
+
+    @Test
+    public void serialize_Should_MatchBeanSerializer_When_OptionalFieldsNull() throws Exception {
+        // Define variables
+        Score score = new Score();
+        score.setValue(12);
+
+        // Execute method under test
+        String json = objectMapper.writeValueAsString(score);
+
+        // Verify
+        assertEquals(beanSerializerObjectMapper.writeValueAsString(score), json);
+    }
+
+    @Test
+    public void serialize_Should_LeaveOutUserId_When_SummaryView() throws Exception {
+        // Define variables
+        Score score = getScore();
+
+        // Execute method under test
+        String summaryJson = objectMapper.writerWithView(Views.Summary.class).writeValueAsString(score);
+        String fullJson = objectMapper.writerWithView(Views.Full.class).writeValueAsString(score);
+
+        // Verify
+        assertEquals(beanSerializerObjectMapper.writerWithView(Views.Summary.class).writeValueAsString(score),
+                summaryJson);
+        assertFalse(summaryJson.contains("userId"), "Expected no user ID in summary: " + summaryJson);
+        assertEquals(beanSerializerObjectMapper.writerWithView(Views.Full.class).writeValueAsString(score), fullJson);
+    }
+
+    @Test
+    public void serialize_Should_MatchBeanSerializer_When_ScoreListResponse() throws Exception {
+        // Define variables
+        Score scoreTwo = getScore();
+        scoreTwo.setId("5678");
+        scoreTwo.setCushionLimit(null);
+        ScoreListResponse response = new ScoreListResponse(
+                new PageImpl<>(List.of(getScore(), scoreTwo), PageRequest.of(1, 2), 10));
+
+        // Execute method under test
+        String json = objectMapper.writeValueAsString(response);
+
+        // Verify
+        assertEquals(beanSerializerObjectMapper.writeValueAsString(response), json);
+    }
+
+    @Test
+    public void serialize_Should_LeaveOutUserIds_When_ScoreListResponseInSummaryView() throws Exception {
+        // Define variables
+        ScoreListResponse response = new ScoreListResponse(new PageImpl<>(List.of(getScore())));
+
+        // Execute method under test
+        String json = objectMapper.writerWithView(Views.Summary.class).writeValueAsString(response);
+
+        // Verify
+        assertEquals(beanSerializerObjectMapper.writerWithView(Views.Summary.class).writeValueAsString(response),
+                json);
+        assertFalse(json.contains("userId"), "Expected no user ID in summary: " + json);
+    }
+
+    @Test
+    public void deserialize_Should_ParseDateTime_When_WrittenBySerializer() throws Exception {
+        // Define variables
+        Score score = getScore();
+
+        // Execute method under test
+        Score readScore = objectMapper.readValue(objectMapper.writeValueAsString(score), Score.class);
+
+        // Verify
+        assertEquals(score, readScore);
+    }
+
+    private Score getScore() {
+        Score score = new Score();
+        score.setId("1234");
+        score.setValue(25);
+        score.setRoutineId("routine-1");
+        score.setUserId("user-1");
+        score.setDateTime(LocalDateTime.of(2023, 3, 5, 9, 7));
+        score.setCushionLimit(3);
+        score.setColours("blues");
+        score.setNumBalls(15);
+        score.setLoop(true);
+        return score;
+    }
+}
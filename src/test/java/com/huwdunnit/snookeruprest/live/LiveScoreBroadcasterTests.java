@@ -0,0 +1,112 @@
+package com.huwdunnit.snookeruprest.live;
+
+import com.huwdunnit.snookeruprest.config.LiveScoreProperties;
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.exceptions.ServiceOverloadedException;
+import com.huwdunnit.snookeruprest.model.Score;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the LiveScoreBroadcaster and LiveScoreFilter classes.
+ *
+ * @author Huwdunnit
+ */
+public class LiveScoreBroadcasterTests {
+
+    private static final String PLAYER_ID = IdGenerator.createNewId();
+
+    private static final String ROUTINE_ID = IdGenerator.createNewId();
+
+    private static final LiveScoreFilter ALL_SCORES = new LiveScoreFilter(Optional.empty(), Set.of());
+
+    private LiveScoreProperties properties;
+
+    private LiveScoreBroadcaster liveScoreBroadcaster;
+
+    @BeforeEach
+    public void beforeEach() {
+        properties = new LiveScoreProperties();
+        properties.setMaxSubscribers(2);
+
+        liveScoreBroadcaster = new LiveScoreBroadcaster(properties, new SimpleMeterRegistry());
+        liveScoreBroadcaster.start();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        liveScoreBroadcaster.stop();
+    }
+
+    @Test
+    public void subscribe_Should_ThrowServiceOverloadedException_When_MaxSubscribersConnected() {
+        // Define variables
+        liveScoreBroadcaster.subscribe(ALL_SCORES);
+        liveScoreBroadcaster.subscribe(ALL_SCORES);
+
+        // Execute method under test
+        assertThrows(ServiceOverloadedException.class, () -> liveScoreBroadcaster.subscribe(ALL_SCORES));
+
+        // Verify
+        assertEquals(2, liveScoreBroadcaster.getSubscriberCount());
+    }
+
+    @Test
+    public void stop_Should_DisconnectAllSubscribers() {
+        // Define variables
+        liveScoreBroadcaster.subscribe(ALL_SCORES);
+        liveScoreBroadcaster.subscribe(ALL_SCORES);
+
+        // Execute method under test
+        liveScoreBroadcaster.stop();
+
+        // Verify
+        assertEquals(0, liveScoreBroadcaster.getSubscriberCount());
+        assertThrows(ServiceOverloadedException.class, () -> liveScoreBroadcaster.subscribe(ALL_SCORES));
+    }
+
+    @Test
+    public void matches_Should_MatchAnyScore_When_NoFilters() {
+        // Execute method under test
+        boolean matches = ALL_SCORES.matches(getScore(ROUTINE_ID, PLAYER_ID));
+
+        // Verify
+        assertTrue(matches);
+    }
+
+    @Test
+    public void matches_Should_OnlyMatchScoresOnRoutine_When_RoutineIdSet() {
+        // Define variables
+        LiveScoreFilter filter = new LiveScoreFilter(Optional.of(ROUTINE_ID), Set.of());
+
+        // Execute method under test and verify
+        assertTrue(filter.matches(getScore(ROUTINE_ID, PLAYER_ID)));
+        assertFalse(filter.matches(getScore(IdGenerator.createNewId(), PLAYER_ID)));
+    }
+
+    @Test
+    public void matches_Should_OnlyMatchScoresByUsers_When_UserIdsSet() {
+        // Define variables
+        LiveScoreFilter filter = new LiveScoreFilter(Optional.empty(), Set.of(PLAYER_ID));
+
+        // Execute method under test and verify
+        assertTrue(filter.matches(getScore(ROUTINE_ID, PLAYER_ID)));
+        assertFalse(filter.matches(getScore(ROUTINE_ID, IdGenerator.createNewId())));
+    }
+
+    private Score getScore(String routineId, String userId) {
+        Score score = new Score();
+        score.setId(IdGenerator.createNewScoreId(userId));
+        score.setRoutineId(routineId);
+        score.setUserId(userId);
+        score.setValue(10);
+        return score;
+    }
+}
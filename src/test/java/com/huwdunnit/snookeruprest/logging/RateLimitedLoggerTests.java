@@ -0,0 +1,75 @@
+package com.huwdunnit.snookeruprest.logging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the RateLimitedLogger class.
+ *
+ * @author Huwdunnit
+ */
+public class RateLimitedLoggerTests {
+
+    private Logger mockLogger;
+
+    @BeforeEach
+    public void beforeEach() {
+        mockLogger = mock(Logger.class);
+        when(mockLogger.isWarnEnabled()).thenReturn(true);
+    }
+
+    @Test
+    public void warn_Should_DropMessages_When_LimitReachedInWindow() {
+        // Define variables
+        RateLimitedLogger rateLimitedLogger = new RateLimitedLogger(mockLogger, 2, Duration.ofHours(1));
+
+        // Execute method under test
+        for (int i = 0; i < 5; i++) {
+            rateLimitedLogger.warn("message {}", i);
+        }
+
+        // Verify
+        verify(mockLogger).warn("message {}", new Object[]{0});
+        verify(mockLogger).warn("message {}", new Object[]{1});
+        verify(mockLogger, times(2)).warn(anyString(), any(Object[].class));
+    }
+
+    @Test
+    public void warn_Should_ReportSuppressedCount_When_NextWindowStarts() throws InterruptedException {
+        // Define variables
+        RateLimitedLogger rateLimitedLogger = new RateLimitedLogger(mockLogger, 1, Duration.ofMillis(20));
+
+        // Execute method under test
+        rateLimitedLogger.warn("first");
+        rateLimitedLogger.warn("dropped");
+        rateLimitedLogger.warn("dropped");
+        Thread.sleep(50);
+        rateLimitedLogger.warn("second");
+
+        // Verify
+        verify(mockLogger).warn("Suppressed {} client error log messages in the last window", 2);
+        verify(mockLogger).warn("second", new Object[0]);
+        verify(mockLogger, never()).warn("dropped", new Object[0]);
+    }
+
+    @Test
+    public void warn_Should_LogNothing_When_WarnDisabled() {
+        // Define variables
+        RateLimitedLogger rateLimitedLogger = new RateLimitedLogger(mockLogger, 2, Duration.ofHours(1));
+
+        // Set mock expectations
+        when(mockLogger.isWarnEnabled()).thenReturn(false);
+
+        // Execute method under test
+        rateLimitedLogger.warn("message");
+
+        // Verify
+        verify(mockLogger, never()).warn(anyString(), any(Object[].class));
+    }
+}
@@ -0,0 +1,128 @@
+package com.huwdunnit.snookeruprest.logging;
+
+import com.huwdunnit.snookeruprest.config.RequestLoggingProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the RequestSummaryLoggingFilter class.
+ *
+ * @author Huwdunnit
+ */
+public class RequestSummaryLoggingFilterTests {
+
+    private static final long FAST_DURATION_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private RequestLoggingProperties properties;
+
+    private RequestSummaryLoggingFilter filter;
+
+    @BeforeEach
+    public void beforeEach() {
+        properties = new RequestLoggingProperties();
+        properties.setSlowThreshold(Duration.ofMillis(500));
+        filter = new RequestSummaryLoggingFilter(properties);
+    }
+
+    @Test
+    public void shouldLog_Should_ReturnFalse_When_FastSuccessfulRequestAndSamplingOff() {
+        // Define variables
+        properties.setSampleRate(0.0);
+
+        // Execute method under test
+        boolean shouldLog = filter.shouldLog(200, FAST_DURATION_NANOS);
+
+        // Verify
+        assertFalse(shouldLog);
+    }
+
+    @Test
+    public void shouldLog_Should_ReturnTrue_When_FastSuccessfulRequestAndEveryRequestSampled() {
+        // Define variables
+        properties.setSampleRate(1.0);
+
+        // Execute method under test
+        boolean shouldLog = filter.shouldLog(200, FAST_DURATION_NANOS);
+
+        // Verify
+        assertTrue(shouldLog);
+    }
+
+    @Test
+    public void shouldLog_Should_ReturnTrue_When_ServerErrorAndSamplingOff() {
+        // Define variables
+        properties.setSampleRate(0.0);
+
+        // Execute method under test
+        boolean shouldLog = filter.shouldLog(503, FAST_DURATION_NANOS);
+
+        // Verify
+        assertTrue(shouldLog);
+    }
+
+    @Test
+    public void shouldLog_Should_ReturnFalse_When_ClientErrorAndSamplingOff() {
+        // Define variables
+        properties.setSampleRate(0.0);
+
+        // Execute method under test
+        boolean shouldLog = filter.shouldLog(404, FAST_DURATION_NANOS);
+
+        // Verify
+        assertFalse(shouldLog);
+    }
+
+    @Test
+    public void shouldLog_Should_ReturnTrue_When_RequestAtSlowThresholdAndSamplingOff() {
+        // Define variables
+        properties.setSampleRate(0.0);
+
+        // Execute method under test
+        boolean shouldLog = filter.shouldLog(200, properties.getSlowThreshold().toNanos());
+
+        // Verify
+        assertTrue(shouldLog);
+    }
+
+    @Test
+    public void doFilter_Should_PassRequestDownChain_When_Disabled() throws Exception {
+        // Define variables
+        properties.setEnabled(false);
+        HttpServletRequest mockRequest = mock(HttpServletRequest.class);
+        HttpServletResponse mockResponse = mock(HttpServletResponse.class);
+        FilterChain mockFilterChain = mock(FilterChain.class);
+
+        // Execute method under test
+        filter.doFilter(mockRequest, mockResponse, mockFilterChain);
+
+        // Verify
+        verify(mockFilterChain).doFilter(mockRequest, mockResponse);
+        verify(mockResponse, never()).getStatus();
+    }
+
+    @Test
+    public void doFilter_Should_PassRequestDownChain_When_Enabled() throws Exception {
+        // Define variables
+        HttpServletRequest mockRequest = mock(HttpServletRequest.class);
+        HttpServletResponse mockResponse = mock(HttpServletResponse.class);
+        FilterChain mockFilterChain = mock(FilterChain.class);
+
+        // Set mock expectations
+        when(mockResponse.getStatus()).thenReturn(200);
+
+        // Execute method under test
+        filter.doFilter(mockRequest, mockResponse, mockFilterChain);
+
+        // Verify
+        verify(mockFilterChain).doFilter(mockRequest, mockResponse);
+    }
+}
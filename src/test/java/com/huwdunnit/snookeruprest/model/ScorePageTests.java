@@ -0,0 +1,137 @@
+package com.huwdunnit.snookeruprest.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ScorePage class.
+ *
+ * @author Huwdunnit
+ */
+public class ScorePageTests {
+
+    @Test
+    public void of_Should_HoldEqualScores_When_ScoresHaveAllFieldsSet() {
+        // Define variables
+        Score scoreOne = getScore("1", "routine-1", "blues", LocalDateTime.of(2023, 3, 5, 9, 7, 30));
+        Score scoreTwo = getScore("2", "routine-2", "blues", LocalDateTime.of(2023, 3, 6, 10, 0));
+        Score scoreThree = getScore("3", "routine-1", "reds", LocalDateTime.of(2023, 3, 7, 11, 0));
+        List<Score> scores = List.of(scoreOne, scoreTwo, scoreThree);
+
+        // Execute method under test
+        ScorePage scorePage = ScorePage.of(scores);
+
+        // Verify
+        assertEquals(scores, scorePage);
+        assertEquals(3, scorePage.size());
+        assertEquals("routine-1", scorePage.getRoutineId(2));
+        assertEquals("reds", scorePage.getColours(2));
+    }
+
+    @Test
+    public void of_Should_HoldNulls_When_OptionalFieldsNotSet() {
+        // Define variables
+        Score score = new Score();
+        score.setId("1");
+        score.setValue(7);
+
+        // Execute method under test
+        ScorePage scorePage = ScorePage.of(List.of(score));
+
+        // Verify
+        assertEquals(score, scorePage.get(0));
+        assertNull(scorePage.getCushionLimit(0));
+        assertNull(scorePage.getNumBalls(0));
+        assertNull(scorePage.getDateTime(0));
+        assertFalse(scorePage.isLoop(0));
+    }
+
+    @Test
+    public void get_Should_ReturnDetachedCopy_When_ScoreChanged() {
+        // Define variables
+        Score score = getScore("1", "routine-1", "blues", LocalDateTime.of(2023, 3, 5, 9, 0));
+        ScorePage scorePage = ScorePage.of(List.of(score));
+
+        // Execute method under test
+        Score firstCopy = scorePage.get(0);
+        firstCopy.setValue(99);
+        Score secondCopy = scorePage.get(0);
+
+        // Verify
+        assertNotSame(firstCopy, secondCopy);
+        assertEquals(score, secondCopy);
+        assertEquals(score.getValue(), scorePage.getValue(0));
+    }
+
+    @Test
+    public void builder_Should_GrowPastExpectedSize_When_MoreScoresAdded() {
+        // Define variables
+        ScorePage.Builder builder = new ScorePage.Builder(1);
+
+        // Execute method under test
+        for (int i = 0; i < 10; i++) {
+            builder.add(getScore(String.valueOf(i), "routine-1", null, LocalDateTime.of(2023, 3, 1, 0, i)));
+        }
+        ScorePage scorePage = builder.build();
+
+        // Verify
+        assertEquals(10, scorePage.size());
+        assertEquals("9", scorePage.getId(9));
+        assertEquals(LocalDateTime.of(2023, 3, 1, 0, 9), scorePage.getDateTime(9));
+    }
+
+    @Test
+    public void sortedByDateTime_Should_SortScores_When_OutOfOrder() {
+        // Define variables
+        Score later = getScore("1", "routine-1", "blues", LocalDateTime.of(2023, 3, 7, 11, 0));
+        Score earlier = getScore("2", "routine-2", null, LocalDateTime.of(2023, 3, 5, 9, 0));
+        ScorePage scorePage = ScorePage.of(List.of(later, earlier));
+
+        // Execute method under test
+        ScorePage sortedPage = scorePage.sortedByDateTime();
+
+        // Verify
+        assertEquals(List.of(earlier, later), sortedPage);
+    }
+
+    @Test
+    public void sortedByDateTime_Should_ReturnSamePage_When_AlreadySorted() {
+        // Define variables
+        ScorePage scorePage = ScorePage.of(List.of(
+                getScore("1", "routine-1", "blues", LocalDateTime.of(2023, 3, 5, 9, 0)),
+                getScore("2", "routine-1", "blues", LocalDateTime.of(2023, 3, 7, 11, 0))));
+
+        // Execute method under test
+        ScorePage sortedPage = scorePage.sortedByDateTime();
+
+        // Verify
+        assertSame(scorePage, sortedPage);
+    }
+
+    @Test
+    public void get_Should_ThrowIndexOutOfBoundsException_When_IndexPastEnd() {
+        // Define variables
+        ScorePage scorePage = ScorePage.of(List.of(new Score()));
+
+        // Execute method under test
+        assertThrows(IndexOutOfBoundsException.class, () -> scorePage.get(1));
+    }
+
+    private Score getScore(String id, String routineId, String colours, LocalDateTime dateTime) {
+        Score score = new Score();
+        score.setId(id);
+        score.setValue(Integer.parseInt(id) * 10);
+        score.setRoutineId(routineId);
+        score.setUserId("user-1");
+        score.setDateTime(dateTime);
+        score.setCushionLimit(3);
+        score.setColours(colours);
+        score.setNumBalls(15);
+        score.setLoop(true);
+        return score;
+    }
+}
@@ -0,0 +1,93 @@
+package com.huwdunnit.snookeruprest.model.errors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ErrorResponse class.
+ *
+ * @author Huwdunnit
+ */
+public class ErrorResponseTests {
+
+    @Test
+    public void createUserNotFoundErrorResponse_Should_ReturnSameResponse_When_CalledTwice() {
+        // Execute method under test
+        ErrorResponse firstResponse = ErrorResponse.createUserNotFoundErrorResponse();
+        ErrorResponse secondResponse = ErrorResponse.createUserNotFoundErrorResponse();
+
+        // Verify
+        assertSame(firstResponse, secondResponse);
+        assertEquals(ErrorResponse.USER_NOT_FOUND, firstResponse.getErrorMessage());
+        assertNull(firstResponse.getContext());
+    }
+
+    @Test
+    public void createFixedErrorResponses_Should_ReturnResponseWithMatchingMessage() {
+        // Execute method under test and verify
+        assertEquals(ErrorResponse.DUPLICATE_FIELD, ErrorResponse.createDuplicateValueErrorResponse().getErrorMessage());
+        assertEquals(ErrorResponse.ROUTINE_NOT_FOUND,
+                ErrorResponse.createRoutineNotFoundErrorResponse().getErrorMessage());
+        assertEquals(ErrorResponse.SCORE_NOT_FOUND, ErrorResponse.createScoreNotFoundErrorResponse().getErrorMessage());
+        assertEquals(ErrorResponse.ROUTINE_IN_SCORE_DOESNT_EXIST,
+                ErrorResponse.createRoutineForScoreNotFoundErrorResponse().getErrorMessage());
+        assertEquals(ErrorResponse.SCORE_INGEST_UNAVAILABLE,
+                ErrorResponse.createScoreIngestUnavailableErrorResponse().getErrorMessage());
+        assertEquals(ErrorResponse.IDEMPOTENCY_KEY_REUSED,
+                ErrorResponse.createIdempotencyKeyReusedErrorResponse().getErrorMessage());
+        assertEquals(ErrorResponse.INVALID_SYNC_TOKEN,
+                ErrorResponse.createInvalidSyncTokenErrorResponse().getErrorMessage());
+        assertEquals(ErrorResponse.RATE_LIMITED, ErrorResponse.createRateLimitedErrorResponse().getErrorMessage());
+        assertEquals(ErrorResponse.SERVICE_OVERLOADED,
+                ErrorResponse.createServiceOverloadedErrorResponse().getErrorMessage());
+        assertEquals(ErrorResponse.QUERY_TOO_EXPENSIVE,
+                ErrorResponse.createQueryTooExpensiveErrorResponse().getErrorMessage());
+    }
+
+    @Test
+    public void createInvalidScoreFieldErrorResponse_Should_ReturnSameResponse_When_SameFieldName() {
+        // Execute method under test
+        ErrorResponse firstResponse = ErrorResponse.createInvalidScoreFieldErrorResponse("colours");
+        ErrorResponse secondResponse = ErrorResponse.createInvalidScoreFieldErrorResponse("colours");
+
+        // Verify
+        assertSame(firstResponse, secondResponse);
+        assertEquals(ErrorResponse.INVALID_SCORE_FIELD, firstResponse.getErrorMessage());
+        assertEquals(Map.of(ErrorResponse.FIELD_NAME, "colours"), firstResponse.getContext());
+    }
+
+    @Test
+    public void createInvalidScoreFieldErrorResponse_Should_ReturnDifferentResponses_When_DifferentFieldNames() {
+        // Execute method under test
+        ErrorResponse coloursResponse = ErrorResponse.createInvalidScoreFieldErrorResponse("colours");
+        ErrorResponse cushionLimitResponse = ErrorResponse.createInvalidScoreFieldErrorResponse("cushionLimit");
+
+        // Verify
+        assertNotSame(coloursResponse, cushionLimitResponse);
+        assertEquals(Map.of(ErrorResponse.FIELD_NAME, "cushionLimit"), cushionLimitResponse.getContext());
+    }
+
+    @Test
+    public void createInvalidRequestParameterErrorResponse_Should_ReturnSameResponse_When_SameParameterName() {
+        // Execute method under test
+        ErrorResponse firstResponse = ErrorResponse.createInvalidRequestParameterErrorResponse("pageSize");
+        ErrorResponse secondResponse = ErrorResponse.createInvalidRequestParameterErrorResponse("pageSize");
+
+        // Verify
+        assertSame(firstResponse, secondResponse);
+        assertEquals(ErrorResponse.INVALID_REQUEST_PARAMETER, firstResponse.getErrorMessage());
+        assertEquals(Map.of(ErrorResponse.FIELD_NAME, "pageSize"), firstResponse.getContext());
+    }
+
+    @Test
+    public void sharedResponses_Should_BeImmutable() {
+        // Define variables
+        ErrorResponse response = ErrorResponse.createInvalidScoreFieldErrorResponse("numBalls");
+
+        // Execute method under test and verify
+        assertThrows(UnsupportedOperationException.class, () -> response.getContext().put("other", "value"));
+    }
+}
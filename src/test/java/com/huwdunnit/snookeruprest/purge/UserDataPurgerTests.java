@@ -0,0 +1,182 @@
+package com.huwdunnit.snookeruprest.purge;
+
+import com.huwdunnit.snookeruprest.archive.ScoreArchive;
+import com.huwdunnit.snookeruprest.cache.UserDetailsCache;
+import com.huwdunnit.snookeruprest.config.ScoreStorageProperties;
+import com.huwdunnit.snookeruprest.config.UserPurgeProperties;
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.db.ScoreTimeSeriesMigrator;
+import com.huwdunnit.snookeruprest.events.CollectionChangedEvent;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.User;
+import com.huwdunnit.snookeruprest.model.UserDeletion;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the UserDataPurger class.
+ *
+ * @author Huwdunnit
+ */
+public class UserDataPurgerTests {
+
+    private static final String PLAYER_ID = IdGenerator.createNewId();
+
+    private static final String SCORE_COLLECTION = "score";
+
+    private MongoTemplate mockMongoTemplate;
+
+    private ScoreArchive mockScoreArchive;
+
+    private UserDetailsCache mockUserDetailsCache;
+
+    private ApplicationEventPublisher mockEventPublisher;
+
+    private UserDataPurger userDataPurger;
+
+    @BeforeEach
+    public void beforeEach() {
+        mockMongoTemplate = mock(MongoTemplate.class);
+        mockScoreArchive = mock(ScoreArchive.class);
+        mockUserDetailsCache = mock(UserDetailsCache.class);
+        mockEventPublisher = mock(ApplicationEventPublisher.class);
+
+        when(mockUserDetailsCache.getTtl()).thenReturn(Duration.ofSeconds(10));
+        when(mockMongoTemplate.getCollectionName(any())).thenAnswer(invocation ->
+                invocation.getArgument(0) == Score.class ? SCORE_COLLECTION
+                        : ((Class<?>) invocation.getArgument(0)).getSimpleName());
+        when(mockMongoTemplate.find(any(Query.class), eq(Document.class), anyString())).thenReturn(List.of());
+        when(mockMongoTemplate.remove(any(Query.class), anyString())).thenReturn(DeleteResult.acknowledged(2));
+
+        // Runs are executed directly by the tests, so the scheduled ones shouldn't start during a test
+        UserPurgeProperties properties = new UserPurgeProperties();
+        properties.setInterval(Duration.ofHours(1));
+        userDataPurger = new UserDataPurger(mockMongoTemplate, mockScoreArchive, new ScoreStorageProperties(),
+                mock(ScoreTimeSeriesMigrator.class), properties, mockUserDetailsCache, mockEventPublisher);
+        userDataPurger.start();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        userDataPurger.stop();
+    }
+
+    @Test
+    public void purgeDeletedUsers_Should_DoNothing_When_NoDeletionToClaim() {
+        // Execute method under test
+        userDataPurger.purgeDeletedUsers();
+
+        // Verify
+        verify(mockMongoTemplate, never()).remove(any(Query.class), any(Class.class));
+        verifyNoInteractions(mockScoreArchive, mockEventPublisher);
+    }
+
+    @Test
+    public void purgeDeletedUsers_Should_OnlyClaimDeletions_When_CachedUserDetailsExpired() {
+        // Execute method under test
+        userDataPurger.purgeDeletedUsers();
+
+        // Verify
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        verify(mockMongoTemplate).findAndModify(queryCaptor.capture(), updateCaptor.capture(),
+                any(FindAndModifyOptions.class), eq(UserDeletion.class));
+        Document requestedAt = (Document) queryCaptor.getValue().getQueryObject().get("requestedAt");
+        assertNotNull(requestedAt.get("$lt"), "Expected claim to exclude recently requested deletions");
+        assertNotNull(((Document) updateCaptor.getValue().getUpdateObject().get("$set")).get("leaseOwner"));
+    }
+
+    @Test
+    public void purgeDeletedUsers_Should_DeleteScoresThenUser_When_DeletionClaimed() {
+        // Define variables
+        List<Document> scoreIds = List.of(new Document("_id", "score1"), new Document("_id", "score2"));
+
+        // Set mock expectations
+        givenDeletionToClaim();
+        when(mockMongoTemplate.find(any(Query.class), eq(Document.class), eq(SCORE_COLLECTION)))
+                .thenReturn(scoreIds).thenReturn(List.of());
+        when(mockMongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(UserDeletion.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // Execute method under test
+        userDataPurger.purgeDeletedUsers();
+
+        // Verify
+        verify(mockMongoTemplate).remove(any(Query.class), eq(SCORE_COLLECTION));
+        verify(mockScoreArchive).deleteUserArchives(PLAYER_ID);
+        verify(mockMongoTemplate).remove(any(Query.class), eq(User.class));
+        verify(mockEventPublisher).publishEvent(new CollectionChangedEvent(UserDetailsCache.COLLECTION_NAME,
+                PLAYER_ID));
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+        verify(mockMongoTemplate, atLeastOnce()).updateFirst(queryCaptor.capture(), any(Update.class),
+                eq(UserDeletion.class));
+        for (Query query : queryCaptor.getAllValues()) {
+            assertNotNull(query.getQueryObject().get("leaseOwner"), "Expected update conditioned on lease owner");
+        }
+    }
+
+    @Test
+    public void purgeDeletedUsers_Should_StopBeforeDeletingUser_When_LeaseLost() {
+        // Define variables
+        List<Document> scoreIds = List.of(new Document("_id", "score1"));
+
+        // Set mock expectations
+        givenDeletionToClaim();
+        when(mockMongoTemplate.find(any(Query.class), eq(Document.class), eq(SCORE_COLLECTION)))
+                .thenReturn(scoreIds);
+        when(mockMongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(UserDeletion.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        // Execute method under test
+        try {
+            userDataPurger.purgeDeletedUsers();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException ex) {
+            // Expected exception, i.e. test pass
+        }
+
+        // Verify
+        verify(mockMongoTemplate).remove(any(Query.class), eq(SCORE_COLLECTION));
+        verify(mockMongoTemplate, never()).remove(any(Query.class), eq(User.class));
+        verifyNoInteractions(mockEventPublisher);
+    }
+
+    @Test
+    public void purgeDeletedUsers_Should_DoNothing_When_Stopped() {
+        // Set mock expectations
+        givenDeletionToClaim();
+
+        // Execute method under test
+        userDataPurger.stop();
+        userDataPurger.purgeDeletedUsers();
+
+        // Verify
+        verify(mockMongoTemplate, never()).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(UserDeletion.class));
+    }
+
+    private void givenDeletionToClaim() {
+        UserDeletion deletion = new UserDeletion();
+        deletion.setUserId(PLAYER_ID);
+        deletion.setStatus(UserDeletion.Status.IN_PROGRESS);
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(UserDeletion.class))).thenReturn(deletion).thenReturn(null);
+    }
+}
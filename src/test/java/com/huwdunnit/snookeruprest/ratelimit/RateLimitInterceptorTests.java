@@ -0,0 +1,134 @@
+package com.huwdunnit.snookeruprest.ratelimit;
+
+import com.huwdunnit.snookeruprest.config.RateLimitProperties;
+import com.huwdunnit.snookeruprest.exceptions.RateLimitExceededException;
+import com.huwdunnit.snookeruprest.model.User;
+import com.huwdunnit.snookeruprest.security.UserPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the RateLimitInterceptor class.
+ *
+ * @author Huwdunnit
+ */
+public class RateLimitInterceptorTests {
+
+    private RateLimitProperties properties;
+
+    private RateLimiter mockRateLimiter;
+
+    private HttpServletRequest mockRequest;
+
+    private HttpServletResponse mockResponse;
+
+    private RateLimitInterceptor interceptor;
+
+    @BeforeEach
+    public void beforeEach() {
+        properties = new RateLimitProperties();
+        properties.setEnabled(true);
+        mockRateLimiter = mock(RateLimiter.class);
+        mockRequest = mock(HttpServletRequest.class);
+        mockResponse = mock(HttpServletResponse.class);
+        interceptor = new RateLimitInterceptor(properties, mockRateLimiter);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void preHandle_Should_UseUserIdAndExpensiveBudget_When_AuthenticatedAndEndpointExpensive()
+            throws Exception {
+        // Define variables
+        User user = new User();
+        user.setId("1234");
+        UserPrincipal userPrincipal = new UserPrincipal(user);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(userPrincipal,
+                null, userPrincipal.getAuthorities()));
+        HandlerMethod handler = new HandlerMethod(new TestController(), "expensiveEndpoint");
+
+        // Set mock expectations
+        when(mockRateLimiter.tryAcquire("user:1234", RequestBudget.EXPENSIVE)).thenReturn(0L);
+
+        // Execute method under test
+        boolean proceed = interceptor.preHandle(mockRequest, mockResponse, handler);
+
+        // Verify
+        assertTrue(proceed);
+        verify(mockRateLimiter).tryAcquire("user:1234", RequestBudget.EXPENSIVE);
+    }
+
+    @Test
+    public void preHandle_Should_UseIpAddressAndStandardBudget_When_Unauthenticated() throws Exception {
+        // Define variables
+        HandlerMethod handler = new HandlerMethod(new TestController(), "standardEndpoint");
+
+        // Set mock expectations
+        when(mockRequest.getRemoteAddr()).thenReturn("10.0.0.1");
+        when(mockRateLimiter.tryAcquire("ip:10.0.0.1", RequestBudget.STANDARD)).thenReturn(0L);
+
+        // Execute method under test
+        boolean proceed = interceptor.preHandle(mockRequest, mockResponse, handler);
+
+        // Verify
+        assertTrue(proceed);
+        verify(mockRateLimiter).tryAcquire("ip:10.0.0.1", RequestBudget.STANDARD);
+    }
+
+    @Test
+    public void preHandle_Should_ThrowRateLimitExceededException_When_NoTokenAvailable() throws Exception {
+        // Define variables
+        HandlerMethod handler = new HandlerMethod(new TestController(), "standardEndpoint");
+
+        // Set mock expectations
+        when(mockRequest.getRemoteAddr()).thenReturn("10.0.0.1");
+        when(mockRateLimiter.tryAcquire("ip:10.0.0.1", RequestBudget.STANDARD))
+                .thenReturn(Duration.ofMillis(1500).toNanos());
+
+        // Execute method under test
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> interceptor.preHandle(mockRequest, mockResponse, handler));
+
+        // Verify
+        assertEquals(Duration.ofMillis(1500), ex.getRetryAfter());
+    }
+
+    @Test
+    public void preHandle_Should_NotRateLimit_When_Disabled() throws Exception {
+        // Define variables
+        properties.setEnabled(false);
+        HandlerMethod handler = new HandlerMethod(new TestController(), "expensiveEndpoint");
+
+        // Execute method under test
+        boolean proceed = interceptor.preHandle(mockRequest, mockResponse, handler);
+
+        // Verify
+        assertTrue(proceed);
+        verify(mockRateLimiter, never()).tryAcquire(any(), any());
+    }
+
+    private static class TestController {
+
+        @ExpensiveRequest
+        public void expensiveEndpoint() {
+        }
+
+        public void standardEndpoint() {
+        }
+    }
+}
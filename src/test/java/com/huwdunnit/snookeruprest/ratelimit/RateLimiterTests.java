@@ -0,0 +1,109 @@
+package com.huwdunnit.snookeruprest.ratelimit;
+
+import com.huwdunnit.snookeruprest.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the RateLimiter class.
+ *
+ * @author Huwdunnit
+ */
+public class RateLimiterTests {
+
+    private static final String CLIENT_KEY = "user:1234";
+
+    private RateLimitProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void beforeEach() {
+        properties = new RateLimitProperties();
+        // A slow refill rate, so no tokens are added while a test runs
+        properties.setStandard(new RateLimitProperties.Budget(0.01, 3));
+        properties.setExpensive(new RateLimitProperties.Budget(0.01, 1));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void tryAcquire_Should_AllowBurst_When_BucketFull() {
+        // Define variables
+        RateLimiter rateLimiter = new RateLimiter(properties, meterRegistry);
+
+        // Execute method under test
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(CLIENT_KEY, RequestBudget.STANDARD));
+        }
+    }
+
+    @Test
+    public void tryAcquire_Should_RejectWithWaitTime_When_BurstUsedUp() {
+        // Define variables
+        RateLimiter rateLimiter = new RateLimiter(properties, meterRegistry);
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(CLIENT_KEY, RequestBudget.STANDARD);
+        }
+
+        // Execute method under test
+        long waitNanos = rateLimiter.tryAcquire(CLIENT_KEY, RequestBudget.STANDARD);
+
+        // Verify
+        // One token is added every 100 seconds
+        assertTrue(waitNanos > TimeUnit.SECONDS.toNanos(99) && waitNanos <= TimeUnit.SECONDS.toNanos(100),
+                "Unexpected wait time: " + waitNanos);
+        assertEquals(1, meterRegistry.get("snookerup.ratelimit.rejected").tag("budget", "STANDARD").counter()
+                .count());
+    }
+
+    @Test
+    public void tryAcquire_Should_CountBudgetsAndClientsSeparately_When_OneBucketEmpty() {
+        // Define variables
+        RateLimiter rateLimiter = new RateLimiter(properties, meterRegistry);
+        assertEquals(0, rateLimiter.tryAcquire(CLIENT_KEY, RequestBudget.EXPENSIVE));
+
+        // Execute method under test
+        long expensiveWaitNanos = rateLimiter.tryAcquire(CLIENT_KEY, RequestBudget.EXPENSIVE);
+        long standardWaitNanos = rateLimiter.tryAcquire(CLIENT_KEY, RequestBudget.STANDARD);
+        long otherClientWaitNanos = rateLimiter.tryAcquire("ip:127.0.0.1", RequestBudget.EXPENSIVE);
+
+        // Verify
+        assertTrue(expensiveWaitNanos > 0, "Expected expensive request to be rejected");
+        assertEquals(0, standardWaitNanos);
+        assertEquals(0, otherClientWaitNanos);
+    }
+
+    @Test
+    public void removeFullBuckets_Should_KeepBuckets_When_NotRefilled() {
+        // Define variables
+        RateLimiter rateLimiter = new RateLimiter(properties, meterRegistry);
+        rateLimiter.tryAcquire(CLIENT_KEY, RequestBudget.STANDARD);
+
+        // Execute method under test
+        rateLimiter.removeFullBuckets();
+
+        // Verify
+        assertEquals(1, meterRegistry.get("snookerup.ratelimit.clients").tag("budget", "STANDARD").gauge().value());
+    }
+
+    @Test
+    public void removeFullBuckets_Should_RemoveBuckets_When_Refilled() throws Exception {
+        // Define variables
+        properties.setStandard(new RateLimitProperties.Budget(1000, 3));
+        RateLimiter rateLimiter = new RateLimiter(properties, meterRegistry);
+        rateLimiter.tryAcquire(CLIENT_KEY, RequestBudget.STANDARD);
+        // One token is added every millisecond
+        Thread.sleep(5);
+
+        // Execute method under test
+        rateLimiter.removeFullBuckets();
+
+        // Verify
+        assertEquals(0, meterRegistry.get("snookerup.ratelimit.clients").tag("budget", "STANDARD").gauge().value());
+    }
+}
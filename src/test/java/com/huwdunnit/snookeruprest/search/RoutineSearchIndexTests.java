@@ -0,0 +1,125 @@
+package com.huwdunnit.snookeruprest.search;
+
+import com.huwdunnit.snookeruprest.db.RoutineRepository;
+import com.huwdunnit.snookeruprest.events.CollectionChangedEvent;
+import com.huwdunnit.snookeruprest.model.Routine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the RoutineSearchIndex class.
+ *
+ * @author Huwdunnit
+ */
+public class RoutineSearchIndexTests {
+
+    private static final Routine LINE_UP = Routine.builder()
+            .id("1")
+            .title("The Line Up")
+            .description(List.of("Place all the reds in a line up the middle of the table."))
+            .tags(List.of("break-building", "potting"))
+            .ballStriking(List.of("Screw"))
+            .build();
+
+    private static final Routine T_LINE_UP = Routine.builder()
+            .id("2")
+            .title("T Line Up")
+            .description(List.of("Reds in a T shape, potting blacks between reds."))
+            .tags(List.of("break-building"))
+            .build();
+
+    private static final Routine LONG_POTS = Routine.builder()
+            .id("3")
+            .title("Long Pots")
+            .description(List.of("Pot reds the length of the table, with screw back."))
+            .tags(List.of("potting", "long"))
+            .build();
+
+    private RoutineRepository mockRoutineRepository;
+
+    private RoutineSearchIndex routineSearchIndex;
+
+    @BeforeEach
+    public void beforeEach() {
+        mockRoutineRepository = mock(RoutineRepository.class);
+        when(mockRoutineRepository.findAll()).thenReturn(List.of(LINE_UP, T_LINE_UP, LONG_POTS));
+        routineSearchIndex = new RoutineSearchIndex(mockRoutineRepository);
+    }
+
+    @Test
+    public void search_Should_ReturnAllRoutinesInTitleOrder_When_NoQueryOrTags() {
+        // Execute method under test
+        List<Routine> results = routineSearchIndex.search("", List.of(), TagMatch.ANY);
+
+        // Verify
+        assertEquals(List.of(LONG_POTS, T_LINE_UP, LINE_UP), results);
+    }
+
+    @Test
+    public void search_Should_MatchWordPrefixes() {
+        // Execute method under test
+        List<Routine> results = routineSearchIndex.search("lin", List.of(), TagMatch.ANY);
+
+        // Verify
+        assertEquals(2, results.size());
+        assertTrue(results.containsAll(List.of(LINE_UP, T_LINE_UP)));
+    }
+
+    @Test
+    public void search_Should_RequireEveryQueryWord() {
+        // Execute method under test
+        List<Routine> results = routineSearchIndex.search("line screw", List.of(), TagMatch.ANY);
+
+        // Verify
+        assertEquals(List.of(LINE_UP), results);
+    }
+
+    @Test
+    public void search_Should_RankTitleMatchesAboveDescriptionMatches() {
+        // Execute method under test
+        List<Routine> results = routineSearchIndex.search("pots", List.of(), TagMatch.ANY);
+
+        // Verify
+        assertEquals(LONG_POTS, results.get(0));
+    }
+
+    @Test
+    public void search_Should_ReturnRoutinesWithAllTags_When_TagMatchIsAll() {
+        // Execute method under test
+        List<Routine> results = routineSearchIndex.search("", List.of("break-building", "potting"), TagMatch.ALL);
+
+        // Verify
+        assertEquals(List.of(LINE_UP), results);
+    }
+
+    @Test
+    public void search_Should_ReturnRoutinesWithAnyTag_When_TagMatchIsAny() {
+        // Execute method under test
+        List<Routine> results = routineSearchIndex.search("", List.of("long", "break-building"), TagMatch.ANY);
+
+        // Verify
+        assertEquals(List.of(LONG_POTS, T_LINE_UP, LINE_UP), results);
+    }
+
+    @Test
+    public void search_Should_IncludeNewRoutine_When_RoutineCollectionChanged() {
+        // Define variables
+        Routine clearingColours = Routine.builder().id("4").title("Clearing the Colours").build();
+        routineSearchIndex.rebuild();
+
+        // Set mock expectations
+        when(mockRoutineRepository.findAll()).thenReturn(List.of(LINE_UP, T_LINE_UP, LONG_POTS, clearingColours));
+
+        // Execute method under test
+        routineSearchIndex.onCollectionChanged(new CollectionChangedEvent("routine", "4"));
+        List<Routine> results = routineSearchIndex.search("colours", List.of(), TagMatch.ANY);
+
+        // Verify
+        assertEquals(List.of(clearingColours), results);
+    }
+}
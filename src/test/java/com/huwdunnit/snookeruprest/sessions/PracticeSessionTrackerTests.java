@@ -0,0 +1,238 @@
+package com.huwdunnit.snookeruprest.sessions;
+
+import com.huwdunnit.snookeruprest.config.PracticeSessionProperties;
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.events.ScoreAddedEvent;
+import com.huwdunnit.snookeruprest.events.ScoresDeletedEvent;
+import com.huwdunnit.snookeruprest.model.PracticeSession;
+import com.huwdunnit.snookeruprest.model.PracticeSessionLock;
+import com.huwdunnit.snookeruprest.model.Score;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the PracticeSessionTracker class.
+ *
+ * @author Huwdunnit
+ */
+public class PracticeSessionTrackerTests {
+
+    private static final String PLAYER_ID = IdGenerator.createNewId();
+
+    private static final String ROUTINE_ID = IdGenerator.createNewId();
+
+    private static final LocalDateTime SCORE_DATE_TIME = LocalDateTime.of(2023, 3, 1, 18, 0);
+
+    private MongoTemplate mockMongoTemplate;
+
+    private PracticeSessionTracker practiceSessionTracker;
+
+    @BeforeEach
+    public void beforeEach() {
+        mockMongoTemplate = mock(MongoTemplate.class);
+        PracticeSessionProperties properties = new PracticeSessionProperties();
+        properties.setLockWait(Duration.ofMillis(100));
+
+        practiceSessionTracker = new PracticeSessionTracker(mockMongoTemplate, properties);
+
+        // By default, no other update has the lock on the user's sessions
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(PracticeSessionLock.class))).thenReturn(new PracticeSessionLock());
+    }
+
+    @Test
+    public void onScoreAdded_Should_StartSession_When_NoSessionWithinGap() {
+        // Set mock expectations
+        when(mockMongoTemplate.find(any(Query.class), eq(PracticeSession.class))).thenReturn(List.of());
+
+        // Execute method under test
+        practiceSessionTracker.onScoreAdded(new ScoreAddedEvent(getScore(SCORE_DATE_TIME)));
+
+        // Verify
+        ArgumentCaptor<PracticeSession> sessionCaptor = ArgumentCaptor.forClass(PracticeSession.class);
+        verify(mockMongoTemplate).insert(sessionCaptor.capture());
+        PracticeSession capturedSession = sessionCaptor.getValue();
+        assertEquals(PLAYER_ID, capturedSession.getUserId());
+        assertEquals(SCORE_DATE_TIME, capturedSession.getStartDateTime());
+        assertEquals(SCORE_DATE_TIME, capturedSession.getEndDateTime());
+        assertEquals(1, capturedSession.getScoreCount());
+        assertEquals(Set.of(ROUTINE_ID), capturedSession.getRoutineIds());
+    }
+
+    @Test
+    public void onScoreAdded_Should_ExtendSession_When_SessionWithinGap() {
+        // Define variables
+        PracticeSession session = getSession("session-1", SCORE_DATE_TIME.minusHours(1), SCORE_DATE_TIME.minusMinutes(10),
+                3);
+
+        // Set mock expectations
+        when(mockMongoTemplate.find(any(Query.class), eq(PracticeSession.class))).thenReturn(List.of(session));
+
+        // Execute method under test
+        practiceSessionTracker.onScoreAdded(new ScoreAddedEvent(getScore(SCORE_DATE_TIME)));
+
+        // Verify
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        verify(mockMongoTemplate).updateFirst(any(Query.class), updateCaptor.capture(), eq(PracticeSession.class));
+        Document updateObject = updateCaptor.getValue().getUpdateObject();
+        assertEquals(1, ((Document) updateObject.get("$inc")).get("scoreCount"));
+        assertEquals(SCORE_DATE_TIME, ((Document) updateObject.get("$max")).get("endDateTime"));
+        verify(mockMongoTemplate, never()).insert(any(PracticeSession.class));
+        verify(mockMongoTemplate, never()).remove(any(Query.class), eq(PracticeSession.class));
+    }
+
+    @Test
+    public void onScoreAdded_Should_MergeSessions_When_ScoreFillsGapBetweenThem() {
+        // Define variables
+        PracticeSession earlierSession = getSession("session-1", SCORE_DATE_TIME.minusHours(1),
+                SCORE_DATE_TIME.minusMinutes(20), 3);
+        PracticeSession laterSession = getSession("session-2", SCORE_DATE_TIME.plusMinutes(20),
+                SCORE_DATE_TIME.plusHours(1), 4);
+
+        // Set mock expectations
+        when(mockMongoTemplate.find(any(Query.class), eq(PracticeSession.class)))
+                .thenReturn(List.of(earlierSession, laterSession));
+
+        // Execute method under test
+        practiceSessionTracker.onScoreAdded(new ScoreAddedEvent(getScore(SCORE_DATE_TIME)));
+
+        // Verify
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        verify(mockMongoTemplate).updateFirst(any(Query.class), updateCaptor.capture(), eq(PracticeSession.class));
+        Document updateObject = updateCaptor.getValue().getUpdateObject();
+        assertEquals(5, ((Document) updateObject.get("$inc")).get("scoreCount"));
+        assertEquals(SCORE_DATE_TIME.plusHours(1), ((Document) updateObject.get("$max")).get("endDateTime"));
+        verify(mockMongoTemplate).remove(any(Query.class), eq(PracticeSession.class));
+    }
+
+    @Test
+    public void onScoreAdded_Should_UpdateSessionsWhileLocked() {
+        // Set mock expectations
+        when(mockMongoTemplate.find(any(Query.class), eq(PracticeSession.class))).thenReturn(List.of());
+
+        // Execute method under test
+        practiceSessionTracker.onScoreAdded(new ScoreAddedEvent(getScore(SCORE_DATE_TIME)));
+
+        // Verify
+        InOrder inOrder = inOrder(mockMongoTemplate);
+        ArgumentCaptor<Update> lockCaptor = ArgumentCaptor.forClass(Update.class);
+        inOrder.verify(mockMongoTemplate).findAndModify(any(Query.class), lockCaptor.capture(),
+                any(FindAndModifyOptions.class), eq(PracticeSessionLock.class));
+        inOrder.verify(mockMongoTemplate).find(any(Query.class), eq(PracticeSession.class));
+        inOrder.verify(mockMongoTemplate).insert(any(PracticeSession.class));
+        ArgumentCaptor<Query> unlockCaptor = ArgumentCaptor.forClass(Query.class);
+        inOrder.verify(mockMongoTemplate).updateFirst(unlockCaptor.capture(), any(Update.class),
+                eq(PracticeSessionLock.class));
+        Object lockOwner = ((Document) lockCaptor.getValue().getUpdateObject().get("$set")).get("lockOwner");
+        assertEquals(lockOwner, unlockCaptor.getValue().getQueryObject().get("lockOwner"),
+                "Expected unlock conditioned on the lock owner");
+    }
+
+    @Test
+    public void onScoreAdded_Should_WaitForLock_When_AnotherUpdateHasIt() {
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(PracticeSessionLock.class))).thenThrow(new DuplicateKeyException("Locked"))
+                .thenReturn(new PracticeSessionLock());
+        when(mockMongoTemplate.find(any(Query.class), eq(PracticeSession.class))).thenReturn(List.of());
+
+        // Execute method under test
+        practiceSessionTracker.onScoreAdded(new ScoreAddedEvent(getScore(SCORE_DATE_TIME)));
+
+        // Verify
+        verify(mockMongoTemplate, times(2)).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(PracticeSessionLock.class));
+        verify(mockMongoTemplate).insert(any(PracticeSession.class));
+    }
+
+    @Test
+    public void onScoreAdded_Should_ThrowIllegalStateException_When_LockNotFreedInTime() {
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(PracticeSessionLock.class))).thenThrow(new DuplicateKeyException("Locked"));
+
+        // Execute method under test
+        assertThrows(IllegalStateException.class,
+                () -> practiceSessionTracker.onScoreAdded(new ScoreAddedEvent(getScore(SCORE_DATE_TIME))));
+
+        // Verify
+        verify(mockMongoTemplate, never()).find(any(Query.class), eq(PracticeSession.class));
+        verify(mockMongoTemplate, never()).insert(any(PracticeSession.class));
+    }
+
+    @Test
+    public void onScoresDeleted_Should_ReduceScoreCounts_When_ScoresInSession() {
+        // Define variables
+        PracticeSession session = getSession("session-1", SCORE_DATE_TIME.minusHours(1), SCORE_DATE_TIME, 3);
+        BulkOperations mockBulkOperations = mock(BulkOperations.class);
+
+        // Set mock expectations
+        when(mockMongoTemplate.find(any(Query.class), eq(PracticeSession.class))).thenReturn(List.of(session));
+        when(mockMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PracticeSession.class))
+                .thenReturn(mockBulkOperations);
+
+        // Execute method under test
+        practiceSessionTracker.onScoresDeleted(new ScoresDeletedEvent(List.of(getScore(SCORE_DATE_TIME),
+                getScore(SCORE_DATE_TIME.minusMinutes(30)))));
+
+        // Verify
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        verify(mockBulkOperations).updateOne(any(Query.class), updateCaptor.capture());
+        assertEquals(-2, ((Document) updateCaptor.getValue().getUpdateObject().get("$inc")).get("scoreCount"));
+        verify(mockBulkOperations).execute();
+        // Remove the session if that's left it empty
+        verify(mockMongoTemplate).remove(any(Query.class), eq(PracticeSession.class));
+    }
+
+    @Test
+    public void onScoresDeleted_Should_DoNothing_When_ScoresNotInAnySession() {
+        // Set mock expectations
+        when(mockMongoTemplate.find(any(Query.class), eq(PracticeSession.class))).thenReturn(List.of());
+
+        // Execute method under test
+        practiceSessionTracker.onScoresDeleted(new ScoresDeletedEvent(List.of(getScore(SCORE_DATE_TIME))));
+
+        // Verify
+        verify(mockMongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(PracticeSession.class));
+        verify(mockMongoTemplate, never()).remove(any(Query.class), eq(PracticeSession.class));
+    }
+
+    private Score getScore(LocalDateTime dateTime) {
+        Score score = new Score();
+        score.setId(IdGenerator.createNewScoreId(PLAYER_ID));
+        score.setUserId(PLAYER_ID);
+        score.setRoutineId(ROUTINE_ID);
+        score.setDateTime(dateTime);
+        score.setValue(10);
+        return score;
+    }
+
+    private PracticeSession getSession(String id, LocalDateTime start, LocalDateTime end, int scoreCount) {
+        PracticeSession session = new PracticeSession();
+        session.setId(id);
+        session.setUserId(PLAYER_ID);
+        session.setStartDateTime(start);
+        session.setEndDateTime(end);
+        session.setScoreCount(scoreCount);
+        session.setRoutineIds(Set.of(ROUTINE_ID));
+        return session;
+    }
+}
@@ -0,0 +1,269 @@
+package com.huwdunnit.snookeruprest.sync;
+
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.db.ScoreChangeRepository;
+import com.huwdunnit.snookeruprest.events.ScoreAddedEvent;
+import com.huwdunnit.snookeruprest.events.ScoresDeletedEvent;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.ScoreChange;
+import com.huwdunnit.snookeruprest.model.ScoreChange.ChangeType;
+import com.huwdunnit.snookeruprest.model.ScoreChangeSequence;
+import com.huwdunnit.snookeruprest.model.ScoreChangesResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the ScoreChangeLog class.
+ *
+ * @author Huwdunnit
+ */
+public class ScoreChangeLogTests {
+
+    private static final String PLAYER_ID = IdGenerator.createNewId();
+
+    private static final int LIMIT = 10;
+
+    private static final LocalDateTime LONG_AGO = LocalDateTime.now().minusMinutes(10);
+
+    private MongoTemplate mockMongoTemplate;
+
+    private ScoreChangeRepository mockScoreChangeRepository;
+
+    private ScoreChangeLog scoreChangeLog;
+
+    @BeforeEach
+    public void beforeEach() {
+        mockMongoTemplate = mock(MongoTemplate.class);
+        mockScoreChangeRepository = mock(ScoreChangeRepository.class);
+        scoreChangeLog = new ScoreChangeLog(mockMongoTemplate, mockScoreChangeRepository);
+    }
+
+    @Test
+    public void getChangesSince_Should_ReturnChanges_When_NoGaps() {
+        // Set mock expectations
+        givenLatestSequence(4, LONG_AGO);
+        givenChangesAfter(2, getChange(3, LONG_AGO), getChange(4, LONG_AGO));
+
+        // Execute method under test
+        ScoreChangesResponse response = scoreChangeLog.getChangesSince(PLAYER_ID, Optional.of(2L), LIMIT);
+
+        // Verify
+        assertEquals(List.of(3L, 4L), getSequences(response));
+        assertEquals("4", response.getNextToken());
+        assertFalse(response.isHasMore());
+        assertFalse(response.isResyncRequired());
+    }
+
+    @Test
+    public void getChangesSince_Should_ReturnLimitAndHasMore_When_MoreChangesThanLimit() {
+        // Set mock expectations
+        givenLatestSequence(5, LONG_AGO);
+        when(mockScoreChangeRepository.findByUserIdAndSequenceGreaterThanOrderBySequence(PLAYER_ID, 2L,
+                PageRequest.of(0, 3))).thenReturn(List.of(getChange(3, LONG_AGO), getChange(4, LONG_AGO),
+                getChange(5, LONG_AGO)));
+
+        // Execute method under test
+        ScoreChangesResponse response = scoreChangeLog.getChangesSince(PLAYER_ID, Optional.of(2L), 2);
+
+        // Verify
+        assertEquals(List.of(3L, 4L), getSequences(response));
+        assertEquals("4", response.getNextToken());
+        assertTrue(response.isHasMore());
+        assertFalse(response.isResyncRequired());
+    }
+
+    @Test
+    public void getChangesSince_Should_HoldBackAtGap_When_EarlierChangeStillBeingWritten() {
+        // Set mock expectations
+        givenLatestSequence(5, LocalDateTime.now());
+        givenChangesAfter(2, getChange(3, LONG_AGO), getChange(5, LocalDateTime.now()));
+
+        // Execute method under test
+        ScoreChangesResponse response = scoreChangeLog.getChangesSince(PLAYER_ID, Optional.of(2L), LIMIT);
+
+        // Verify
+        assertEquals(List.of(3L), getSequences(response));
+        assertEquals("3", response.getNextToken());
+        assertFalse(response.isHasMore());
+        assertFalse(response.isResyncRequired());
+    }
+
+    @Test
+    public void getChangesSince_Should_ReturnNoChanges_When_NextChangeStillBeingWritten() {
+        // Set mock expectations
+        givenLatestSequence(3, LocalDateTime.now());
+        givenChangesAfter(2);
+
+        // Execute method under test
+        ScoreChangesResponse response = scoreChangeLog.getChangesSince(PLAYER_ID, Optional.of(2L), LIMIT);
+
+        // Verify
+        assertTrue(response.getChanges().isEmpty());
+        assertEquals("2", response.getNextToken());
+        assertFalse(response.isResyncRequired());
+    }
+
+    @Test
+    public void getChangesSince_Should_RequireResync_When_AllChangesSinceTokenExpired() {
+        // Set mock expectations
+        givenLatestSequence(4, LONG_AGO);
+        givenChangesAfter(2);
+
+        // Execute method under test
+        ScoreChangesResponse response = scoreChangeLog.getChangesSince(PLAYER_ID, Optional.of(2L), LIMIT);
+
+        // Verify
+        assertTrue(response.getChanges().isEmpty());
+        assertEquals("4", response.getNextToken());
+        assertTrue(response.isResyncRequired());
+    }
+
+    @Test
+    public void getChangesSince_Should_RequireResync_When_NextChangeMissingForLongerThanGrace() {
+        // Set mock expectations
+        givenLatestSequence(5, LONG_AGO);
+        givenChangesAfter(2, getChange(4, LONG_AGO), getChange(5, LONG_AGO));
+
+        // Execute method under test
+        ScoreChangesResponse response = scoreChangeLog.getChangesSince(PLAYER_ID, Optional.of(2L), LIMIT);
+
+        // Verify
+        assertTrue(response.getChanges().isEmpty());
+        assertEquals("5", response.getNextToken());
+        assertTrue(response.isResyncRequired());
+    }
+
+    @Test
+    public void getChangesSince_Should_RequireResync_When_TokenAfterLatestChange() {
+        // Set mock expectations
+        when(mockMongoTemplate.findById(PLAYER_ID, ScoreChangeSequence.class)).thenReturn(null);
+
+        // Execute method under test
+        ScoreChangesResponse response = scoreChangeLog.getChangesSince(PLAYER_ID, Optional.of(7L), LIMIT);
+
+        // Verify
+        assertEquals("0", response.getNextToken());
+        assertTrue(response.isResyncRequired());
+        verifyNoInteractions(mockScoreChangeRepository);
+    }
+
+    @Test
+    public void onScoreAdded_Should_RecordChangeWithReservedSequence() {
+        // Define variables
+        Score score = new Score();
+        score.setId(IdGenerator.createNewId());
+        score.setUserId(PLAYER_ID);
+        ScoreChangeSequence changeSequence = new ScoreChangeSequence();
+        changeSequence.setId(PLAYER_ID);
+        changeSequence.setSequence(7);
+
+        // Set mock expectations
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScoreChangeSequence.class))).thenReturn(changeSequence);
+
+        // Execute method under test
+        scoreChangeLog.onScoreAdded(new ScoreAddedEvent(score));
+
+        // Verify
+        verify(mockScoreChangeRepository).insert(argThat((List<ScoreChange> changes) -> changes.size() == 1
+                && changes.get(0).getSequence() == 7
+                && changes.get(0).getType() == ChangeType.ADDED
+                && score.getId().equals(changes.get(0).getScoreId())));
+    }
+
+    @Test
+    public void onScoresDeleted_Should_RetryOnlyChangesNotInserted_When_InsertFails() {
+        // Define variables
+        Score firstScore = getScore();
+        Score secondScore = getScore();
+        ScoreChange insertedChange = getChange(6, LocalDateTime.now());
+
+        // Set mock expectations
+        givenReservedSequence(7);
+        when(mockScoreChangeRepository.insert(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("Connection reset"))
+                .thenReturn(List.of());
+        when(mockMongoTemplate.find(any(Query.class), eq(ScoreChange.class))).thenReturn(List.of(insertedChange));
+
+        // Execute method under test
+        scoreChangeLog.onScoresDeleted(new ScoresDeletedEvent(List.of(firstScore, secondScore)));
+
+        // Verify
+        verify(mockScoreChangeRepository).insert(argThat((List<ScoreChange> changes) -> changes.size() == 2));
+        verify(mockScoreChangeRepository).insert(argThat((List<ScoreChange> changes) -> changes.size() == 1
+                && changes.get(0).getSequence() == 7
+                && secondScore.getId().equals(changes.get(0).getScoreId())));
+    }
+
+    @Test
+    public void onScoreAdded_Should_ThrowException_When_InsertFailsOnEveryAttempt() {
+        // Set mock expectations
+        givenReservedSequence(7);
+        when(mockScoreChangeRepository.insert(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("Connection reset"));
+
+        // Execute method under test
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> scoreChangeLog.onScoreAdded(new ScoreAddedEvent(getScore())));
+
+        // Verify
+        verify(mockScoreChangeRepository, times(ScoreChangeLog.MAX_INSERT_ATTEMPTS)).insert(anyList());
+    }
+
+    private Score getScore() {
+        Score score = new Score();
+        score.setId(IdGenerator.createNewId());
+        score.setUserId(PLAYER_ID);
+        return score;
+    }
+
+    private void givenReservedSequence(long lastSequence) {
+        ScoreChangeSequence changeSequence = new ScoreChangeSequence();
+        changeSequence.setId(PLAYER_ID);
+        changeSequence.setSequence(lastSequence);
+        when(mockMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ScoreChangeSequence.class))).thenReturn(changeSequence);
+    }
+
+    private void givenLatestSequence(long sequence, LocalDateTime updatedAt) {
+        ScoreChangeSequence changeSequence = new ScoreChangeSequence();
+        changeSequence.setId(PLAYER_ID);
+        changeSequence.setSequence(sequence);
+        changeSequence.setUpdatedAt(updatedAt);
+        when(mockMongoTemplate.findById(PLAYER_ID, ScoreChangeSequence.class)).thenReturn(changeSequence);
+    }
+
+    private void givenChangesAfter(long sequence, ScoreChange... changes) {
+        when(mockScoreChangeRepository.findByUserIdAndSequenceGreaterThanOrderBySequence(PLAYER_ID, sequence,
+                PageRequest.of(0, LIMIT + 1))).thenReturn(Arrays.asList(changes));
+    }
+
+    private ScoreChange getChange(long sequence, LocalDateTime changedAt) {
+        ScoreChange change = new ScoreChange();
+        change.setUserId(PLAYER_ID);
+        change.setSequence(sequence);
+        change.setType(ChangeType.DELETED);
+        change.setScoreId(IdGenerator.createNewId());
+        change.setChangedAt(changedAt);
+        return change;
+    }
+
+    private List<Long> getSequences(ScoreChangesResponse response) {
+        return response.getChanges().stream().map(ScoreChange::getSequence).toList();
+    }
+}
@@ -0,0 +1,156 @@
+package com.huwdunnit.snookeruprest.trend;
+
+import com.huwdunnit.snookeruprest.model.ScoreTrend;
+import com.huwdunnit.snookeruprest.model.ScoreTrendPoint;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ScoreTrendCalculator class.
+ *
+ * @author Huwdunnit
+ */
+public class ScoreTrendCalculatorTests {
+
+    private static final double DELTA = 0.0001;
+
+    @Test
+    public void getTrends_Should_GroupScoresByDay_When_DailyInterval() {
+        // Define variables
+        ScoreTrendCalculator calculator = new ScoreTrendCalculator(TrendInterval.DAY, 7);
+
+        // Execute method under test
+        addScore(calculator, LocalDateTime.of(2023, 3, 1, 9, 0), 10);
+        addScore(calculator, LocalDateTime.of(2023, 3, 1, 18, 0), 20);
+        addScore(calculator, LocalDateTime.of(2023, 3, 3, 9, 0), 30);
+        List<ScoreTrend> trends = calculator.getTrends();
+
+        // Verify
+        assertEquals(1, trends.size());
+        ScoreTrend trend = trends.get(0);
+        assertEquals(3, trend.getScoreCount());
+        assertEquals(20, trend.getAverage(), DELTA);
+        assertEquals(30, trend.getBest());
+        assertEquals(LocalDateTime.of(2023, 3, 1, 9, 0), trend.getFirstDateTime());
+        assertEquals(LocalDateTime.of(2023, 3, 3, 9, 0), trend.getLastDateTime());
+
+        List<ScoreTrendPoint> points = trend.getPoints();
+        assertEquals(2, points.size());
+        assertEquals(new ScoreTrendPoint(LocalDate.of(2023, 3, 1), 2, 15, 20, 15, 20, 20), points.get(0));
+        assertEquals(new ScoreTrendPoint(LocalDate.of(2023, 3, 3), 1, 30, 30, 20, 30, 30), points.get(1));
+    }
+
+    @Test
+    public void getTrends_Should_GroupScoresByWeekStartingMonday_When_WeeklyInterval() {
+        // Define variables
+        ScoreTrendCalculator calculator = new ScoreTrendCalculator(TrendInterval.WEEK, 4);
+
+        // Execute method under test (6th March 2023 was a Monday)
+        addScore(calculator, LocalDateTime.of(2023, 3, 6, 9, 0), 10);
+        addScore(calculator, LocalDateTime.of(2023, 3, 12, 23, 0), 20);
+        addScore(calculator, LocalDateTime.of(2023, 3, 13, 0, 0), 40);
+        List<ScoreTrend> trends = calculator.getTrends();
+
+        // Verify
+        List<ScoreTrendPoint> points = trends.get(0).getPoints();
+        assertEquals(2, points.size());
+        assertEquals(LocalDate.of(2023, 3, 6), points.get(0).getPeriodStart());
+        assertEquals(2, points.get(0).getScoreCount());
+        assertEquals(LocalDate.of(2023, 3, 13), points.get(1).getPeriodStart());
+        assertEquals(1, points.get(1).getScoreCount());
+    }
+
+    @Test
+    public void getTrends_Should_DropOldPeriodsFromRollingWindow_When_WindowMovesPastThem() {
+        // Define variables
+        ScoreTrendCalculator calculator = new ScoreTrendCalculator(TrendInterval.DAY, 3);
+
+        // Execute method under test
+        addScore(calculator, LocalDateTime.of(2023, 3, 1, 9, 0), 50);
+        addScore(calculator, LocalDateTime.of(2023, 3, 2, 9, 0), 10);
+        addScore(calculator, LocalDateTime.of(2023, 3, 3, 9, 0), 20);
+        addScore(calculator, LocalDateTime.of(2023, 3, 4, 9, 0), 30);
+        List<ScoreTrend> trends = calculator.getTrends();
+
+        // Verify
+        List<ScoreTrendPoint> points = trends.get(0).getPoints();
+        assertEquals(4, points.size());
+        // Window for the 3rd is the 1st to the 3rd
+        assertEquals(80 / 3.0, points.get(2).getRollingAverage(), DELTA);
+        assertEquals(50, points.get(2).getRollingBest());
+        // Window for the 4th is the 2nd to the 4th, so no longer includes the 50
+        assertEquals(20, points.get(3).getRollingAverage(), DELTA);
+        assertEquals(30, points.get(3).getRollingBest());
+        assertEquals(50, points.get(3).getBestToDate());
+    }
+
+    @Test
+    public void getTrends_Should_ReturnPositiveSlope_When_ScoresImproving() {
+        // Define variables
+        ScoreTrendCalculator calculator = new ScoreTrendCalculator(TrendInterval.DAY, 7);
+
+        // Execute method under test (scores go up by 2 a day)
+        for (int day = 0; day < 10; day++) {
+            addScore(calculator, LocalDateTime.of(2023, 3, 1, 12, 0).plusDays(day), 5 + day * 2);
+        }
+        List<ScoreTrend> trends = calculator.getTrends();
+
+        // Verify
+        assertEquals(2.0, trends.get(0).getSlopePerDay(), DELTA);
+    }
+
+    @Test
+    public void getTrends_Should_ReturnNullSlope_When_AllScoresAtSameTime() {
+        // Define variables
+        ScoreTrendCalculator calculator = new ScoreTrendCalculator(TrendInterval.DAY, 7);
+
+        // Execute method under test
+        addScore(calculator, LocalDateTime.of(2023, 3, 1, 12, 0), 5);
+        addScore(calculator, LocalDateTime.of(2023, 3, 1, 12, 0), 8);
+        List<ScoreTrend> trends = calculator.getTrends();
+
+        // Verify
+        assertNull(trends.get(0).getSlopePerDay());
+    }
+
+    @Test
+    public void getTrends_Should_ReturnTrendPerConfiguration_When_ScoresOnDifferentConfigurations() {
+        // Define variables
+        ScoreTrendCalculator calculator = new ScoreTrendCalculator(TrendInterval.DAY, 7);
+
+        // Execute method under test
+        calculator.add(LocalDateTime.of(2023, 3, 1, 9, 0), 10, 3, null, null, false);
+        calculator.add(LocalDateTime.of(2023, 3, 1, 10, 0), 4, null, "blues", 10, true);
+        calculator.add(LocalDateTime.of(2023, 3, 2, 9, 0), 12, 3, null, null, false);
+        List<ScoreTrend> trends = calculator.getTrends();
+
+        // Verify
+        assertEquals(2, trends.size());
+        assertEquals(3, trends.get(0).getCushionLimit());
+        assertEquals(2, trends.get(0).getScoreCount());
+        assertEquals("blues", trends.get(1).getColours());
+        assertEquals(10, trends.get(1).getNumBalls());
+        assertTrue(trends.get(1).isLoop());
+        assertEquals(1, trends.get(1).getScoreCount());
+    }
+
+    @Test
+    public void add_Should_ThrowIllegalArgumentException_When_ScoresOutOfOrder() {
+        // Define variables
+        ScoreTrendCalculator calculator = new ScoreTrendCalculator(TrendInterval.DAY, 7);
+        addScore(calculator, LocalDateTime.of(2023, 3, 2, 9, 0), 10);
+
+        // Execute method under test
+        assertThrows(IllegalArgumentException.class,
+                () -> addScore(calculator, LocalDateTime.of(2023, 3, 1, 9, 0), 10));
+    }
+
+    private void addScore(ScoreTrendCalculator calculator, LocalDateTime dateTime, int value) {
+        calculator.add(dateTime, value, null, null, null, false);
+    }
+}
@@ -0,0 +1,104 @@
+package com.huwdunnit.snookeruprest.trend;
+
+import com.huwdunnit.snookeruprest.archive.ScoreArchive;
+import com.huwdunnit.snookeruprest.db.IdGenerator;
+import com.huwdunnit.snookeruprest.model.Score;
+import com.huwdunnit.snookeruprest.model.ScorePage;
+import com.huwdunnit.snookeruprest.model.ScoreTrend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ScoreTrendService class.
+ *
+ * @author Huwdunnit
+ */
+public class ScoreTrendServiceTests {
+
+    private static final String PLAYER_ID = IdGenerator.createNewId();
+
+    private static final String ROUTINE_ID = IdGenerator.createNewId();
+
+    private MongoTemplate mockMongoTemplate;
+
+    private ScoreArchive mockScoreArchive;
+
+    private ScoreTrendService scoreTrendService;
+
+    @BeforeEach
+    public void beforeEach() {
+        mockMongoTemplate = mock(MongoTemplate.class);
+        mockScoreArchive = mock(ScoreArchive.class);
+        scoreTrendService = new ScoreTrendService(mockMongoTemplate, mockScoreArchive);
+    }
+
+    @Test
+    public void getTrends_Should_MergeArchivedMonthsAndLiveScoresInOrder_When_QueryReachesIntoArchive() {
+        // Define variables
+        ScorePage january = ScorePage.of(List.of(getScore(LocalDateTime.of(2024, 1, 5, 9, 0), 10),
+                getScore(LocalDateTime.of(2024, 1, 20, 9, 0), 20)));
+        // A month not yet archived when the next one was, so it overlaps with scores in the DB
+        ScorePage march = ScorePage.of(List.of(getScore(LocalDateTime.of(2024, 3, 10, 9, 0), 40)));
+        List<Score> liveScores = List.of(getScore(LocalDateTime.of(2024, 3, 1, 9, 0), 30),
+                getScore(LocalDateTime.of(2024, 4, 1, 9, 0), 50));
+
+        // Set mock expectations
+        when(mockScoreArchive.reachesIntoArchive(Optional.empty())).thenReturn(true);
+        when(mockScoreArchive.findScoresByMonth(PLAYER_ID, Optional.empty(), Optional.empty(), Optional.of(ROUTINE_ID),
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty()))
+                .thenReturn(List.of(january, ScorePage.empty(), march).iterator());
+        when(mockMongoTemplate.stream(any(Query.class), eq(Score.class))).thenReturn(liveScores.stream());
+
+        // Execute method under test
+        List<ScoreTrend> trends = scoreTrendService.getTrends(PLAYER_ID, ROUTINE_ID, Optional.empty(),
+                Optional.empty(), TrendInterval.DAY, 7);
+
+        // Verify
+        assertEquals(1, trends.size());
+        ScoreTrend trend = trends.get(0);
+        assertEquals(5, trend.getScoreCount());
+        assertEquals(50, trend.getBest());
+        assertEquals(LocalDateTime.of(2024, 1, 5, 9, 0), trend.getFirstDateTime());
+        assertEquals(LocalDateTime.of(2024, 4, 1, 9, 0), trend.getLastDateTime());
+    }
+
+    @Test
+    public void getTrends_Should_OnlyReadLiveScores_When_QueryAfterArchiveCutoff() {
+        // Define variables
+        Optional<LocalDateTime> from = Optional.of(LocalDateTime.of(2024, 3, 1, 0, 0));
+
+        // Set mock expectations
+        when(mockScoreArchive.reachesIntoArchive(from)).thenReturn(false);
+        when(mockMongoTemplate.stream(any(Query.class), eq(Score.class)))
+                .thenReturn(Stream.of(getScore(LocalDateTime.of(2024, 3, 1, 9, 0), 30)));
+
+        // Execute method under test
+        List<ScoreTrend> trends = scoreTrendService.getTrends(PLAYER_ID, ROUTINE_ID, from, Optional.empty(),
+                TrendInterval.DAY, 7);
+
+        // Verify
+        assertEquals(1, trends.get(0).getScoreCount());
+        verify(mockScoreArchive, never()).findScoresByMonth(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    private Score getScore(LocalDateTime dateTime, int value) {
+        Score score = new Score();
+        score.setId(IdGenerator.createNewScoreId(PLAYER_ID));
+        score.setUserId(PLAYER_ID);
+        score.setRoutineId(ROUTINE_ID);
+        score.setValue(value);
+        score.setDateTime(dateTime);
+        return score;
+    }
+}